@@ -0,0 +1,80 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import netscape.javascript.JSObject;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Line splitting in {@link ClipboardBridge#copy(JSObject)} and {@link ClipboardBridge#paste(JSObject, JSObject)}.
+ * <p>
+ * Uses mocked {@link JSObject}s like {@code ClipboardBridgeTest}; mocks are stub-only so that
+ * invocation recording does not pollute the measurement.
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar ClipboardBridgeBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClipboardBridgeBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int lines;
+
+    private ClipboardBridge bridge;
+    private JSObject selection;
+    private JSObject position;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder(lines * 40);
+        for (int i = 1; i <= lines; i++) {
+            sb.append("    int value").append(i).append(" = compute(").append(i).append(");\n");
+        }
+        String text = sb.toString();
+
+        Document document = Mockito.mock(Document.class, withSettings().stubOnly());
+        when(document.getText()).thenReturn(text);
+
+        SystemClipboardWrapper clipboard = Mockito.mock(SystemClipboardWrapper.class, withSettings().stubOnly());
+        when(clipboard.hasString()).thenReturn(true);
+        when(clipboard.getString()).thenReturn("pasted text\nspanning two lines");
+
+        // ten line selection in the middle of the document
+        int mid = lines / 2;
+        selection = Mockito.mock(JSObject.class, withSettings().stubOnly());
+        when(selection.getMember("startLineNumber")).thenReturn(mid);
+        when(selection.getMember("startColumn")).thenReturn(5);
+        when(selection.getMember("endLineNumber")).thenReturn(mid + 10);
+        when(selection.getMember("endColumn")).thenReturn(12);
+
+        position = Mockito.mock(JSObject.class, withSettings().stubOnly());
+        when(position.getMember("lineNumber")).thenReturn(mid);
+        when(position.getMember("column")).thenReturn(5);
+
+        bridge = new ClipboardBridge(document, clipboard);
+    }
+
+    @Benchmark
+    public void copy() {
+        bridge.copy(selection);
+    }
+
+    @Benchmark
+    public JSObject paste() {
+        return bridge.paste(selection, position);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CompletionIndex} queries against a linear scan, the way providers are typically written.
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar CompletionIndexBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class CompletionIndexBenchmark {
+
+    private static final String[] WORDS = {
+            "get", "set", "is", "create", "build", "parse", "read", "write", "buffer", "stream",
+            "node", "tree", "list", "map", "value", "key", "index", "cache", "item", "token",
+            "document", "editor", "model", "range", "provider", "request", "result", "handler"
+    };
+
+    @Param({"1000000"})
+    int symbols;
+
+    @Param({"100"})
+    int k;
+
+    private CompletionIndex index;
+    private String[] labels;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        labels = new String[symbols];
+        CompletionIndex.Builder builder = CompletionIndex.builder();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < symbols; i++) {
+            sb.setLength(0);
+            int parts = 2 + random.nextInt(3);
+            for (int p = 0; p < parts; p++) {
+                String w = WORDS[random.nextInt(WORDS.length)];
+                sb.append(p == 0 ? w : Character.toUpperCase(w.charAt(0)) + w.substring(1));
+            }
+            sb.append(i);
+            labels[i] = sb.toString();
+            builder.add(labels[i], CompletionItem.CompletionItemKind.METHOD);
+        }
+        index = builder.build();
+    }
+
+    @Benchmark
+    public List<CompletionItem> prefix() {
+        return index.search("getBuf", k);
+    }
+
+    @Benchmark
+    public List<CompletionItem> camelHumps() {
+        return index.search("gbs", k);
+    }
+
+    @Benchmark
+    public List<CompletionItem> fuzzy() {
+        return index.search("gtbfrstr", k);
+    }
+
+    @Benchmark
+    public List<CompletionItem> linearScan() {
+        List<CompletionItem> items = new ArrayList<>();
+        for (String label : labels) {
+            if (label.regionMatches(true, 0, "getBuf", 0, 6)) {
+                items.add(CompletionItem.builder().label(label)
+                        .kind(CompletionItem.CompletionItemKind.METHOD).build());
+            }
+        }
+        return items.size() > k ? items.subList(0, k) : items;
+    }
+}
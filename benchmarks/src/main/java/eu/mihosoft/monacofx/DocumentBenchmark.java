@@ -0,0 +1,44 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Work done by {@link Document} on every content change reported by Monaco.
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar DocumentBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DocumentBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    int lines;
+
+    private String text;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder(lines * 40);
+        for (int i = 1; i <= lines; i++) {
+            sb.append("    int value").append(i).append(" = compute(").append(i).append(");\n");
+        }
+        text = sb.toString();
+    }
+
+    @Benchmark
+    public int countLines() {
+        return Document.countLines(text);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Java-side serialization done on the FX thread before data crosses the bridge:
+ * {@code toMap()} followed by Gson, exactly as the services do it.
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar SerializationBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private static final Gson GSON = new GsonBuilder().create();
+
+    @Param({"10", "1000", "10000"})
+    int count;
+
+    private Decoration[] decorations;
+    private Marker[] markers;
+    private List<CompletionItem> completionItems;
+    private EditorOptions options;
+
+    @Setup
+    public void setup() {
+        decorations = new Decoration[count];
+        markers = new Marker[count];
+        completionItems = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            int line = i + 1;
+            decorations[i] = Decoration.builder()
+                    .range(line, 1, line, 40)
+                    .className("squiggly-error")
+                    .inlineClassName("error-text")
+                    .hoverMessage("Undefined variable 'value" + i + "'")
+                    .build();
+
+            markers[i] = Marker.builder()
+                    .severity(i % 2 == 0 ? Marker.MarkerSeverity.ERROR : Marker.MarkerSeverity.WARNING)
+                    .message("Problem number " + i + " found by the linter")
+                    .range(line, 5, line, 25)
+                    .source("benchmark")
+                    .code("E" + i)
+                    .build();
+
+            completionItems.add(CompletionItem.builder()
+                    .label("symbolName" + i)
+                    .kind(CompletionItem.CompletionItemKind.METHOD)
+                    .insertText("symbolName" + i + "($1)")
+                    .isSnippet(true)
+                    .detail("int symbolName" + i + "(String arg)")
+                    .documentation("Documentation for **symbolName" + i + "** spanning a few words.")
+                    .sortText(String.format("%08d", i))
+                    .build());
+        }
+
+        options = EditorOptions.builder()
+                .fontSize(14)
+                .minimap(true)
+                .minimapShowRegionSectionHeaders(true)
+                .stickyScroll(true)
+                .stickyScrollMaxLineCount(5)
+                .bracketPairColorization(true)
+                .smoothScrolling(true)
+                .cursorBlinking(EditorOptions.CursorBlinking.SMOOTH)
+                .renderLineHighlight(EditorOptions.RenderLineHighlight.ALL)
+                .build();
+    }
+
+    /** Mirrors {@link DecorationsService#addDecorations(Decoration...)}. */
+    @Benchmark
+    public String decorationsToJson() {
+        List<Map<String, Object>> list = new ArrayList<>();
+        for (Decoration d : decorations) {
+            list.add(d.toMap());
+        }
+        return GSON.toJson(list);
+    }
+
+    /** Mirrors {@link MarkersService#setMarkers(String, Marker...)}. */
+    @Benchmark
+    public String markersToJson() {
+        List<Map<String, Object>> list = new ArrayList<>();
+        for (Marker m : markers) {
+            list.add(m.toMap());
+        }
+        return GSON.toJson(list);
+    }
+
+    /** Builds the {@code {suggestions: [...]}} payload Monaco expects from a completion provider. */
+    @Benchmark
+    public String completionItemsToJson() {
+        List<Map<String, Object>> list = new ArrayList<>(completionItems.size());
+        for (CompletionItem item : completionItems) {
+            list.add(item.toMap());
+        }
+        return GSON.toJson(Map.of("suggestions", list));
+    }
+
+    @Benchmark
+    public String editorOptionsToJson() {
+        return options.toJson();
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Script generation for {@code monaco.editor.defineTheme(...)}.
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar ThemeBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ThemeBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int rules;
+
+    private EditorTheme theme;
+    private Rule rule;
+
+    @Setup
+    public void setup() {
+        Rule[] r = new Rule[rules];
+        for (int i = 0; i < rules; i++) {
+            r[i] = new Rule("token.type" + i, "ff00" + Integer.toHexString(i % 16) + "0", "1e1e1e",
+                    null, null, i % 3 == 0 ? "italic" : null);
+        }
+        theme = new EditorTheme("benchmark-theme", "vs-dark", true, r);
+        rule = r[0];
+    }
+
+    @Benchmark
+    public String themeToJS() {
+        return theme.toJS();
+    }
+
+    @Benchmark
+    public String ruleToJS() {
+        return rule.toJS();
+    }
+}
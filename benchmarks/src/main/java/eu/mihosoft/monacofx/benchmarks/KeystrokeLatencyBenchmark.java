@@ -0,0 +1,266 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx.benchmarks;
+
+import eu.mihosoft.monacofx.Document;
+import eu.mihosoft.monacofx.MonacoFX;
+import javafx.animation.PauseTransition;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.scene.Scene;
+import javafx.scene.layout.StackPane;
+import javafx.scene.web.WebEngine;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * End-to-end latency harness for a single typed character.
+ * <p>
+ * Each keystroke is synthesized inside Monaco ({@code editorView.trigger('keyboard', 'type', ...)})
+ * and travels the same path as a real key press:
+ * Monaco edit &rarr; {@code onDidChangeModelContent} &rarr; {@code contentChangeListener}
+ * &rarr; {@link Document#textProperty()} &rarr; user listeners.
+ * <p>
+ * Two latencies are reported per keystroke:
+ * <ul>
+ *     <li><b>notify</b>: from triggering the edit until a user listener on the document text fires</li>
+ *     <li><b>total</b>: from triggering the edit until control returns to Java (includes Monaco's own work)</li>
+ * </ul>
+ * Allocation is measured on the JavaFX application thread for the same span as <b>total</b>.
+ *
+ * <pre>
+ * mvn install -DskipTests
+ * mvn -f benchmarks/pom.xml javafx:run -Djavafx.args="--lines=1000,10000,100000,1000000 --keystrokes=500 --warmup=100"
+ * </pre>
+ */
+public class KeystrokeLatencyBenchmark extends Application {
+
+    private static final int[] DEFAULT_LINES = {1_000, 10_000, 100_000, 1_000_000};
+    private static final int DEFAULT_KEYSTROKES = 500;
+    private static final int DEFAULT_WARMUP = 100;
+    private static final long READY_TIMEOUT_MILLIS = 60_000;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private int[] lineCounts = DEFAULT_LINES;
+    private int keystrokes = DEFAULT_KEYSTROKES;
+    private int warmup = DEFAULT_WARMUP;
+
+    private Stage stage;
+    private final List<Result> results = new ArrayList<>();
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+
+    @Override
+    public void start(Stage primaryStage) {
+        parseArgs(getParameters().getRaw());
+        this.stage = primaryStage;
+        stage.setTitle("MonacoFX Keystroke Latency Benchmark");
+        stage.setScene(new Scene(new StackPane(), 1000, 700));
+        stage.show();
+
+        runSize(0);
+    }
+
+    private void parseArgs(List<String> args) {
+        for (String arg : args) {
+            if (arg.startsWith("--lines=")) {
+                lineCounts = Arrays.stream(arg.substring("--lines=".length()).split(","))
+                        .map(String::trim)
+                        .mapToInt(Integer::parseInt)
+                        .toArray();
+            } else if (arg.startsWith("--keystrokes=")) {
+                keystrokes = Integer.parseInt(arg.substring("--keystrokes=".length()));
+            } else if (arg.startsWith("--warmup=")) {
+                warmup = Integer.parseInt(arg.substring("--warmup=".length()));
+            } else {
+                throw new IllegalArgumentException("Unknown argument: " + arg
+                        + " (expected --lines=a,b,c --keystrokes=n --warmup=n)");
+            }
+        }
+    }
+
+    private void runSize(int index) {
+        if (index >= lineCounts.length) {
+            printResults();
+            Platform.exit();
+            return;
+        }
+
+        int lines = lineCounts[index];
+        System.out.println("Preparing document with " + lines + " lines...");
+
+        MonacoFX monacoFX = new MonacoFX();
+        stage.getScene().setRoot(new StackPane(monacoFX));
+
+        long deadline = System.currentTimeMillis() + READY_TIMEOUT_MILLIS;
+        whenReady(monacoFX, deadline, () -> {
+            monacoFX.getEditor().getDocument().setText(generateDocument(lines));
+            engine(monacoFX).executeScript("setCursorPosition(" + (lines / 2) + ", " + Integer.MAX_VALUE + ")");
+            System.gc();
+
+            Run run = new Run(monacoFX, lines);
+            Platform.runLater(() -> keystroke(run, 0, () -> {
+                results.add(run.toResult());
+                run.detach();
+                Platform.runLater(() -> runSize(index + 1));
+            }));
+        });
+    }
+
+    /**
+     * The editor is wired once {@code contentChangeListener} has been published to the page.
+     */
+    private void whenReady(MonacoFX monacoFX, long deadline, Runnable action) {
+        Object wired = engine(monacoFX).executeScript(
+                "typeof contentChangeListener !== 'undefined' && contentChangeListener !== null");
+        if (Boolean.TRUE.equals(wired)) {
+            action.run();
+            return;
+        }
+        if (System.currentTimeMillis() > deadline) {
+            throw new IllegalStateException("Editor did not become ready in time");
+        }
+        PauseTransition pause = new PauseTransition(Duration.millis(100));
+        pause.setOnFinished(e -> whenReady(monacoFX, deadline, action));
+        pause.play();
+    }
+
+    /**
+     * Types one character and schedules the next keystroke, so the FX thread can
+     * process pulses (rendering, GC-friendly idle time) in between.
+     */
+    private void keystroke(Run run, int i, Runnable done) {
+        if (i >= warmup + keystrokes) {
+            done.run();
+            return;
+        }
+
+        String ch = (i % 8 == 7) ? " " : "x";
+        run.notifyNanos = -1;
+
+        long allocStart = THREADS.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        run.engine.executeScript("editorView.trigger('keyboard', 'type', {text: '" + ch + "'})");
+        long end = System.nanoTime();
+        long allocEnd = THREADS.getCurrentThreadAllocatedBytes();
+
+        if (i >= warmup) {
+            int sample = i - warmup;
+            run.notifyLatency[sample] = run.notifyNanos < 0 ? -1 : run.notifyNanos - start;
+            run.totalLatency[sample] = end - start;
+            run.allocated[sample] = allocEnd - allocStart;
+        }
+
+        Platform.runLater(() -> keystroke(run, i + 1, done));
+    }
+
+    @SuppressWarnings("deprecation")
+    private static WebEngine engine(MonacoFX monacoFX) {
+        return monacoFX.getWebEngine();
+    }
+
+    private static String generateDocument(int lines) {
+        StringBuilder sb = new StringBuilder(lines * 48);
+        for (int i = 1; i <= lines; i++) {
+            sb.append("    int value").append(i).append(" = compute(").append(i).append("); // line ").append(i);
+            if (i < lines) {
+                sb.append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    private void printResults() {
+        System.out.println();
+        System.out.printf("%-10s %8s %12s %12s %12s %12s %12s %14s%n",
+                "lines", "samples", "notify p50", "notify p99", "total p50", "total p99", "total max", "alloc/key");
+        for (Result r : results) {
+            System.out.printf("%-10d %8d %10.1fus %10.1fus %10.1fus %10.1fus %10.1fus %12.1fKB%n",
+                    r.lines, r.samples,
+                    r.notifyP50 / 1_000.0, r.notifyP99 / 1_000.0,
+                    r.totalP50 / 1_000.0, r.totalP99 / 1_000.0, r.totalMax / 1_000.0,
+                    r.meanAllocated / 1024.0);
+            if (r.missed > 0) {
+                System.out.println("  warning: " + r.missed + " keystrokes did not reach the document listener");
+            }
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int idx = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, idx))];
+    }
+
+    /**
+     * State of one benchmark run (one document size).
+     */
+    private final class Run {
+        final MonacoFX monacoFX;
+        final WebEngine engine;
+        final int lines;
+        final long[] notifyLatency = new long[keystrokes];
+        final long[] totalLatency = new long[keystrokes];
+        final long[] allocated = new long[keystrokes];
+        final InvalidationListener listener;
+        long notifyNanos;
+
+        Run(MonacoFX monacoFX, int lines) {
+            this.monacoFX = monacoFX;
+            this.engine = engine(monacoFX);
+            this.lines = lines;
+            // stands in for a user listener
+            this.listener = ov -> notifyNanos = System.nanoTime();
+            monacoFX.getEditor().getDocument().textProperty().addListener(listener);
+        }
+
+        void detach() {
+            monacoFX.getEditor().getDocument().textProperty().removeListener(listener);
+            stage.getScene().setRoot(new StackPane());
+            monacoFX.dispose();
+        }
+
+        Result toResult() {
+            long[] notify = Arrays.stream(notifyLatency).filter(v -> v >= 0).sorted().toArray();
+            long[] total = totalLatency.clone();
+            Arrays.sort(total);
+            Result r = new Result();
+            r.lines = lines;
+            r.samples = total.length;
+            r.missed = total.length - notify.length;
+            r.notifyP50 = percentile(notify, 0.50);
+            r.notifyP99 = percentile(notify, 0.99);
+            r.totalP50 = percentile(total, 0.50);
+            r.totalP99 = percentile(total, 0.99);
+            r.totalMax = total.length == 0 ? 0 : total[total.length - 1];
+            r.meanAllocated = Arrays.stream(allocated).average().orElse(0);
+            return r;
+        }
+    }
+
+    private static final class Result {
+        int lines;
+        int samples;
+        int missed;
+        long notifyP50;
+        long notifyP99;
+        long totalP50;
+        long totalP99;
+        long totalMax;
+        double meanAllocated;
+    }
+}
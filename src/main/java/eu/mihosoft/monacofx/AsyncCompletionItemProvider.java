@@ -0,0 +1,42 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Asynchronous variant of {@link CompletionItemProvider}.
+ * The provider is invoked on the JavaFX application thread and must return quickly;
+ * the actual work belongs on another thread, e.g. the editor's provider executor.
+ *
+ * <pre>{@code
+ * AsyncCompletionItemProvider provider = request ->
+ *     languageServer.complete(request.getLinePrefix(), request.getPosition())
+ *         .orTimeout(2, TimeUnit.SECONDS);
+ * }</pre>
+ */
+@FunctionalInterface
+public interface AsyncCompletionItemProvider {
+
+    /**
+     * Provide completion items for the current position.
+     *
+     * @param request position, trigger character and the lines around the cursor
+     * @return Future list of completion suggestions
+     */
+    CompletableFuture<List<CompletionItem>> provideCompletionItems(ProviderRequest request);
+
+    /**
+     * Run a synchronous provider on the given executor.
+     */
+    static AsyncCompletionItemProvider of(CompletionItemProvider provider, Executor executor) {
+        return request -> CompletableFuture.supplyAsync(
+                () -> request.getCancellationToken().isCancellationRequested() ? List.<CompletionItem>of()
+                        : provider.provideCompletionItems(request.getTextUntilPosition(),
+                                request.getPosition(), request.getTriggerCharacter()), executor);
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Asynchronous variant of {@link DefinitionProvider}.
+ * The provider is invoked on the JavaFX application thread and must return quickly.
+ */
+@FunctionalInterface
+public interface AsyncDefinitionProvider {
+
+    /**
+     * Provide definition locations for the symbol at the given position.
+     *
+     * @param request cursor position, word and the lines around it
+     * @return Future list of locations where the symbol is defined
+     */
+    CompletableFuture<List<Location>> provideDefinition(ProviderRequest request);
+
+    /**
+     * Run a synchronous provider on the given executor.
+     */
+    static AsyncDefinitionProvider of(DefinitionProvider provider, Executor executor) {
+        return request -> CompletableFuture.supplyAsync(
+                () -> request.getCancellationToken().isCancellationRequested() ? List.<Location>of()
+                        : provider.provideDefinition(request.getText(), request.getPosition(), request.getWord()),
+                executor);
+    }
+}
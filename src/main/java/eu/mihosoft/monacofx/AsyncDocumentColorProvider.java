@@ -0,0 +1,57 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Asynchronous variant of {@link DocumentColorProvider}.
+ * The provider is invoked on the JavaFX application thread and must return quickly.
+ */
+public interface AsyncDocumentColorProvider {
+
+    /**
+     * Find all color values in the document.
+     *
+     * @param request document wide request, the text is available via {@link ProviderRequest#getText()}
+     * @return Future list of color information with positions
+     */
+    CompletableFuture<List<ColorInformation>> provideDocumentColors(ProviderRequest request);
+
+    /**
+     * Provide color presentation options when user picks a color.
+     *
+     * @param color The selected color
+     * @param range The range of the original color text
+     * @param token Cancelled when Monaco no longer needs the result
+     * @return Future list of ways to represent this color
+     */
+    CompletableFuture<List<ColorPresentation>> provideColorPresentations(
+            EditorColor color, Range range, CancellationToken token);
+
+    /**
+     * Run a synchronous provider on the given executor.
+     */
+    static AsyncDocumentColorProvider of(DocumentColorProvider provider, Executor executor) {
+        return new AsyncDocumentColorProvider() {
+            @Override
+            public CompletableFuture<List<ColorInformation>> provideDocumentColors(ProviderRequest request) {
+                return CompletableFuture.supplyAsync(
+                        () -> request.getCancellationToken().isCancellationRequested() ? List.<ColorInformation>of()
+                                : provider.provideDocumentColors(request.getText()), executor);
+            }
+
+            @Override
+            public CompletableFuture<List<ColorPresentation>> provideColorPresentations(
+                    EditorColor color, Range range, CancellationToken token) {
+                return CompletableFuture.supplyAsync(
+                        () -> token.isCancellationRequested() ? List.<ColorPresentation>of()
+                                : provider.provideColorPresentations(color, range), executor);
+            }
+        };
+    }
+}
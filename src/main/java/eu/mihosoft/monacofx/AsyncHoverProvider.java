@@ -0,0 +1,34 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Asynchronous variant of {@link HoverProvider}.
+ * The provider is invoked on the JavaFX application thread and must return quickly.
+ */
+@FunctionalInterface
+public interface AsyncHoverProvider {
+
+    /**
+     * Provide hover contents for the given position.
+     *
+     * @param request hover position, word and the lines around it
+     * @return Future hover contents, completing with null if no hover info is available
+     */
+    CompletableFuture<HoverContents> provideHover(ProviderRequest request);
+
+    /**
+     * Run a synchronous provider on the given executor.
+     */
+    static AsyncHoverProvider of(HoverProvider provider, Executor executor) {
+        return request -> CompletableFuture.supplyAsync(
+                () -> request.getCancellationToken().isCancellationRequested() ? null
+                        : provider.provideHover(request.getText(), request.getPosition(), request.getWord()),
+                executor);
+    }
+}
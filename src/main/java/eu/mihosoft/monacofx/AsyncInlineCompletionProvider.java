@@ -0,0 +1,44 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Asynchronous variant of {@link InlineCompletionProvider}, the natural fit for
+ * suggestions computed by a remote model.
+ * The provider is invoked on the JavaFX application thread and must return quickly.
+ *
+ * <pre>{@code
+ * AsyncInlineCompletionProvider provider = request -> {
+ *     CompletableFuture<List<InlineCompletion>> f = myAI.completeAsync(request.getWindowText());
+ *     request.getCancellationToken().onCancellationRequested(() -> f.cancel(true));
+ *     return f;
+ * };
+ * }</pre>
+ */
+@FunctionalInterface
+public interface AsyncInlineCompletionProvider {
+
+    /**
+     * Provide inline completions for the current cursor position.
+     *
+     * @param request cursor position and the lines around it
+     * @return Future list of inline completion suggestions
+     */
+    CompletableFuture<List<InlineCompletion>> provideInlineCompletions(ProviderRequest request);
+
+    /**
+     * Run a synchronous provider on the given executor.
+     */
+    static AsyncInlineCompletionProvider of(InlineCompletionProvider provider, Executor executor) {
+        return request -> CompletableFuture.supplyAsync(
+                () -> request.getCancellationToken().isCancellationRequested() ? List.<InlineCompletion>of()
+                        : provider.provideInlineCompletions(request.getTextUntilPosition(), request.getPosition()),
+                executor);
+    }
+}
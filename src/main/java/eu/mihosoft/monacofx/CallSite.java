@@ -0,0 +1,141 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+/**
+ * The call the cursor is in: the open parenthesis, the name before it and the argument the
+ * cursor is at.
+ * <p>
+ * Found by scanning backwards from the cursor to the first unmatched {@code (}, skipping
+ * nested parentheses, brackets and braces and counting the commas between. The scan is textual:
+ * it stops at an unmatched bracket or brace or a {@code ;} and does not know about strings or comments.
+ * Only the lines sent along with a request ({@link ProviderRequest#getWindowText()}) are scanned,
+ * calls opened above them are not found.
+ */
+public final class CallSite {
+
+    /**
+     * Characters scanned back from the cursor at most.
+     */
+    static final int MAX_SCAN = 10_000;
+
+    private final Position openParen;
+    private final String callee;
+    private final int activeParameter;
+
+    CallSite(Position openParen, String callee, int activeParameter) {
+        this.openParen = openParen;
+        this.callee = callee;
+        this.activeParameter = activeParameter;
+    }
+
+    /**
+     * Position of the open parenthesis.
+     */
+    public Position getOpenParen() { return openParen; }
+
+    /**
+     * The identifier directly before the open parenthesis, e.g. {@code substring} in
+     * {@code s.substring(1, }.
+     */
+    public String getCallee() { return callee; }
+
+    /**
+     * Index of the argument the cursor is at, 0-based.
+     */
+    public int getActiveParameter() { return activeParameter; }
+
+    /**
+     * The call around the request position.
+     *
+     * @return the call site or null if the position is not inside the arguments of a call
+     */
+    static CallSite find(ProviderRequest request) {
+        Position position = request.getPosition();
+        if (position == null) {
+            return null;
+        }
+        // the window, not the document up to the position: hints are asked for on every keystroke
+        String window = request.getWindowText();
+        int offset = ProviderRequest.offsetOf(window, position.lineNumber - request.getWindowStartLine() + 1,
+                position.column);
+        return find(window, offset, position);
+    }
+
+    /**
+     * @param text the text around the position, whole lines
+     * @param offset offset of the position in the text
+     */
+
+    static CallSite find(String text, int offset, Position position) {
+        int depth = 0;
+        int commas = 0;
+        int lineBreaks = 0;
+        int limit = Math.max(0, offset - MAX_SCAN);
+        for (int i = offset - 1; i >= limit; i--) {
+            char c = text.charAt(i);
+            switch (c) {
+                case ')':
+                case ']':
+                case '}':
+                    depth++;
+                    break;
+                case '[':
+                case '{':
+                    depth--;
+                    break;
+                case '(':
+                    if (depth == 0) {
+                        String callee = calleeBefore(text, i);
+                        if (callee.isEmpty()) {
+                            return null;
+                        }
+                        int lineStart = i;
+                        while (lineStart > 0 && text.charAt(lineStart - 1) != '\n'
+                                && text.charAt(lineStart - 1) != '\r') {
+                            lineStart--;
+                        }
+                        int column = i - lineStart + 1;
+                        return new CallSite(new Position(position.lineNumber - lineBreaks, column), callee, commas);
+                    }
+                    depth--;
+                    break;
+                case ',':
+                    if (depth == 0) {
+                        commas++;
+                    }
+                    break;
+                case ';':
+                    if (depth == 0) {
+                        return null;
+                    }
+                    break;
+                case '\n':
+                case '\r':
+                    if (c == '\n' || i + 1 >= text.length() || text.charAt(i + 1) != '\n') {
+                        lineBreaks++;
+                    }
+                    break;
+                default:
+            }
+            if (depth < 0) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static String calleeBefore(String text, int paren) {
+        int end = paren;
+        while (end > 0 && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        int start = end;
+        while (start > 0 && WorkspaceSymbolIndex.isWordChar(text.charAt(start - 1))) {
+            start--;
+        }
+        return text.substring(start, end);
+    }
+}
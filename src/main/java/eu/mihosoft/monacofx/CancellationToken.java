@@ -0,0 +1,71 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Java counterpart of Monaco's {@code CancellationToken}.
+ * Monaco cancels a provider request as soon as its result is no longer needed,
+ * e.g. because the user kept typing or moved the mouse away. Long running providers
+ * should check {@link #isCancellationRequested()} and stop early.
+ *
+ * <pre>{@code
+ * request -> CompletableFuture.supplyAsync(() -> {
+ *     List<CompletionItem> items = new ArrayList<>();
+ *     for (Symbol s : index.symbols()) {
+ *         if (request.getCancellationToken().isCancellationRequested()) {
+ *             return List.of();
+ *         }
+ *         ...
+ *     }
+ *     return items;
+ * }, executor)
+ * }</pre>
+ */
+public final class CancellationToken {
+
+    /**
+     * A token that is never cancelled.
+     */
+    public static final CancellationToken NONE = new CancellationToken();
+
+    private volatile boolean cancellationRequested;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    CancellationToken() {
+    }
+
+    /**
+     * Whether Monaco no longer needs the result.
+     */
+    public boolean isCancellationRequested() {
+        return cancellationRequested;
+    }
+
+    /**
+     * Run the listener once the request is cancelled. Runs immediately if it already is.
+     * Listeners are called on the JavaFX application thread and must not block.
+     */
+    public void onCancellationRequested(Runnable listener) {
+        listeners.add(listener);
+        if (cancellationRequested && listeners.remove(listener)) {
+            listener.run();
+        }
+    }
+
+    void cancel() {
+        if (cancellationRequested || this == NONE) {
+            return;
+        }
+        cancellationRequested = true;
+        for (Runnable listener : listeners) {
+            if (listeners.remove(listener)) {
+                listener.run();
+            }
+        }
+    }
+}
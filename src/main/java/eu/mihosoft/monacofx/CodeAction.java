@@ -0,0 +1,191 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A code action shown in the light bulb menu, e.g. a quick fix for a marker.
+ * <p>
+ * Providers usually return actions without an edit: title, kind and the data needed to
+ * compute the edit later. The edit is computed by
+ * {@link CodeActionProvider#resolveCodeAction(CodeAction, CancellationToken)} only when the
+ * user picks the action.
+ */
+public final class CodeAction {
+
+    /**
+     * Kind of quick fixes for markers.
+     */
+    public static final String QUICK_FIX = "quickfix";
+
+    /**
+     * Kind of refactorings.
+     */
+    public static final String REFACTOR = "refactor";
+
+    /**
+     * Kind of source actions such as organizing imports.
+     */
+    public static final String SOURCE = "source";
+
+    private final String title;
+    private final String kind;
+    private final boolean preferred;
+    private final List<Marker> diagnostics;
+    private final WorkspaceEdit edit;
+    private final String disabled;
+    private final Object data;
+
+    private CodeAction(Builder builder) {
+        this.title = builder.title;
+        this.kind = builder.kind;
+        this.preferred = builder.preferred;
+        this.diagnostics = List.copyOf(builder.diagnostics);
+        this.edit = builder.edit;
+        this.disabled = builder.disabled;
+        this.data = builder.data;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * A builder initialized with the values of this action, e.g. to add the edit in
+     * {@link CodeActionProvider#resolveCodeAction(CodeAction, CancellationToken)}.
+     */
+    public Builder toBuilder() {
+        Builder b = new Builder()
+                .title(title)
+                .kind(kind)
+                .preferred(preferred)
+                .edit(edit)
+                .disabled(disabled)
+                .data(data);
+        b.diagnostics.addAll(diagnostics);
+        return b;
+    }
+
+    public String getTitle() { return title; }
+
+    /**
+     * Hierarchical kind, e.g. {@link #QUICK_FIX} or {@code refactor.extract}. May be null.
+     */
+    public String getKind() { return kind; }
+
+    /**
+     * Whether this is the preferred fix, applied by "Auto Fix".
+     */
+    public boolean isPreferred() { return preferred; }
+
+    /**
+     * The markers this action fixes.
+     */
+    public List<Marker> getDiagnostics() { return diagnostics; }
+
+    /**
+     * The edit, or null if it is computed on resolve.
+     */
+    public WorkspaceEdit getEdit() { return edit; }
+
+    /**
+     * Why the action cannot be applied, shown instead of applying it. Null if enabled.
+     */
+    public String getDisabled() { return disabled; }
+
+    /**
+     * Provider data to compute the edit on resolve. Stays in Java, it is not sent to Monaco.
+     */
+    public Object getData() { return data; }
+
+    /**
+     * Whether the kind is {@code kind} or one of its sub kinds, e.g. {@code refactor.extract}
+     * for {@code refactor}.
+     */
+    public boolean isOfKind(String kind) {
+        return this.kind != null && (this.kind.equals(kind)
+                || (this.kind.startsWith(kind) && this.kind.charAt(kind.length()) == '.'));
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("title", title);
+        if (kind != null) map.put("kind", kind);
+        if (preferred) map.put("isPreferred", true);
+        if (!diagnostics.isEmpty()) {
+            List<Map<String, Object>> list = new ArrayList<>();
+            for (Marker marker : diagnostics) {
+                list.add(marker.toMap());
+            }
+            map.put("diagnostics", list);
+        }
+        if (edit != null) map.put("edit", edit.toMap());
+        if (disabled != null) map.put("disabled", disabled);
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return "CodeAction{" + title + (kind != null ? ", " + kind : "") + "}";
+    }
+
+    public static class Builder {
+        private String title = "";
+        private String kind;
+        private boolean preferred;
+        private final List<Marker> diagnostics = new ArrayList<>();
+        private WorkspaceEdit edit;
+        private String disabled;
+        private Object data;
+
+        public Builder title(String title) {
+            this.title = title;
+            return this;
+        }
+
+        public Builder kind(String kind) {
+            this.kind = kind;
+            return this;
+        }
+
+        public Builder preferred(boolean preferred) {
+            this.preferred = preferred;
+            return this;
+        }
+
+        public Builder diagnostic(Marker marker) {
+            this.diagnostics.add(marker);
+            return this;
+        }
+
+        public Builder diagnostics(List<Marker> markers) {
+            this.diagnostics.addAll(markers);
+            return this;
+        }
+
+        public Builder edit(WorkspaceEdit edit) {
+            this.edit = edit;
+            return this;
+        }
+
+        public Builder disabled(String reason) {
+            this.disabled = reason;
+            return this;
+        }
+
+        public Builder data(Object data) {
+            this.data = data;
+            return this;
+        }
+
+        public CodeAction build() {
+            return new CodeAction(this);
+        }
+    }
+}
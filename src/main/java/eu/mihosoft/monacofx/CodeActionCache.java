@@ -0,0 +1,137 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs a {@link CodeActionProvider} for one registration. The actions of recent results are
+ * kept so that Monaco can resolve the picked one by id; only their title, kind and markers
+ * are sent. Monaco asks again for the same range on focus and marker changes, so the last
+ * result is reused while document version, range, markers and requested kind are unchanged.
+ */
+final class CodeActionCache {
+
+    private static final Gson GSON = new GsonBuilder().create();
+
+    static final int MAX_ACTIONS = 1_000;
+
+    private static final class Entry {
+        final String key;
+        final String json;
+
+        Entry(String key, String json) {
+            this.key = key;
+            this.json = json;
+        }
+    }
+
+    private final CodeActionProvider provider;
+    private final Executor executor;
+    private final AtomicLong nextId = new AtomicLong();
+    private final Map<String, CodeAction> actions = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CodeAction> eldest) {
+            return size() > MAX_ACTIONS;
+        }
+    });
+    private final AtomicReference<Entry> last = new AtomicReference<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    CodeActionCache(CodeActionProvider provider, Executor executor) {
+        this.provider = provider;
+        this.executor = executor;
+    }
+
+    /**
+     * JSON array of the actions for the range.
+     *
+     * @param markersJson the markers as sent by Monaco, part of the cache key
+     * @param only        the requested kind, or empty for all kinds
+     */
+    CompletableFuture<String> provide(ProviderRequest request, Range range, List<Marker> markers,
+                                      String markersJson, String only) {
+        String key = request.getVersion() + "\0" + range.getStartLineNumber() + ":" + range.getStartColumn()
+                + "-" + range.getEndLineNumber() + ":" + range.getEndColumn() + "\0" + only + "\0" + markersJson;
+        Entry e = last.get();
+        if (e != null && e.key.equals(key)) {
+            hits.incrementAndGet();
+            return CompletableFuture.completedFuture(e.json);
+        }
+        misses.incrementAndGet();
+        return CompletableFuture.supplyAsync(() -> {
+            if (request.getCancellationToken().isCancellationRequested()) {
+                return null;
+            }
+            List<CodeAction> result = provider.provideCodeActions(request, range, markers);
+            List<Map<String, Object>> list = new ArrayList<>();
+            if (result != null) {
+                for (CodeAction action : result) {
+                    if (!only.isEmpty() && !action.isOfKind(only)) {
+                        continue;
+                    }
+                    Map<String, Object> map = action.toMap();
+                    if (action.getEdit() == null) {
+                        String id = "#" + nextId.incrementAndGet();
+                        actions.put(id, action);
+                        map.put("resolveId", id);
+                    }
+                    list.add(map);
+                }
+            }
+            String json = GSON.toJson(list);
+            if (!request.getCancellationToken().isCancellationRequested()) {
+                last.set(new Entry(key, json));
+            }
+            return json;
+        }, executor);
+    }
+
+    /**
+     * JSON of the resolved action, or null if it is no longer known.
+     */
+    CompletableFuture<String> resolve(String id, CancellationToken token) {
+        CodeAction action = actions.get(id);
+        if (action == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            if (token.isCancellationRequested()) {
+                return null;
+            }
+            CodeAction resolved = provider.resolveCodeAction(action, token);
+            return GSON.toJson((resolved != null ? resolved : action).toMap());
+        }, executor);
+    }
+
+    void clear() {
+        last.set(null);
+        actions.clear();
+    }
+
+    int getActionCount() {
+        return actions.size();
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    long getMisses() {
+        return misses.get();
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.List;
+
+/**
+ * Provides code actions (quick fixes, refactorings) for a range of the document.
+ * <p>
+ * Monaco asks for code actions whenever the cursor or selection moves, so
+ * {@link #provideCodeActions(ProviderRequest, Range, List)} should only decide which actions
+ * apply and return them without edits. The edit of an action is computed by
+ * {@link #resolveCodeAction(CodeAction, CancellationToken)} once the user picks it.
+ *
+ * <pre>{@code
+ * editor.registerCodeActionProvider("java", new CodeActionProvider() {
+ *     public List<CodeAction> provideCodeActions(ProviderRequest request, Range range, List<Marker> markers) {
+ *         return markers.stream()
+ *                 .filter(m -> "unused-import".equals(m.getCode()))
+ *                 .map(m -> CodeAction.builder().title("Remove import").kind(CodeAction.QUICK_FIX)
+ *                         .diagnostic(m).data(m.getRange()).build())
+ *                 .collect(Collectors.toList());
+ *     }
+ *
+ *     public CodeAction resolveCodeAction(CodeAction action, CancellationToken token) {
+ *         Range r = (Range) action.getData();
+ *         return action.toBuilder().edit(WorkspaceEdit.builder()
+ *                 .edit(new Range(r.getStartLineNumber(), 1, r.getStartLineNumber() + 1, 1), "").build()).build();
+ *     }
+ * });
+ * }</pre>
+ */
+public interface CodeActionProvider {
+
+    /**
+     * Called on the provider executor.
+     *
+     * @param request the document version and the lines around the start of the range;
+     *                the full text is available from the Java-side mirror
+     * @param range   the selection or the cursor position
+     * @param markers the markers overlapping the range
+     * @return the applicable actions, usually without edits
+     */
+    List<CodeAction> provideCodeActions(ProviderRequest request, Range range, List<Marker> markers);
+
+    /**
+     * Computes the edit of an action the user picked. Called on the provider executor.
+     * Actions returned with an edit are not resolved.
+     *
+     * @param action an action returned by {@link #provideCodeActions(ProviderRequest, Range, List)}
+     * @return the action with its edit, e.g. via {@link CodeAction#toBuilder()}
+     */
+    default CodeAction resolveCodeAction(CodeAction action, CancellationToken token) {
+        return action;
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Per-line cache of the colors found by a {@link LineColorProvider}.
+ * <p>
+ * Each line holds its colors as a compact JSON fragment
+ * ({@code [[red,green,blue,alpha,startColumn,endColumn],...]}). Edits reported by the document
+ * mark the lines they touch as dirty; a request only scans dirty lines. The JavaScript side
+ * keeps the same per-line array, so a response only carries the line splices since the
+ * previous response and the lines whose colors changed. If the page does not have the previous
+ * result (identified by its result id) all lines are sent.
+ * <p>
+ * Edits arrive on the JavaFX application thread and are only queued there; they are applied
+ * on the provider executor up to the version of the text being scanned.
+ */
+final class ColorCache implements DocumentChangeListener {
+
+    static final String EMPTY = "[]";
+
+    /**
+     * Beyond this many queued edits a full scan is cheaper than replaying them.
+     */
+    static final int MAX_PENDING_EVENTS = 1000;
+
+    private static final class Line {
+        /**
+         * Colors of this line, null if the line has to be scanned.
+         */
+        String json;
+        /**
+         * Colors of this line on the JavaScript side.
+         */
+        String sent = EMPTY;
+    }
+
+    private static final class Event {
+        final int version;
+        final List<ContentChange> changes;
+
+        Event(int version, List<ContentChange> changes) {
+            this.version = version;
+            this.changes = changes;
+        }
+    }
+
+    private final LineColorProvider provider;
+    private final ConcurrentLinkedQueue<Event> events = new ConcurrentLinkedQueue<>();
+    private volatile Document document;
+    private volatile boolean resetRequested;
+
+    // guarded by this
+    private ArrayList<Line> lines;
+    private int version = -1;
+    private int resultId;
+    private final List<int[]> splices = new ArrayList<>();
+    private long scannedLines;
+
+    ColorCache(LineColorProvider provider) {
+        this.provider = provider;
+    }
+
+    /**
+     * Called on the JavaFX application thread before the request is handed to the executor.
+     */
+    void begin(Document document) {
+        if (document != this.document) {
+            this.document = document;
+            events.clear();
+            resetRequested = true;
+        }
+    }
+
+    @Override
+    public void documentChanged(Document document, int version, List<ContentChange> changes) {
+        if (document != this.document) {
+            return;
+        }
+        events.add(new Event(version, changes));
+        if (events.size() > MAX_PENDING_EVENTS) {
+            events.clear();
+            resetRequested = true;
+        }
+    }
+
+    /**
+     * Brings the cache to the request's version and returns the response for the page,
+     * or null if a newer version has been processed already.
+     *
+     * @param previousResultId result id the page has, -1 if none
+     */
+    synchronized String update(String text, int requestVersion, int previousResultId, CancellationToken token) {
+        if (resetRequested || lines == null) {
+            resetRequested = false;
+            reset(text, requestVersion);
+        } else if (requestVersion < version) {
+            return null;
+        } else {
+            while (!events.isEmpty() && events.peek().version <= requestVersion) {
+                Event e = events.poll();
+                for (ContentChange c : e.changes) {
+                    apply(c);
+                }
+                version = e.version;
+            }
+            if (version != requestVersion) {
+                // edits were missed, e.g. the provider was registered after the content changed
+                reset(text, requestVersion);
+            }
+        }
+
+        scanDirtyLines(text, token);
+        if (token.isCancellationRequested()) {
+            return null;
+        }
+
+        StringBuilder sb = new StringBuilder(256);
+        boolean full = previousResultId != resultId;
+        resultId++;
+        sb.append("{\"resultId\":").append(resultId);
+        if (full) {
+            sb.append(",\"lines\":[");
+            for (int i = 0; i < lines.size(); i++) {
+                Line line = lines.get(i);
+                if (i > 0) {
+                    sb.append(',');
+                }
+                sb.append(line.json);
+                line.sent = line.json;
+            }
+            sb.append(']');
+        } else {
+            sb.append(",\"splices\":[");
+            for (int i = 0; i < splices.size(); i++) {
+                int[] s = splices.get(i);
+                if (i > 0) {
+                    sb.append(',');
+                }
+                sb.append('[').append(s[0]).append(',').append(s[1]).append(',').append(s[2]).append(']');
+            }
+            sb.append("],\"updates\":[");
+            boolean first = true;
+            for (int i = 0; i < lines.size(); i++) {
+                Line line = lines.get(i);
+                // identity check first: unchanged lines share the fragment they were sent with
+                if (line.json != line.sent && !line.json.equals(line.sent)) {
+                    if (!first) {
+                        sb.append(',');
+                    }
+                    sb.append('[').append(i).append(',').append(line.json).append(']');
+                    line.sent = line.json;
+                    first = false;
+                }
+            }
+            sb.append(']');
+        }
+        splices.clear();
+        return sb.append('}').toString();
+    }
+
+    private void reset(String text, int requestVersion) {
+        int count = ContentChange.countLineBreaks(text) + 1;
+        lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            lines.add(new Line());
+        }
+        splices.clear();
+        version = requestVersion;
+        // drop edits already contained in the text
+        while (!events.isEmpty() && events.peek().version <= requestVersion) {
+            events.poll();
+        }
+        // force a full response
+        resultId++;
+    }
+
+    private void apply(ContentChange c) {
+        int index = c.getRange().getStartLineNumber() - 1;
+        int removed = c.getRange().getEndLineNumber() - c.getRange().getStartLineNumber() + 1;
+        int inserted = ContentChange.countLineBreaks(c.getText()) + 1;
+        if (removed == 1 && inserted == 1) {
+            // the page keeps the line, it is updated if its colors change
+            lines.get(index).json = null;
+            return;
+        }
+        List<Line> range = lines.subList(index, Math.min(lines.size(), index + removed));
+        range.clear();
+        List<Line> added = new ArrayList<>(inserted);
+        for (int i = 0; i < inserted; i++) {
+            added.add(new Line());
+        }
+        lines.addAll(index, added);
+        splices.add(new int[]{index, removed, inserted});
+    }
+
+    private void scanDirtyLines(String text, CancellationToken token) {
+        // Monaco models use \n or \r\n line breaks
+        int offset = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            int end = text.indexOf('\n', offset);
+            int next = end < 0 ? text.length() + 1 : end + 1;
+            if (end < 0) {
+                end = text.length();
+            }
+            Line line = lines.get(i);
+            if (line.json == null) {
+                if (token.isCancellationRequested()) {
+                    return;
+                }
+                int lineEnd = end > offset && text.charAt(end - 1) == '\r' ? end - 1 : end;
+                line.json = toJson(provider.provideLineColors(i + 1, text.substring(Math.min(offset, lineEnd), lineEnd)));
+                scannedLines++;
+            }
+            offset = next;
+        }
+    }
+
+    static String toJson(List<ColorInformation> colors) {
+        if (colors == null || colors.isEmpty()) {
+            return EMPTY;
+        }
+        StringBuilder sb = new StringBuilder(colors.size() * 40);
+        sb.append('[');
+        for (int i = 0; i < colors.size(); i++) {
+            ColorInformation c = colors.get(i);
+            EditorColor color = c.getColor();
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append('[').append(color.getRed()).append(',').append(color.getGreen())
+                    .append(',').append(color.getBlue()).append(',').append(color.getAlpha())
+                    .append(',').append(c.getRange().getStartColumn())
+                    .append(',').append(c.getRange().getEndColumn()).append(']');
+        }
+        return sb.append(']').toString();
+    }
+
+    synchronized long getScannedLineCount() {
+        return scannedLines;
+    }
+
+    synchronized List<String> getLines() {
+        List<String> result = new ArrayList<>();
+        for (Line line : lines) {
+            result.add(line.json);
+        }
+        return Collections.unmodifiableList(result);
+    }
+}
@@ -4,6 +4,9 @@
  */
 package eu.mihosoft.monacofx;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Represents a color value with its position in the document.
  */
@@ -29,4 +32,11 @@ public final class ColorInformation {
     public Range getRange() {
         return range;
     }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("color", color.toMap());
+        map.put("range", range.toMap());
+        return map;
+    }
 }
@@ -4,6 +4,9 @@
  */
 package eu.mihosoft.monacofx;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Represents how a color can be presented/formatted in the document.
  */
@@ -35,4 +38,11 @@ public final class ColorPresentation {
     public String getTextEdit() {
         return textEdit;
     }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("label", label);
+        map.put("textEdit", textEdit);
+        return map;
+    }
 }
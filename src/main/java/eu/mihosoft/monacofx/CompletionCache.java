@@ -0,0 +1,207 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Remembers the last completion result of one provider registration, already serialized
+ * per item. A request is answered from the cache if it is for the same document version,
+ * line prefix and trigger character, or if the user only typed further characters of the
+ * word being completed. In the latter case the cached items are filtered in Java and the
+ * provider is not asked again.
+ * <p>
+ * Results are sent with {@code incomplete: false}, so Monaco itself filters while the user
+ * types and usually asks again only on trigger characters or a new word.
+ */
+final class CompletionCache {
+
+    private static final Gson GSON = new GsonBuilder().create();
+
+    private static final class Entry {
+        int version;
+        int lineNumber;
+        String triggerCharacter;
+        String lineBeforeWord;
+        String word;
+        String lineAfterCursor;
+        int windowStartLine;
+        String windowBeforeLine;
+        String windowAfterLine;
+        String[] itemJson;
+        String[] filterKeys;
+        String json;
+    }
+
+    private final Function<CompletionItem, Map<String, Object>> serializer;
+    private volatile Entry entry;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    CompletionCache() {
+        this(CompletionItem::toMap);
+    }
+
+    /**
+     * @param serializer turns an item into the map sent to Monaco
+     */
+    CompletionCache(Function<CompletionItem, Map<String, Object>> serializer) {
+        this.serializer = serializer;
+    }
+
+    /**
+     * Returns the cached result for this request as JSON, or null.
+     */
+    String lookup(ProviderRequest request) {
+        Entry e = entry;
+        if (e == null || request.getPosition() == null || request.getPosition().lineNumber != e.lineNumber) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        String line = request.getLine(e.lineNumber);
+        int column = Math.min(line.length(), request.getPosition().column - 1);
+        int wordStart = wordStart(line, column);
+        String word = line.substring(wordStart, column);
+
+        boolean sameWord = word.equals(e.word) && request.getTriggerCharacter().equals(e.triggerCharacter);
+        boolean narrowed = word.length() > e.word.length() && word.startsWith(e.word);
+
+        // every typed character is one model version, anything else means other edits happened
+        if (!(sameWord || narrowed)
+                || request.getVersion() - e.version != word.length() - e.word.length()
+                || !line.regionMatches(0, e.lineBeforeWord, 0, wordStart) || wordStart != e.lineBeforeWord.length()
+                || !line.substring(column).equals(e.lineAfterCursor)
+                || !sameContext(request, e)) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        hits.incrementAndGet();
+        if (sameWord) {
+            return e.json;
+        }
+
+        String query = word.toLowerCase();
+        StringBuilder sb = new StringBuilder("{\"incomplete\":false,\"suggestions\":[");
+        boolean first = true;
+        for (int i = 0; i < e.itemJson.length; i++) {
+            if (matches(e.filterKeys[i], query)) {
+                if (!first) {
+                    sb.append(',');
+                }
+                sb.append(e.itemJson[i]);
+                first = false;
+            }
+        }
+        return sb.append("]}").toString();
+    }
+
+    /**
+     * Serializes the provider result, remembers it for this request and returns the JSON.
+     */
+    String store(ProviderRequest request, List<CompletionItem> items) {
+        int n = items == null ? 0 : items.size();
+        String[] itemJson = new String[n];
+        String[] filterKeys = new String[n];
+        StringBuilder sb = new StringBuilder("{\"incomplete\":false,\"suggestions\":[");
+        for (int i = 0; i < n; i++) {
+            CompletionItem item = items.get(i);
+            itemJson[i] = GSON.toJson(serializer.apply(item));
+            filterKeys[i] = item.getFilterKey().toLowerCase();
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(itemJson[i]);
+        }
+        String json = sb.append("]}").toString();
+
+        if (request.getPosition() != null) {
+            Entry e = new Entry();
+            e.version = request.getVersion();
+            e.lineNumber = request.getPosition().lineNumber;
+            e.triggerCharacter = request.getTriggerCharacter();
+            String line = request.getLine(e.lineNumber);
+            int column = Math.min(line.length(), request.getPosition().column - 1);
+            int wordStart = wordStart(line, column);
+            e.lineBeforeWord = line.substring(0, wordStart);
+            e.word = line.substring(wordStart, column);
+            e.lineAfterCursor = line.substring(column);
+            e.windowStartLine = request.getWindowStartLine();
+            e.windowBeforeLine = windowBeforeLine(request);
+            e.windowAfterLine = windowAfterLine(request);
+            e.itemJson = itemJson;
+            e.filterKeys = filterKeys;
+            e.json = json;
+            entry = e;
+        }
+        return json;
+    }
+
+    void clear() {
+        entry = null;
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    long getMisses() {
+        return misses.get();
+    }
+
+    private static boolean sameContext(ProviderRequest request, Entry e) {
+        return request.getWindowStartLine() == e.windowStartLine
+                && windowBeforeLine(request).equals(e.windowBeforeLine)
+                && windowAfterLine(request).equals(e.windowAfterLine);
+    }
+
+    private static String windowBeforeLine(ProviderRequest request) {
+        String window = request.getWindowText();
+        int line = request.getPosition().lineNumber - request.getWindowStartLine() + 1;
+        return window.substring(0, ProviderRequest.offsetOf(window, line, 1));
+    }
+
+    private static String windowAfterLine(ProviderRequest request) {
+        String window = request.getWindowText();
+        int line = request.getPosition().lineNumber - request.getWindowStartLine() + 2;
+        int offset = ProviderRequest.offsetOf(window, line, 1);
+        // offsetOf clamps to the end if the current line is the last one of the window
+        return offset >= window.length() ? "" : window.substring(offset);
+    }
+
+    static int wordStart(String line, int column) {
+        int i = column;
+        while (i > 0 && isWordChar(line.charAt(i - 1))) {
+            i--;
+        }
+        return i;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+
+    /**
+     * Subsequence match, a superset of what Monaco's fuzzy filter accepts.
+     */
+    static boolean matches(String key, String query) {
+        int k = 0;
+        for (int q = 0; q < query.length(); q++) {
+            k = key.indexOf(query.charAt(q), k);
+            if (k < 0) {
+                return false;
+            }
+            k++;
+        }
+        return true;
+    }
+}
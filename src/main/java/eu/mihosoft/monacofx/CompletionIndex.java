@@ -0,0 +1,534 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Immutable index for completion sources with many symbols.
+ * <p>
+ * Labels are kept in one {@code char[]}; lookups binary search two sorted {@code int[]} permutations,
+ * one by label and one by camel-hump initials ({@code npe} finds {@code NullPointerException}),
+ * so a query costs a few array probes instead of a scan over all symbols. If these yield fewer
+ * than the requested number of results, symbols starting with the same character are scored
+ * as fuzzy (subsequence) matches. Only the top results are turned into {@link CompletionItem}s.
+ *
+ * <pre>{@code
+ * CompletionIndex index = CompletionIndex.builder()
+ *     .add("println", CompletionItemKind.METHOD)
+ *     .add("NullPointerException", CompletionItemKind.CLASS)
+ *     .itemFactory((id, item) -> item.detail(details[id]).build())
+ *     .build();
+ *
+ * editor.registerCompletionProvider("java", request -> CompletableFuture.completedFuture(
+ *     index.search(request.getWordUntilPosition(), 100)));
+ * }</pre>
+ *
+ * Results carry a {@code sortText} so that Monaco keeps the index ranking. Monaco filters
+ * further keystrokes within the returned list, so {@code k} should not be too small.
+ */
+public final class CompletionIndex {
+
+    /**
+     * Creates the completion item for a result. The builder is prefilled with label, kind and sortText.
+     */
+    @FunctionalInterface
+    public interface ItemFactory {
+        CompletionItem create(int id, CompletionItem.Builder item);
+    }
+
+    // score ranges, higher is better; within a range shorter labels win
+    private static final int SCORE_PREFIX = 30_000;
+    private static final int SCORE_CASE_BONUS = 5_000;
+    private static final int SCORE_HUMP = 20_000;
+    private static final int SCORE_FUZZY = 10_000;
+
+    private static final CompletionItem.CompletionItemKind[] KINDS = CompletionItem.CompletionItemKind.values();
+
+    private final char[] chars;
+    private final int[] offsets;
+    private final byte[] kinds;
+    private final int[] sorted;
+
+    private final long[] charMasks;
+
+    private final char[] humps;
+    private final int[] humpOffsets;
+    private final int[] humpSorted;
+
+    private final ItemFactory itemFactory;
+    private final int maxFuzzyCandidates;
+
+    private CompletionIndex(Builder builder) {
+        int n = builder.count;
+        this.chars = Arrays.copyOf(builder.chars, builder.length);
+        this.offsets = Arrays.copyOf(builder.offsets, n + 1);
+        this.kinds = Arrays.copyOf(builder.kinds, n);
+        this.itemFactory = builder.itemFactory;
+        this.maxFuzzyCandidates = builder.maxFuzzyCandidates;
+
+        // characters contained in each label, lets the fuzzy pass skip most non-matches cheaply
+        this.charMasks = new long[n];
+        for (int id = 0; id < n; id++) {
+            long mask = 0;
+            for (int i = offsets[id]; i < offsets[id + 1]; i++) {
+                mask |= charBit(Character.toLowerCase(chars[i]));
+            }
+            charMasks[id] = mask;
+        }
+
+        // camel-hump initials, lower case
+        int[] hOffsets = new int[n + 1];
+        char[] h = new char[Math.max(16, builder.length / 4)];
+        int hLength = 0;
+        for (int id = 0; id < n; id++) {
+            int start = offsets[id];
+            int end = offsets[id + 1];
+            for (int i = start; i < end; i++) {
+                if (isHumpStart(chars, start, end, i)) {
+                    if (hLength == h.length) {
+                        h = Arrays.copyOf(h, h.length * 2);
+                    }
+                    h[hLength++] = Character.toLowerCase(chars[i]);
+                }
+            }
+            hOffsets[id + 1] = hLength;
+        }
+        this.humps = Arrays.copyOf(h, hLength);
+        this.humpOffsets = hOffsets;
+
+        this.sorted = identity(n);
+        sort(sorted, (a, b) -> compareLower(this.chars, this.offsets, a, b));
+        this.humpSorted = identity(n);
+        sort(humpSorted, (a, b) -> compareLower(this.humps, this.humpOffsets, a, b));
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Number of symbols in the index.
+     */
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Label of the symbol with the given id (ids are assigned in the order symbols were added).
+     */
+    public String getLabel(int id) {
+        return new String(chars, offsets[id], offsets[id + 1] - offsets[id]);
+    }
+
+    /**
+     * Best matches for the query, best first, as completion items.
+     *
+     * @param query the word typed so far, e.g. {@link ProviderRequest#getWordUntilPosition()}
+     * @param k maximum number of results
+     */
+    public List<CompletionItem> search(String query, int k) {
+        int[] ids = searchIds(query, k);
+        List<CompletionItem> items = new ArrayList<>(ids.length);
+        for (int rank = 0; rank < ids.length; rank++) {
+            int id = ids[rank];
+            CompletionItem.Builder item = CompletionItem.builder()
+                    .label(getLabel(id))
+                    .kind(KINDS[kinds[id]])
+                    .sortText(sortText(rank));
+            items.add(itemFactory.create(id, item));
+        }
+        return items;
+    }
+
+    /**
+     * Ids of the best matches for the query, best first.
+     */
+    public int[] searchIds(String query, int k) {
+        int n = size();
+        if (k <= 0 || n == 0) {
+            return new int[0];
+        }
+        if (query.isEmpty()) {
+            return Arrays.copyOf(sorted, Math.min(k, n));
+        }
+
+        String q = query.toLowerCase();
+        TopK top = new TopK(k);
+
+        // 1. prefix matches
+        int lo = lowerBound(sorted, chars, offsets, q);
+        int hi = upperBound(sorted, chars, offsets, q, lo);
+        for (int i = lo; i < hi; i++) {
+            int id = sorted[i];
+            int len = offsets[id + 1] - offsets[id];
+            int score = SCORE_PREFIX - Math.min(len, 1000);
+            if (regionEquals(chars, offsets[id], query)) {
+                score += SCORE_CASE_BONUS;
+            }
+            top.add(id, score);
+        }
+
+        // 2. camel-hump matches
+        int hLo = lowerBound(humpSorted, humps, humpOffsets, q);
+        int hHi = upperBound(humpSorted, humps, humpOffsets, q, hLo);
+        for (int i = hLo; i < hHi; i++) {
+            int id = humpSorted[i];
+            if (comparePrefix(chars, offsets, id, q) == 0) {
+                continue;
+            }
+            int len = offsets[id + 1] - offsets[id];
+            int extraHumps = humpOffsets[id + 1] - humpOffsets[id] - q.length();
+            top.add(id, SCORE_HUMP - Math.min(extraHumps * 50 + len, 5000));
+        }
+
+        // 3. fuzzy matches among symbols with the same first character
+        if (top.size < k) {
+            long queryMask = 0;
+            for (int i = 0; i < q.length(); i++) {
+                queryMask |= charBit(q.charAt(i));
+            }
+            String first = q.substring(0, 1);
+            int fLo = lowerBound(sorted, chars, offsets, first);
+            int fHi = Math.min(upperBound(sorted, chars, offsets, first, fLo), fLo + maxFuzzyCandidates);
+            for (int i = fLo; i < fHi; i++) {
+                int id = sorted[i];
+                if ((charMasks[id] & queryMask) != queryMask
+                        || comparePrefix(chars, offsets, id, q) == 0 || comparePrefix(humps, humpOffsets, id, q) == 0) {
+                    continue;
+                }
+                int score = fuzzyScore(id, q);
+                if (score > Integer.MIN_VALUE) {
+                    top.add(id, SCORE_FUZZY + Math.max(-5000, Math.min(score, 5000)));
+                }
+            }
+        }
+
+        return top.sortedIds(this);
+    }
+
+    /**
+     * Subsequence match with bonuses for matches at hump starts and consecutive matches.
+     * Returns {@link Integer#MIN_VALUE} if the query is not a subsequence of the label.
+     */
+    private int fuzzyScore(int id, String q) {
+        int start = offsets[id];
+        int end = offsets[id + 1];
+        int score = 0;
+        int prev = start - 2;
+        int p = start;
+        for (int qi = 0; qi < q.length(); qi++) {
+            char qc = q.charAt(qi);
+            while (p < end && Character.toLowerCase(chars[p]) != qc) {
+                p++;
+            }
+            if (p == end) {
+                return Integer.MIN_VALUE;
+            }
+            if (isHumpStart(chars, start, end, p)) {
+                score += 20;
+            }
+            if (p == prev + 1) {
+                score += 10;
+            } else {
+                score -= Math.min(p - prev - 1, 20);
+            }
+            prev = p;
+            p++;
+        }
+        return score - (end - start) / 4;
+    }
+
+    /**
+     * One bit per letter and digit, all other characters share bit 63.
+     */
+    private static long charBit(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return 1L << (c - 'a');
+        }
+        if (c >= '0' && c <= '9') {
+            return 1L << (26 + c - '0');
+        }
+        return 1L << 63;
+    }
+
+    private static boolean isHumpStart(char[] chars, int start, int end, int i) {
+        char c = chars[i];
+        if (!Character.isLetterOrDigit(c)) {
+            return false;
+        }
+        if (i == start) {
+            return true;
+        }
+        char prev = chars[i - 1];
+        if (!Character.isLetterOrDigit(prev)) {
+            return true;
+        }
+        if (Character.isUpperCase(c)) {
+            // fooBar, foo2Bar, HTMLParser
+            return !Character.isUpperCase(prev)
+                    || (i + 1 < end && Character.isLowerCase(chars[i + 1]));
+        }
+        return false;
+    }
+
+    private static String sortText(int rank) {
+        char[] c = new char[6];
+        for (int i = c.length - 1; i >= 0; i--) {
+            c[i] = (char) ('0' + rank % 10);
+            rank /= 10;
+        }
+        return new String(c);
+    }
+
+    // ========== Sorted array search ==========
+
+    /**
+     * Compares the lower case key of {@code id} with the query, looking at no more than
+     * {@code q.length()} characters: 0 means the key starts with the query.
+     */
+    private static int comparePrefix(char[] data, int[] offsets, int id, String q) {
+        int start = offsets[id];
+        int len = offsets[id + 1] - start;
+        int n = Math.min(len, q.length());
+        for (int i = 0; i < n; i++) {
+            int d = Character.toLowerCase(data[start + i]) - q.charAt(i);
+            if (d != 0) {
+                return d;
+            }
+        }
+        return len < q.length() ? -1 : 0;
+    }
+
+    private static int lowerBound(int[] order, char[] data, int[] offsets, String q) {
+        int lo = 0;
+        int hi = order.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comparePrefix(data, offsets, order[mid], q) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static int upperBound(int[] order, char[] data, int[] offsets, String q, int from) {
+        int lo = from;
+        int hi = order.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comparePrefix(data, offsets, order[mid], q) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static boolean regionEquals(char[] data, int start, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (data[start + i] != s.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int compareLower(char[] data, int[] offsets, int a, int b) {
+        int aStart = offsets[a];
+        int bStart = offsets[b];
+        int aLen = offsets[a + 1] - aStart;
+        int bLen = offsets[b + 1] - bStart;
+        int n = Math.min(aLen, bLen);
+        for (int i = 0; i < n; i++) {
+            int d = Character.toLowerCase(data[aStart + i]) - Character.toLowerCase(data[bStart + i]);
+            if (d != 0) {
+                return d;
+            }
+        }
+        return aLen - bLen;
+    }
+
+    private static int[] identity(int n) {
+        int[] a = new int[n];
+        for (int i = 0; i < n; i++) {
+            a[i] = i;
+        }
+        return a;
+    }
+
+    /**
+     * Stable merge sort of primitive ints with a comparator, avoids boxing a million Integers.
+     */
+    static void sort(int[] a, IntBinaryOperator cmp) {
+        int[] src = a;
+        int[] dst = new int[a.length];
+        for (int width = 1; width < a.length; width *= 2) {
+            for (int lo = 0; lo < a.length; lo += 2 * width) {
+                int mid = Math.min(lo + width, a.length);
+                int hi = Math.min(lo + 2 * width, a.length);
+                int i = lo;
+                int j = mid;
+                int k = lo;
+                while (i < mid && j < hi) {
+                    dst[k++] = cmp.applyAsInt(src[i], src[j]) <= 0 ? src[i++] : src[j++];
+                }
+                while (i < mid) {
+                    dst[k++] = src[i++];
+                }
+                while (j < hi) {
+                    dst[k++] = src[j++];
+                }
+            }
+            int[] t = src;
+            src = dst;
+            dst = t;
+        }
+        if (src != a) {
+            System.arraycopy(src, 0, a, 0, a.length);
+        }
+    }
+
+    /**
+     * Bounded min-heap of (score, id) pairs.
+     */
+    private static final class TopK {
+        final int[] ids;
+        final int[] scores;
+        int size;
+
+        TopK(int k) {
+            ids = new int[k];
+            scores = new int[k];
+        }
+
+        void add(int id, int score) {
+            if (size < ids.length) {
+                int i = size++;
+                ids[i] = id;
+                scores[i] = score;
+                // sift up
+                while (i > 0) {
+                    int parent = (i - 1) >>> 1;
+                    if (scores[parent] <= scores[i]) {
+                        break;
+                    }
+                    swap(i, parent);
+                    i = parent;
+                }
+            } else if (score > scores[0]) {
+                ids[0] = id;
+                scores[0] = score;
+                // sift down
+                int i = 0;
+                while (true) {
+                    int l = 2 * i + 1;
+                    int r = l + 1;
+                    int min = i;
+                    if (l < size && scores[l] < scores[min]) {
+                        min = l;
+                    }
+                    if (r < size && scores[r] < scores[min]) {
+                        min = r;
+                    }
+                    if (min == i) {
+                        break;
+                    }
+                    swap(i, min);
+                    i = min;
+                }
+            }
+        }
+
+        private void swap(int a, int b) {
+            int t = ids[a];
+            ids[a] = ids[b];
+            ids[b] = t;
+            t = scores[a];
+            scores[a] = scores[b];
+            scores[b] = t;
+        }
+
+        int[] sortedIds(CompletionIndex index) {
+            int[] order = identity(size);
+            sort(order, (a, b) -> scores[a] != scores[b]
+                    ? Integer.compare(scores[b], scores[a])
+                    : compareLower(index.chars, index.offsets, ids[a], ids[b]));
+            int[] result = new int[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = ids[order[i]];
+            }
+            return result;
+        }
+    }
+
+    public static final class Builder {
+        private char[] chars = new char[1024];
+        private int length;
+        private int[] offsets = new int[65];
+        private byte[] kinds = new byte[64];
+        private int count;
+        private ItemFactory itemFactory = (id, item) -> item.build();
+        private int maxFuzzyCandidates = 100_000;
+
+        private Builder() {
+        }
+
+        /**
+         * Add a symbol of kind {@link CompletionItem.CompletionItemKind#TEXT}.
+         * Its id is the number of symbols added before.
+         */
+        public Builder add(String label) {
+            return add(label, CompletionItem.CompletionItemKind.TEXT);
+        }
+
+        /**
+         * Add a symbol. Its id is the number of symbols added before.
+         */
+        public Builder add(String label, CompletionItem.CompletionItemKind kind) {
+            if (label == null || label.isEmpty()) {
+                throw new IllegalArgumentException("label must not be empty");
+            }
+            if (length + label.length() > chars.length) {
+                chars = Arrays.copyOf(chars, Math.max(chars.length * 2, length + label.length()));
+            }
+            if (count + 2 > offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                kinds = Arrays.copyOf(kinds, offsets.length);
+            }
+            label.getChars(0, label.length(), chars, length);
+            length += label.length();
+            kinds[count] = (byte) kind.ordinal();
+            offsets[++count] = length;
+            return this;
+        }
+
+        /**
+         * How completion items are created for results, e.g. to add detail text.
+         */
+        public Builder itemFactory(ItemFactory itemFactory) {
+            this.itemFactory = itemFactory;
+            return this;
+        }
+
+        /**
+         * Upper bound for the symbols scored in the fuzzy pass of a single query. Default 100,000.
+         */
+        public Builder maxFuzzyCandidates(int maxFuzzyCandidates) {
+            this.maxFuzzyCandidates = maxFuzzyCandidates;
+            return this;
+        }
+
+        public CompletionIndex build() {
+            return new CompletionIndex(this);
+        }
+    }
+}
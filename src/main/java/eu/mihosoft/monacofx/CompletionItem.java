@@ -20,6 +20,7 @@ public final class CompletionItem {
     private final boolean isSnippet;
     private final String sortText;
     private final String filterText;
+    private final String id;
 
     private CompletionItem(Builder builder) {
         this.label = builder.label;
@@ -30,28 +31,84 @@ public final class CompletionItem {
         this.isSnippet = builder.isSnippet;
         this.sortText = builder.sortText;
         this.filterText = builder.filterText;
+        this.id = builder.id;
     }
 
     public static Builder builder() {
         return new Builder();
     }
 
+    /**
+     * A builder initialized with the values of this item, e.g. to add documentation in a
+     * {@link CompletionItemResolver}.
+     */
+    public Builder toBuilder() {
+        return new Builder()
+                .label(label)
+                .kind(kind)
+                .insertText(insertText)
+                .detail(detail)
+                .documentation(documentation)
+                .isSnippet(isSnippet)
+                .sortText(sortText)
+                .filterText(filterText)
+                .id(id);
+    }
+
+    public String getLabel() { return label; }
+    public CompletionItemKind getKind() { return kind; }
+    public String getInsertText() { return insertText; }
+    public String getDetail() { return detail; }
+    public String getDocumentation() { return documentation; }
+    public boolean isSnippet() { return isSnippet; }
+    public String getSortText() { return sortText; }
+    public String getFilterText() { return filterText; }
+
+    /**
+     * Stable id of the item, or null. Used as key for resolved items, see {@link CompletionItemResolver}.
+     */
+    public String getId() { return id; }
+
+    /**
+     * The text Monaco filters on.
+     */
+    String getFilterKey() {
+        return filterText != null ? filterText : label;
+    }
+
     Map<String, Object> toMap() {
+        Map<String, Object> map = toLightweightMap();
+        map.putAll(toResolvedMap());
+        return map;
+    }
+
+    /**
+     * Everything Monaco needs to list, filter and insert the item, without detail and documentation.
+     */
+    Map<String, Object> toLightweightMap() {
         Map<String, Object> map = new HashMap<>();
         map.put("label", label);
         map.put("kind", kind.getValue());
         map.put("insertText", insertText != null ? insertText : label);
+        if (isSnippet) {
+            map.put("insertTextRules", 4); // InsertAsSnippet
+        }
+        if (sortText != null) map.put("sortText", sortText);
+        if (filterText != null) map.put("filterText", filterText);
+        return map;
+    }
+
+    /**
+     * The properties filled in by {@code resolveCompletionItem}.
+     */
+    Map<String, Object> toResolvedMap() {
+        Map<String, Object> map = new HashMap<>();
         if (detail != null) map.put("detail", detail);
         if (documentation != null) {
             Map<String, Object> doc = new HashMap<>();
             doc.put("value", documentation);
             map.put("documentation", doc);
         }
-        if (isSnippet) {
-            map.put("insertTextRules", 4); // InsertAsSnippet
-        }
-        if (sortText != null) map.put("sortText", sortText);
-        if (filterText != null) map.put("filterText", filterText);
         return map;
     }
 
@@ -64,6 +121,7 @@ public final class CompletionItem {
         private boolean isSnippet = false;
         private String sortText;
         private String filterText;
+        private String id;
 
         public Builder label(String label) {
             this.label = label;
@@ -105,6 +163,14 @@ public final class CompletionItem {
             return this;
         }
 
+        /**
+         * Stable id, e.g. the symbol's key in your index. Items with the same id are resolved once.
+         */
+        public Builder id(String id) {
+            this.id = id;
+            return this;
+        }
+
         public CompletionItem build() {
             if (label == null) throw new IllegalStateException("label is required");
             return new CompletionItem(this);
@@ -10,7 +10,7 @@ import java.util.List;
  * Interface for providing custom code completions (IntelliSense).
  * 
  * <pre>{@code
- * editor.setCompletionProvider("java", (text, position, trigger) -> {
+ * editor.registerCompletionProvider("java", (text, position, trigger) -> {
  *     List<CompletionItem> items = new ArrayList<>();
  *     items.add(CompletionItem.builder()
  *         .label("System.out.println")
@@ -0,0 +1,31 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+/**
+ * Fills in detail and documentation of a completion item when it is focused in the
+ * suggestion widget (Monaco's {@code resolveCompletionItem}). With a resolver registered,
+ * completion lists only ship label, kind, insertText, sortText and filterText.
+ * <p>
+ * Resolved items are cached by {@link CompletionItem#getId()}; give items a stable id
+ * so the same symbol is resolved only once across lists.
+ *
+ * <pre>{@code
+ * editor.registerCompletionProvider("java", provider,
+ *     item -> item.toBuilder().documentation(javadoc.lookup(item.getId())).build(),
+ *     ".");
+ * }</pre>
+ */
+@FunctionalInterface
+public interface CompletionItemResolver {
+
+    /**
+     * Called on the provider executor.
+     *
+     * @param item an item returned by the completion provider
+     * @return the item with detail and documentation, e.g. via {@link CompletionItem#toBuilder()}
+     */
+    CompletionItem resolveCompletionItem(CompletionItem item);
+}
@@ -0,0 +1,81 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the items of recent completion lists so that Monaco can resolve them by id,
+ * and the resolved detail/documentation JSON per id.
+ */
+final class CompletionResolveCache {
+
+    private static final Gson GSON = new GsonBuilder().create();
+
+    static final int MAX_ITEMS = 20_000;
+    static final int MAX_RESOLVED = 1_000;
+
+    private final CompletionItemResolver resolver;
+    private final Executor executor;
+    private final AtomicLong nextId = new AtomicLong();
+    private final Map<String, CompletionItem> items = Collections.synchronizedMap(lru(MAX_ITEMS));
+    private final Map<String, String> resolved = Collections.synchronizedMap(lru(MAX_RESOLVED));
+
+    CompletionResolveCache(CompletionItemResolver resolver, Executor executor) {
+        this.resolver = resolver;
+        this.executor = executor;
+    }
+
+    /**
+     * Lightweight map of the item plus the {@code resolveId} Monaco sends back on resolve.
+     */
+    Map<String, Object> toMap(CompletionItem item) {
+        String key = item.getId() != null ? "id:" + item.getId() : "#" + nextId.incrementAndGet();
+        items.put(key, item);
+        Map<String, Object> map = item.toLightweightMap();
+        map.put("resolveId", key);
+        return map;
+    }
+
+    /**
+     * JSON with detail and documentation of the item, or null if it is no longer known.
+     */
+    CompletableFuture<String> resolve(String key, CancellationToken token) {
+        String json = resolved.get(key);
+        if (json != null) {
+            return CompletableFuture.completedFuture(json);
+        }
+        CompletionItem item = items.get(key);
+        if (item == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            if (token.isCancellationRequested()) {
+                return null;
+            }
+            CompletionItem r = resolver.resolveCompletionItem(item);
+            String result = GSON.toJson((r != null ? r : item).toResolvedMap());
+            resolved.put(key, result);
+            return result;
+        }, executor);
+    }
+
+    private static <K, V> Map<K, V> lru(int max) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > max;
+            }
+        };
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+/**
+ * One edit of a content change reported by Monaco: the range that was replaced
+ * (in coordinates before the edit) and the text that replaced it.
+ */
+public final class ContentChange {
+
+    private final Range range;
+    private final int rangeOffset;
+    private final int rangeLength;
+    private final String text;
+
+    public ContentChange(Range range, int rangeOffset, int rangeLength, String text) {
+        this.range = range;
+        this.rangeOffset = rangeOffset;
+        this.rangeLength = rangeLength;
+        this.text = text;
+    }
+
+    /**
+     * Replaced range, in coordinates before the edit.
+     */
+    public Range getRange() { return range; }
+
+    /**
+     * Offset of the replaced range, before the edit.
+     */
+    public int getRangeOffset() { return rangeOffset; }
+
+    /**
+     * Length of the replaced range.
+     */
+    public int getRangeLength() { return rangeLength; }
+
+    /**
+     * The new text for the range.
+     */
+    public String getText() { return text; }
+
+    /**
+     * Number of lines added (positive) or removed (negative) by this edit.
+     */
+    public int getLineDelta() {
+        return countLineBreaks(text) - (range.getEndLineNumber() - range.getStartLineNumber());
+    }
+
+    /**
+     * Column of the end of the inserted text, 1-based, in the line where the insertion ends.
+     */
+    int getInsertedEndColumn() {
+        int lastBreak = Math.max(text.lastIndexOf('\n'), text.lastIndexOf('\r'));
+        if (lastBreak < 0) {
+            return range.getStartColumn() + text.length();
+        }
+        return text.length() - lastBreak;
+    }
+
+    static int countLineBreaks(String text) {
+        int n = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || (c == '\r' && (i + 1 == text.length() || text.charAt(i + 1) != '\n'))) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    @Override
+    public String toString() {
+        return "ContentChange{" + range.getStartLineNumber() + ":" + range.getStartColumn()
+                + "-" + range.getEndLineNumber() + ":" + range.getEndColumn()
+                + ", text=" + text.length() + " chars}";
+    }
+}
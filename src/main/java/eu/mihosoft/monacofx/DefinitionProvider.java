@@ -11,7 +11,7 @@ import java.util.List;
  * When implemented, Ctrl+Click or F12 on a symbol will navigate to its definition.
  * 
  * <pre>{@code
- * editor.setDefinitionProvider("java", (documentText, position, word) -> {
+ * editor.registerDefinitionProvider("java", (documentText, position, word) -> {
  *     // Look up the definition location for 'word'
  *     if (symbolTable.contains(word)) {
  *         SymbolInfo info = symbolTable.get(word);
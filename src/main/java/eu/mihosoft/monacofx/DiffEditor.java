@@ -8,11 +8,14 @@ import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
+import javafx.beans.value.ChangeListener;
 import javafx.scene.web.WebEngine;
 import netscape.javascript.JSObject;
 
 /**
  * API for controlling the Monaco Diff Editor.
+ * Obtained either from a standalone {@link DiffEditorFX} or from
+ * {@link MonacoFX#getDiffEditor()}, which shares the code editor's web view.
  */
 public final class DiffEditor {
 
@@ -25,6 +28,13 @@ public final class DiffEditor {
     private final StringProperty languageProperty = new SimpleStringProperty("text");
     private final BooleanProperty inlineViewProperty = new SimpleBooleanProperty(false);
 
+    private final ChangeListener<String> modelListener = (obs, oldVal, newVal) -> updateModel();
+    private final ChangeListener<Boolean> inlineViewListener = (obs, oldVal, newVal) -> {
+        if (window != null) {
+            window.call("setDiffEditorInlineMode", newVal);
+        }
+    };
+
     DiffEditor(WebEngine engine) {
         this.engine = engine;
     }
@@ -39,14 +49,26 @@ public final class DiffEditor {
         }
 
         // Listen for property changes
-        originalTextProperty.addListener((obs, oldVal, newVal) -> updateModel());
-        modifiedTextProperty.addListener((obs, oldVal, newVal) -> updateModel());
-        languageProperty.addListener((obs, oldVal, newVal) -> updateModel());
-        inlineViewProperty.addListener((obs, oldVal, newVal) -> {
-            if (window != null) {
-                window.call("setDiffEditorInlineMode", newVal);
-            }
-        });
+        originalTextProperty.addListener(modelListener);
+        modifiedTextProperty.addListener(modelListener);
+        languageProperty.addListener(modelListener);
+        inlineViewProperty.addListener(inlineViewListener);
+    }
+
+    /**
+     * Removes all listeners and disposes the diff editor and its models in Monaco.
+     */
+    void dispose() {
+        originalTextProperty.removeListener(modelListener);
+        modifiedTextProperty.removeListener(modelListener);
+        languageProperty.removeListener(modelListener);
+        inlineViewProperty.removeListener(inlineViewListener);
+
+        if (window != null) {
+            window.call("disposeDiffEditor");
+        }
+        window = null;
+        editor = null;
     }
 
     private void updateModel() {
@@ -115,7 +137,8 @@ public final class DiffEditor {
     }
 
     /**
-     * Set the theme.
+     * Set the theme. Themes are global to the Monaco runtime, so for a diff editor obtained
+     * from {@link MonacoFX#getDiffEditor()} this also changes the code editor's theme.
      */
     public void setTheme(String theme) {
         if (window != null) {
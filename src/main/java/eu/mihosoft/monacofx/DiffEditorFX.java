@@ -5,6 +5,7 @@
 package eu.mihosoft.monacofx;
 
 import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
 import javafx.concurrent.Worker;
 import javafx.geometry.HPos;
 import javafx.geometry.VPos;
@@ -30,12 +31,15 @@ import java.util.concurrent.atomic.AtomicInteger;
  * diffEditor.getDiffEditor().setInlineView(true);
  * }</pre>
  */
-public class DiffEditorFX extends Region {
+public class DiffEditorFX extends Region implements AutoCloseable {
 
     private final WebView view;
     private final WebEngine engine;
     private final DiffEditor diffEditor;
 
+    private final ChangeListener<Worker.State> loadListener;
+    private final AtomicBoolean disposed = new AtomicBoolean(false);
+
     private final static String EDITOR_HTML_RESOURCE_LOCATION = "/eu/mihosoft/monacofx/monaco-editor-0.52.0/diff-editor.html";
 
     public DiffEditorFX() {
@@ -48,21 +52,24 @@ public class DiffEditorFX extends Region {
 
         diffEditor = new DiffEditor(engine);
 
-        engine.getLoadWorker().stateProperty().addListener((o, old, state) -> {
-            if (state == Worker.State.SUCCEEDED) {
+        loadListener = (o, old, state) -> {
+            if (state == Worker.State.SUCCEEDED && !disposed.get()) {
                 JSObject window = (JSObject) engine.executeScript("window");
 
                 AtomicBoolean jsDone = new AtomicBoolean(false);
                 AtomicInteger attempts = new AtomicInteger();
 
                 Thread thread = new Thread(() -> {
-                    while (!jsDone.get()) {
+                    while (!jsDone.get() && !disposed.get()) {
                         try {
                             Thread.sleep(500);
                         } catch (InterruptedException e) {
                             e.printStackTrace();
                         }
                         Platform.runLater(() -> {
+                            if (jsDone.get() || disposed.get()) {
+                                return;
+                            }
                             Object jsDiffEditorObj = window.call("getDiffEditorView");
                             if (jsDiffEditorObj instanceof JSObject) {
                                 diffEditor.setEditor(window, (JSObject) jsDiffEditorObj);
@@ -79,7 +86,8 @@ public class DiffEditorFX extends Region {
                 });
                 thread.start();
             }
-        });
+        };
+        engine.getLoadWorker().stateProperty().addListener(loadListener);
     }
 
     @Override
@@ -117,4 +125,37 @@ public class DiffEditorFX extends Region {
     public WebEngine getWebEngine() {
         return engine;
     }
+
+    /**
+     * Disposes the diff editor and its models, removes all listeners and clears the
+     * web view (loads {@code about:blank}). The instance cannot be used afterwards.
+     * <p>
+     * Must be called on the JavaFX application thread. Calling it more than once has no effect.
+     */
+    public void dispose() {
+        if (disposed.getAndSet(true)) {
+            return;
+        }
+
+        engine.getLoadWorker().stateProperty().removeListener(loadListener);
+        diffEditor.dispose();
+
+        engine.load("about:blank");
+        getChildren().remove(view);
+    }
+
+    /**
+     * Same as {@link #dispose()}.
+     */
+    @Override
+    public void close() {
+        dispose();
+    }
+
+    /**
+     * Indicates whether {@link #dispose()} has been called.
+     */
+    public boolean isDisposed() {
+        return disposed.get();
+    }
 }
@@ -23,10 +23,16 @@
  */
 package eu.mihosoft.monacofx;
 
+import javafx.beans.InvalidationListener;
 import javafx.beans.property.*;
 import javafx.scene.web.WebEngine;
 import netscape.javascript.JSObject;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 public class Document {
 
     private WebEngine engine;
@@ -35,12 +41,16 @@ public class Document {
     private JSObject window;
 
     private boolean updatingText;
+    private volatile int version;
 
     private final StringProperty textProperty = new SimpleStringProperty();
     private final StringProperty languageProperty = new SimpleStringProperty();
     private final IntegerProperty numberOfLinesProperty = new SimpleIntegerProperty();
 
+    private final List<DocumentChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+
     private JFunction jsfListener;
+    private InvalidationListener textToJSListener;
 
     void setEditor(WebEngine engine, JSObject window, JSObject editor) {
         this.engine = engine;
@@ -51,12 +61,18 @@ public class Document {
         editor.call("setValue", getText());
 
         // text changes -> js
-        textProperty.addListener((ov) -> {
+        textToJSListener = (ov) -> {
             if(!updatingText) editor.call("setValue", getText());
-        });
+        };
+        textProperty.addListener(textToJSListener);
 
         // keep a global reference because it's garbage collected otherwise
         jsfListener = new JFunction( args -> {
+            JSObject ev = args.length > 0 && args[0] instanceof JSObject ? (JSObject) args[0] : null;
+            Object versionId = ev != null ? ev.getMember("versionId") : null;
+            if(versionId instanceof Number) {
+                version = ((Number) versionId).intValue();
+            }
             String text = (String) editor.call("getValue");
             if(text!=null) {
                 try {
@@ -65,7 +81,10 @@ public class Document {
                 }finally {
                     updatingText=false;
                 }
-                numberOfLinesProperty.setValue(text.split("\\R").length);
+                numberOfLinesProperty.setValue(countLines(text));
+            }
+            if(ev != null && !changeListeners.isEmpty()) {
+                fireChanged(toContentChanges(ev.getMember("changes")));
             }
             return null;
         });
@@ -75,6 +94,82 @@ public class Document {
 
     }
 
+    /**
+     * Notifies the change listeners of edits made at the current version.
+     */
+    void fireChanged(List<ContentChange> changes) {
+        for(DocumentChangeListener l : changeListeners) {
+            l.documentChanged(this, version, changes);
+        }
+    }
+
+    /**
+     * Detaches this document from the editor. The text stays available.
+     */
+    void dispose() {
+        if(textToJSListener!=null) {
+            textProperty.removeListener(textToJSListener);
+            textToJSListener = null;
+        }
+        if(window!=null) {
+            window.removeMember("contentChangeListener");
+        }
+        jsfListener = null;
+        engine = null;
+        editor = null;
+        window = null;
+    }
+
+    private static List<ContentChange> toContentChanges(Object changesObj) {
+        if(!(changesObj instanceof JSObject)) {
+            return Collections.emptyList();
+        }
+        JSObject changes = (JSObject) changesObj;
+        int n = ((Number) changes.getMember("length")).intValue();
+        List<ContentChange> result = new ArrayList<>(n);
+        for(int i = 0; i < n; i++) {
+            JSObject c = (JSObject) changes.getSlot(i);
+            JSObject r = (JSObject) c.getMember("range");
+            Range range = new Range(
+                    ((Number) r.getMember("startLineNumber")).intValue(),
+                    ((Number) r.getMember("startColumn")).intValue(),
+                    ((Number) r.getMember("endLineNumber")).intValue(),
+                    ((Number) r.getMember("endColumn")).intValue());
+            result.add(new ContentChange(range,
+                    ((Number) c.getMember("rangeOffset")).intValue(),
+                    ((Number) c.getMember("rangeLength")).intValue(),
+                    (String) c.getMember("text")));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Add a listener that receives the individual edits of every content change made in Monaco.
+     */
+    public void addChangeListener(DocumentChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    public void removeChangeListener(DocumentChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    long estimateRetainedBytes() {
+        return ResourceUsage.estimateStringBytes(getText());
+    }
+
+    static int countLines(String text) {
+        return text.split("\\R").length;
+    }
+
+    /**
+     * Version of the Monaco model as of the last content change, increases with every edit.
+     * Provider requests carry the version they were made for, see {@link ProviderRequest#getVersion()}.
+     */
+    public int getVersion() {
+        return version;
+    }
+
     public StringProperty textProperty() {
         return textProperty;
     }
@@ -0,0 +1,32 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.List;
+
+/**
+ * Notified on the JavaFX application thread after Monaco changed the document.
+ * Unlike a listener on {@link Document#textProperty()} it receives the individual edits,
+ * which lets caches update incrementally.
+ *
+ * <pre>{@code
+ * editor.getDocument().addChangeListener((document, version, changes) -> {
+ *     for (ContentChange c : changes) {
+ *         index.invalidateLines(c.getRange().getStartLineNumber(), c.getRange().getEndLineNumber());
+ *     }
+ * });
+ * }</pre>
+ */
+@FunctionalInterface
+public interface DocumentChangeListener {
+
+    /**
+     * @param document the changed document, its text is already updated
+     * @param version the new model version
+     * @param changes the edits, as reported by Monaco: ranges refer to the previous version and
+     *                are sorted so that applying them in order keeps later ranges valid
+     */
+    void documentChanged(Document document, int version, List<ContentChange> changes);
+}
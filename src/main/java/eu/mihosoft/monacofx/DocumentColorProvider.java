@@ -12,7 +12,7 @@ import java.util.List;
  * clicking them opens a color picker.
  * 
  * <pre>{@code
- * editor.setDocumentColorProvider("css", new DocumentColorProvider() {
+ * editor.registerColorProvider("css", new DocumentColorProvider() {
  *     @Override
  *     public List<ColorInformation> provideDocumentColors(String documentText) {
  *         List<ColorInformation> colors = new ArrayList<>();
@@ -0,0 +1,198 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A symbol of the document outline, e.g. a class with its methods as children. Shown in
+ * the outline, the breadcrumbs and the sticky scroll header.
+ */
+public final class DocumentSymbol {
+
+    private final String name;
+    private final String detail;
+    private final SymbolKind kind;
+    private final Range range;
+    private final Range selectionRange;
+    private final List<DocumentSymbol> children;
+
+    private DocumentSymbol(Builder builder) {
+        this.name = builder.name;
+        this.detail = builder.detail;
+        this.kind = builder.kind;
+        this.range = builder.range;
+        this.selectionRange = builder.selectionRange != null ? builder.selectionRange : builder.range;
+        this.children = List.copyOf(builder.children);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Builder toBuilder() {
+        return new Builder()
+                .name(name)
+                .detail(detail)
+                .kind(kind)
+                .range(range)
+                .selectionRange(selectionRange)
+                .children(children);
+    }
+
+    public String getName() { return name; }
+    public String getDetail() { return detail; }
+    public SymbolKind getKind() { return kind; }
+
+    /**
+     * The whole symbol, e.g. a method including its body.
+     */
+    public Range getRange() { return range; }
+
+    /**
+     * The part that is selected when the symbol is picked, usually its name.
+     */
+    public Range getSelectionRange() { return selectionRange; }
+
+    public List<DocumentSymbol> getChildren() { return children; }
+
+    /**
+     * This symbol and its children moved by whole lines.
+     */
+    DocumentSymbol moved(int lineDelta) {
+        if (lineDelta == 0) {
+            return this;
+        }
+        List<DocumentSymbol> movedChildren = new ArrayList<>(children.size());
+        for (DocumentSymbol child : children) {
+            movedChildren.add(child.moved(lineDelta));
+        }
+        return toBuilder()
+                .range(move(range, lineDelta))
+                .selectionRange(move(selectionRange, lineDelta))
+                .children(movedChildren)
+                .build();
+    }
+
+    private static Range move(Range r, int lineDelta) {
+        return new Range(r.getStartLineNumber() + lineDelta, r.getStartColumn(),
+                r.getEndLineNumber() + lineDelta, r.getEndColumn());
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("name", name);
+        map.put("detail", detail != null ? detail : "");
+        map.put("kind", kind.getValue());
+        map.put("tags", List.of());
+        map.put("range", range.toMap());
+        map.put("selectionRange", selectionRange.toMap());
+        if (!children.isEmpty()) {
+            List<Map<String, Object>> list = new ArrayList<>(children.size());
+            for (DocumentSymbol child : children) {
+                list.add(child.toMap());
+            }
+            map.put("children", list);
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return "DocumentSymbol{" + name + ", " + kind + ", " + range.getStartLineNumber() + "-"
+                + range.getEndLineNumber() + (children.isEmpty() ? "" : ", " + children) + "}";
+    }
+
+    public static class Builder {
+        private String name = "";
+        private String detail;
+        private SymbolKind kind = SymbolKind.VARIABLE;
+        private Range range;
+        private Range selectionRange;
+        private final List<DocumentSymbol> children = new ArrayList<>();
+
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder detail(String detail) {
+            this.detail = detail;
+            return this;
+        }
+
+        public Builder kind(SymbolKind kind) {
+            this.kind = kind;
+            return this;
+        }
+
+        public Builder range(Range range) {
+            this.range = range;
+            return this;
+        }
+
+        public Builder selectionRange(Range selectionRange) {
+            this.selectionRange = selectionRange;
+            return this;
+        }
+
+        public Builder child(DocumentSymbol child) {
+            this.children.add(child);
+            return this;
+        }
+
+        public Builder children(List<DocumentSymbol> children) {
+            this.children.clear();
+            this.children.addAll(children);
+            return this;
+        }
+
+        public DocumentSymbol build() {
+            if (range == null) {
+                throw new IllegalStateException("range is required");
+            }
+            return new DocumentSymbol(this);
+        }
+    }
+
+    /**
+     * Symbol kinds, with Monaco's values.
+     */
+    public enum SymbolKind {
+        FILE(0),
+        MODULE(1),
+        NAMESPACE(2),
+        PACKAGE(3),
+        CLASS(4),
+        METHOD(5),
+        PROPERTY(6),
+        FIELD(7),
+        CONSTRUCTOR(8),
+        ENUM(9),
+        INTERFACE(10),
+        FUNCTION(11),
+        VARIABLE(12),
+        CONSTANT(13),
+        STRING(14),
+        NUMBER(15),
+        BOOLEAN(16),
+        ARRAY(17),
+        OBJECT(18),
+        KEY(19),
+        NULL(20),
+        ENUM_MEMBER(21),
+        STRUCT(22),
+        EVENT(23),
+        OPERATOR(24),
+        TYPE_PARAMETER(25);
+
+        private final int value;
+        SymbolKind(int value) { this.value = value; }
+        public int getValue() { return value; }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the last result of a {@link DocumentSymbolProvider} and the edits made since, so that
+ * the next request can be answered incrementally, and the result as a {@link DocumentSymbolTree}.
+ * <p>
+ * Requests may overlap: each update records how many edits it consumed and its result only
+ * becomes the new baseline if no newer result did so first.
+ */
+final class DocumentSymbolCache implements DocumentChangeListener {
+
+    /**
+     * Beyond this many untracked edits a full recompute is cheaper than replaying them.
+     */
+    static final int MAX_PENDING_CHANGES = 1000;
+
+    private final String language;
+    private Document document;
+    private List<DocumentSymbol> previous;
+    private volatile DocumentSymbolTree tree = DocumentSymbolTree.EMPTY;
+    private final List<ContentChange> pending = new ArrayList<>();
+    private int generation;
+
+    DocumentSymbolCache(String language) {
+        this.language = language;
+    }
+
+    String getLanguage() {
+        return language;
+    }
+
+    /**
+     * Creates the update for a request, called on the JavaFX application thread.
+     */
+    synchronized DocumentSymbolUpdate begin(Document document, String text, CancellationToken token) {
+        if (document != this.document) {
+            this.document = document;
+            reset();
+        }
+        return new DocumentSymbolUpdate(text, new ArrayList<>(pending), previous, token, generation);
+    }
+
+    /**
+     * Makes the result the baseline for the next update.
+     */
+    synchronized void complete(DocumentSymbolUpdate update, List<DocumentSymbol> result) {
+        if (update.generation != generation || result == null) {
+            return;
+        }
+        previous = List.copyOf(result);
+        tree = new DocumentSymbolTree(previous);
+        pending.subList(0, update.getChanges().size()).clear();
+        generation++;
+    }
+
+    @Override
+    public synchronized void documentChanged(Document document, int version, List<ContentChange> changes) {
+        if (document != this.document) {
+            return;
+        }
+        pending.addAll(changes);
+        if (pending.size() > MAX_PENDING_CHANGES) {
+            reset();
+        }
+    }
+
+    synchronized void reset() {
+        previous = null;
+        tree = DocumentSymbolTree.EMPTY;
+        pending.clear();
+        generation++;
+    }
+
+    /**
+     * The tree of the last result.
+     */
+    DocumentSymbolTree getTree() {
+        return tree;
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.List;
+
+/**
+ * Provides the symbols shown in the outline, the breadcrumbs and the sticky scroll header.
+ * Registered via {@link Editor#registerDocumentSymbolProvider(String, DocumentSymbolProvider)},
+ * it runs on the {@link Editor#getProviderExecutor() provider executor} and is handed the
+ * edits since its previous result, so it only needs to reparse the symbols touched by them.
+ *
+ * <pre>{@code
+ * editor.registerDocumentSymbolProvider("mylang", update -> {
+ *     List<DocumentSymbol> result = new ArrayList<>(update.getUnaffected());
+ *     result.addAll(parse(update.getText(), update.getRecomputeStartLine(), update.getRecomputeEndLine()));
+ *     result.sort(Comparator.comparingInt(s -> s.getRange().getStartLineNumber()));
+ *     return result;
+ * });
+ * }</pre>
+ */
+@FunctionalInterface
+public interface DocumentSymbolProvider {
+
+    /**
+     * Compute the symbols of the document.
+     *
+     * @param update the text, the edits since the last result and that result
+     * @return the top level symbols of the document, each with its children
+     */
+    List<DocumentSymbol> updateSymbols(DocumentSymbolUpdate update);
+}
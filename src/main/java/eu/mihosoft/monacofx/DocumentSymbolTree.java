@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The symbols of a document as an interval tree, for finding the symbols at a position
+ * without walking the whole outline.
+ * <p>
+ * All symbols, at any depth, are sorted by start position; an implicit balanced tree over
+ * that order stores the greatest end position per subtree, so a query only descends into
+ * subtrees that can contain the position. Immutable and safe to share between threads.
+ *
+ * <pre>{@code
+ * DocumentSymbol method = editor.getDocumentSymbols().symbolAt(editor.getCursorService().getPosition());
+ * }</pre>
+ */
+public final class DocumentSymbolTree {
+
+    public static final DocumentSymbolTree EMPTY = new DocumentSymbolTree(Collections.emptyList());
+
+    private final List<DocumentSymbol> symbols;
+    private final DocumentSymbol[] nodes;
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnds;
+
+    public DocumentSymbolTree(List<DocumentSymbol> symbols) {
+        this.symbols = List.copyOf(symbols);
+        List<DocumentSymbol> all = new ArrayList<>();
+        flatten(this.symbols, all);
+        // stable, so a parent stays before a child starting at the same position
+        all.sort(Comparator.comparingLong(s -> start(s.getRange())));
+        int n = all.size();
+        nodes = all.toArray(new DocumentSymbol[0]);
+        starts = new long[n];
+        ends = new long[n];
+        maxEnds = new long[n];
+        for (int i = 0; i < n; i++) {
+            starts[i] = start(nodes[i].getRange());
+            ends[i] = end(nodes[i].getRange());
+        }
+        computeMaxEnds(0, n);
+    }
+
+    private static void flatten(List<DocumentSymbol> symbols, List<DocumentSymbol> out) {
+        for (DocumentSymbol s : symbols) {
+            out.add(s);
+            flatten(s.getChildren(), out);
+        }
+    }
+
+    private long computeMaxEnds(int lo, int hi) {
+        if (lo >= hi) {
+            return Long.MIN_VALUE;
+        }
+        int mid = (lo + hi) >>> 1;
+        long max = Math.max(ends[mid], Math.max(computeMaxEnds(lo, mid), computeMaxEnds(mid + 1, hi)));
+        maxEnds[mid] = max;
+        return max;
+    }
+
+    private static long start(Range r) {
+        return key(r.getStartLineNumber(), r.getStartColumn());
+    }
+
+    private static long end(Range r) {
+        return key(r.getEndLineNumber(), r.getEndColumn());
+    }
+
+    private static long key(int line, int column) {
+        return ((long) line << 32) | (column & 0xffffffffL);
+    }
+
+    /**
+     * The top level symbols, as returned by the provider.
+     */
+    public List<DocumentSymbol> getSymbols() {
+        return symbols;
+    }
+
+    /**
+     * Number of symbols at any depth.
+     */
+    public int size() {
+        return nodes.length;
+    }
+
+    /**
+     * The innermost symbol containing the position, e.g. the method the cursor is in.
+     *
+     * @return the symbol or null if the position is outside all symbols
+     */
+    public DocumentSymbol symbolAt(Position position) {
+        List<DocumentSymbol> path = symbolsAt(position);
+        return path.isEmpty() ? null : path.get(path.size() - 1);
+    }
+
+    /**
+     * All symbols containing the position, from the outermost to the innermost, i.e. the
+     * breadcrumbs of the position.
+     */
+    public List<DocumentSymbol> symbolsAt(Position position) {
+        List<DocumentSymbol> result = new ArrayList<>();
+        collect(0, nodes.length, key(position.lineNumber, position.column), result);
+        return result;
+    }
+
+    private void collect(int lo, int hi, long p, List<DocumentSymbol> out) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (maxEnds[mid] < p) {
+            return;
+        }
+        collect(lo, mid, p, out);
+        if (starts[mid] > p) {
+            return;
+        }
+        if (ends[mid] >= p) {
+            out.add(nodes[mid]);
+        }
+        collect(mid + 1, hi, p, out);
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Input of a {@link DocumentSymbolProvider}: the document text, the edits since the
+ * provider's previous result and that result.
+ * <p>
+ * Top level symbols no edit touched are available in current line numbers via
+ * {@link #getUnaffected()}; the touched ones via {@link #getAffected()}, still in their
+ * previous line numbers. Everything else lies within
+ * [{@link #getRecomputeStartLine()}, {@link #getRecomputeEndLine()}]. A provider reparses
+ * these lines, and while doing so can keep the untouched children of an affected symbol
+ * with {@link #moved(DocumentSymbol)}.
+ */
+public final class DocumentSymbolUpdate {
+
+    private final String text;
+    private final List<ContentChange> changes;
+    private final List<DocumentSymbol> previous;
+    private final CancellationToken token;
+    final int generation;
+
+    private final int lineCount;
+    private final List<DocumentSymbol> unaffected;
+    private final List<DocumentSymbol> affected;
+    private int recomputeStartLine = Integer.MAX_VALUE;
+    private int recomputeEndLine = Integer.MIN_VALUE;
+
+    DocumentSymbolUpdate(String text, List<ContentChange> changes, List<DocumentSymbol> previous,
+                         CancellationToken token, int generation) {
+        this.text = text;
+        this.changes = Collections.unmodifiableList(changes);
+        this.previous = previous;
+        this.token = token;
+        this.generation = generation;
+        this.lineCount = ContentChange.countLineBreaks(text) + 1;
+
+        if (previous == null) {
+            unaffected = Collections.emptyList();
+            affected = Collections.emptyList();
+            recomputeStartLine = 1;
+            recomputeEndLine = lineCount;
+            return;
+        }
+
+        List<DocumentSymbol> kept = new ArrayList<>(previous.size());
+        List<DocumentSymbol> touched = new ArrayList<>();
+        for (DocumentSymbol s : previous) {
+            int[] lines = map(s.getRange().getStartLineNumber(), s.getRange().getEndLineNumber());
+            if (lines[2] != 0) {
+                touched.add(s);
+                include(lines[0], lines[1]);
+            } else {
+                kept.add(s.moved(lines[0] - s.getRange().getStartLineNumber()));
+            }
+        }
+
+        // lines the edits produced, in current line numbers
+        for (int i = 0; i < changes.size(); i++) {
+            ContentChange c = changes.get(i);
+            int start = c.getRange().getStartLineNumber();
+            int end = start + ContentChange.countLineBreaks(c.getText());
+            for (int j = i + 1; j < changes.size(); j++) {
+                ContentChange later = changes.get(j);
+                int changeStart = later.getRange().getStartLineNumber();
+                int changeEnd = later.getRange().getEndLineNumber();
+                int newEnd = changeStart + ContentChange.countLineBreaks(later.getText());
+                start = start < changeStart ? start : start > changeEnd ? start + later.getLineDelta() : changeStart;
+                end = end < changeStart ? end : end > changeEnd ? end + later.getLineDelta() : Math.max(end, newEnd);
+            }
+            include(start, end);
+        }
+
+        if (recomputeStartLine > recomputeEndLine) {
+            // nothing changed
+            unaffected = Collections.unmodifiableList(kept);
+            affected = Collections.emptyList();
+            return;
+        }
+        recomputeStartLine = Math.max(1, recomputeStartLine);
+        recomputeEndLine = Math.min(lineCount, recomputeEndLine);
+
+        List<DocumentSymbol> outside = new ArrayList<>(kept.size());
+        for (DocumentSymbol s : kept) {
+            if (s.getRange().getEndLineNumber() < recomputeStartLine
+                    || s.getRange().getStartLineNumber() > recomputeEndLine) {
+                outside.add(s);
+            } else {
+                // the provider finds it again while reparsing the recompute range
+                include(s.getRange().getStartLineNumber(), s.getRange().getEndLineNumber());
+            }
+        }
+        unaffected = Collections.unmodifiableList(outside);
+        affected = Collections.unmodifiableList(touched);
+    }
+
+    /**
+     * Maps a line span of the previous result through the edits.
+     *
+     * @return start and end in current line numbers, and 1 if an edit touched the span
+     */
+    private int[] map(int start, int end) {
+        boolean touched = false;
+        for (ContentChange c : changes) {
+            int changeStart = c.getRange().getStartLineNumber();
+            int changeEnd = c.getRange().getEndLineNumber();
+            int newEnd = changeStart + ContentChange.countLineBreaks(c.getText());
+            touched |= changeStart <= end && changeEnd >= start;
+            start = start < changeStart ? start : start > changeEnd ? start + c.getLineDelta() : changeStart;
+            end = end < changeStart ? end : end > changeEnd ? end + c.getLineDelta() : newEnd;
+        }
+        return new int[]{start, end, touched ? 1 : 0};
+    }
+
+    private void include(int start, int end) {
+        recomputeStartLine = Math.min(recomputeStartLine, start);
+        recomputeEndLine = Math.max(recomputeEndLine, end);
+    }
+
+    /**
+     * True if an edit touched the lines of a symbol of the previous result, at any depth.
+     */
+    public boolean isAffected(DocumentSymbol previousSymbol) {
+        return map(previousSymbol.getRange().getStartLineNumber(),
+                previousSymbol.getRange().getEndLineNumber())[2] != 0;
+    }
+
+    /**
+     * A symbol of the previous result, at any depth, moved to current line numbers.
+     *
+     * @return the moved symbol including its children, null if an edit touched its lines
+     */
+    public DocumentSymbol moved(DocumentSymbol previousSymbol) {
+        int start = previousSymbol.getRange().getStartLineNumber();
+        int[] lines = map(start, previousSymbol.getRange().getEndLineNumber());
+        return lines[2] != 0 ? null : previousSymbol.moved(lines[0] - start);
+    }
+
+    /**
+     * The full document text.
+     */
+    public String getText() { return text; }
+
+    /**
+     * Edits since the previous result, in the order Monaco applied them. Empty on the first call.
+     */
+    public List<ContentChange> getChanges() { return changes; }
+
+    /**
+     * The provider's previous top level symbols, null on the first call or if the edits could
+     * not be tracked (e.g. the document was replaced).
+     */
+    public List<DocumentSymbol> getPrevious() { return previous; }
+
+    /**
+     * True if there is no previous result and all lines have to be parsed.
+     */
+    public boolean isFullRecompute() { return previous == null; }
+
+    /**
+     * Previous top level symbols outside the recompute range, moved to current line numbers.
+     */
+    public List<DocumentSymbol> getUnaffected() { return unaffected; }
+
+    /**
+     * Previous top level symbols an edit touched, in previous line numbers.
+     */
+    public List<DocumentSymbol> getAffected() { return affected; }
+
+    /**
+     * First line (1-based) to parse. Greater than {@link #getRecomputeEndLine()} if nothing changed.
+     */
+    public int getRecomputeStartLine() {
+        return recomputeStartLine > recomputeEndLine ? lineCount + 1 : recomputeStartLine;
+    }
+
+    /**
+     * Last line (1-based) to parse.
+     */
+    public int getRecomputeEndLine() {
+        return recomputeStartLine > recomputeEndLine ? lineCount : recomputeEndLine;
+    }
+
+    /**
+     * Number of lines of {@link #getText()}.
+     */
+    public int getLineCount() { return lineCount; }
+
+    /**
+     * Cancelled when Monaco no longer needs the result.
+     */
+    public CancellationToken getCancellationToken() { return token; }
+}
@@ -23,6 +23,11 @@
  */
 package eu.mihosoft.monacofx;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
@@ -33,8 +38,19 @@ import javafx.collections.ObservableList;
 import javafx.scene.web.WebEngine;
 import netscape.javascript.JSObject;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
 public final class Editor {
 
+    private static final Gson GSON = new Gson();
+
+    static final int DEFAULT_PROVIDER_CONTEXT_LINES = 50;
+
     private final WebEngine engine;
     private JSObject window;
     private JSObject editor;
@@ -46,19 +62,65 @@ public final class Editor {
     private final StringProperty currentThemeProperty = new SimpleStringProperty();
     private final StringProperty currentLanguageProperty = new SimpleStringProperty();
 
+    private ListChangeListener<LanguageSupport> languagesListener;
+    private ListChangeListener<EditorTheme> themesListener;
+    private InvalidationListener themeListener;
+    private InvalidationListener languageListener;
+
     // New services
     private DecorationsService decorationsService;
     private MarkersService markersService;
     private CursorService cursorService;
     private FindReplaceService findReplaceService;
 
+    private final ProviderBridge providerBridge = new ProviderBridge(() -> getDocument().getText());
+    private Executor providerExecutor;
+    private int providerContextLines = DEFAULT_PROVIDER_CONTEXT_LINES;
+    private final Map<String, ProviderRegistration> providerRegistrations = new LinkedHashMap<>();
+    private final HoverCache hoverCache = new HoverCache(0);
+    private final List<DocumentChangeListener> documentChangeListeners = new CopyOnWriteArrayList<>();
+    private final List<RangeSemanticTokensCache> rangeSemanticTokensCaches = new CopyOnWriteArrayList<>();
+    // set on the JavaFX application thread while a prefetch is posted
+    private boolean prefetchPending;
+    private final List<DocumentSymbolCache> documentSymbolCaches = new CopyOnWriteArrayList<>();
+    private final Map<String, TextMateTokenization> textMateTokenizations = new LinkedHashMap<>();
+    private final DocumentChangeListener documentChangeForwarder = (document, version, changes) -> {
+        for (DocumentChangeListener l : documentChangeListeners) {
+            l.documentChanged(document, version, changes);
+        }
+    };
+
     Editor(WebEngine engine) {
         this.engine = engine;
         this.viewController = new ViewController(this);
+        viewController.firstVisibleLineProperty().addListener((ov) -> schedulePrefetchSemanticTokens());
+        viewController.lastVisibleLineProperty().addListener((ov) -> schedulePrefetchSemanticTokens());
         this.decorationsService = new DecorationsService(this);
         this.markersService = new MarkersService(this);
         this.cursorService = new CursorService(this);
         this.findReplaceService = new FindReplaceService(this);
+        documentChangeListeners.add(hoverCache);
+        documentChangeListeners.add((document, version, changes) -> {
+            for (TextMateTokenization t : textMateTokenizations.values()) {
+                if (t.getLanguage().equals(getCurrentLanguage())) {
+                    t.update(document, changes);
+                } else {
+                    t.invalidate();
+                }
+            }
+        });
+        currentLanguageProperty.addListener((ov) -> updateTextMateTokenization());
+        documentProperty.addListener((ov, oldDoc, newDoc) -> {
+            hoverCache.clear();
+            textMateTokenizations.values().forEach(TextMateTokenization::invalidate);
+            updateTextMateTokenization();
+            if (oldDoc != null) {
+                oldDoc.removeChangeListener(documentChangeForwarder);
+            }
+            if (newDoc != null) {
+                newDoc.addChangeListener(documentChangeForwarder);
+            }
+        });
         Document document = new Document();
         setDocument(document);
     }
@@ -75,6 +137,10 @@ public final class Editor {
         return engine;
     }
 
+    ProviderBridge getProviderBridge() {
+        return providerBridge;
+    }
+
     private void registerLanguageJS(LanguageSupport l) {
 
         String registerScript = "require(['vs/editor/editor.main'], function() {\n";
@@ -83,7 +149,17 @@ public final class Editor {
 
         registerScript+=registerLang;
 
-        if(l.getMonarchSyntaxHighlighter()!=null) {
+        if(l.getTextMateGrammar()!=null) {
+            TextMateTokenization tokenization = new TextMateTokenization(l.getName(), l.getTextMateGrammar(),
+                    this::executeProvider);
+            TextMateTokenization previous = textMateTokenizations.put(l.getName(), tokenization);
+            if(previous!=null) {
+                previous.dispose();
+            }
+            window.setMember("textMateTokenizer_" + l.getName(), tokenization);
+            registerScript+="registerTextMateTokensProvider('" + l.getName() + "', textMateTokenizer_" + l.getName() + ")\n";
+            updateTextMateTokenization();
+        } else if(l.getMonarchSyntaxHighlighter()!=null) {
             String registerMonarch = "monaco.languages.setMonarchTokensProvider(\"" + l.getName() + "\", {\n"
                     + l.getMonarchSyntaxHighlighter().getRules()
                     + "})\n";
@@ -96,7 +172,7 @@ public final class Editor {
             );
 
 
-            String registerFoldingProvider = "monaco.languages.registerFoldingRangeProvider('mylang', {\n"
+            String registerFoldingProvider = "monaco.languages.registerFoldingRangeProvider('" + l.getName() + "', {\n"
                     + "         provideFoldingRanges: function(model, context, token) {\n"
                     + "     return foldingProvider_" + l.getName() + ".apply([model,context,token]);\n"
                     + "}\n"
@@ -110,6 +186,16 @@ public final class Editor {
         engine.executeScript(registerScript);
     }
 
+    /**
+     * Starts tokenizing the document in the background if its language has a TextMate grammar.
+     */
+    private void updateTextMateTokenization() {
+        TextMateTokenization t = textMateTokenizations.get(getCurrentLanguage());
+        if (t != null && t.isStale() && getDocument() != null) {
+            t.reset(getDocument().getText());
+        }
+    }
+
     private void registerThemeJS(EditorTheme t) {
         String script = "monaco.editor.defineTheme('"+t.name+"', " + t.toJS()+")";
         engine.executeScript(script);
@@ -121,19 +207,21 @@ public final class Editor {
 
         // register custom languages
         languages.forEach(this::registerLanguageJS);
-        languages.addListener((ListChangeListener<LanguageSupport>) c -> {
+        languagesListener = c -> {
             while(c.next()) {
                 c.getAddedSubList().stream().forEach(this::registerLanguageJS);
             }
-        });
+        };
+        languages.addListener(languagesListener);
 
         // register custom themes
         themes.forEach(this::registerThemeJS);
-        themes.addListener((ListChangeListener<EditorTheme>) c -> {
+        themesListener = c -> {
             while(c.next()) {
                 c.getAddedSubList().stream().forEach(this::registerThemeJS);
             }
-        });
+        };
+        themes.addListener(themesListener);
 
         // initial theme
         if(getCurrentTheme()!=null) {
@@ -141,9 +229,10 @@ public final class Editor {
         }
 
         // theme changes -> js
-        currentThemeProperty().addListener((ov) -> {
+        themeListener = (ov) -> {
             engine.executeScript("monaco.editor.setTheme('"+getCurrentTheme()+"')");
-        });
+        };
+        currentThemeProperty().addListener(themeListener);
 
         // initial lang
         if(getCurrentLanguage()!=null) {
@@ -151,13 +240,60 @@ public final class Editor {
         }
 
         // lang changes -> js
-        currentLanguageProperty().addListener((ov) -> {
+        languageListener = (ov) -> {
             engine.executeScript("monaco.editor.setModelLanguage(editorView.getModel(),'"+getCurrentLanguage()+"')");
-        });
+        };
+        currentLanguageProperty().addListener(languageListener);
 
         getDocument().setEditor(engine, window, editor);
 
         getViewController().setEditor(window, editor);
+
+        providerBridge.setWindow(window);
+        window.setMember("javaProviderBridge", providerBridge);
+        window.call("setProviderContextLines", providerContextLines);
+
+        // providers registered before the page was ready
+        providerRegistrations.values().forEach(r -> r.registerJS(window));
+    }
+
+    /**
+     * Releases everything that ties this editor to the web page: property listeners,
+     * window members, Monaco models and providers. Called by {@link MonacoFX#dispose()}.
+     */
+    void dispose() {
+        if(languagesListener!=null) languages.removeListener(languagesListener);
+        if(themesListener!=null) themes.removeListener(themesListener);
+        if(themeListener!=null) currentThemeProperty().removeListener(themeListener);
+        if(languageListener!=null) currentLanguageProperty().removeListener(languageListener);
+        languagesListener = null;
+        themesListener = null;
+        themeListener = null;
+        languageListener = null;
+
+        getDocument().dispose();
+        getViewController().dispose();
+        providerBridge.dispose();
+        for(ProviderRegistration registration : providerRegistrations.values()) {
+            registration.unbind(providerBridge);
+        }
+        textMateTokenizations.values().forEach(TextMateTokenization::dispose);
+
+        if(window!=null) {
+            window.removeMember("javaProviderBridge");
+            for(LanguageSupport l : languages) {
+                if(l.getFoldingProvider()!=null) {
+                    window.removeMember("foldingProvider_" + l.getName());
+                }
+                if(textMateTokenizations.containsKey(l.getName())) {
+                    window.removeMember("textMateTokenizer_" + l.getName());
+                }
+            }
+            window.call("disposeEditor");
+        }
+
+        window = null;
+        editor = null;
     }
 
     public StringProperty currentThemeProperty() {
@@ -269,6 +405,508 @@ public final class Editor {
         }
     }
 
+    /**
+     * Set the executor that synchronous providers run on. Async providers choose their own threads.
+     * By default providers run on virtual threads if the runtime supports them
+     * and on a cached pool of daemon threads otherwise.
+     */
+    public void setProviderExecutor(Executor executor) {
+        this.providerExecutor = executor;
+    }
+
+    /**
+     * Get the executor that synchronous providers run on.
+     */
+    public Executor getProviderExecutor() {
+        return providerExecutor != null ? providerExecutor : ProviderBridge.defaultExecutor();
+    }
+
+    /**
+     * Set how many lines above and below the position are sent with each provider request
+     * (see {@link ProviderRequest#getWindowText()}). Defaults to 50.
+     * Providers that need more read the full text from the Java-side document mirror.
+     */
+    public void setProviderContextLines(int lines) {
+        if (lines < 0) {
+            throw new IllegalArgumentException("lines must not be negative: " + lines);
+        }
+        this.providerContextLines = lines;
+        if (window != null) {
+            window.call("setProviderContextLines", lines);
+        }
+    }
+
+    public int getProviderContextLines() {
+        return providerContextLines;
+    }
+
+    /**
+     * Set how many hover results are cached, 0 (the default) disables the cache.
+     * Results are cached per word range and least recently used results are evicted first.
+     * An edit only invalidates the results whose word it touches, so enable the cache only
+     * for hover providers that depend on the hovered word alone.
+     * Hits and misses are reported by {@link #getResourceUsage()}.
+     */
+    public void setHoverCacheSize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size must not be negative: " + size);
+        }
+        hoverCache.setMaxSize(size);
+    }
+
+    public int getHoverCacheSize() {
+        return hoverCache.getMaxSize();
+    }
+
+    // ========== Language Providers ==========
+
+    /**
+     * Register a completion provider. It runs on the {@link #getProviderExecutor() provider executor}.
+     * A provider registered for the same language before is replaced.
+     *
+     * @param language Monaco language id, e.g. "java"
+     * @param provider the provider
+     * @param triggerCharacters characters that open the suggestion widget, "." if none are given
+     * @return registration, dispose it to remove the provider
+     */
+    public Registration registerCompletionProvider(String language, CompletionItemProvider provider,
+                                                   String... triggerCharacters) {
+        return registerCompletionProvider(language,
+                AsyncCompletionItemProvider.of(provider, this::executeProvider), triggerCharacters);
+    }
+
+    /**
+     * Register an asynchronous completion provider.
+     *
+     * @see #registerCompletionProvider(String, CompletionItemProvider, String...)
+     */
+    public Registration registerCompletionProvider(String language, AsyncCompletionItemProvider provider,
+                                                   String... triggerCharacters) {
+        String triggers = triggerCharacters.length > 0 ? GSON.toJson(triggerCharacters) : null;
+        return registerProvider(new ProviderRegistration(this, ProviderBridge.COMPLETION, language,
+                "registerCompletionProvider", triggers, false)
+                .handler(ProviderBridge.COMPLETION, ProviderBridge.completionHandler(provider)));
+    }
+
+    /**
+     * Register a completion provider whose items are resolved lazily: lists only carry
+     * label, kind and insert text, detail and documentation are requested from the resolver
+     * when an item is focused. Both run on the {@link #getProviderExecutor() provider executor}.
+     *
+     * @see CompletionItemResolver
+     */
+    public Registration registerCompletionProvider(String language, CompletionItemProvider provider,
+                                                   CompletionItemResolver resolver, String... triggerCharacters) {
+        return registerCompletionProvider(language,
+                AsyncCompletionItemProvider.of(provider, this::executeProvider), resolver, triggerCharacters);
+    }
+
+    /**
+     * Register an asynchronous completion provider whose items are resolved lazily.
+     *
+     * @see #registerCompletionProvider(String, CompletionItemProvider, CompletionItemResolver, String...)
+     */
+    public Registration registerCompletionProvider(String language, AsyncCompletionItemProvider provider,
+                                                   CompletionItemResolver resolver, String... triggerCharacters) {
+        String triggers = triggerCharacters.length > 0 ? GSON.toJson(triggerCharacters) : null;
+        CompletionResolveCache resolveCache = new CompletionResolveCache(resolver, this::executeProvider);
+        return registerProvider(new ProviderRegistration(this, ProviderBridge.COMPLETION, language,
+                "registerCompletionProvider", triggers, true)
+                .handler(ProviderBridge.COMPLETION, ProviderBridge.completionHandler(provider,
+                        new CompletionCache(resolveCache::toMap)))
+                .handler(ProviderBridge.RESOLVE_COMPLETION, ProviderBridge.resolveCompletionHandler(resolveCache)));
+    }
+
+    /**
+     * Register a hover provider. It runs on the {@link #getProviderExecutor() provider executor}.
+     * A provider registered for the same language before is replaced.
+     */
+    public Registration registerHoverProvider(String language, HoverProvider provider) {
+        return registerHoverProvider(language, AsyncHoverProvider.of(provider, this::executeProvider));
+    }
+
+    /**
+     * Register an asynchronous hover provider.
+     */
+    public Registration registerHoverProvider(String language, AsyncHoverProvider provider) {
+        return registerProvider(new ProviderRegistration(this, ProviderBridge.HOVER, language,
+                "registerHoverProvider")
+                .handler(ProviderBridge.HOVER, ProviderBridge.hoverHandler(provider, hoverCache)));
+    }
+
+    /**
+     * Register a go-to-definition provider. It runs on the {@link #getProviderExecutor() provider executor}.
+     * A provider registered for the same language before is replaced.
+     */
+    public Registration registerDefinitionProvider(String language, DefinitionProvider provider) {
+        return registerDefinitionProvider(language, AsyncDefinitionProvider.of(provider, this::executeProvider));
+    }
+
+    /**
+     * Register an asynchronous go-to-definition provider.
+     */
+    public Registration registerDefinitionProvider(String language, AsyncDefinitionProvider provider) {
+        return registerProvider(new ProviderRegistration(this, ProviderBridge.DEFINITION, language,
+                "registerDefinitionProvider")
+                .handler(ProviderBridge.DEFINITION, ProviderBridge.definitionHandler(provider)));
+    }
+
+    /**
+     * Register a find-all-references provider, shown in Monaco's peek view.
+     * It runs on the {@link #getProviderExecutor() provider executor}.
+     * A provider registered for the same language before is replaced.
+     *
+     * @see WorkspaceSymbolIndex#referenceProvider(String)
+     */
+    public Registration registerReferenceProvider(String language, ReferenceProvider provider) {
+        return registerProvider(new ProviderRegistration(this, ProviderBridge.REFERENCES, language,
+                "registerReferenceProvider")
+                .handler(ProviderBridge.REFERENCES, ProviderBridge.referencesHandler(provider,
+                        this::executeProvider)));
+    }
+
+    /**
+     * Register a rename provider. It runs on the {@link #getProviderExecutor() provider executor};
+     * its edits are applied with one batched edit and one undo stop per affected model.
+     * A provider registered for the same language before is replaced.
+     *
+     * @see WorkspaceSymbolIndex#renameProvider(String)
+     */
+    public Registration registerRenameProvider(String language, RenameProvider provider) {
+        return registerProvider(new ProviderRegistration(this, ProviderBridge.RENAME, language,
+                "registerRenameProvider")
+                .handler(ProviderBridge.PREPARE_RENAME, ProviderBridge.prepareRenameHandler(provider,
+                        this::executeProvider))
+                .handler(ProviderBridge.RENAME, ProviderBridge.renameHandler(provider, this::executeProvider)));
+    }
+
+    /**
+     * Applies a workspace edit to the Monaco models, with one batched edit and one undo stop per
+     * model. Edits without URI apply to the editor's document. Does nothing before the editor
+     * has loaded. Must be called on the JavaFX application thread.
+     *
+     * @return the URIs of the documents Monaco has no model for, their edits were not applied
+     */
+    public List<String> applyWorkspaceEdit(WorkspaceEdit edit) {
+        if (window == null || edit.isEmpty()) {
+            return List.of();
+        }
+        String skipped = (String) window.call("applyWorkspaceEdit", GSON.toJson(edit.toBatches()));
+        return List.of(GSON.fromJson(skipped, String[].class));
+    }
+
+    /**
+     * Register a signature help (parameter hints) provider. It runs on the
+     * {@link #getProviderExecutor() provider executor} once per call site; while the arguments of
+     * the same call are typed, the overloads come from a cache and only the active parameter is
+     * computed again. A provider registered for the same language before is replaced.
+     *
+     * @param triggerCharacters characters that open the hints, {@code (} and {@code ,} if none are given
+     */
+    public Registration registerSignatureHelpProvider(String language, SignatureHelpProvider provider,
+                                                      String... triggerCharacters) {
+        String triggers = triggerCharacters.length > 0 ? GSON.toJson(triggerCharacters) : null;
+        SignatureHelpCache cache = new SignatureHelpCache();
+        documentChangeListeners.add(cache);
+        return registerProvider(new ProviderRegistration(this, ProviderBridge.SIGNATURE_HELP, language,
+                "registerSignatureHelpProvider", triggers)
+                .handler(ProviderBridge.SIGNATURE_HELP, ProviderBridge.signatureHelpHandler(provider, cache,
+                        this::getDocument, this::executeProvider))
+                .onUnbind(() -> {
+                    documentChangeListeners.remove(cache);
+                    cache.clear();
+                }));
+    }
+
+    /**
+     * Register an inline completion (ghost text) provider.
+     * It runs on the {@link #getProviderExecutor() provider executor}.
+     * A provider registered for the same language before is replaced.
+     */
+    public Registration registerInlineCompletionProvider(String language, InlineCompletionProvider provider) {
+        return registerInlineCompletionProvider(language,
+                AsyncInlineCompletionProvider.of(provider, this::executeProvider));
+    }
+
+    /**
+     * Register an asynchronous inline completion (ghost text) provider.
+     */
+    public Registration registerInlineCompletionProvider(String language, AsyncInlineCompletionProvider provider) {
+        return registerProvider(new ProviderRegistration(this, ProviderBridge.INLINE_COMPLETION, language,
+                "registerInlineCompletionProvider")
+                .handler(ProviderBridge.INLINE_COMPLETION, ProviderBridge.inlineCompletionHandler(provider)));
+    }
+
+    /**
+     * Register a streaming inline completion provider with the default debounce of 150 ms.
+     *
+     * @see #registerStreamingInlineCompletionProvider(String, StreamingInlineCompletionProvider, Duration)
+     */
+    public Registration registerStreamingInlineCompletionProvider(String language,
+                                                                  StreamingInlineCompletionProvider provider) {
+        return registerStreamingInlineCompletionProvider(language, provider, InlineCompletionPipeline.DEFAULT_DEBOUNCE);
+    }
+
+    /**
+     * Register an inline completion provider that streams its suggestion. The ghost text grows
+     * as chunks arrive. The provider is only asked once the user paused typing for
+     * {@code debounce}, streams the user typed past are cancelled and suggestions are cached
+     * for this editor's document. A provider registered for the same language before is replaced.
+     */
+    public Registration registerStreamingInlineCompletionProvider(String language,
+                                                                  StreamingInlineCompletionProvider provider,
+                                                                  Duration debounce) {
+        InlineCompletionPipeline pipeline = new InlineCompletionPipeline(provider, debounce, Platform::runLater,
+                () -> {
+                    if (window != null) {
+                        window.call("refreshInlineCompletions");
+                    }
+                });
+        return registerProvider(new ProviderRegistration(this, ProviderBridge.INLINE_COMPLETION, language,
+                "registerInlineCompletionProvider")
+                .handler(ProviderBridge.INLINE_COMPLETION, ProviderBridge.inlineCompletionHandler(pipeline))
+                .onUnbind(pipeline::dispose));
+    }
+
+    /**
+     * Register a folding range provider that is handed the edits since its previous result,
+     * so it only needs to rescan the regions touched by them. It runs on the
+     * {@link #getProviderExecutor() provider executor}.
+     * A provider registered for the same language before is replaced.
+     *
+     * @see FoldingUpdate
+     */
+    public Registration registerFoldingProvider(String language, IncrementalFoldingProvider provider) {
+        FoldingCache cache = new FoldingCache();
+        documentChangeListeners.add(cache);
+        return registerProvider(new ProviderRegistration(this, ProviderBridge.FOLDING_RANGES, language,
+                "registerFoldingProvider")
+                .handler(ProviderBridge.FOLDING_RANGES, ProviderBridge.foldingRangesHandler(provider, cache,
+                        this::getDocument, this::executeProvider))
+                .onUnbind(() -> {
+                    documentChangeListeners.remove(cache);
+                    cache.reset();
+                }));
+    }
+
+    /**
+     * Register a document symbol provider for the outline, the breadcrumbs and sticky scroll.
+     * It is handed the edits since its previous result, so it only needs to reparse the
+     * symbols touched by them, and runs on the {@link #getProviderExecutor() provider executor}.
+     * A provider registered for the same language before is replaced.
+     *
+     * @see DocumentSymbolUpdate
+     * @see #getDocumentSymbols()
+     */
+    public Registration registerDocumentSymbolProvider(String language, DocumentSymbolProvider provider) {
+        DocumentSymbolCache cache = new DocumentSymbolCache(language);
+        documentChangeListeners.add(cache);
+        documentSymbolCaches.add(cache);
+        return registerProvider(new ProviderRegistration(this, ProviderBridge.DOCUMENT_SYMBOLS, language,
+                "registerDocumentSymbolProvider")
+                .handler(ProviderBridge.DOCUMENT_SYMBOLS, ProviderBridge.documentSymbolsHandler(provider, cache,
+                        this::getDocument, this::executeProvider))
+                .onUnbind(() -> {
+                    documentChangeListeners.remove(cache);
+                    documentSymbolCaches.remove(cache);
+                    cache.reset();
+                }));
+    }
+
+    /**
+     * The symbols of the current document as last computed by the document symbol provider
+     * of the current language. Monaco asks for them again shortly after edits.
+     *
+     * @return the symbols, empty if there is no provider or it has not been asked yet
+     */
+    public DocumentSymbolTree getDocumentSymbols() {
+        for (DocumentSymbolCache cache : documentSymbolCaches) {
+            if (cache.getLanguage().equals(getCurrentLanguage())) {
+                return cache.getTree();
+            }
+        }
+        return DocumentSymbolTree.EMPTY;
+    }
+
+    /**
+     * Register a code action provider. Actions are listed and resolved on the
+     * {@link #getProviderExecutor() provider executor}; only the action the user picks is resolved.
+     * A provider registered for the same language before is replaced.
+     *
+     * @see CodeActionProvider
+     */
+    public Registration registerCodeActionProvider(String language, CodeActionProvider provider) {
+        CodeActionCache cache = new CodeActionCache(provider, this::executeProvider);
+        InvalidationListener documentListener = (ov) -> cache.clear();
+        documentProperty.addListener(documentListener);
+        return registerProvider(new ProviderRegistration(this, ProviderBridge.CODE_ACTIONS, language,
+                "registerCodeActionProvider")
+                .handler(ProviderBridge.CODE_ACTIONS, ProviderBridge.codeActionsHandler(cache))
+                .handler(ProviderBridge.RESOLVE_CODE_ACTION, ProviderBridge.resolveCodeActionHandler(cache))
+                .onUnbind(() -> {
+                    documentProperty.removeListener(documentListener);
+                    cache.clear();
+                }));
+    }
+
+    /**
+     * Register a semantic tokens provider. It runs on the {@link #getProviderExecutor() provider executor}
+     * and enables semantic highlighting in the editor.
+     * A provider registered for the same language before is replaced.
+     *
+     * @see SemanticTokensBuilder
+     */
+    public Registration registerSemanticTokensProvider(String language, SemanticTokensLegend legend,
+                                                       SemanticTokensProvider provider) {
+        SemanticTokensCache cache = new SemanticTokensCache();
+        return registerProvider(new ProviderRegistration(this, ProviderBridge.SEMANTIC_TOKENS, language,
+                "registerSemanticTokensProvider", GSON.toJson(legend.toMap()))
+                .handler(ProviderBridge.SEMANTIC_TOKENS, ProviderBridge.semanticTokensHandler(provider, cache,
+                        this::executeProvider))
+                .onUnbind(cache::clear));
+    }
+
+    /**
+     * Register a semantic tokens provider for line ranges, for documents too large to tokenize
+     * as a whole. Monaco asks for the visible lines; tokens are cached per line, computed ahead
+     * while scrolling and for the rest of the document while the editor is idle.
+     * It runs on the {@link #getProviderExecutor() provider executor} and enables semantic highlighting.
+     * A provider registered for the same language before is replaced.
+     */
+    public Registration registerRangeSemanticTokensProvider(String language, SemanticTokensLegend legend,
+                                                            RangeSemanticTokensProvider provider) {
+        RangeSemanticTokensCache cache = new RangeSemanticTokensCache(provider, language, this::executeProvider);
+        documentChangeListeners.add(cache);
+        rangeSemanticTokensCaches.add(cache);
+        return registerProvider(new ProviderRegistration(this, ProviderBridge.RANGE_SEMANTIC_TOKENS, language,
+                "registerRangeSemanticTokensProvider", GSON.toJson(legend.toMap()))
+                .handler(ProviderBridge.RANGE_SEMANTIC_TOKENS, ProviderBridge.rangeSemanticTokensHandler(cache,
+                        this::getDocument, this::executeProvider))
+                .onUnbind(() -> {
+                    documentChangeListeners.remove(cache);
+                    rangeSemanticTokensCaches.remove(cache);
+                    cache.dispose();
+                }));
+    }
+
+    /**
+     * The first and the last visible line change together while scrolling, one prefetch is
+     * posted for both.
+     */
+    private void schedulePrefetchSemanticTokens() {
+        if (prefetchPending || rangeSemanticTokensCaches.isEmpty()) {
+            return;
+        }
+        prefetchPending = true;
+        Platform.runLater(() -> {
+            prefetchPending = false;
+            prefetchSemanticTokens();
+        });
+    }
+
+    /**
+     * Computes range semantic tokens for the visible lines before Monaco asks for them.
+     */
+    private void prefetchSemanticTokens() {
+        if (rangeSemanticTokensCaches.isEmpty()) {
+            return;
+        }
+        Document document = getDocument();
+        String text = document.getText();
+        int first = getViewController().getFirstVisibleLine();
+        int last = getViewController().getLastVisibleLine();
+        for (RangeSemanticTokensCache cache : rangeSemanticTokensCaches) {
+            if (!cache.getLanguage().equals(getCurrentLanguage())) {
+                continue;
+            }
+            cache.begin(document);
+            ProviderRequest request = new ProviderRequest(cache.getLanguage(), document.getVersion(), null, "",
+                    null, "", 1, "", text != null ? text : "", CancellationToken.NONE);
+            cache.schedulePrefetch(request, first, last);
+        }
+    }
+
+    /**
+     * Register a document color provider. It runs on the {@link #getProviderExecutor() provider executor}.
+     * A provider registered for the same language before is replaced.
+     * A {@link LineColorProvider} is only asked for the lines changed since its previous result.
+     */
+    public Registration registerColorProvider(String language, DocumentColorProvider provider) {
+        if (provider instanceof LineColorProvider) {
+            ColorCache cache = new ColorCache((LineColorProvider) provider);
+            documentChangeListeners.add(cache);
+            return registerProvider(new ProviderRegistration(this, ProviderBridge.DOCUMENT_COLORS, language,
+                    "registerColorProvider", true)
+                    .handler(ProviderBridge.DOCUMENT_COLORS, ProviderBridge.lineColorsHandler(cache,
+                            this::getDocument, this::executeProvider))
+                    .handler(ProviderBridge.COLOR_PRESENTATIONS, ProviderBridge.colorPresentationsHandler(
+                            AsyncDocumentColorProvider.of(provider, this::executeProvider)))
+                    .onUnbind(() -> documentChangeListeners.remove(cache)));
+        }
+        return registerColorProvider(language, AsyncDocumentColorProvider.of(provider, this::executeProvider));
+    }
+
+    /**
+     * Register an asynchronous document color provider.
+     */
+    public Registration registerColorProvider(String language, AsyncDocumentColorProvider provider) {
+        return registerProvider(new ProviderRegistration(this, ProviderBridge.DOCUMENT_COLORS, language,
+                "registerColorProvider", false)
+                .handler(ProviderBridge.DOCUMENT_COLORS, ProviderBridge.documentColorsHandler(provider))
+                .handler(ProviderBridge.COLOR_PRESENTATIONS, ProviderBridge.colorPresentationsHandler(provider)));
+    }
+
+    private Registration registerProvider(ProviderRegistration registration) {
+        ProviderRegistration previous = providerRegistrations.put(registration.getKey(), registration);
+        if (previous != null) {
+            previous.unbind(providerBridge);
+        }
+        registration.bind(providerBridge);
+        if (window != null) {
+            registration.registerJS(window);
+        }
+        return registration;
+    }
+
+    void unregisterProvider(ProviderRegistration registration) {
+        // a newer registration for the same language may have replaced this one
+        if (!providerRegistrations.remove(registration.getKey(), registration)) {
+            return;
+        }
+        registration.unbind(providerBridge);
+        if (window != null) {
+            window.call("unregisterProvider", registration.getKind(), registration.getLanguage());
+        }
+    }
+
+    private void executeProvider(Runnable task) {
+        getProviderExecutor().execute(task);
+    }
+
+    /**
+     * Get the approximate memory footprint of this editor (Java document text,
+     * JS heap, models, decorations, markers and providers) and provider cache statistics.
+     * Must be called on the JavaFX application thread.
+     */
+    public ResourceUsage getResourceUsage() {
+        long javaBytes = getDocument().estimateRetainedBytes();
+        int foldingProviders = (int) languages.stream().filter(l -> l.getFoldingProvider() != null).count();
+
+        if (window == null) {
+            return new ResourceUsage(1, javaBytes, ResourceUsage.UNKNOWN, 0, 0, 0, foldingProviders,
+                    hoverCache.getHits(), hoverCache.getMisses());
+        }
+
+        JsonObject js = JsonParser.parseString((String) window.call("getResourceUsage")).getAsJsonObject();
+        return new ResourceUsage(1, javaBytes,
+                js.get("jsHeapUsed").getAsLong(),
+                js.get("models").getAsInt(),
+                js.get("decorations").getAsInt(),
+                js.get("markers").getAsInt(),
+                js.get("providers").getAsInt() + foldingProviders,
+                hoverCache.getHits(), hoverCache.getMisses());
+    }
+
     /**
      * Check if the editor is in read-only mode.
      */
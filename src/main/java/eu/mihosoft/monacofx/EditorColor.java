@@ -4,6 +4,9 @@
  */
 package eu.mihosoft.monacofx;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Represents a color in the editor (RGBA format, values 0-1).
  */
@@ -74,30 +77,53 @@ public final class EditorColor {
      * Convert to hex string (e.g., "#ff0000").
      */
     public String toHexString() {
-        return String.format("#%02x%02x%02x", 
-            (int)(red * 255), 
-            (int)(green * 255), 
-            (int)(blue * 255));
+        char[] chars = new char[7];
+        chars[0] = '#';
+        putHex(chars, 1, (int)(red * 255));
+        putHex(chars, 3, (int)(green * 255));
+        putHex(chars, 5, (int)(blue * 255));
+        return new String(chars);
     }
 
     /**
      * Convert to RGB string (e.g., "rgb(255, 0, 0)").
      */
     public String toRgbString() {
-        return String.format("rgb(%d, %d, %d)", 
-            (int)(red * 255), 
-            (int)(green * 255), 
-            (int)(blue * 255));
+        return new StringBuilder(20).append("rgb(")
+            .append((int)(red * 255)).append(", ")
+            .append((int)(green * 255)).append(", ")
+            .append((int)(blue * 255)).append(')')
+            .toString();
     }
 
     /**
      * Convert to RGBA string (e.g., "rgba(255, 0, 0, 1)").
      */
     public String toRgbaString() {
-        return String.format("rgba(%d, %d, %d, %.2f)", 
-            (int)(red * 255), 
-            (int)(green * 255), 
-            (int)(blue * 255),
-            alpha);
+        // two decimals, always with '.' regardless of the default locale
+        int hundredths = (int) Math.round(alpha * 100);
+        return new StringBuilder(28).append("rgba(")
+            .append((int)(red * 255)).append(", ")
+            .append((int)(green * 255)).append(", ")
+            .append((int)(blue * 255)).append(", ")
+            .append(hundredths / 100).append('.')
+            .append(hundredths / 10 % 10).append(hundredths % 10).append(')')
+            .toString();
+    }
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static void putHex(char[] chars, int index, int value) {
+        chars[index] = HEX_DIGITS[(value >> 4) & 0xF];
+        chars[index + 1] = HEX_DIGITS[value & 0xF];
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("red", red);
+        map.put("green", green);
+        map.put("blue", blue);
+        map.put("alpha", alpha);
+        return map;
     }
 }
@@ -23,6 +23,9 @@
  */
 package eu.mihosoft.monacofx;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public class Folding {
     public final int start;
     public final int end;
@@ -40,6 +43,21 @@ public class Folding {
         this.kind = new FoldingKind(null);
     }
 
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("start", start);
+        map.put("end", end);
+        if (kind != null && kind.value != null) {
+            map.put("kind", kind.value);
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return "Folding{" + start + "-" + end + (kind != null && kind.value != null ? ", " + kind.value : "") + "}";
+    }
+
     public static class FoldingKind {
         public final String value;
 
@@ -0,0 +1,160 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Input of an {@link IncrementalFoldingProvider}: the document text, the edits since the
+ * provider's previous result and that result.
+ * <p>
+ * Previous regions no edit touched are available in current line numbers via
+ * {@link #getUnaffected()}. Everything else lies within
+ * [{@link #getRecomputeStartLine()}, {@link #getRecomputeEndLine()}]: the edited lines
+ * plus the previous regions that contain them. A provider only has to scan these lines
+ * and add the regions it finds to the unaffected ones.
+ */
+public final class FoldingUpdate {
+
+    private final String text;
+    private final List<ContentChange> changes;
+    private final Folding[] previous;
+    private final CancellationToken token;
+    final int generation;
+
+    private final int lineCount;
+    private final List<Folding> unaffected;
+    private int recomputeStartLine = Integer.MAX_VALUE;
+    private int recomputeEndLine = Integer.MIN_VALUE;
+
+    FoldingUpdate(String text, List<ContentChange> changes, Folding[] previous, CancellationToken token,
+                  int generation) {
+        this.text = text;
+        this.changes = Collections.unmodifiableList(changes);
+        this.previous = previous;
+        this.token = token;
+        this.generation = generation;
+        this.lineCount = ContentChange.countLineBreaks(text) + 1;
+
+        if (previous == null) {
+            unaffected = Collections.emptyList();
+            recomputeStartLine = 1;
+            recomputeEndLine = lineCount;
+            return;
+        }
+
+        List<Folding> kept = new ArrayList<>(previous.length);
+        for (Folding f : previous) {
+            int start = f.start;
+            int end = f.end;
+            boolean touched = false;
+            for (ContentChange c : changes) {
+                int changeStart = c.getRange().getStartLineNumber();
+                int changeEnd = c.getRange().getEndLineNumber();
+                int newEnd = changeStart + ContentChange.countLineBreaks(c.getText());
+                touched |= changeStart <= end && changeEnd >= start;
+                start = start < changeStart ? start : start > changeEnd ? start + c.getLineDelta() : changeStart;
+                end = end < changeStart ? end : end > changeEnd ? end + c.getLineDelta() : newEnd;
+            }
+            if (touched) {
+                include(start, end);
+            } else {
+                kept.add(new Folding(start, end, f.kind.value));
+            }
+        }
+
+        // lines the edits produced, in current line numbers
+        for (int i = 0; i < changes.size(); i++) {
+            ContentChange c = changes.get(i);
+            int start = c.getRange().getStartLineNumber();
+            int end = start + ContentChange.countLineBreaks(c.getText());
+            for (int j = i + 1; j < changes.size(); j++) {
+                ContentChange later = changes.get(j);
+                int changeStart = later.getRange().getStartLineNumber();
+                int changeEnd = later.getRange().getEndLineNumber();
+                int newEnd = changeStart + ContentChange.countLineBreaks(later.getText());
+                start = start < changeStart ? start : start > changeEnd ? start + later.getLineDelta() : changeStart;
+                end = end < changeStart ? end : end > changeEnd ? end + later.getLineDelta() : Math.max(end, newEnd);
+            }
+            include(start, end);
+        }
+
+        if (recomputeStartLine > recomputeEndLine) {
+            // nothing changed
+            unaffected = Collections.unmodifiableList(kept);
+            return;
+        }
+        recomputeStartLine = Math.max(1, recomputeStartLine);
+        recomputeEndLine = Math.min(lineCount, recomputeEndLine);
+
+        List<Folding> outside = new ArrayList<>(kept.size());
+        for (Folding f : kept) {
+            if (f.end < recomputeStartLine || f.start > recomputeEndLine) {
+                outside.add(f);
+            } else {
+                // the provider finds it again while scanning the recompute range
+                include(f.start, f.end);
+            }
+        }
+        unaffected = Collections.unmodifiableList(outside);
+    }
+
+    private void include(int start, int end) {
+        recomputeStartLine = Math.min(recomputeStartLine, start);
+        recomputeEndLine = Math.max(recomputeEndLine, end);
+    }
+
+    /**
+     * The full document text.
+     */
+    public String getText() { return text; }
+
+    /**
+     * Edits since the previous result, in the order Monaco applied them. Empty on the first call.
+     */
+    public List<ContentChange> getChanges() { return changes; }
+
+    /**
+     * The provider's previous result, null on the first call or if the edits could not be
+     * tracked (e.g. the document was replaced).
+     */
+    public Folding[] getPrevious() { return previous; }
+
+    /**
+     * True if there is no previous result and all lines have to be scanned.
+     */
+    public boolean isFullRecompute() { return previous == null; }
+
+    /**
+     * Previous regions outside the recompute range, moved to current line numbers.
+     */
+    public List<Folding> getUnaffected() { return unaffected; }
+
+    /**
+     * First line (1-based) to scan. Greater than {@link #getRecomputeEndLine()} if nothing changed.
+     */
+    public int getRecomputeStartLine() {
+        return recomputeStartLine > recomputeEndLine ? lineCount + 1 : recomputeStartLine;
+    }
+
+    /**
+     * Last line (1-based) to scan.
+     */
+    public int getRecomputeEndLine() {
+        return recomputeStartLine > recomputeEndLine ? lineCount : recomputeEndLine;
+    }
+
+    /**
+     * Number of lines of {@link #getText()}.
+     */
+    public int getLineCount() { return lineCount; }
+
+    /**
+     * Cancelled when Monaco no longer needs the result.
+     */
+    public CancellationToken getCancellationToken() { return token; }
+}
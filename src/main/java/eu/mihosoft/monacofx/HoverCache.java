@@ -0,0 +1,177 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers serialized hover results per word range, shared by the hover registrations of
+ * one editor. Entries are least recently used first out once the cache is full.
+ * <p>
+ * An edit only drops the entries whose word range it touches. Entries after the edit are
+ * moved along with the text and stay valid for the new document version, so hovering over
+ * the same symbol again does not ask the provider although the document changed elsewhere.
+ * Providers whose hover depends on text outside the word should not be cached.
+ */
+final class HoverCache implements DocumentChangeListener {
+
+    private static final class Entry {
+        final String language;
+        final String word;
+        int lineNumber;
+        int startColumn;
+        int endColumn;
+        final String json;
+
+        Entry(String language, String word, int lineNumber, int startColumn, int endColumn, String json) {
+            this.language = language;
+            this.word = word;
+            this.lineNumber = lineNumber;
+            this.startColumn = startColumn;
+            this.endColumn = endColumn;
+            this.json = json;
+        }
+
+        String key() {
+            return HoverCache.key(language, lineNumber, startColumn, endColumn);
+        }
+    }
+
+    private int maxSize;
+    private int version = -1;
+    private LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param maxSize maximum number of entries, 0 disables the cache
+     */
+    HoverCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    synchronized void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+        trim();
+    }
+
+    synchronized int getMaxSize() {
+        return maxSize;
+    }
+
+    boolean isEnabled() {
+        return getMaxSize() > 0;
+    }
+
+    /**
+     * Returns the cached JSON for the request, or null. Hovers without content are cached
+     * as the JSON literal {@code null}.
+     */
+    synchronized String lookup(ProviderRequest request) {
+        Range range = request.getWordRange();
+        Entry e = range == null || request.getVersion() != version ? null
+                : entries.get(key(request.getLanguage(), range.getStartLineNumber(),
+                        range.getStartColumn(), range.getEndColumn()));
+        if (e == null || !e.word.equals(request.getWord())) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return e.json;
+    }
+
+    /**
+     * Remembers the result unless the document changed since the request was made.
+     */
+    synchronized void store(ProviderRequest request, String json) {
+        Range range = request.getWordRange();
+        if (maxSize <= 0 || range == null || request.getVersion() != version) {
+            return;
+        }
+        Entry e = new Entry(request.getLanguage(), request.getWord(), range.getStartLineNumber(),
+                range.getStartColumn(), range.getEndColumn(), json != null ? json : "null");
+        entries.put(e.key(), e);
+        trim();
+    }
+
+    @Override
+    public synchronized void documentChanged(Document document, int version, List<ContentChange> changes) {
+        this.version = version;
+        if (entries.isEmpty()) {
+            return;
+        }
+        List<Entry> kept = new ArrayList<>(entries.size());
+        for (Entry e : entries.values()) {
+            if (moveAlong(e, changes)) {
+                kept.add(e);
+            }
+        }
+        // keys change with the positions, rebuild in the same LRU order
+        LinkedHashMap<String, Entry> moved = new LinkedHashMap<>(16, 0.75f, true);
+        for (Entry e : kept) {
+            moved.put(e.key(), e);
+        }
+        entries = moved;
+    }
+
+    synchronized void clear() {
+        entries.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Applies the edits to the entry's range. Returns false if an edit touches the range.
+     */
+    private static boolean moveAlong(Entry e, List<ContentChange> changes) {
+        for (ContentChange c : changes) {
+            Range r = c.getRange();
+            boolean before = r.getEndLineNumber() < e.lineNumber
+                    || (r.getEndLineNumber() == e.lineNumber && r.getEndColumn() < e.startColumn);
+            boolean after = r.getStartLineNumber() > e.lineNumber
+                    || (r.getStartLineNumber() == e.lineNumber && r.getStartColumn() > e.endColumn);
+            if (after) {
+                continue;
+            }
+            if (!before) {
+                return false;
+            }
+            if (r.getEndLineNumber() == e.lineNumber) {
+                int shift = c.getInsertedEndColumn() - r.getEndColumn();
+                e.startColumn += shift;
+                e.endColumn += shift;
+            }
+            e.lineNumber += c.getLineDelta();
+        }
+        return true;
+    }
+
+    private void trim() {
+        Iterator<Entry> it = entries.values().iterator();
+        while (entries.size() > Math.max(0, maxSize) && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static String key(String language, int lineNumber, int startColumn, int endColumn) {
+        return language + '\u0000' + lineNumber + ':' + startColumn + ':' + endColumn;
+    }
+}
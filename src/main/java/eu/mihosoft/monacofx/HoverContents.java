@@ -4,6 +4,9 @@
  */
 package eu.mihosoft.monacofx;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Contents to display in a hover tooltip.
  * Supports markdown formatting.
@@ -38,4 +41,11 @@ public final class HoverContents {
     public boolean isTrusted() {
         return isTrusted;
     }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("value", value);
+        map.put("isTrusted", isTrusted);
+        return map;
+    }
 }
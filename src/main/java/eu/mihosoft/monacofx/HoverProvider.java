@@ -10,7 +10,7 @@ import java.util.List;
  * Interface for providing hover information (tooltips/documentation).
  * 
  * <pre>{@code
- * editor.setHoverProvider("java", (text, position, word) -> {
+ * editor.registerHoverProvider("java", (text, position, word) -> {
  *     if (word.equals("System")) {
  *         return new HoverContents("**java.lang.System**\n\nThe System class contains several useful class fields and methods.");
  *     }
@@ -0,0 +1,31 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+/**
+ * Folding provider that updates the previous result instead of recomputing all regions.
+ * Registered via {@link Editor#registerFoldingProvider(String, IncrementalFoldingProvider)},
+ * it runs on the {@link Editor#getProviderExecutor() provider executor}.
+ *
+ * <pre>{@code
+ * editor.registerFoldingProvider("mylang", update -> {
+ *     List<Folding> result = new ArrayList<>(update.getUnaffected());
+ *     // only scan the lines edited since the last call and the regions around them
+ *     result.addAll(scanBraces(update.getText(), update.getRecomputeStartLine(), update.getRecomputeEndLine()));
+ *     return result.toArray(new Folding[0]);
+ * });
+ * }</pre>
+ */
+@FunctionalInterface
+public interface IncrementalFoldingProvider {
+
+    /**
+     * Compute the folding regions of the document.
+     *
+     * @param update the text, the edits since the last result and that result
+     * @return all folding regions of the document
+     */
+    Folding[] updateFoldings(FoldingUpdate update);
+}
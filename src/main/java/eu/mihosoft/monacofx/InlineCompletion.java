@@ -4,6 +4,9 @@
  */
 package eu.mihosoft.monacofx;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Represents an inline completion suggestion (ghost text).
  */
@@ -61,4 +64,13 @@ public final class InlineCompletion {
     public boolean hasRange() {
         return startLineNumber != null;
     }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("insertText", insertText);
+        if (hasRange()) {
+            map.put("range", new Range(startLineNumber, startColumn, endLineNumber, endColumn).toMap());
+        }
+        return map;
+    }
 }
@@ -0,0 +1,263 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a {@link StreamingInlineCompletionProvider}: debounces requests, cancels streams that
+ * were superseded and caches suggestions by the text before the cursor.
+ * <p>
+ * Monaco expects one result per request. The first request for a position is answered with
+ * the first chunk; for later chunks {@code refresh} makes Monaco ask again and the request is
+ * answered from the cache with everything received so far. A request whose text before the
+ * cursor extends a cached one by a prefix of its suggestion (the user typed along, or deleted
+ * and retyped) gets the rest of that suggestion.
+ * <p>
+ * All state is confined to the JavaFX application thread, stream callbacks are moved there
+ * via {@code fxExecutor}.
+ */
+final class InlineCompletionPipeline {
+
+    static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(150);
+
+    private static final Gson GSON = new GsonBuilder().create();
+    private static final int MAX_ENTRIES = 32;
+
+    private static final class Entry implements Flow.Subscriber<String> {
+        final String key;
+        final StringBuilder text = new StringBuilder();
+        final CompletableFuture<Void> firstChunk = new CompletableFuture<>();
+        boolean done;
+        boolean cancelled;
+        Flow.Subscription subscription;
+        final InlineCompletionPipeline pipeline;
+
+        Entry(InlineCompletionPipeline pipeline, String key) {
+            this.pipeline = pipeline;
+            this.key = key;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            pipeline.fxExecutor.execute(() -> {
+                this.subscription = subscription;
+                if (cancelled) {
+                    subscription.cancel();
+                } else {
+                    subscription.request(Long.MAX_VALUE);
+                }
+            });
+        }
+
+        @Override
+        public void onNext(String chunk) {
+            pipeline.fxExecutor.execute(() -> {
+                if (cancelled || chunk == null || chunk.isEmpty()) {
+                    return;
+                }
+                text.append(chunk);
+                if (!firstChunk.complete(null)) {
+                    // the first request got its answer already, let Monaco ask for the longer text
+                    pipeline.refresh.run();
+                }
+            });
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            pipeline.fxExecutor.execute(() -> {
+                if (!cancelled) {
+                    throwable.printStackTrace();
+                }
+                finish();
+                if (text.length() == 0) {
+                    pipeline.entries.remove(key, this);
+                }
+            });
+        }
+
+        @Override
+        public void onComplete() {
+            pipeline.fxExecutor.execute(this::finish);
+        }
+
+        void finish() {
+            done = true;
+            firstChunk.complete(null);
+        }
+
+        void cancel() {
+            if (done) {
+                return;
+            }
+            cancelled = true;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+            finish();
+        }
+    }
+
+    private final StreamingInlineCompletionProvider provider;
+    private final Duration debounce;
+    private final Executor fxExecutor;
+    private final Runnable refresh;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private int started;
+
+    /**
+     * @param fxExecutor runs on the JavaFX application thread
+     * @param refresh makes Monaco request inline completions again, called on the JavaFX application thread
+     */
+    InlineCompletionPipeline(StreamingInlineCompletionProvider provider, Duration debounce,
+                             Executor fxExecutor, Runnable refresh) {
+        this.provider = provider;
+        this.debounce = debounce;
+        this.fxExecutor = fxExecutor;
+        this.refresh = refresh;
+    }
+
+    /**
+     * Handles a request, called on the JavaFX application thread.
+     * The future completes with the JSON passed to Monaco.
+     */
+    CompletableFuture<String> request(ProviderRequest request) {
+        String key = key(request);
+
+        Entry hit = null;
+        String typed = null;
+        for (Entry e : new ArrayList<>(entries.values())) {
+            if (key.startsWith(e.key)) {
+                String t = key.substring(e.key.length());
+                boolean continues = e.text.length() > t.length() && startsWith(e.text, t);
+                if (continues || (t.isEmpty() && !e.done)) {
+                    hit = e;
+                    typed = t;
+                    continue;
+                }
+            }
+            // the user typed something else, nobody needs the suggestion anymore
+            if (!e.done) {
+                e.cancel();
+                entries.remove(e.key);
+            }
+        }
+
+        if (hit == null) {
+            hit = new Entry(this, key);
+            entries.put(key, hit);
+            trim();
+            start(hit, request);
+        } else {
+            // mark as recently used
+            entries.get(hit.key);
+        }
+
+        Entry entry = hit;
+        int typedLength = typed == null ? 0 : typed.length();
+        return entry.firstChunk.thenApply(v -> toJson(entry.text.length() > typedLength
+                ? entry.text.substring(typedLength) : ""));
+    }
+
+    private void start(Entry entry, ProviderRequest request) {
+        Runnable run = () -> {
+            if (entry.cancelled || entries.get(entry.key) != entry) {
+                return;
+            }
+            started++;
+            try {
+                Flow.Publisher<String> publisher = provider.provideInlineCompletion(request);
+                if (publisher == null) {
+                    entry.finish();
+                } else {
+                    publisher.subscribe(entry);
+                }
+            } catch (RuntimeException ex) {
+                ex.printStackTrace();
+                entry.finish();
+            }
+        };
+        if (debounce.isZero() || debounce.isNegative()) {
+            run.run();
+        } else {
+            CompletableFuture.delayedExecutor(debounce.toMillis(), TimeUnit.MILLISECONDS, fxExecutor).execute(run);
+        }
+    }
+
+    /**
+     * Cancels running streams and forgets all suggestions.
+     */
+    void dispose() {
+        for (Entry e : entries.values()) {
+            e.cancel();
+        }
+        entries.clear();
+    }
+
+    int getStartedCount() {
+        return started;
+    }
+
+    List<String> getCachedSuggestions() {
+        List<String> result = new ArrayList<>();
+        for (Entry e : entries.values()) {
+            result.add(e.text.toString());
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private void trim() {
+        Iterator<Entry> it = entries.values().iterator();
+        while (entries.size() > MAX_ENTRIES && it.hasNext()) {
+            it.next().cancel();
+            it.remove();
+        }
+    }
+
+    /**
+     * The window text up to the cursor. Monaco sends the window with each request anyway and
+     * unlike the full text its size does not grow with the document.
+     */
+    private static String key(ProviderRequest request) {
+        String window = request.getWindowText();
+        int line = request.getPosition().lineNumber - request.getWindowStartLine() + 1;
+        return request.getWindowStartLine() + "\u0000"
+                + window.substring(0, ProviderRequest.offsetOf(window, line, request.getPosition().column));
+    }
+
+    private static boolean startsWith(CharSequence text, String prefix) {
+        if (prefix.length() > text.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (text.charAt(i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String toJson(String suggestion) {
+        List<Map<String, Object>> items = new ArrayList<>();
+        if (!suggestion.isEmpty()) {
+            items.add(new InlineCompletion(suggestion).toMap());
+        }
+        return GSON.toJson(Collections.singletonMap("items", items));
+    }
+}
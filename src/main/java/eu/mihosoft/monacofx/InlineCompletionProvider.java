@@ -11,7 +11,7 @@ import java.util.List;
  * This is similar to GitHub Copilot-style suggestions.
  * 
  * <pre>{@code
- * editor.setInlineCompletionProvider((textBeforeCursor, position) -> {
+ * editor.registerInlineCompletionProvider("java", (textBeforeCursor, position) -> {
  *     // Call your AI model here
  *     String suggestion = myAI.complete(textBeforeCursor);
  *     if (suggestion != null) {
@@ -0,0 +1,292 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses the JavaScript object literals Monarch definitions are written in: objects with
+ * identifier or string keys, arrays, strings, numbers, booleans, regular expression literals,
+ * comments and trailing commas. Objects become {@code LinkedHashMap}s, arrays {@code List}s
+ * and regular expressions {@link Regex}.
+ */
+final class JsLiteralParser {
+
+    /**
+     * A regular expression literal, source and flags as written.
+     */
+    static final class Regex {
+        final String source;
+        final String flags;
+
+        Regex(String source, String flags) {
+            this.source = source;
+            this.flags = flags;
+        }
+
+        @Override
+        public String toString() {
+            return "/" + source + "/" + flags;
+        }
+    }
+
+    private final String s;
+    private int pos;
+
+    private JsLiteralParser(String s) {
+        this.s = s;
+    }
+
+    /**
+     * Parses a single value, e.g. {@code "{ tokenizer: {...} }"}.
+     */
+    static Object parse(String source) {
+        JsLiteralParser p = new JsLiteralParser(source);
+        Object value = p.value();
+        p.skipWhitespace();
+        if (p.pos < p.s.length() && p.s.charAt(p.pos) != ';') {
+            throw p.error("unexpected content");
+        }
+        return value;
+    }
+
+    /**
+     * Parses the members of an object without the surrounding braces, the format of
+     * {@link MonarchSyntaxHighlighter#getRules()}.
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> parseMembers(String source) {
+        return (Map<String, Object>) parse("{" + source + "\n}");
+    }
+
+    private Object value() {
+        skipWhitespace();
+        if (pos >= s.length()) {
+            throw error("unexpected end");
+        }
+        char c = s.charAt(pos);
+        switch (c) {
+            case '{':
+                return object();
+            case '[':
+                return array();
+            case '\'':
+            case '"':
+            case '`':
+                return string(c);
+            case '/':
+                return regex();
+            default:
+                if (c == '-' || c == '+' || c == '.' || Character.isDigit(c)) {
+                    return number();
+                }
+                if (isIdentifierStart(c)) {
+                    String id = identifier();
+                    switch (id) {
+                        case "true": return Boolean.TRUE;
+                        case "false": return Boolean.FALSE;
+                        case "null":
+                        case "undefined": return null;
+                        default: return id;
+                    }
+                }
+                throw error("unexpected character '" + c + "'");
+        }
+    }
+
+    private Map<String, Object> object() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        pos++;
+        while (true) {
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return map;
+            }
+            String key;
+            char c = peek();
+            if (c == '\'' || c == '"') {
+                key = string(c);
+            } else if (isIdentifierStart(c) || Character.isDigit(c)) {
+                key = identifier();
+            } else {
+                throw error("expected key");
+            }
+            skipWhitespace();
+            expect(':');
+            map.put(key, value());
+            skipWhitespace();
+            if (peek() == ',') {
+                pos++;
+            } else if (peek() != '}') {
+                throw error("expected ',' or '}'");
+            }
+        }
+    }
+
+    private List<Object> array() {
+        List<Object> list = new ArrayList<>();
+        pos++;
+        while (true) {
+            skipWhitespace();
+            if (peek() == ']') {
+                pos++;
+                return list;
+            }
+            list.add(value());
+            skipWhitespace();
+            if (peek() == ',') {
+                pos++;
+            } else if (peek() != ']') {
+                throw error("expected ',' or ']'");
+            }
+        }
+    }
+
+    private String string(char quote) {
+        StringBuilder sb = new StringBuilder();
+        pos++;
+        while (pos < s.length()) {
+            char c = s.charAt(pos++);
+            if (c == quote) {
+                return sb.toString();
+            }
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (pos >= s.length()) {
+                break;
+            }
+            char e = s.charAt(pos++);
+            switch (e) {
+                case 'n': sb.append('\n'); break;
+                case 't': sb.append('\t'); break;
+                case 'r': sb.append('\r'); break;
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'v': sb.append('\u000B'); break;
+                case '0': sb.append('\0'); break;
+                case 'u':
+                    sb.append((char) Integer.parseInt(s.substring(pos, pos + 4), 16));
+                    pos += 4;
+                    break;
+                case 'x':
+                    sb.append((char) Integer.parseInt(s.substring(pos, pos + 2), 16));
+                    pos += 2;
+                    break;
+                case '\n':
+                    // line continuation
+                    break;
+                default: sb.append(e);
+            }
+        }
+        throw error("unterminated string");
+    }
+
+    private Regex regex() {
+        int start = ++pos;
+        boolean inClass = false;
+        while (pos < s.length()) {
+            char c = s.charAt(pos);
+            if (c == '\\') {
+                pos += 2;
+                continue;
+            }
+            if (c == '[') {
+                inClass = true;
+            } else if (c == ']') {
+                inClass = false;
+            } else if (c == '/' && !inClass) {
+                break;
+            } else if (c == '\n') {
+                throw error("unterminated regular expression");
+            }
+            pos++;
+        }
+        if (pos >= s.length()) {
+            throw error("unterminated regular expression");
+        }
+        String source = s.substring(start, pos++);
+        int flagsStart = pos;
+        while (pos < s.length() && Character.isLetter(s.charAt(pos))) {
+            pos++;
+        }
+        return new Regex(source, s.substring(flagsStart, pos));
+    }
+
+    private Double number() {
+        int start = pos;
+        while (pos < s.length() && "+-.0123456789eExXabcdefABCDEF".indexOf(s.charAt(pos)) >= 0) {
+            pos++;
+        }
+        String n = s.substring(start, pos);
+        try {
+            if (n.startsWith("0x") || n.startsWith("0X")) {
+                return (double) Long.parseLong(n.substring(2), 16);
+            }
+            return Double.parseDouble(n);
+        } catch (NumberFormatException ex) {
+            throw error("invalid number " + n);
+        }
+    }
+
+    private String identifier() {
+        int start = pos;
+        while (pos < s.length() && (isIdentifierStart(s.charAt(pos)) || Character.isDigit(s.charAt(pos)))) {
+            pos++;
+        }
+        return s.substring(start, pos);
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        return Character.isLetter(c) || c == '_' || c == '$';
+    }
+
+    private void skipWhitespace() {
+        while (pos < s.length()) {
+            char c = s.charAt(pos);
+            if (Character.isWhitespace(c)) {
+                pos++;
+            } else if (s.startsWith("//", pos)) {
+                while (pos < s.length() && s.charAt(pos) != '\n') {
+                    pos++;
+                }
+            } else if (s.startsWith("/*", pos)) {
+                int end = s.indexOf("*/", pos + 2);
+                pos = end < 0 ? s.length() : end + 2;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private char peek() {
+        if (pos >= s.length()) {
+            throw error("unexpected end");
+        }
+        return s.charAt(pos);
+    }
+
+    private void expect(char c) {
+        if (peek() != c) {
+            throw error("expected '" + c + "'");
+        }
+        pos++;
+    }
+
+    private IllegalArgumentException error(String message) {
+        int line = 1;
+        for (int i = 0; i < Math.min(pos, s.length()); i++) {
+            if (s.charAt(i) == '\n') {
+                line++;
+            }
+        }
+        return new IllegalArgumentException(message + " at line " + line);
+    }
+}
@@ -31,4 +31,10 @@ public interface LanguageSupport {
 
     default MonarchSyntaxHighlighter getMonarchSyntaxHighlighter(){return null;};
 
+    /**
+     * A TextMate grammar for languages that Monarch rules cannot express. Tokenized in Java
+     * and used instead of {@link #getMonarchSyntaxHighlighter()} if both are given.
+     */
+    default TextMateGrammar getTextMateGrammar(){return null;};
+
 }
@@ -0,0 +1,62 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link DocumentColorProvider} that finds colors line by line. Registered via
+ * {@link Editor#registerColorProvider(String, DocumentColorProvider)}, its results are cached
+ * per line: after an edit only the changed lines are scanned again and only lines whose colors
+ * changed are sent to Monaco. Colors spanning several lines are not supported.
+ *
+ * <pre>{@code
+ * editor.registerColorProvider("css", new LineColorProvider() {
+ *     @Override
+ *     public List<ColorInformation> provideLineColors(int lineNumber, String line) {
+ *         List<ColorInformation> colors = new ArrayList<>();
+ *         Matcher m = HEX.matcher(line);
+ *         while (m.find()) {
+ *             colors.add(new ColorInformation(EditorColor.fromHex(m.group(1)),
+ *                 lineNumber, m.start() + 1, lineNumber, m.end() + 1));
+ *         }
+ *         return colors;
+ *     }
+ *
+ *     @Override
+ *     public List<ColorPresentation> provideColorPresentations(EditorColor color, Range range) {
+ *         return List.of(new ColorPresentation(color.toHexString()));
+ *     }
+ * });
+ * }</pre>
+ */
+public interface LineColorProvider extends DocumentColorProvider {
+
+    /**
+     * Find the color values in one line. Called on the provider executor.
+     *
+     * @param lineNumber 1-based line number
+     * @param line the line without line break
+     * @return colors in this line, only their columns are used
+     */
+    List<ColorInformation> provideLineColors(int lineNumber, String line);
+
+    /**
+     * Scans all lines.
+     */
+    @Override
+    default List<ColorInformation> provideDocumentColors(String documentText) {
+        List<ColorInformation> colors = new ArrayList<>();
+        String[] lines = documentText.split("\\r\\n|\\r|\\n", -1);
+        for (int i = 0; i < lines.length; i++) {
+            List<ColorInformation> lineColors = provideLineColors(i + 1, lines[i]);
+            if (lineColors != null) {
+                colors.addAll(lineColors);
+            }
+        }
+        return colors;
+    }
+}
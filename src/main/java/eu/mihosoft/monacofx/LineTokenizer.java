@@ -0,0 +1,29 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+/**
+ * Tokenizes a document one line at a time, like Monaco does. Everything the tokenizer needs
+ * to know about the preceding lines is in the state passed in. States are immutable and
+ * implement {@code equals}, so a {@link TokenizedDocument} can tell that a line starts in
+ * the same state as before and its cached tokens are still valid.
+ *
+ * @see MonarchLanguage
+ */
+public interface LineTokenizer {
+
+    /**
+     * State at the start of the document.
+     */
+    Object getInitialState();
+
+    /**
+     * Tokenizes one line without its line break.
+     *
+     * @param line  the text of the line
+     * @param state the end state of the previous line, or {@link #getInitialState()}
+     */
+    LineTokens tokenizeLine(String line, Object state);
+}
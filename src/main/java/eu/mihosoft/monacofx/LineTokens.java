@@ -0,0 +1,37 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.List;
+
+/**
+ * The tokens of one line and the tokenizer state at its end, which is the start state of
+ * the next line.
+ */
+public final class LineTokens {
+
+    private final List<Token> tokens;
+    private final Object endState;
+
+    public LineTokens(List<Token> tokens, Object endState) {
+        this.tokens = List.copyOf(tokens);
+        this.endState = endState;
+    }
+
+    /**
+     * Tokens in column order, covering the whole line.
+     */
+    public List<Token> getTokens() { return tokens; }
+
+    /**
+     * State after the last character, see {@link LineTokenizer#tokenizeLine(String, Object)}.
+     */
+    public Object getEndState() { return endState; }
+
+    @Override
+    public String toString() {
+        return tokens.toString();
+    }
+}
@@ -4,6 +4,9 @@
  */
 package eu.mihosoft.monacofx;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Represents a location in the editor or another file.
  * Used for go-to-definition, find references, etc.
@@ -57,4 +60,11 @@ public final class Location {
     public boolean isCurrentDocument() {
         return uri == null;
     }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        if (uri != null) map.put("uri", uri);
+        map.put("range", range.toMap());
+        return map;
+    }
 }
@@ -4,6 +4,9 @@
  */
 package eu.mihosoft.monacofx;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
 import java.util.HashMap;
 import java.util.Map;
 
@@ -63,6 +66,46 @@ public final class Marker {
         return new Builder();
     }
 
+    // ========== Getters ==========
+
+    public MarkerSeverity getSeverity() { return severity; }
+    public String getMessage() { return message; }
+    public int getStartLineNumber() { return startLineNumber; }
+    public int getStartColumn() { return startColumn; }
+    public int getEndLineNumber() { return endLineNumber; }
+    public int getEndColumn() { return endColumn; }
+
+    /**
+     * Name of the tool that reported the marker, or null.
+     */
+    public String getSource() { return source; }
+
+    /**
+     * Tool specific code of the problem, or null.
+     */
+    public String getCode() { return code; }
+
+    public Range getRange() {
+        return new Range(startLineNumber, startColumn, endLineNumber, endColumn);
+    }
+
+    /**
+     * Creates a marker from the marker data Monaco passes to providers.
+     */
+    static Marker fromJson(JsonObject o) {
+        JsonElement code = o.get("code");
+        if (code != null && code.isJsonObject()) {
+            code = code.getAsJsonObject().get("value");
+        }
+        return new Marker(
+                MarkerSeverity.fromValue(o.has("severity") ? o.get("severity").getAsInt() : 0),
+                o.has("message") ? o.get("message").getAsString() : "",
+                o.get("startLineNumber").getAsInt(), o.get("startColumn").getAsInt(),
+                o.get("endLineNumber").getAsInt(), o.get("endColumn").getAsInt(),
+                o.has("source") && !o.get("source").isJsonNull() ? o.get("source").getAsString() : null,
+                code != null && !code.isJsonNull() ? code.getAsString() : null);
+    }
+
     Map<String, Object> toMap() {
         Map<String, Object> map = new HashMap<>();
         map.put("severity", severity.getValue());
@@ -132,5 +175,14 @@ public final class Marker {
         private final int value;
         MarkerSeverity(int value) { this.value = value; }
         public int getValue() { return value; }
+
+        static MarkerSeverity fromValue(int value) {
+            for (MarkerSeverity s : values()) {
+                if (s.value == value) {
+                    return s;
+                }
+            }
+            return INFO;
+        }
     }
 }
@@ -23,11 +23,20 @@
  */
 package eu.mihosoft.monacofx;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javafx.application.Platform;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.value.ChangeListener;
 import javafx.concurrent.Worker;
+import javafx.event.EventHandler;
 import javafx.geometry.HPos;
 import javafx.geometry.VPos;
 import javafx.scene.input.KeyEvent;
@@ -36,7 +45,7 @@ import javafx.scene.web.WebEngine;
 import javafx.scene.web.WebView;
 import netscape.javascript.JSObject;
 
-public class MonacoFX extends Region {
+public class MonacoFX extends Region implements AutoCloseable {
 
     private final WebView view;
     private final WebEngine engine;
@@ -46,6 +55,19 @@ public class MonacoFX extends Region {
     private final Editor editor;
     private final SystemClipboardWrapper systemClipboardWrapper;
 
+    private final ChangeListener<Worker.State> loadListener;
+    private final EventHandler<KeyEvent> copyCutFilter;
+    private final ChangeListener<Boolean> diffViewListener;
+    private final AtomicBoolean disposed = new AtomicBoolean(false);
+    private JSObject window;
+    private boolean editorReady;
+
+    private DiffEditor diffEditor;
+    private final BooleanProperty diffViewProperty = new SimpleBooleanProperty(false);
+
+    private static final Set<MonacoFX> INSTANCES = Collections.synchronizedSet(
+            Collections.newSetFromMap(new WeakHashMap<>()));
+
     public MonacoFX() {
         view = new WebView();
         getChildren().add(view);
@@ -58,17 +80,18 @@ public class MonacoFX extends Region {
 
         systemClipboardWrapper = new SystemClipboardWrapper();
         ClipboardBridge clipboardBridge = new ClipboardBridge(getEditor().getDocument(), systemClipboardWrapper);
-        engine.getLoadWorker().stateProperty().addListener((o, old, state) -> {
-            if (state == Worker.State.SUCCEEDED) {
+        loadListener = (o, old, state) -> {
+            if (state == Worker.State.SUCCEEDED && !disposed.get()) {
 
                 JSObject window = (JSObject) engine.executeScript("window");
+                this.window = window;
                 window.setMember("clipboardBridge", clipboardBridge);
 
                 AtomicBoolean jsDone = new AtomicBoolean(false);
                 AtomicInteger attempts = new AtomicInteger();
 
                 Thread thread = new Thread(() -> {
-                    while (!jsDone.get()) {
+                    while (!jsDone.get() && !disposed.get()) {
                         try {
                             Thread.sleep(500);
                         } catch (InterruptedException e) {
@@ -76,10 +99,14 @@ public class MonacoFX extends Region {
                         }
                         // check if JS execution is done.
                         Platform.runLater(() -> {
+                            if (jsDone.get() || disposed.get()) {
+                                return;
+                            }
                             Object jsEditorObj = window.call("getEditorView");
                             if (jsEditorObj instanceof JSObject) {
                                 editor.setEditor(window, (JSObject) jsEditorObj);
                                 jsDone.set(true);
+                                onEditorReady();
                             }
                         });
 
@@ -93,12 +120,38 @@ public class MonacoFX extends Region {
                 thread.start();
 
             }
-        });
+        };
+        engine.getLoadWorker().stateProperty().addListener(loadListener);
 
-        addEventFilter(KeyEvent.KEY_PRESSED, event -> {
+        copyCutFilter = event -> {
             Object obj = engine.executeScript("editorView.getModel().getValueInRange(editorView.getSelection())");
             systemClipboardWrapper.handleCopyCutKeyEvent(event, obj);
-        });
+        };
+        addEventFilter(KeyEvent.KEY_PRESSED, copyCutFilter);
+
+        diffViewListener = (obs, oldVal, newVal) -> {
+            if (editorReady && window != null) {
+                window.call("showDiffEditor", newVal);
+            }
+        };
+        diffViewProperty.addListener(diffViewListener);
+
+        INSTANCES.add(this);
+    }
+
+    private void onEditorReady() {
+        editorReady = true;
+        if (diffEditor != null) {
+            attachDiffEditor();
+        }
+        if (isDiffView()) {
+            window.call("showDiffEditor", true);
+        }
+    }
+
+    private void attachDiffEditor() {
+        Object jsDiffEditorObj = window.call("ensureDiffEditor");
+        diffEditor.setEditor(window, (JSObject) jsDiffEditorObj);
     }
 
     @Override protected double computePrefWidth(double height) {
@@ -125,9 +178,116 @@ public class MonacoFX extends Region {
         return editor;
     }
 
+    /**
+     * Get a diff editor that lives in the same web view as the code editor.
+     * It reuses the already loaded Monaco runtime and themes, so opening a diff
+     * costs no extra Monaco boot. Use {@link #setDiffView(boolean)} to show it.
+     * <p>
+     * The diff editor is created on first access.
+     *
+     * <pre>{@code
+     * DiffEditor diff = monacoFX.getDiffEditor();
+     * diff.setOriginal(savedText, "java");
+     * diff.setModified(monacoFX.getEditor().getDocument().getText(), "java");
+     * monacoFX.setDiffView(true);
+     * }</pre>
+     */
+    public DiffEditor getDiffEditor() {
+        if (diffEditor == null) {
+            diffEditor = new DiffEditor(engine);
+            if (editorReady && window != null) {
+                attachDiffEditor();
+            }
+        }
+        return diffEditor;
+    }
+
+    /**
+     * Whether the diff editor is shown instead of the code editor.
+     */
+    public BooleanProperty diffViewProperty() {
+        return diffViewProperty;
+    }
+
+    /**
+     * Set to true to show the diff editor, false to show the code editor.
+     */
+    public void setDiffView(boolean diffView) {
+        diffViewProperty.set(diffView);
+    }
+
+    public boolean isDiffView() {
+        return diffViewProperty.get();
+    }
+
     @Deprecated
     public WebEngine getWebEngine() {
         return engine;
     }
 
+    /**
+     * Disposes this editor: Monaco models and providers are disposed, all listeners and
+     * window members registered by MonacoFX are removed and the web view is cleared
+     * (loads {@code about:blank}). The instance cannot be used afterwards.
+     * <p>
+     * Must be called on the JavaFX application thread. Calling it more than once has no effect.
+     */
+    public void dispose() {
+        if (disposed.getAndSet(true)) {
+            return;
+        }
+        INSTANCES.remove(this);
+
+        removeEventFilter(KeyEvent.KEY_PRESSED, copyCutFilter);
+        diffViewProperty.removeListener(diffViewListener);
+        editorReady = false;
+        engine.getLoadWorker().stateProperty().removeListener(loadListener);
+
+        if (diffEditor != null) {
+            diffEditor.dispose();
+        }
+        editor.dispose();
+
+        if (window != null) {
+            window.removeMember("clipboardBridge");
+            window = null;
+        }
+
+        engine.load("about:blank");
+        getChildren().remove(view);
+    }
+
+    /**
+     * Same as {@link #dispose()}.
+     */
+    @Override
+    public void close() {
+        dispose();
+    }
+
+    /**
+     * Get the combined resource usage of all live (not disposed) MonacoFX instances.
+     * Must be called on the JavaFX application thread.
+     *
+     * @see Editor#getResourceUsage()
+     */
+    public static ResourceUsage getTotalResourceUsage() {
+        List<MonacoFX> instances;
+        synchronized (INSTANCES) {
+            instances = new ArrayList<>(INSTANCES);
+        }
+        List<ResourceUsage> usages = new ArrayList<>(instances.size());
+        for (MonacoFX instance : instances) {
+            usages.add(instance.getEditor().getResourceUsage());
+        }
+        return ResourceUsage.sum(usages);
+    }
+
+    /**
+     * Indicates whether {@link #dispose()} has been called.
+     */
+    public boolean isDisposed() {
+        return disposed.get();
+    }
+
 }
@@ -0,0 +1,769 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A Java interpreter for Monarch definitions, the same rules {@link MonarchSyntaxHighlighter#getRules()}
+ * hands to Monaco. Tokenizes without a WebView, e.g. to export highlighted HTML, to render
+ * on a server or to search a document by token type. Use it with a {@link TokenizedDocument}
+ * to tokenize incrementally.
+ * <p>
+ * Supported are tokenizer states with {@code include}, rules as arrays or objects, actions with
+ * {@code token}, {@code next} ({@code @push}, {@code @pop}, {@code @popall}, {@code @state}),
+ * {@code switchTo}, {@code goBack}, {@code cases}, group actions, {@code @rematch},
+ * {@code @brackets}, {@code $n}/{@code $Sn}/{@code $#} substitutions, attribute references in
+ * regular expressions, {@code ignoreCase}, {@code defaultToken} and {@code tokenPostfix}.
+ * Embedded languages ({@code nextEmbedded}) are tokenized as the host language.
+ *
+ * <pre>{@code
+ * MonarchLanguage java = MonarchLanguage.of(languageSupport);
+ * TokenizedDocument doc = new TokenizedDocument(java, text);
+ * String html = doc.toHtml();
+ * }</pre>
+ */
+public final class MonarchLanguage implements LineTokenizer {
+
+    private static final int MAX_STACK_DEPTH = 100;
+
+    private final String languageId;
+    private final Map<String, Object> attributes;
+    private final boolean ignoreCase;
+    private final String defaultToken;
+    private final String tokenPostfix;
+    private final String start;
+    private final Map<String, List<Rule>> states = new HashMap<>();
+    private final State initialState;
+    private int ruleCount;
+
+    private MonarchLanguage(String languageId, Map<String, Object> attributes) {
+        this.languageId = languageId;
+        this.attributes = attributes;
+        this.ignoreCase = Boolean.TRUE.equals(attributes.get("ignoreCase"));
+        this.defaultToken = attributes.get("defaultToken") instanceof String
+                ? (String) attributes.get("defaultToken") : "source";
+        this.tokenPostfix = attributes.get("tokenPostfix") instanceof String
+                ? (String) attributes.get("tokenPostfix") : "." + languageId;
+
+        if (!(attributes.get("tokenizer") instanceof Map)) {
+            throw new IllegalArgumentException("Monarch definition of '" + languageId + "' has no tokenizer");
+        }
+        Map<?, ?> tokenizer = (Map<?, ?>) attributes.get("tokenizer");
+        if (tokenizer.isEmpty()) {
+            throw new IllegalArgumentException("Monarch definition of '" + languageId + "' has no states");
+        }
+        for (Object name : tokenizer.keySet()) {
+            states.put((String) name, compileState((String) name, tokenizer, new HashSet<>()));
+        }
+        this.start = attributes.get("start") instanceof String
+                ? (String) attributes.get("start") : (String) tokenizer.keySet().iterator().next();
+        this.initialState = new State(new String[]{start});
+    }
+
+    /**
+     * Compiles a Monarch definition.
+     *
+     * @param languageId the language id, used for the default token postfix
+     * @param rules      the members of the definition object, as returned by
+     *                   {@link MonarchSyntaxHighlighter#getRules()}
+     * @throws IllegalArgumentException if the definition cannot be parsed or is invalid
+     */
+    public static MonarchLanguage compile(String languageId, String rules) {
+        return new MonarchLanguage(languageId, JsLiteralParser.parseMembers(rules));
+    }
+
+    /**
+     * Compiles the Monarch definition of a language support.
+     *
+     * @throws IllegalArgumentException if the language has no Monarch definition
+     */
+    public static MonarchLanguage of(LanguageSupport language) {
+        MonarchSyntaxHighlighter highlighter = language.getMonarchSyntaxHighlighter();
+        if (highlighter == null) {
+            throw new IllegalArgumentException("Language '" + language.getName() + "' has no Monarch definition");
+        }
+        return compile(language.getName(), highlighter.getRules());
+    }
+
+    public String getLanguageId() {
+        return languageId;
+    }
+
+    @Override
+    public Object getInitialState() {
+        return initialState;
+    }
+
+    @Override
+    public LineTokens tokenizeLine(String line, Object state) {
+        String[] stack = ((State) state).stack;
+        Tokenizer t = new Tokenizer(line, new ArrayList<>(Arrays.asList(stack)));
+        t.run();
+        return new LineTokens(t.tokens, new State(t.stack.toArray(new String[0])));
+    }
+
+    // ========== tokenizing ==========
+
+    private final class Tokenizer {
+        final String line;
+        final List<String> stack;
+        final List<Token> tokens = new ArrayList<>();
+        final Matcher[] matchers = new Matcher[ruleCount];
+        int pos;
+
+        Tokenizer(String line, List<String> stack) {
+            this.line = line;
+            this.stack = stack;
+        }
+
+        void run() {
+            int stalled = 0;
+            while (pos < line.length()) {
+                String state = stack.get(stack.size() - 1);
+                List<Rule> rules = findRules(state);
+                Matcher matcher = null;
+                Rule rule = null;
+                for (Rule r : rules) {
+                    if (pos > 0 && r.matchOnlyAtLineStart) {
+                        continue;
+                    }
+                    Matcher m = matchers[r.id];
+                    if (m == null) {
+                        m = matchers[r.id] = r.pattern.matcher(line);
+                    }
+                    m.region(pos, line.length());
+                    if (m.lookingAt()) {
+                        matcher = m;
+                        rule = r;
+                        break;
+                    }
+                }
+                if (rule == null) {
+                    emit(pos, pos + 1, token(defaultToken));
+                    pos++;
+                    continue;
+                }
+
+                int before = pos;
+                int depth = stack.size();
+                String top = state;
+                String matched = matcher.group();
+                String[] groups = groups(matcher);
+                if (rule.action instanceof GroupsAction) {
+                    List<Action> actions = ((GroupsAction) rule.action).groups;
+                    int at = pos;
+                    for (int i = 0; i < actions.size(); i++) {
+                        String group = i + 1 < groups.length && groups[i + 1] != null ? groups[i + 1] : "";
+                        at = apply(actions.get(i), at, group, groups);
+                    }
+                    pos = Math.max(at, pos + matched.length());
+                } else {
+                    pos = apply(rule.action, pos, matched, groups);
+                }
+
+                // a rule that neither consumes nor changes the state would loop forever
+                boolean stateChanged = stack.size() != depth || !stack.get(stack.size() - 1).equals(top);
+                if (pos == before && (!stateChanged || ++stalled > MAX_STACK_DEPTH)) {
+                    emit(pos, pos + 1, token(defaultToken));
+                    pos++;
+                }
+                if (pos != before) {
+                    stalled = 0;
+                }
+            }
+        }
+
+        /**
+         * Applies an action to text matched at {@code at} and returns the position after it.
+         */
+        int apply(Action action, int at, String matched, String[] groups) {
+            TokenAction resolved = resolve(action, at, matched, groups);
+            if (resolved == null) {
+                emit(at, at + matched.length(), token(defaultToken));
+                return at + matched.length();
+            }
+            String state = stack.get(stack.size() - 1);
+            String type = substitute(resolved.token, matched, groups, state);
+            int length = matched.length();
+            if (resolved.goBack > 0) {
+                length = Math.max(0, length - resolved.goBack);
+            }
+            if ("@rematch".equals(type)) {
+                length = 0;
+            } else if ("@brackets".equals(type)) {
+                emit(at, at + length, token(bracketToken(matched)));
+            } else {
+                emit(at, at + length, token(type));
+            }
+
+            if (resolved.switchTo != null) {
+                String target = stateName(substitute(resolved.switchTo, matched, groups, state));
+                stack.set(stack.size() - 1, target);
+            }
+            if (resolved.next != null) {
+                String next = substitute(resolved.next, matched, groups, state);
+                switch (next) {
+                    case "@pop":
+                        if (stack.size() > 1) {
+                            stack.remove(stack.size() - 1);
+                        }
+                        break;
+                    case "@popall":
+                        String bottom = stack.get(0);
+                        stack.clear();
+                        stack.add(bottom);
+                        break;
+                    case "@push":
+                        push(stack.get(stack.size() - 1));
+                        break;
+                    default:
+                        push(stateName(next));
+                }
+            }
+            return at + length;
+        }
+
+        void push(String state) {
+            if (stack.size() < MAX_STACK_DEPTH) {
+                stack.add(state);
+            }
+        }
+
+        TokenAction resolve(Action action, int at, String matched, String[] groups) {
+            while (action instanceof CasesAction) {
+                Action selected = null;
+                for (Case c : ((CasesAction) action).cases) {
+                    if (c.test(matched, groups, stack.get(stack.size() - 1),
+                            at + matched.length() >= line.length())) {
+                        selected = c.action;
+                        break;
+                    }
+                }
+                action = selected;
+            }
+            return (TokenAction) action;
+        }
+
+        void emit(int start, int end, String type) {
+            if (end <= start) {
+                return;
+            }
+            if (!tokens.isEmpty()) {
+                Token last = tokens.get(tokens.size() - 1);
+                if (last.getType().equals(type) && last.getEndColumn() == start + 1) {
+                    tokens.set(tokens.size() - 1, new Token(last.getStartColumn(), end + 1, type));
+                    return;
+                }
+            }
+            tokens.add(new Token(start + 1, end + 1, type));
+        }
+    }
+
+    private String token(String type) {
+        return type.isEmpty() ? "" : type + tokenPostfix;
+    }
+
+    private String bracketToken(String matched) {
+        Object brackets = attributes.get("brackets");
+        if (brackets instanceof List) {
+            for (Object b : (List<?>) brackets) {
+                String open;
+                String close;
+                String token;
+                if (b instanceof Map) {
+                    open = String.valueOf(((Map<?, ?>) b).get("open"));
+                    close = String.valueOf(((Map<?, ?>) b).get("close"));
+                    token = String.valueOf(((Map<?, ?>) b).get("token"));
+                } else if (b instanceof List && ((List<?>) b).size() >= 3) {
+                    open = String.valueOf(((List<?>) b).get(0));
+                    close = String.valueOf(((List<?>) b).get(1));
+                    token = String.valueOf(((List<?>) b).get(2));
+                } else {
+                    continue;
+                }
+                if (matched.equals(open) || matched.equals(close)) {
+                    return token;
+                }
+            }
+        }
+        return "";
+    }
+
+    private List<Rule> findRules(String state) {
+        String s = state;
+        while (true) {
+            List<Rule> rules = states.get(s);
+            if (rules != null) {
+                return rules;
+            }
+            int dot = s.lastIndexOf('.');
+            if (dot < 0) {
+                return states.get(start);
+            }
+            s = s.substring(0, dot);
+        }
+    }
+
+    private static String stateName(String next) {
+        return next.startsWith("@") ? next.substring(1) : next;
+    }
+
+    private static String[] groups(Matcher m) {
+        String[] groups = new String[m.groupCount() + 1];
+        for (int i = 0; i < groups.length; i++) {
+            groups[i] = m.group(i);
+        }
+        return groups;
+    }
+
+    /**
+     * Replaces {@code $$}, {@code $#}, {@code $n}, {@code $Sn} and {@code $@attribute} like Monarch.
+     */
+    private String substitute(String s, String matched, String[] groups, String state) {
+        if (s.indexOf('$') < 0) {
+            return s;
+        }
+        StringBuilder sb = new StringBuilder();
+        int i = 0;
+        while (i < s.length()) {
+            char c = s.charAt(i);
+            if (c != '$' || i + 1 >= s.length()) {
+                sb.append(c);
+                i++;
+                continue;
+            }
+            char n = s.charAt(i + 1);
+            if (n == '$') {
+                sb.append('$');
+                i += 2;
+            } else if (n == '#') {
+                sb.append(matched);
+                i += 2;
+            } else if (Character.isDigit(n)) {
+                int end = digitsEnd(s, i + 1);
+                int index = Integer.parseInt(s.substring(i + 1, end));
+                if (index < groups.length && groups[index] != null) {
+                    sb.append(groups[index]);
+                }
+                i = end;
+            } else if ((n == 'S' || n == 's') && i + 2 < s.length() && Character.isDigit(s.charAt(i + 2))) {
+                int end = digitsEnd(s, i + 2);
+                int index = Integer.parseInt(s.substring(i + 2, end));
+                String[] parts = state.split("\\.");
+                if (index == 0) {
+                    sb.append(state);
+                } else if (index < parts.length) {
+                    sb.append(parts[index]);
+                }
+                i = end;
+            } else if (n == '@') {
+                int end = i + 2;
+                while (end < s.length() && isWordChar(s.charAt(end))) {
+                    end++;
+                }
+                Object value = attributes.get(s.substring(i + 2, end));
+                sb.append(value == null ? "" : value.toString());
+                i = end;
+            } else {
+                sb.append(c);
+                i++;
+            }
+        }
+        return sb.toString();
+    }
+
+    private static int digitsEnd(String s, int from) {
+        int end = from;
+        // Monarch allows one or two digits
+        while (end < s.length() && end < from + 2 && Character.isDigit(s.charAt(end))) {
+            end++;
+        }
+        return end;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    // ========== compiled rules ==========
+
+    private static final class State {
+        final String[] stack;
+
+        State(String[] stack) {
+            this.stack = stack;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof State && Arrays.equals(stack, ((State) o).stack);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(stack);
+        }
+
+        @Override
+        public String toString() {
+            return String.join("/", stack);
+        }
+    }
+
+    private static final class Rule {
+        final int id;
+        final Pattern pattern;
+        final boolean matchOnlyAtLineStart;
+        final Action action;
+
+        Rule(int id, Pattern pattern, boolean matchOnlyAtLineStart, Action action) {
+            this.id = id;
+            this.pattern = pattern;
+            this.matchOnlyAtLineStart = matchOnlyAtLineStart;
+            this.action = action;
+        }
+    }
+
+    private interface Action {
+    }
+
+    private static final class TokenAction implements Action {
+        String token = "";
+        String next;
+        String switchTo;
+        int goBack;
+    }
+
+    private static final class GroupsAction implements Action {
+        final List<Action> groups;
+
+        GroupsAction(List<Action> groups) {
+            this.groups = groups;
+        }
+    }
+
+    private static final class CasesAction implements Action {
+        final List<Case> cases = new ArrayList<>();
+    }
+
+    private final class Case {
+        int group = -1;
+        int stateGroup = -1;
+        String operator;
+        String operand;
+        Pattern regex;
+        Set<String> words;
+        Action action;
+
+        boolean test(String matched, String[] groups, String state, boolean eos) {
+            if ("@default".equals(operator)) {
+                return true;
+            }
+            if ("@eos".equals(operator)) {
+                return eos;
+            }
+            String value = matched;
+            if (group >= 0) {
+                value = group < groups.length && groups[group] != null ? groups[group] : "";
+            } else if (stateGroup >= 0) {
+                String[] parts = state.split("\\.");
+                value = stateGroup == 0 ? state : stateGroup < parts.length ? parts[stateGroup] : "";
+            }
+            switch (operator) {
+                case "~":
+                    return regex.matcher(value).matches();
+                case "!~":
+                    return !regex.matcher(value).matches();
+                case "@":
+                    return words.contains(ignoreCase ? value.toLowerCase() : value);
+                case "!@":
+                    return !words.contains(ignoreCase ? value.toLowerCase() : value);
+                case "!=":
+                    return !value.equals(substitute(operand, matched, groups, state));
+                default:
+                    return value.equals(substitute(operand, matched, groups, state));
+            }
+        }
+    }
+
+    // ========== compiling ==========
+
+    private List<Rule> compileState(String name, Map<?, ?> tokenizer, Set<String> including) {
+        Object rules = tokenizer.get(name);
+        if (!(rules instanceof List)) {
+            throw new IllegalArgumentException("State '" + name + "' of '" + languageId + "' must be an array of rules");
+        }
+        if (!including.add(name)) {
+            throw new IllegalArgumentException("State '" + name + "' of '" + languageId + "' includes itself");
+        }
+        List<Rule> compiled = new ArrayList<>();
+        for (Object rule : (List<?>) rules) {
+            if (rule instanceof Map && ((Map<?, ?>) rule).containsKey("include")) {
+                String include = stateName(String.valueOf(((Map<?, ?>) rule).get("include")));
+                if (!tokenizer.containsKey(include)) {
+                    throw new IllegalArgumentException("State '" + name + "' of '" + languageId
+                            + "' includes unknown state '" + include + "'");
+                }
+                compiled.addAll(compileState(include, tokenizer, including));
+            } else if (rule instanceof List && ((List<?>) rule).size() >= 2) {
+                List<?> r = (List<?>) rule;
+                Action action = compileAction(r.get(1));
+                if (r.size() >= 3 && r.get(2) instanceof String) {
+                    action = withNext(action, (String) r.get(2));
+                }
+                compiled.add(compileRule(name, r.get(0), action));
+            } else if (rule instanceof Map && ((Map<?, ?>) rule).containsKey("regex")) {
+                Map<?, ?> r = (Map<?, ?>) rule;
+                compiled.add(compileRule(name, r.get("regex"), compileAction(r.get("action"))));
+            } else {
+                throw new IllegalArgumentException("Invalid rule in state '" + name + "' of '" + languageId + "': " + rule);
+            }
+        }
+        including.remove(name);
+        return compiled;
+    }
+
+    private Rule compileRule(String state, Object regex, Action action) {
+        String source;
+        String flags = "";
+        if (regex instanceof JsLiteralParser.Regex) {
+            source = ((JsLiteralParser.Regex) regex).source;
+            flags = ((JsLiteralParser.Regex) regex).flags;
+        } else if (regex instanceof String) {
+            source = (String) regex;
+        } else {
+            throw new IllegalArgumentException("Invalid regular expression in state '" + state + "' of '"
+                    + languageId + "': " + regex);
+        }
+        source = substituteAttributes(source, 0);
+        boolean atLineStart = source.startsWith("^");
+        if (atLineStart) {
+            source = source.substring(1);
+        }
+        return new Rule(ruleCount++, compilePattern(source, ignoreCase || flags.contains("i")), atLineStart, action);
+    }
+
+    private Pattern compilePattern(String jsSource, boolean caseInsensitive) {
+        try {
+            return Pattern.compile(toJavaRegex(jsSource), caseInsensitive ? Pattern.CASE_INSENSITIVE : 0);
+        } catch (PatternSyntaxException ex) {
+            throw new IllegalArgumentException("Invalid regular expression /" + jsSource + "/ in '"
+                    + languageId + "': " + ex.getDescription(), ex);
+        }
+    }
+
+    /**
+     * Replaces {@code @attribute} references by the referenced regular expression or string.
+     */
+    private String substituteAttributes(String source, int depth) {
+        if (depth > 10 || source.indexOf('@') < 0) {
+            return source;
+        }
+        StringBuilder sb = new StringBuilder();
+        int i = 0;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '\\' && i + 1 < source.length()) {
+                sb.append(c).append(source.charAt(i + 1));
+                i += 2;
+                continue;
+            }
+            if (c == '@') {
+                int end = i + 1;
+                while (end < source.length() && isWordChar(source.charAt(end))) {
+                    end++;
+                }
+                Object value = attributes.get(source.substring(i + 1, end));
+                if (value instanceof JsLiteralParser.Regex) {
+                    sb.append(substituteAttributes(((JsLiteralParser.Regex) value).source, depth + 1));
+                    i = end;
+                    continue;
+                }
+                if (value instanceof String) {
+                    sb.append(substituteAttributes((String) value, depth + 1));
+                    i = end;
+                    continue;
+                }
+            }
+            sb.append(c);
+            i++;
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Translates the differences between JavaScript and Java regular expressions that occur
+     * in Monarch definitions: unescaped {@code [} and {@code &&} in character classes,
+     * {@code [^]}, {@code []} and literal braces.
+     */
+    static String toJavaRegex(String js) {
+        StringBuilder sb = new StringBuilder();
+        boolean inClass = false;
+        int i = 0;
+        while (i < js.length()) {
+            char c = js.charAt(i);
+            if (c == '\\' && i + 1 < js.length()) {
+                sb.append(c).append(js.charAt(i + 1));
+                i += 2;
+                continue;
+            }
+            if (inClass) {
+                if (c == ']') {
+                    inClass = false;
+                    sb.append(c);
+                } else if (c == '[' || c == '&') {
+                    sb.append('\\').append(c);
+                } else {
+                    sb.append(c);
+                }
+            } else if (c == '[') {
+                if (js.startsWith("[^]", i)) {
+                    sb.append("[\\s\\S]");
+                    i += 3;
+                    continue;
+                }
+                if (js.startsWith("[]", i)) {
+                    sb.append("(?!)");
+                    i += 2;
+                    continue;
+                }
+                inClass = true;
+                sb.append(c);
+                if (js.startsWith("[^", i)) {
+                    sb.append('^');
+                    i++;
+                }
+            } else if (c == '{' && !isQuantifier(js, i)) {
+                sb.append("\\{");
+            } else if (c == '}' && !closesQuantifier(js, i)) {
+                sb.append("\\}");
+            } else {
+                sb.append(c);
+            }
+            i++;
+        }
+        return sb.toString();
+    }
+
+    private static final Pattern QUANTIFIER = Pattern.compile("\\{\\d+(,\\d*)?}");
+
+    private static boolean isQuantifier(String s, int i) {
+        Matcher m = QUANTIFIER.matcher(s);
+        m.region(i, s.length());
+        return i > 0 && m.lookingAt();
+    }
+
+    private static boolean closesQuantifier(String s, int i) {
+        int open = s.lastIndexOf('{', i);
+        return open >= 0 && isQuantifier(s, open) && s.indexOf('}', open) == i;
+    }
+
+    private Action compileAction(Object action) {
+        if (action == null) {
+            return new TokenAction();
+        }
+        if (action instanceof String) {
+            TokenAction t = new TokenAction();
+            t.token = (String) action;
+            return t;
+        }
+        if (action instanceof List) {
+            List<Action> groups = new ArrayList<>();
+            for (Object a : (List<?>) action) {
+                groups.add(compileAction(a));
+            }
+            return new GroupsAction(groups);
+        }
+        if (action instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) action;
+            if (map.get("cases") instanceof Map) {
+                CasesAction cases = new CasesAction();
+                for (Map.Entry<?, ?> e : ((Map<?, ?>) map.get("cases")).entrySet()) {
+                    Case c = compileCase((String) e.getKey());
+                    Action a = compileAction(e.getValue());
+                    c.action = map.get("next") instanceof String ? withNext(a, (String) map.get("next")) : a;
+                    cases.cases.add(c);
+                }
+                return cases;
+            }
+            TokenAction t = new TokenAction();
+            Object token = map.get("token");
+            t.token = token == null ? "" : String.valueOf(token);
+            t.next = map.get("next") instanceof String ? (String) map.get("next") : null;
+            t.switchTo = map.get("switchTo") instanceof String ? (String) map.get("switchTo") : null;
+            t.goBack = map.get("goBack") instanceof Double ? ((Double) map.get("goBack")).intValue() : 0;
+            return t;
+        }
+        throw new IllegalArgumentException("Invalid action in '" + languageId + "': " + action);
+    }
+
+    private static Action withNext(Action action, String next) {
+        if (action instanceof TokenAction && ((TokenAction) action).next == null) {
+            ((TokenAction) action).next = next;
+        }
+        return action;
+    }
+
+    private static final Pattern GUARD = Pattern.compile("^(\\$(?:([sS]?)(\\d\\d?)|#))?(~|!~|@|!@|==|!=)(.*)$", Pattern.DOTALL);
+
+    private Case compileCase(String key) {
+        Case c = new Case();
+        if (key.equals("@default") || key.equals("@")) {
+            c.operator = "@default";
+            return c;
+        }
+        if (key.equals("@eos")) {
+            c.operator = "@eos";
+            return c;
+        }
+        Matcher m = GUARD.matcher(key);
+        if (!m.matches()) {
+            c.operator = "==";
+            c.operand = key;
+            return c;
+        }
+        if (m.group(3) != null) {
+            int index = Integer.parseInt(m.group(3));
+            if (m.group(2).isEmpty()) {
+                c.group = index;
+            } else {
+                c.stateGroup = index;
+            }
+        }
+        c.operator = m.group(4);
+        c.operand = m.group(5);
+        switch (c.operator) {
+            case "~":
+            case "!~":
+                c.regex = compilePattern(substituteAttributes(c.operand, 0), ignoreCase);
+                break;
+            case "@":
+            case "!@":
+                Object words = attributes.get(c.operand);
+                if (!(words instanceof List)) {
+                    throw new IllegalArgumentException("Case '" + key + "' of '" + languageId
+                            + "' refers to '" + c.operand + "', which is not an array");
+                }
+                c.words = new HashSet<>();
+                for (Object w : (List<?>) words) {
+                    String word = String.valueOf(w);
+                    c.words.add(ignoreCase ? word.toLowerCase() : word);
+                }
+                break;
+            default:
+        }
+        return c;
+    }
+}
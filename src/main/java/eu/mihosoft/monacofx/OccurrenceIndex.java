@@ -0,0 +1,331 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The identifiers of one text with the offsets they occur at, kept up to date from edits.
+ * <p>
+ * Offsets are stored per identifier in a sorted {@code int[]}. An edit only rescans the lines
+ * it touches: their old occurrences are removed, the offsets after them are moved by the
+ * length difference and the new lines are scanned again. Line numbers are computed when
+ * ranges are asked for.
+ * <p>
+ * Identifiers are runs of letters, digits, {@code _} and {@code $} not starting with a digit.
+ * Occurrences a {@link WorkspaceSymbolIndex.DeclarationMatcher} accepts are also recorded
+ * as declarations; the matcher only sees the text up to the identifier on the same line.
+ * Thread safe.
+ *
+ * <pre>{@code
+ * OccurrenceIndex occurrences = new OccurrenceIndex(document.getText());
+ * document.addChangeListener(occurrences);
+ * List<Range> uses = occurrences.findOccurrences("count");
+ * }</pre>
+ */
+public final class OccurrenceIndex implements DocumentChangeListener {
+
+    private final WorkspaceSymbolIndex.DeclarationMatcher matcher;
+    private String text;
+    private final Map<String, Offsets> occurrences = new HashMap<>();
+    private final Map<String, Offsets> declarations = new HashMap<>();
+    // line start offsets, null after edits until ranges are asked for
+    private int[] lineStarts;
+
+    public OccurrenceIndex(String text) {
+        this(text, null);
+    }
+
+    /**
+     * @param declarations decides which occurrences are declarations, null for none
+     */
+    public OccurrenceIndex(String text, WorkspaceSymbolIndex.DeclarationMatcher declarations) {
+        this.matcher = declarations;
+        this.text = text;
+        scan(0, text.length(), null);
+    }
+
+    /**
+     * Applies an edit, rescanning the lines it touches.
+     */
+    public void applyChange(ContentChange change) {
+        applyChange(change, null);
+    }
+
+    /**
+     * Applies the edits of one Monaco content change event, in order.
+     */
+    public void applyChanges(List<ContentChange> changes) {
+        applyChanges(changes, null);
+    }
+
+    @Override
+    public void documentChanged(Document document, int version, List<ContentChange> changes) {
+        applyChanges(changes);
+    }
+
+    /**
+     * @param added receives the identifiers found in the rescanned lines, may be null
+     */
+    synchronized void applyChanges(List<ContentChange> changes, Collection<String> added) {
+        for (ContentChange change : changes) {
+            applyChange(change, added);
+        }
+    }
+
+    synchronized void applyChange(ContentChange change, Collection<String> added) {
+        int offset = Math.min(change.getRangeOffset(), text.length());
+        int end = Math.min(offset + change.getRangeLength(), text.length());
+        int lineStart = offset;
+        while (lineStart > 0 && !isLineBreak(text.charAt(lineStart - 1))) {
+            lineStart--;
+        }
+        int lineEnd = end;
+        while (lineEnd < text.length() && !isLineBreak(text.charAt(lineEnd))) {
+            lineEnd++;
+        }
+
+        // occurrences in the touched lines
+        forEachIdentifier(text, lineStart, lineEnd, (id, start) -> {
+            remove(occurrences, id, start);
+            remove(declarations, id, start);
+        });
+
+        int delta = change.getText().length() - (end - offset);
+        if (delta != 0) {
+            for (Offsets o : occurrences.values()) {
+                o.shift(lineEnd, delta);
+            }
+            for (Offsets o : declarations.values()) {
+                o.shift(lineEnd, delta);
+            }
+        }
+        text = text.substring(0, offset) + change.getText() + text.substring(end);
+        lineStarts = null;
+        scan(lineStart, lineEnd + delta, added);
+    }
+
+    private void scan(int from, int to, Collection<String> added) {
+        boolean append = from == 0 && occurrences.isEmpty();
+        forEachIdentifier(text, from, to, (id, start) -> {
+            Offsets o = occurrences.computeIfAbsent(id, k -> new Offsets());
+            if (append) {
+                o.add(start);
+            } else {
+                o.insert(start);
+            }
+            if (matcher != null && matcher.isDeclaration(text, start, id)) {
+                Offsets d = declarations.computeIfAbsent(id, k -> new Offsets());
+                if (append) {
+                    d.add(start);
+                } else {
+                    d.insert(start);
+                }
+            }
+            if (added != null) {
+                added.add(id);
+            }
+        });
+    }
+
+    private static void remove(Map<String, Offsets> map, String id, int offset) {
+        Offsets o = map.get(id);
+        if (o != null && o.remove(offset) && o.size == 0) {
+            map.remove(id);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IdentifierConsumer {
+        void accept(String identifier, int offset);
+    }
+
+    private static void forEachIdentifier(String text, int from, int to, IdentifierConsumer consumer) {
+        int i = from;
+        while (i < to) {
+            char c = text.charAt(i);
+            if (WorkspaceSymbolIndex.isWordChar(c)) {
+                int start = i;
+                while (i < to && WorkspaceSymbolIndex.isWordChar(text.charAt(i))) {
+                    i++;
+                }
+                if (!Character.isDigit(c)) {
+                    consumer.accept(text.substring(start, i), start);
+                }
+            } else {
+                i++;
+            }
+        }
+    }
+
+    private static boolean isLineBreak(char c) {
+        return c == '\n' || c == '\r';
+    }
+
+    // ========== Queries ==========
+
+    public synchronized String getText() {
+        return text;
+    }
+
+    /**
+     * The identifiers occurring in the text.
+     */
+    public synchronized Set<String> getIdentifiers() {
+        return Set.copyOf(occurrences.keySet());
+    }
+
+    /**
+     * Number of occurrences of the identifier.
+     */
+    public synchronized int count(String identifier) {
+        Offsets o = occurrences.get(identifier);
+        return o == null ? 0 : o.size;
+    }
+
+    /**
+     * Offsets of the occurrences of the identifier, ascending.
+     */
+    public synchronized int[] getOffsets(String identifier) {
+        Offsets o = occurrences.get(identifier);
+        return o == null ? new int[0] : o.toArray();
+    }
+
+    /**
+     * Ranges of the occurrences of the identifier, declarations included.
+     */
+    public List<Range> findOccurrences(String identifier) {
+        return find(occurrences, identifier, null);
+    }
+
+    /**
+     * Ranges of the declarations of the identifier.
+     */
+    public List<Range> findDeclarations(String identifier) {
+        return find(declarations, identifier, null);
+    }
+
+    /**
+     * Ranges of the occurrences of the identifier that are no declarations.
+     */
+    public List<Range> findUsages(String identifier) {
+        return find(occurrences, identifier, declarations);
+    }
+
+    private synchronized List<Range> find(Map<String, Offsets> map, String identifier, Map<String, Offsets> exclude) {
+        Offsets o = map.get(identifier);
+        if (o == null) {
+            return Collections.emptyList();
+        }
+        Offsets excluded = exclude != null ? exclude.get(identifier) : null;
+        List<Range> result = new ArrayList<>(o.size);
+        for (int i = 0; i < o.size; i++) {
+            int offset = o.values[i];
+            if (excluded == null || excluded.indexOf(offset) < 0) {
+                result.add(range(offset, identifier.length()));
+            }
+        }
+        return result;
+    }
+
+    private Range range(int offset, int length) {
+        if (lineStarts == null) {
+            lineStarts = lineStarts(text);
+        }
+        int line = Arrays.binarySearch(lineStarts, offset);
+        line = line >= 0 ? line : -line - 2;
+        int column = offset - lineStarts[line] + 1;
+        return new Range(line + 1, column, line + 1, column + length);
+    }
+
+    private static int[] lineStarts(String text) {
+        Offsets starts = new Offsets();
+        starts.add(0);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || (c == '\r' && (i + 1 == text.length() || text.charAt(i + 1) != '\n'))) {
+                starts.add(i + 1);
+            }
+        }
+        return starts.toArray();
+    }
+
+    /**
+     * Sorted offsets of one identifier.
+     */
+    private static final class Offsets {
+        int[] values = new int[2];
+        int size;
+
+        void add(int offset) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = offset;
+        }
+
+        void insert(int offset) {
+            int i = lowerBound(offset);
+            if (i < size && values[i] == offset) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            System.arraycopy(values, i, values, i + 1, size - i);
+            values[i] = offset;
+            size++;
+        }
+
+        boolean remove(int offset) {
+            int i = indexOf(offset);
+            if (i < 0) {
+                return false;
+            }
+            System.arraycopy(values, i + 1, values, i, size - i - 1);
+            size--;
+            return true;
+        }
+
+        /**
+         * Moves all offsets at or after {@code from}.
+         */
+        void shift(int from, int delta) {
+            for (int i = lowerBound(from); i < size; i++) {
+                values[i] += delta;
+            }
+        }
+
+        int indexOf(int offset) {
+            int i = lowerBound(offset);
+            return i < size && values[i] == offset ? i : -1;
+        }
+
+        int lowerBound(int offset) {
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (values[mid] < offset) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
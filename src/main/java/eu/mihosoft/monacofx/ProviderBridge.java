@@ -0,0 +1,512 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import javafx.application.Platform;
+import netscape.javascript.JSObject;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Dispatches provider requests from Monaco to Java. One instance per editor is set as
+ * {@code javaProviderBridge} on the page; {@code callJavaProvider(...)} in index.html calls
+ * {@link #request(int, String, String, String)} and receives the result through
+ * {@code resolveProviderRequest(id, json)} once the provider's future completes.
+ * <p>
+ * Requests arrive on the JavaFX application thread. Providers do their work elsewhere and
+ * results are handed back via {@code fxExecutor}, so the page is only ever touched on
+ * the JavaFX application thread.
+ */
+public final class ProviderBridge {
+
+    private static final Gson GSON = new GsonBuilder().create();
+
+    static final String COMPLETION = "completion";
+    static final String RESOLVE_COMPLETION = "resolveCompletion";
+    static final String HOVER = "hover";
+    static final String DEFINITION = "definition";
+    static final String REFERENCES = "references";
+    static final String PREPARE_RENAME = "prepareRename";
+    static final String RENAME = "rename";
+    static final String SIGNATURE_HELP = "signatureHelp";
+    static final String INLINE_COMPLETION = "inlineCompletion";
+    static final String DOCUMENT_COLORS = "documentColors";
+    static final String COLOR_PRESENTATIONS = "colorPresentations";
+    static final String FOLDING_RANGES = "foldingRanges";
+    static final String DOCUMENT_SYMBOLS = "documentSymbols";
+    static final String SEMANTIC_TOKENS = "semanticTokens";
+    static final String RANGE_SEMANTIC_TOKENS = "rangeSemanticTokens";
+    static final String CODE_ACTIONS = "codeActions";
+    static final String RESOLVE_CODE_ACTION = "resolveCodeAction";
+
+    /**
+     * Handles one request kind for one language.
+     * Returns the JSON that is passed to the Monaco provider, or null.
+     */
+    @FunctionalInterface
+    interface Handler {
+        CompletableFuture<String> handle(ProviderRequest request, JsonObject args);
+    }
+
+    private static final class PendingRequest {
+        final CancellationToken token = new CancellationToken();
+        CompletableFuture<String> future;
+    }
+
+    private final Executor fxExecutor;
+    private final Supplier<String> documentText;
+    private final Map<String, Handler> handlers = new HashMap<>();
+    private final Map<Integer, PendingRequest> pending = new HashMap<>();
+    private JSObject window;
+
+    /**
+     * @param fxExecutor runs result delivery on the JavaFX application thread
+     * @param documentText the Java-side mirror of the document, read on the JavaFX application thread
+     */
+    ProviderBridge(Executor fxExecutor, Supplier<String> documentText) {
+        this.fxExecutor = fxExecutor;
+        this.documentText = documentText;
+    }
+
+    ProviderBridge(Supplier<String> documentText) {
+        this(Platform::runLater, documentText);
+    }
+
+    void setWindow(JSObject window) {
+        this.window = window;
+    }
+
+    // ========== Called from JavaScript ==========
+
+    /**
+     * Starts a provider request. The result is delivered asynchronously.
+     */
+    public void request(int id, String kind, String language, String argsJson) {
+        Handler handler = handlers.get(key(kind, language));
+        if (handler == null) {
+            fxExecutor.execute(() -> deliver(id, null));
+            return;
+        }
+
+        PendingRequest request = new PendingRequest();
+        pending.put(id, request);
+
+        CompletableFuture<String> future;
+        try {
+            JsonObject args = JsonParser.parseString(argsJson).getAsJsonObject();
+            // the mirror is up to date: Monaco reports content changes before it asks providers
+            String text = documentText.get();
+            future = handler.handle(ProviderRequest.fromArgs(language, args,
+                    text != null ? text : "", request.token), args);
+        } catch (RuntimeException ex) {
+            future = CompletableFuture.failedFuture(ex);
+        }
+        if (future == null) {
+            future = CompletableFuture.completedFuture(null);
+        }
+        request.future = future;
+
+        future.whenComplete((result, ex) -> fxExecutor.execute(() -> {
+            if (pending.remove(id) != request) {
+                // cancelled, the JS promise is already settled
+                return;
+            }
+            if (ex != null) {
+                ex.printStackTrace();
+            }
+            deliver(id, ex == null ? result : null);
+        }));
+    }
+
+    /**
+     * Cancels a request because Monaco no longer needs its result.
+     */
+    public void cancel(int id) {
+        PendingRequest request = pending.remove(id);
+        if (request != null) {
+            request.token.cancel();
+            if (request.future != null) {
+                request.future.cancel(false);
+            }
+        }
+    }
+
+    private void deliver(int id, String json) {
+        if (window != null) {
+            window.call("resolveProviderRequest", id, json);
+        }
+    }
+
+    // ========== Handlers ==========
+
+    void setHandler(String kind, String language, Handler handler) {
+        handlers.put(key(kind, language), handler);
+    }
+
+    void removeHandler(String kind, String language, Handler handler) {
+        handlers.remove(key(kind, language), handler);
+    }
+
+    boolean hasHandler(String kind, String language) {
+        return handlers.containsKey(key(kind, language));
+    }
+
+    int getPendingRequestCount() {
+        return pending.size();
+    }
+
+    /**
+     * Cancels all pending requests and forgets the page.
+     */
+    void dispose() {
+        for (Integer id : new ArrayList<>(pending.keySet())) {
+            cancel(id);
+        }
+        window = null;
+    }
+
+    private static String key(String kind, String language) {
+        return kind + '\u0000' + language;
+    }
+
+    // ========== Adapters from provider interfaces to JSON handlers ==========
+
+    static Handler completionHandler(AsyncCompletionItemProvider provider) {
+        return completionHandler(provider, new CompletionCache());
+    }
+
+    static Handler completionHandler(AsyncCompletionItemProvider provider, CompletionCache cache) {
+        return (request, args) -> {
+            String cached = cache.lookup(request);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
+            }
+            return provider.provideCompletionItems(request).thenApply(items -> cache.store(request, items));
+        };
+    }
+
+    static Handler resolveCompletionHandler(CompletionResolveCache cache) {
+        return (request, args) -> cache.resolve(args.get("resolveId").getAsString(), request.getCancellationToken());
+    }
+
+    static Handler hoverHandler(AsyncHoverProvider provider) {
+        return (request, args) -> provider.provideHover(request)
+                .thenApply(hover -> hover == null ? null : GSON.toJson(hover.toMap()));
+    }
+
+    static Handler hoverHandler(AsyncHoverProvider provider, HoverCache cache) {
+        Handler uncached = hoverHandler(provider);
+        return (request, args) -> {
+            if (!cache.isEnabled()) {
+                return uncached.handle(request, args);
+            }
+            String cached = cache.lookup(request);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
+            }
+            return uncached.handle(request, args).thenApply(json -> {
+                cache.store(request, json);
+                return json;
+            });
+        };
+    }
+
+    static Handler definitionHandler(AsyncDefinitionProvider provider) {
+        return (request, args) -> provider.provideDefinition(request)
+                .thenApply(locations -> {
+                    if (locations == null || locations.isEmpty()) {
+                        return null;
+                    }
+                    List<Map<String, Object>> list = new ArrayList<>();
+                    for (Location location : locations) {
+                        list.add(location.toMap());
+                    }
+                    return GSON.toJson(list);
+                });
+    }
+
+    static Handler referencesHandler(ReferenceProvider provider, Executor executor) {
+        return (request, args) -> {
+            boolean includeDeclaration = !args.has("includeDeclaration")
+                    || args.get("includeDeclaration").getAsBoolean();
+            return CompletableFuture.supplyAsync(() -> {
+                if (request.getCancellationToken().isCancellationRequested()) {
+                    return null;
+                }
+                List<Location> locations = provider.provideReferences(request, includeDeclaration);
+                if (locations == null || locations.isEmpty()) {
+                    return null;
+                }
+                List<Map<String, Object>> list = new ArrayList<>(locations.size());
+                for (Location location : locations) {
+                    list.add(location.toMap());
+                }
+                return GSON.toJson(list);
+            }, executor);
+        };
+    }
+
+    static Handler prepareRenameHandler(RenameProvider provider, Executor executor) {
+        return (request, args) -> CompletableFuture.supplyAsync(() -> {
+            if (request.getCancellationToken().isCancellationRequested()) {
+                return null;
+            }
+            RenameLocation location = provider.prepareRename(request);
+            return location == null ? null : GSON.toJson(location.toMap());
+        }, executor);
+    }
+
+    static Handler renameHandler(RenameProvider provider, Executor executor) {
+        return (request, args) -> {
+            String newName = args.get("newName").getAsString();
+            return CompletableFuture.supplyAsync(() -> {
+                if (request.getCancellationToken().isCancellationRequested()) {
+                    return null;
+                }
+                WorkspaceEdit edit = provider.provideRenameEdits(request, newName);
+                return edit == null || edit.isEmpty() ? null : GSON.toJson(edit.toBatches());
+            }, executor);
+        };
+    }
+
+    static Handler signatureHelpHandler(SignatureHelpProvider provider, SignatureHelpCache cache,
+                                        Supplier<Document> document, Executor executor) {
+        return (request, args) -> {
+            CallSite callSite = CallSite.find(request);
+            if (callSite == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+            // same call as before: only the active parameter changed
+            SignatureHelpCache.Entry cached = cache.get(document.get(), request.getVersion(),
+                    callSite.getOpenParen());
+            if (cached != null) {
+                return CompletableFuture.completedFuture(signatureHelpJson(provider, cached, callSite));
+            }
+            return CompletableFuture.supplyAsync(() -> {
+                if (request.getCancellationToken().isCancellationRequested()) {
+                    return null;
+                }
+                List<SignatureInformation> signatures = provider.provideSignatures(request, callSite);
+                if (signatures == null) {
+                    signatures = List.of();
+                }
+                List<Map<String, Object>> list = new ArrayList<>(signatures.size());
+                for (SignatureInformation signature : signatures) {
+                    list.add(signature.toMap());
+                }
+                SignatureHelpCache.Entry entry = new SignatureHelpCache.Entry(signatures, GSON.toJson(list));
+                cache.put(request.getVersion(), callSite.getOpenParen(), entry);
+                return signatureHelpJson(provider, entry, callSite);
+            }, executor);
+        };
+    }
+
+    private static String signatureHelpJson(SignatureHelpProvider provider, SignatureHelpCache.Entry entry,
+                                            CallSite callSite) {
+        if (entry.signatures.isEmpty()) {
+            return null;
+        }
+        int activeParameter = callSite.getActiveParameter();
+        return "{\"signatures\":" + entry.json
+                + ",\"activeSignature\":" + provider.selectSignature(entry.signatures, activeParameter)
+                + ",\"activeParameter\":" + activeParameter + "}";
+    }
+
+    static Handler inlineCompletionHandler(AsyncInlineCompletionProvider provider) {
+        return (request, args) -> provider.provideInlineCompletions(request)
+                .thenApply(completions -> {
+                    List<Map<String, Object>> items = new ArrayList<>();
+                    if (completions != null) {
+                        for (InlineCompletion completion : completions) {
+                            items.add(completion.toMap());
+                        }
+                    }
+                    Map<String, Object> result = new HashMap<>();
+                    result.put("items", items);
+                    return GSON.toJson(result);
+                });
+    }
+
+    static Handler inlineCompletionHandler(InlineCompletionPipeline pipeline) {
+        return (request, args) -> pipeline.request(request);
+    }
+
+    static Handler documentColorsHandler(AsyncDocumentColorProvider provider) {
+        return (request, args) -> provider.provideDocumentColors(request)
+                .thenApply(colors -> {
+                    List<Map<String, Object>> list = new ArrayList<>();
+                    if (colors != null) {
+                        for (ColorInformation color : colors) {
+                            list.add(color.toMap());
+                        }
+                    }
+                    return GSON.toJson(list);
+                });
+    }
+
+    static Handler lineColorsHandler(ColorCache cache, Supplier<Document> document, Executor executor) {
+        return (request, args) -> {
+            cache.begin(document.get());
+            int previousResultId = args.has("previousResultId") ? args.get("previousResultId").getAsInt() : -1;
+            return CompletableFuture.supplyAsync(() -> cache.update(request.getText(), request.getVersion(),
+                    previousResultId, request.getCancellationToken()), executor);
+        };
+    }
+
+    static Handler colorPresentationsHandler(AsyncDocumentColorProvider provider) {
+        return (request, args) -> {
+            JsonObject c = args.getAsJsonObject("color");
+            EditorColor color = new EditorColor(
+                    c.get("red").getAsDouble(), c.get("green").getAsDouble(),
+                    c.get("blue").getAsDouble(), c.get("alpha").getAsDouble());
+            JsonObject r = args.getAsJsonObject("range");
+            Range range = new Range(
+                    r.get("startLineNumber").getAsInt(), r.get("startColumn").getAsInt(),
+                    r.get("endLineNumber").getAsInt(), r.get("endColumn").getAsInt());
+            return provider.provideColorPresentations(color, range, request.getCancellationToken())
+                    .thenApply(presentations -> {
+                        List<Map<String, Object>> list = new ArrayList<>();
+                        if (presentations != null) {
+                            for (ColorPresentation presentation : presentations) {
+                                list.add(presentation.toMap());
+                            }
+                        }
+                        return GSON.toJson(list);
+                    });
+        };
+    }
+
+    static Handler foldingRangesHandler(IncrementalFoldingProvider provider, FoldingCache cache,
+                                        Supplier<Document> document, Executor executor) {
+        return (request, args) -> {
+            FoldingUpdate update = cache.begin(document.get(), request.getText(), request.getCancellationToken());
+            return CompletableFuture.supplyAsync(() -> {
+                if (request.getCancellationToken().isCancellationRequested()) {
+                    return null;
+                }
+                Folding[] foldings = provider.updateFoldings(update);
+                cache.complete(update, foldings);
+                List<Map<String, Object>> list = new ArrayList<>();
+                if (foldings != null) {
+                    for (Folding folding : foldings) {
+                        list.add(folding.toMap());
+                    }
+                }
+                return GSON.toJson(list);
+            }, executor);
+        };
+    }
+
+    static Handler documentSymbolsHandler(DocumentSymbolProvider provider, DocumentSymbolCache cache,
+                                          Supplier<Document> document, Executor executor) {
+        return (request, args) -> {
+            DocumentSymbolUpdate update = cache.begin(document.get(), request.getText(),
+                    request.getCancellationToken());
+            return CompletableFuture.supplyAsync(() -> {
+                if (request.getCancellationToken().isCancellationRequested()) {
+                    return null;
+                }
+                List<DocumentSymbol> symbols = provider.updateSymbols(update);
+                cache.complete(update, symbols);
+                List<Map<String, Object>> list = new ArrayList<>();
+                if (symbols != null) {
+                    for (DocumentSymbol symbol : symbols) {
+                        list.add(symbol.toMap());
+                    }
+                }
+                return GSON.toJson(list);
+            }, executor);
+        };
+    }
+
+    static Handler semanticTokensHandler(SemanticTokensProvider provider, SemanticTokensCache cache,
+                                         Executor executor) {
+        return (request, args) -> {
+            String lastResultId = args.has("previousResultId") ? args.get("previousResultId").getAsString() : null;
+            return CompletableFuture.supplyAsync(() -> {
+                if (request.getCancellationToken().isCancellationRequested()) {
+                    return null;
+                }
+                int[] tokens = provider.provideSemanticTokens(request);
+                return tokens == null || request.getCancellationToken().isCancellationRequested()
+                        ? null : cache.toJson(tokens, lastResultId);
+            }, executor);
+        };
+    }
+
+    static Handler rangeSemanticTokensHandler(RangeSemanticTokensCache cache, Supplier<Document> document,
+                                              Executor executor) {
+        return (request, args) -> {
+            cache.begin(document.get());
+            int startLine = args.get("startLine").getAsInt();
+            int endLine = args.get("endLine").getAsInt();
+            return CompletableFuture.supplyAsync(() -> cache.provide(request, startLine, endLine), executor);
+        };
+    }
+
+    static Handler codeActionsHandler(CodeActionCache cache) {
+        return (request, args) -> {
+            Range range = new Range(
+                    args.get("startLineNumber").getAsInt(), args.get("startColumn").getAsInt(),
+                    args.get("endLineNumber").getAsInt(), args.get("endColumn").getAsInt());
+            List<Marker> markers = new ArrayList<>();
+            JsonArray array = args.has("markers") ? args.getAsJsonArray("markers") : new JsonArray();
+            for (JsonElement marker : array) {
+                markers.add(Marker.fromJson(marker.getAsJsonObject()));
+            }
+            String only = args.has("only") && !args.get("only").isJsonNull() ? args.get("only").getAsString() : "";
+            return cache.provide(request, range, markers, array.toString(), only);
+        };
+    }
+
+    static Handler resolveCodeActionHandler(CodeActionCache cache) {
+        return (request, args) -> cache.resolve(args.get("resolveId").getAsString(), request.getCancellationToken());
+    }
+
+    // ========== Default executor ==========
+
+    private static final class DefaultExecutorHolder {
+        static final Executor INSTANCE = createDefaultExecutor();
+    }
+
+    /**
+     * Executor used for providers unless the editor is configured otherwise:
+     * one virtual thread per task where the runtime offers them (Java 21+),
+     * a cached pool of daemon threads otherwise.
+     */
+    static Executor defaultExecutor() {
+        return DefaultExecutorHolder.INSTANCE;
+    }
+
+    private static Executor createDefaultExecutor() {
+        try {
+            Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (Executor) m.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            // Java 17 or virtual threads only available as preview
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "monacofx-provider-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+}
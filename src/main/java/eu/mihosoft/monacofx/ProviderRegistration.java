@@ -0,0 +1,87 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import netscape.javascript.JSObject;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A provider registered via one of the {@code Editor.registerXxxProvider(...)} methods.
+ * Holds the {@link ProviderBridge} handlers and how to register the provider in Monaco,
+ * so the registration can be replayed once the page is ready.
+ */
+final class ProviderRegistration implements Registration {
+
+    private final Editor editor;
+    private final String kind;
+    private final String language;
+    private final String jsRegisterFunction;
+    private final Object[] jsArgs;
+    private final Map<String, ProviderBridge.Handler> handlers = new LinkedHashMap<>();
+    private final List<Runnable> unbindListeners = new ArrayList<>();
+
+    /**
+     * @param kind registry the provider lives in on the JS side, see {@code unregisterProvider(kind, language)}
+     * @param jsRegisterFunction JS function registering the provider, called with language and {@code jsArgs}
+     */
+    ProviderRegistration(Editor editor, String kind, String language, String jsRegisterFunction, Object... jsArgs) {
+        this.editor = editor;
+        this.kind = kind;
+        this.language = language;
+        this.jsRegisterFunction = jsRegisterFunction;
+        this.jsArgs = jsArgs;
+    }
+
+    ProviderRegistration handler(String requestKind, ProviderBridge.Handler handler) {
+        handlers.put(requestKind, handler);
+        return this;
+    }
+
+    /**
+     * Run the listener whenever the handlers are removed from the bridge, i.e. when the
+     * registration is disposed, replaced or its editor is disposed.
+     */
+    ProviderRegistration onUnbind(Runnable listener) {
+        unbindListeners.add(listener);
+        return this;
+    }
+
+    String getKey() {
+        return kind + ':' + language;
+    }
+
+    String getKind() {
+        return kind;
+    }
+
+    String getLanguage() {
+        return language;
+    }
+
+    void bind(ProviderBridge bridge) {
+        handlers.forEach((requestKind, handler) -> bridge.setHandler(requestKind, language, handler));
+    }
+
+    void unbind(ProviderBridge bridge) {
+        handlers.forEach((requestKind, handler) -> bridge.removeHandler(requestKind, language, handler));
+        unbindListeners.forEach(Runnable::run);
+    }
+
+    void registerJS(JSObject window) {
+        Object[] args = new Object[jsArgs.length + 1];
+        args[0] = language;
+        System.arraycopy(jsArgs, 0, args, 1, jsArgs.length);
+        window.call(jsRegisterFunction, args);
+    }
+
+    @Override
+    public void dispose() {
+        editor.unregisterProvider(this);
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * A provider request as sent by Monaco. Instead of the whole document it carries the
+ * document version and a window of lines around the position
+ * (see {@link Editor#setProviderContextLines(int)}). The full text is only materialized
+ * if the provider asks for it, and then comes from the Java-side {@link Document} mirror
+ * rather than across the JavaScript bridge.
+ *
+ * <pre>{@code
+ * editor.registerHoverProvider("java", request -> {
+ *     String line = request.getLine(request.getPosition().lineNumber);
+ *     ...
+ * });
+ * }</pre>
+ */
+public final class ProviderRequest {
+
+    private final String language;
+    private final int version;
+    private final Position position;
+    private final String word;
+    private final Range wordRange;
+    private final String triggerCharacter;
+    private final int windowStartLine;
+    private final String windowText;
+    private final String documentText;
+    private final CancellationToken token;
+
+    private String[] windowLines;
+
+    ProviderRequest(String language, int version, Position position, String word, Range wordRange,
+                    String triggerCharacter, int windowStartLine, String windowText, String documentText,
+                    CancellationToken token) {
+        this.language = language;
+        this.version = version;
+        this.position = position;
+        this.word = word;
+        this.wordRange = wordRange;
+        this.triggerCharacter = triggerCharacter;
+        this.windowStartLine = windowStartLine;
+        this.windowText = windowText;
+        this.documentText = documentText;
+        this.token = token;
+    }
+
+    /**
+     * Creates a request from the arguments sent by {@code providerArgs(...)} in index.html.
+     */
+    static ProviderRequest fromArgs(String language, JsonObject args, String documentText, CancellationToken token) {
+        Position position = args.has("lineNumber")
+                ? new Position(args.get("lineNumber").getAsInt(), args.get("column").getAsInt())
+                : null;
+        Range wordRange = position != null && args.has("wordStartColumn")
+                ? new Range(position.lineNumber, args.get("wordStartColumn").getAsInt(),
+                        position.lineNumber, args.get("wordEndColumn").getAsInt())
+                : null;
+        return new ProviderRequest(language,
+                args.has("version") ? args.get("version").getAsInt() : 0,
+                position,
+                string(args, "word"),
+                wordRange,
+                string(args, "triggerCharacter"),
+                args.has("windowStartLine") ? args.get("windowStartLine").getAsInt() : 1,
+                string(args, "windowText"),
+                documentText,
+                token);
+    }
+
+    private static String string(JsonObject args, String name) {
+        JsonElement e = args.get(name);
+        return e == null || e.isJsonNull() ? "" : e.getAsString();
+    }
+
+    /**
+     * Monaco language id the provider was registered for.
+     */
+    public String getLanguage() { return language; }
+
+    /**
+     * Version of the Monaco model the request refers to, see {@link Document#getVersion()}.
+     */
+    public int getVersion() { return version; }
+
+    /**
+     * Position of the cursor or mouse, null for document wide requests such as colors.
+     */
+    public Position getPosition() { return position; }
+
+    /**
+     * Word at the position (hover, definition), otherwise empty.
+     */
+    public String getWord() { return word; }
+
+    /**
+     * Range of {@link #getWord()} in the current line (hover), otherwise null.
+     */
+    public Range getWordRange() { return wordRange; }
+
+    /**
+     * Character that triggered completion, otherwise empty.
+     */
+    public String getTriggerCharacter() { return triggerCharacter; }
+
+    /**
+     * Cancelled when Monaco no longer needs the result.
+     */
+    public CancellationToken getCancellationToken() { return token; }
+
+    /**
+     * First line (1-based) contained in {@link #getWindowText()}.
+     */
+    public int getWindowStartLine() { return windowStartLine; }
+
+    /**
+     * Last line (1-based) contained in {@link #getWindowText()}.
+     */
+    public int getWindowEndLine() { return windowStartLine + windowLines().length - 1; }
+
+    /**
+     * The lines around the position, sent along with the request.
+     */
+    public String getWindowText() { return windowText; }
+
+    /**
+     * A line of the document. Served from the window if possible, otherwise from the full text.
+     *
+     * @param lineNumber 1-based line number
+     */
+    public String getLine(int lineNumber) {
+        // document wide requests carry no window
+        if (position != null) {
+            String[] lines = windowLines();
+            int i = lineNumber - windowStartLine;
+            if (i >= 0 && i < lines.length) {
+                return lines[i];
+            }
+        }
+        String text = getText();
+        int start = offsetOf(text, lineNumber, 1);
+        int end = start;
+        while (end < text.length() && text.charAt(end) != '\n' && text.charAt(end) != '\r') {
+            end++;
+        }
+        return text.substring(start, end);
+    }
+
+    /**
+     * Text of the current line up to the position.
+     */
+    public String getLinePrefix() {
+        if (position == null) {
+            return "";
+        }
+        String line = getLine(position.lineNumber);
+        return line.substring(0, Math.min(line.length(), position.column - 1));
+    }
+
+    /**
+     * The identifier characters directly before the position, i.e. the word being completed.
+     */
+    public String getWordUntilPosition() {
+        String prefix = getLinePrefix();
+        return prefix.substring(CompletionCache.wordStart(prefix, prefix.length()));
+    }
+
+    /**
+     * The full document text. Taken from the Java-side mirror, nothing is transferred from Monaco.
+     */
+    public String getText() { return documentText; }
+
+    /**
+     * All text from the start of the document to the position.
+     */
+    public String getTextUntilPosition() {
+        if (position == null) {
+            return documentText;
+        }
+        return documentText.substring(0, offsetOf(documentText, position.lineNumber, position.column));
+    }
+
+    private String[] windowLines() {
+        if (windowLines == null) {
+            windowLines = windowText.split("\\r\\n|\\r|\\n", -1);
+        }
+        return windowLines;
+    }
+
+    /**
+     * Offset of a 1-based line/column in the text, clamped to the text.
+     */
+    static int offsetOf(String text, int lineNumber, int column) {
+        int offset = 0;
+        for (int line = 1; line < lineNumber && offset < text.length(); offset++) {
+            char c = text.charAt(offset);
+            if (c == '\n' || (c == '\r' && (offset + 1 == text.length() || text.charAt(offset + 1) != '\n'))) {
+                line++;
+            }
+        }
+        return Math.min(text.length(), offset + column - 1);
+    }
+}
@@ -4,6 +4,9 @@
  */
 package eu.mihosoft.monacofx;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Represents a range in the editor (start and end positions).
  */
@@ -44,4 +47,13 @@ public final class Range {
         }
         return true;
     }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("startLineNumber", startLineNumber);
+        map.put("startColumn", startColumn);
+        map.put("endLineNumber", endLineNumber);
+        map.put("endColumn", endColumn);
+        return map;
+    }
 }
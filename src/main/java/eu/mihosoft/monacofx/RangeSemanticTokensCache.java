@@ -0,0 +1,385 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Per-line cache of the tokens computed by a {@link RangeSemanticTokensProvider}.
+ * <p>
+ * The provider is asked for whole blocks of {@link #BLOCK_LINES} lines. A request computes the
+ * missing blocks of the requested lines plus {@link #MARGIN_LINES} above and below, so
+ * scrolling a little is answered from the cache. Edits invalidate the lines they touch and
+ * move the others along. Once no request came in for {@link #IDLE_MILLIS}, the remaining
+ * blocks are computed one at a time, nearest to the last viewport first.
+ * <p>
+ * Like {@link ColorCache}, edits are queued on the JavaFX application thread and applied on the
+ * provider executor up to the version of the text being tokenized.
+ */
+final class RangeSemanticTokensCache implements DocumentChangeListener {
+
+    static final int BLOCK_LINES = 100;
+    static final int MARGIN_LINES = 200;
+    static final long IDLE_MILLIS = 500;
+
+    private static final int[] NO_TOKENS = new int[0];
+
+    private static final class Event {
+        final int version;
+        final List<ContentChange> changes;
+
+        Event(int version, List<ContentChange> changes) {
+            this.version = version;
+            this.changes = changes;
+        }
+    }
+
+    private static final class Prefetch {
+        final ProviderRequest request;
+        final int firstLine;
+        final int lastLine;
+
+        Prefetch(ProviderRequest request, int firstLine, int lastLine) {
+            this.request = request;
+            this.firstLine = firstLine;
+            this.lastLine = lastLine;
+        }
+    }
+
+    private final RangeSemanticTokensProvider provider;
+    private final String language;
+    private final Executor executor;
+    private final ConcurrentLinkedQueue<Event> events = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<Prefetch> pendingPrefetch = new AtomicReference<>();
+    private volatile Document document;
+    private volatile long lastActivity;
+    private volatile boolean disposed;
+
+    // guarded by this
+    private ArrayList<int[]> lines;
+    private int version = -1;
+    private ProviderRequest latest;
+    private int focusLine = 1;
+    private boolean refining;
+    private long computedLines;
+
+    /**
+     * @param executor runs the provider and the idle refinement
+     */
+    RangeSemanticTokensCache(RangeSemanticTokensProvider provider, String language, Executor executor) {
+        this.provider = provider;
+        this.language = language;
+        this.executor = executor;
+    }
+
+    String getLanguage() {
+        return language;
+    }
+
+    /**
+     * Called on the JavaFX application thread before a request is handed to the executor.
+     */
+    void begin(Document document) {
+        lastActivity = System.nanoTime();
+        if (document != this.document) {
+            this.document = document;
+            events.clear();
+            synchronized (this) {
+                lines = null;
+                latest = null;
+            }
+        }
+    }
+
+    @Override
+    public void documentChanged(Document document, int version, List<ContentChange> changes) {
+        if (document == this.document) {
+            events.add(new Event(version, changes));
+        }
+    }
+
+    /**
+     * Returns the tokens of the lines in Monaco's relative encoding as JSON {@code {data}},
+     * or null if the request is outdated or cancelled.
+     */
+    synchronized String provide(ProviderRequest request, int startLine, int endLine) {
+        if (!prepare(request)) {
+            return null;
+        }
+        focusLine = startLine;
+        ensure(request, startLine - MARGIN_LINES, endLine + MARGIN_LINES);
+        if (request.getCancellationToken().isCancellationRequested()) {
+            return null;
+        }
+        scheduleRefinement();
+        return encode(startLine, Math.min(endLine, lines.size()));
+    }
+
+    /**
+     * Computes the lines around the viewport on the executor before Monaco asks, e.g. while
+     * scrolling. A prefetch still waiting for the executor is replaced, so only the latest
+     * viewport is computed.
+     */
+    void schedulePrefetch(ProviderRequest request, int firstLine, int lastLine) {
+        lastActivity = System.nanoTime();
+        if (pendingPrefetch.getAndSet(new Prefetch(request, firstLine, lastLine)) == null) {
+            executor.execute(() -> {
+                Prefetch p = pendingPrefetch.getAndSet(null);
+                if (p != null) {
+                    prefetch(p.request, p.firstLine, p.lastLine);
+                }
+            });
+        }
+    }
+
+    /**
+     * Computes the lines around the viewport before Monaco asks, e.g. while scrolling.
+     */
+    synchronized void prefetch(ProviderRequest request, int firstLine, int lastLine) {
+        lastActivity = System.nanoTime();
+        if (!prepare(request)) {
+            return;
+        }
+        focusLine = firstLine;
+        ensure(request, firstLine - MARGIN_LINES, lastLine + MARGIN_LINES);
+        scheduleRefinement();
+    }
+
+    /**
+     * Applies queued edits up to the request's version. Returns false if the request is outdated.
+     */
+    private boolean prepare(ProviderRequest request) {
+        if (disposed) {
+            return false;
+        }
+        if (lines != null && request.getVersion() < version) {
+            return false;
+        }
+        if (lines != null) {
+            while (!events.isEmpty() && events.peek().version <= request.getVersion()) {
+                Event e = events.poll();
+                for (ContentChange c : e.changes) {
+                    apply(c);
+                }
+                version = e.version;
+            }
+        }
+        if (lines == null || version != request.getVersion()) {
+            // first request or edits were missed
+            int count = ContentChange.countLineBreaks(request.getText()) + 1;
+            lines = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                lines.add(null);
+            }
+            version = request.getVersion();
+            while (!events.isEmpty() && events.peek().version <= version) {
+                events.poll();
+            }
+        }
+        if (latest == null || latest.getVersion() != version) {
+            // refinement outlives the request, it must not see its cancellation
+            latest = new ProviderRequest(language, version, null, "", null, "", 1, "",
+                    request.getText(), CancellationToken.NONE);
+        }
+        return true;
+    }
+
+    private void apply(ContentChange c) {
+        int index = c.getRange().getStartLineNumber() - 1;
+        int removed = c.getRange().getEndLineNumber() - c.getRange().getStartLineNumber() + 1;
+        int inserted = ContentChange.countLineBreaks(c.getText()) + 1;
+        lines.subList(index, Math.min(lines.size(), index + removed)).clear();
+        for (int i = 0; i < inserted; i++) {
+            lines.add(index, null);
+        }
+    }
+
+    /**
+     * Computes the missing blocks overlapping the lines.
+     */
+    private void ensure(ProviderRequest request, int startLine, int endLine) {
+        int first = Math.max(0, (startLine - 1) / BLOCK_LINES);
+        int last = (Math.min(endLine, lines.size()) - 1) / BLOCK_LINES;
+        for (int block = first; block <= last; block++) {
+            if (request.getCancellationToken().isCancellationRequested()) {
+                return;
+            }
+            if (isMissing(block)) {
+                compute(request, block);
+            }
+        }
+    }
+
+    private boolean isMissing(int block) {
+        int end = Math.min(lines.size(), (block + 1) * BLOCK_LINES);
+        for (int i = block * BLOCK_LINES; i < end; i++) {
+            if (lines.get(i) == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void compute(ProviderRequest request, int block) {
+        int startLine = block * BLOCK_LINES + 1;
+        int endLine = Math.min(lines.size(), startLine + BLOCK_LINES - 1);
+        int[] data = provider.provideSemanticTokens(request, startLine, endLine);
+        if (request.getCancellationToken().isCancellationRequested()) {
+            // possibly incomplete
+            return;
+        }
+        store(startLine, endLine, data);
+    }
+
+    /**
+     * Decodes the provider's tokens of the lines into the cache.
+     */
+    private void store(int startLine, int endLine, int[] data) {
+
+        // decode into per-line arrays of (column, length, type, modifiers)
+        int[][] byLine = new int[endLine - startLine + 1][];
+        int[] counts = new int[byLine.length];
+        int line = 0;
+        int column = 0;
+        if (data != null) {
+            for (int pass = 0; pass < 2; pass++) {
+                line = 0;
+                column = 0;
+                for (int i = 0; i + 4 < data.length; i += 5) {
+                    column = data[i] == 0 ? column + data[i + 1] : data[i + 1];
+                    line += data[i];
+                    int index = line + 1 - startLine;
+                    if (index < 0 || index >= byLine.length) {
+                        continue;
+                    }
+                    if (pass == 0) {
+                        counts[index]++;
+                    } else {
+                        int[] tokens = byLine[index];
+                        int o = tokens.length - counts[index] * 4;
+                        tokens[o] = column;
+                        tokens[o + 1] = data[i + 2];
+                        tokens[o + 2] = data[i + 3];
+                        tokens[o + 3] = data[i + 4];
+                        counts[index]--;
+                    }
+                }
+                if (pass == 0) {
+                    for (int j = 0; j < byLine.length; j++) {
+                        byLine[j] = counts[j] == 0 ? NO_TOKENS : new int[counts[j] * 4];
+                    }
+                }
+            }
+        }
+        for (int j = 0; j < byLine.length; j++) {
+            lines.set(startLine - 1 + j, byLine[j] != null ? byLine[j] : NO_TOKENS);
+        }
+        computedLines += byLine.length;
+    }
+
+    private String encode(int startLine, int endLine) {
+        StringBuilder sb = new StringBuilder(1024).append("{\"data\":[");
+        int prevLine = 0;
+        int prevColumn = 0;
+        boolean first = true;
+        for (int l = Math.max(1, startLine); l <= endLine; l++) {
+            int[] tokens = lines.get(l - 1);
+            if (tokens == null) {
+                continue;
+            }
+            for (int i = 0; i < tokens.length; i += 4) {
+                int line = l - 1;
+                int column = tokens[i];
+                if (!first) {
+                    sb.append(',');
+                }
+                sb.append(line - prevLine).append(',')
+                        .append(line == prevLine ? column - prevColumn : column).append(',')
+                        .append(tokens[i + 1]).append(',')
+                        .append(tokens[i + 2]).append(',')
+                        .append(tokens[i + 3]);
+                prevLine = line;
+                prevColumn = column;
+                first = false;
+            }
+        }
+        return sb.append("]}").toString();
+    }
+
+    // ========== Idle refinement ==========
+
+    private void scheduleRefinement() {
+        if (refining || disposed) {
+            return;
+        }
+        refining = true;
+        CompletableFuture.delayedExecutor(IDLE_MILLIS, TimeUnit.MILLISECONDS, executor).execute(this::refine);
+    }
+
+    private void refine() {
+        long idle = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastActivity);
+        if (idle < IDLE_MILLIS) {
+            CompletableFuture.delayedExecutor(IDLE_MILLIS - idle, TimeUnit.MILLISECONDS, executor).execute(this::refine);
+            return;
+        }
+        ProviderRequest request;
+        int startLine;
+        int endLine;
+        synchronized (this) {
+            int block = disposed || lines == null || latest == null || latest.getVersion() != version
+                    ? -1 : nearestMissingBlock();
+            if (block < 0) {
+                refining = false;
+                return;
+            }
+            request = latest;
+            startLine = block * BLOCK_LINES + 1;
+            endLine = Math.min(lines.size(), startLine + BLOCK_LINES - 1);
+        }
+
+        // the provider runs without the lock, requests for the viewport are not held up by it
+        int[] data = provider.provideSemanticTokens(request, startLine, endLine);
+
+        synchronized (this) {
+            // edits or another document in the meantime replace the request
+            if (!disposed && latest == request) {
+                store(startLine, endLine, data);
+            }
+            // continue with the next block, but give requests a chance to come first
+            executor.execute(this::refine);
+        }
+    }
+
+    private int nearestMissingBlock() {
+        int blocks = (lines.size() + BLOCK_LINES - 1) / BLOCK_LINES;
+        int center = Math.max(0, Math.min(blocks - 1, (focusLine - 1) / BLOCK_LINES));
+        for (int distance = 0; distance < blocks; distance++) {
+            if (center + distance < blocks && isMissing(center + distance)) {
+                return center + distance;
+            }
+            if (center - distance >= 0 && isMissing(center - distance)) {
+                return center - distance;
+            }
+        }
+        return -1;
+    }
+
+    synchronized long getComputedLineCount() {
+        return computedLines;
+    }
+
+    synchronized void dispose() {
+        disposed = true;
+        lines = null;
+        latest = null;
+        events.clear();
+    }
+}
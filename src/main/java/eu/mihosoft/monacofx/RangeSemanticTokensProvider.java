@@ -0,0 +1,39 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+/**
+ * Computes semantic tokens for a block of lines, for documents too large to tokenize as a
+ * whole after every edit.
+ * <p>
+ * Registered via {@link Editor#registerRangeSemanticTokensProvider(String, SemanticTokensLegend, RangeSemanticTokensProvider)},
+ * it is asked for the lines around the visible ones first. Results are cached per line, edits
+ * only invalidate the lines they touch, and the rest of the document is tokenized block by
+ * block while the editor is idle. It runs on the {@link Editor#getProviderExecutor() provider executor}.
+ *
+ * <pre>{@code
+ * editor.registerRangeSemanticTokensProvider("java", legend, (request, startLine, endLine) -> {
+ *     SemanticTokensBuilder builder = new SemanticTokensBuilder();
+ *     for (Symbol s : index.symbolsInLines(startLine, endLine)) {
+ *         builder.push(s.line(), s.column(), s.length(), legend.typeIndex(s.kind()), 0);
+ *     }
+ *     return builder.build();
+ * });
+ * }</pre>
+ */
+@FunctionalInterface
+public interface RangeSemanticTokensProvider {
+
+    /**
+     * Compute the tokens of the given lines. Tokens outside the lines are ignored.
+     *
+     * @param request document wide request, the text is available via {@link ProviderRequest#getText()}
+     * @param startLine first line (1-based)
+     * @param endLine last line (1-based, inclusive)
+     * @return tokens in Monaco's relative encoding with absolute line numbers, as built by
+     *         {@link SemanticTokensBuilder}, or null
+     */
+    int[] provideSemanticTokens(ProviderRequest request, int startLine, int endLine);
+}
@@ -0,0 +1,32 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.List;
+
+/**
+ * Interface for providing find-all-references functionality.
+ * When implemented, Shift+F12 on a symbol lists its references in Monaco's peek view.
+ * Registered via {@link Editor#registerReferenceProvider(String, ReferenceProvider)},
+ * it runs on the {@link Editor#getProviderExecutor() provider executor}.
+ *
+ * <pre>{@code
+ * WorkspaceSymbolIndex index = new WorkspaceSymbolIndex();
+ * index.indexDirectory(projectDir, ".java");
+ * editor.registerReferenceProvider("java", index.referenceProvider(currentUri));
+ * }</pre>
+ */
+@FunctionalInterface
+public interface ReferenceProvider {
+
+    /**
+     * Provide the locations that reference the symbol at the request position.
+     *
+     * @param request cursor position, word and the lines around it
+     * @param includeDeclaration whether declarations of the symbol are listed as well
+     * @return the references, locations without URI are in the current document
+     */
+    List<Location> provideReferences(ProviderRequest request, boolean includeDeclaration);
+}
@@ -0,0 +1,27 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+/**
+ * Handle for something registered with an editor, e.g. a language provider.
+ *
+ * <pre>{@code
+ * Registration hover = editor.registerHoverProvider("java", myHoverProvider);
+ * ...
+ * hover.dispose();
+ * }</pre>
+ */
+public interface Registration extends AutoCloseable {
+
+    /**
+     * Undo the registration. Calling it more than once has no effect.
+     */
+    void dispose();
+
+    @Override
+    default void close() {
+        dispose();
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Result of {@link RenameProvider#prepareRename(ProviderRequest)}: the range to rename and
+ * the text the rename box starts with, or the reason why the symbol cannot be renamed.
+ */
+public final class RenameLocation {
+
+    private final Range range;
+    private final String text;
+    private final String rejectReason;
+
+    private RenameLocation(Range range, String text, String rejectReason) {
+        this.range = range;
+        this.text = text;
+        this.rejectReason = rejectReason;
+    }
+
+    /**
+     * The symbol in the given range can be renamed.
+     *
+     * @param text the current name, shown in the rename box
+     */
+    public static RenameLocation of(Range range, String text) {
+        return new RenameLocation(range, text, null);
+    }
+
+    /**
+     * The symbol cannot be renamed; Monaco shows the reason instead of the rename box.
+     */
+    public static RenameLocation rejected(String reason) {
+        return new RenameLocation(null, "", reason);
+    }
+
+    public Range getRange() { return range; }
+    public String getText() { return text; }
+
+    /**
+     * Why the symbol cannot be renamed, null if it can.
+     */
+    public String getRejectReason() { return rejectReason; }
+
+    public boolean isRejected() { return rejectReason != null; }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        if (range != null) {
+            map.put("range", range.toMap());
+        }
+        map.put("text", text);
+        if (rejectReason != null) {
+            map.put("rejectReason", rejectReason);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+/**
+ * Interface for providing rename functionality (F2).
+ * Registered via {@link Editor#registerRenameProvider(String, RenameProvider)}, it runs on the
+ * {@link Editor#getProviderExecutor() provider executor}.
+ * <p>
+ * The resulting {@link WorkspaceEdit} is sent to Monaco in one call and applied as one batched
+ * edit per affected model with a single undo stop, however many occurrences it touches. Edits
+ * for documents Monaco has no model for are not applied.
+ *
+ * <pre>{@code
+ * editor.registerRenameProvider("java", (request, newName) -> {
+ *     WorkspaceEdit.Builder edit = WorkspaceEdit.builder();
+ *     for (Range r : occurrences.findOccurrences(request.getWord())) {
+ *         edit.edit(r, newName);
+ *     }
+ *     return edit.build();
+ * });
+ * }</pre>
+ */
+@FunctionalInterface
+public interface RenameProvider {
+
+    /**
+     * Check whether the symbol at the request position can be renamed, before the rename box
+     * is shown.
+     *
+     * @param request cursor position, word and the lines around it
+     * @return the range and text to rename, a rejection, or null to rename the word at the position
+     */
+    default RenameLocation prepareRename(ProviderRequest request) {
+        return null;
+    }
+
+    /**
+     * Compute the edits of a rename.
+     *
+     * @param request cursor position, word and the lines around it
+     * @param newName the name entered by the user
+     * @return the edits, null or empty for none
+     */
+    WorkspaceEdit provideRenameEdits(ProviderRequest request, String newName);
+}
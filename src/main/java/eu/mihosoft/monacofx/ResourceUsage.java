@@ -0,0 +1,166 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.Collection;
+
+/**
+ * Snapshot of the approximate memory footprint of one or more editors.
+ * Java sizes are estimates of the retained size, not exact measurements.
+ *
+ * <pre>{@code
+ * ResourceUsage usage = editor.getResourceUsage();
+ * System.out.println(usage.getJavaRetainedBytes() / 1024 + " KB in Java, "
+ *     + usage.getModelCount() + " models");
+ *
+ * // only counted if enabled with editor.setHoverCacheSize(...)
+ * System.out.println(usage.getHoverCacheHits() + " hover cache hits");
+ *
+ * // all live MonacoFX instances
+ * ResourceUsage total = MonacoFX.getTotalResourceUsage();
+ * }</pre>
+ */
+public final class ResourceUsage {
+
+    /**
+     * Returned by {@link #getJsHeapUsedBytes()} if the web engine does not expose {@code performance.memory}.
+     */
+    public static final long UNKNOWN = -1;
+
+    private final int editorCount;
+    private final long javaRetainedBytes;
+    private final long jsHeapUsedBytes;
+    private final int modelCount;
+    private final int decorationCount;
+    private final int markerCount;
+    private final int providerCount;
+    private final long hoverCacheHits;
+    private final long hoverCacheMisses;
+
+    ResourceUsage(int editorCount, long javaRetainedBytes, long jsHeapUsedBytes,
+                  int modelCount, int decorationCount, int markerCount, int providerCount,
+                  long hoverCacheHits, long hoverCacheMisses) {
+        this.editorCount = editorCount;
+        this.javaRetainedBytes = javaRetainedBytes;
+        this.jsHeapUsedBytes = jsHeapUsedBytes;
+        this.modelCount = modelCount;
+        this.decorationCount = decorationCount;
+        this.markerCount = markerCount;
+        this.providerCount = providerCount;
+        this.hoverCacheHits = hoverCacheHits;
+        this.hoverCacheMisses = hoverCacheMisses;
+    }
+
+    /**
+     * Number of editors this snapshot covers.
+     */
+    public int getEditorCount() { return editorCount; }
+
+    /**
+     * Approximate Java heap retained by the document text mirrored from Monaco.
+     */
+    public long getJavaRetainedBytes() { return javaRetainedBytes; }
+
+    /**
+     * JavaScript heap in use as reported by {@code performance.memory}, or {@link #UNKNOWN}.
+     */
+    public long getJsHeapUsedBytes() { return jsHeapUsedBytes; }
+
+    /**
+     * Number of Monaco text models alive in the page(s).
+     */
+    public int getModelCount() { return modelCount; }
+
+    /**
+     * Number of decorations on the editor model(s), including the ones Monaco adds itself.
+     */
+    public int getDecorationCount() { return decorationCount; }
+
+    /**
+     * Number of markers (diagnostics) on the editor model(s).
+     */
+    public int getMarkerCount() { return markerCount; }
+
+    /**
+     * Number of registered language providers.
+     */
+    public int getProviderCount() { return providerCount; }
+
+    /**
+     * Hover requests answered from the hover cache, see {@link Editor#setHoverCacheSize(int)}.
+     */
+    public long getHoverCacheHits() { return hoverCacheHits; }
+
+    /**
+     * Hover requests the hover cache could not answer.
+     */
+    public long getHoverCacheMisses() { return hoverCacheMisses; }
+
+    static ResourceUsage sum(Collection<ResourceUsage> usages) {
+        int editors = 0;
+        long java = 0;
+        long jsHeap = UNKNOWN;
+        int models = 0;
+        int decorations = 0;
+        int markers = 0;
+        int providers = 0;
+        long hoverHits = 0;
+        long hoverMisses = 0;
+        for (ResourceUsage u : usages) {
+            editors += u.editorCount;
+            java += u.javaRetainedBytes;
+            if (u.jsHeapUsedBytes != UNKNOWN) {
+                jsHeap = (jsHeap == UNKNOWN ? 0 : jsHeap) + u.jsHeapUsedBytes;
+            }
+            models += u.modelCount;
+            decorations += u.decorationCount;
+            markers += u.markerCount;
+            providers += u.providerCount;
+            hoverHits += u.hoverCacheHits;
+            hoverMisses += u.hoverCacheMisses;
+        }
+        return new ResourceUsage(editors, java, jsHeap, models, decorations, markers, providers,
+                hoverHits, hoverMisses);
+    }
+
+    /**
+     * Estimates the retained size of a string (object, backing array and payload),
+     * taking compact strings into account.
+     */
+    static long estimateStringBytes(String s) {
+        if (s == null) {
+            return 0;
+        }
+        boolean latin1 = true;
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) > 0xFF) {
+                latin1 = false;
+                break;
+            }
+        }
+        long payload = latin1 ? s.length() : 2L * s.length();
+        // String header + fields, byte[] header, each aligned to 8 bytes
+        return 24 + align(16 + payload);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    @Override
+    public String toString() {
+        return "ResourceUsage{"
+                + "editors=" + editorCount
+                + ", javaRetainedBytes=" + javaRetainedBytes
+                + ", jsHeapUsedBytes=" + jsHeapUsedBytes
+                + ", models=" + modelCount
+                + ", decorations=" + decorationCount
+                + ", markers=" + markerCount
+                + ", providers=" + providerCount
+                + ", hoverCacheHits=" + hoverCacheHits
+                + ", hoverCacheMisses=" + hoverCacheMisses
+                + "}";
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.Arrays;
+
+/**
+ * Collects semantic tokens and encodes them the way Monaco expects them: five ints per token,
+ * {@code deltaLine, deltaStartCharacter, length, tokenType, tokenModifiers}, each position
+ * relative to the previous token. Tokens may be pushed in any order; they are sorted on
+ * {@link #build()} if necessary.
+ *
+ * <pre>{@code
+ * SemanticTokensBuilder builder = new SemanticTokensBuilder();
+ * for (Symbol s : parser.symbols()) {
+ *     builder.push(s.line(), s.column(), s.name().length(), legend.typeIndex(s.kind()), 0);
+ * }
+ * return builder.build();
+ * }</pre>
+ */
+public final class SemanticTokensBuilder {
+
+    // absolute positions, five ints per token: line, column, length, type, modifiers
+    private int[] data;
+    private int size;
+    private boolean sorted = true;
+    private int lastLine;
+    private int lastColumn;
+
+    public SemanticTokensBuilder() {
+        this(1024);
+    }
+
+    /**
+     * @param expectedTokens initial capacity
+     */
+    public SemanticTokensBuilder(int expectedTokens) {
+        data = new int[Math.max(1, expectedTokens) * 5];
+    }
+
+    /**
+     * Adds a token.
+     *
+     * @param lineNumber 1-based line, as in {@link Range}
+     * @param column 1-based column
+     * @param length length in characters, tokens must not span lines
+     * @param tokenType index into {@link SemanticTokensLegend#getTokenTypes()}
+     * @param tokenModifiers bit mask, see {@link SemanticTokensLegend#modifierMask(String...)}
+     */
+    public SemanticTokensBuilder push(int lineNumber, int column, int length, int tokenType, int tokenModifiers) {
+        if (size + 5 > data.length) {
+            data = Arrays.copyOf(data, data.length * 2);
+        }
+        if (size > 0 && (lineNumber < lastLine || (lineNumber == lastLine && column < lastColumn))) {
+            sorted = false;
+        }
+        data[size] = lineNumber - 1;
+        data[size + 1] = column - 1;
+        data[size + 2] = length;
+        data[size + 3] = tokenType;
+        data[size + 4] = tokenModifiers;
+        size += 5;
+        lastLine = lineNumber;
+        lastColumn = column;
+        return this;
+    }
+
+    /**
+     * Number of tokens pushed so far.
+     */
+    public int size() {
+        return size / 5;
+    }
+
+    /**
+     * The tokens in Monaco's relative encoding.
+     */
+    public int[] build() {
+        int count = size / 5;
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        if (!sorted) {
+            CompletionIndex.sort(order, (a, b) -> {
+                int c = Integer.compare(data[a * 5], data[b * 5]);
+                return c != 0 ? c : Integer.compare(data[a * 5 + 1], data[b * 5 + 1]);
+            });
+        }
+
+        int[] result = new int[count * 5];
+        int prevLine = 0;
+        int prevColumn = 0;
+        for (int i = 0; i < count; i++) {
+            int src = order[i] * 5;
+            int line = data[src];
+            int column = data[src + 1];
+            int dst = i * 5;
+            result[dst] = line - prevLine;
+            result[dst + 1] = line == prevLine ? column - prevColumn : column;
+            result[dst + 2] = data[src + 2];
+            result[dst + 3] = data[src + 3];
+            result[dst + 4] = data[src + 4];
+            prevLine = line;
+            prevColumn = column;
+        }
+        return result;
+    }
+}
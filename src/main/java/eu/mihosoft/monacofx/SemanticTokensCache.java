@@ -0,0 +1,86 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+/**
+ * Remembers the last semantic tokens sent for a registration and turns a new result into an
+ * edit against it. Monaco passes the id of the result it has; if that is the one remembered
+ * here, only the changed part is sent.
+ * <p>
+ * Because of the relative encoding, an edit usually changes the tokens around it and a single
+ * {@code deltaLine} after it, so one edit covering the differing middle part (common prefix
+ * and suffix removed) is small.
+ */
+final class SemanticTokensCache {
+
+    private int[] previous;
+    private String previousResultId;
+    private int counter;
+    private long sentInts;
+
+    /**
+     * Returns the JSON for Monaco: {@code {resultId, data}} or {@code {resultId, edits}}.
+     *
+     * @param lastResultId result id Monaco has, may be null
+     */
+    synchronized String toJson(int[] tokens, String lastResultId) {
+        String resultId = Integer.toString(++counter);
+        StringBuilder sb = new StringBuilder(64);
+        sb.append("{\"resultId\":\"").append(resultId).append('"');
+
+        if (previous != null && previousResultId.equals(lastResultId)) {
+            int max = Math.min(previous.length, tokens.length);
+            int prefix = 0;
+            while (prefix < max && previous[prefix] == tokens[prefix]) {
+                prefix++;
+            }
+            int suffix = 0;
+            while (suffix < max - prefix
+                    && previous[previous.length - 1 - suffix] == tokens[tokens.length - 1 - suffix]) {
+                suffix++;
+            }
+            sb.append(",\"edits\":[");
+            if (prefix != tokens.length || previous.length != tokens.length) {
+                sb.append("{\"start\":").append(prefix)
+                        .append(",\"deleteCount\":").append(previous.length - prefix - suffix)
+                        .append(",\"data\":");
+                appendInts(sb, tokens, prefix, tokens.length - suffix);
+                sb.append('}');
+            }
+            sb.append(']');
+        } else {
+            sb.append(",\"data\":");
+            appendInts(sb, tokens, 0, tokens.length);
+        }
+
+        previous = tokens;
+        previousResultId = resultId;
+        return sb.append('}').toString();
+    }
+
+    private void appendInts(StringBuilder sb, int[] values, int from, int to) {
+        sb.append('[');
+        for (int i = from; i < to; i++) {
+            if (i > from) {
+                sb.append(',');
+            }
+            sb.append(values[i]);
+        }
+        sb.append(']');
+        sentInts += to - from;
+    }
+
+    /**
+     * Number of ints sent so far, full results and edits.
+     */
+    synchronized long getSentIntCount() {
+        return sentInts;
+    }
+
+    synchronized void clear() {
+        previous = null;
+        previousResultId = null;
+    }
+}
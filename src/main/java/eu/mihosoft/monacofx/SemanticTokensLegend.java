@@ -0,0 +1,79 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Token types and modifiers a {@link SemanticTokensProvider} uses. Tokens refer to a type by
+ * its index and to modifiers by a bit mask ({@code 1 << index}).
+ * Themes color semantic tokens by type name, e.g. a rule for {@code "function"}.
+ *
+ * <pre>{@code
+ * SemanticTokensLegend legend = new SemanticTokensLegend(
+ *     List.of("class", "function", "variable", "parameter"),
+ *     List.of("declaration", "static", "deprecated"));
+ *
+ * int type = legend.typeIndex("function");
+ * int modifiers = legend.modifierMask("declaration", "static");
+ * }</pre>
+ */
+public final class SemanticTokensLegend {
+
+    private final List<String> tokenTypes;
+    private final List<String> tokenModifiers;
+
+    public SemanticTokensLegend(List<String> tokenTypes, List<String> tokenModifiers) {
+        if (tokenModifiers.size() > 31) {
+            throw new IllegalArgumentException("at most 31 token modifiers are supported: " + tokenModifiers.size());
+        }
+        this.tokenTypes = Collections.unmodifiableList(List.copyOf(tokenTypes));
+        this.tokenModifiers = Collections.unmodifiableList(List.copyOf(tokenModifiers));
+    }
+
+    public List<String> getTokenTypes() { return tokenTypes; }
+
+    public List<String> getTokenModifiers() { return tokenModifiers; }
+
+    /**
+     * Index of a token type.
+     *
+     * @throws IllegalArgumentException if the type is not part of the legend
+     */
+    public int typeIndex(String tokenType) {
+        int index = tokenTypes.indexOf(tokenType);
+        if (index < 0) {
+            throw new IllegalArgumentException("unknown token type: " + tokenType);
+        }
+        return index;
+    }
+
+    /**
+     * Bit mask of the given modifiers.
+     *
+     * @throws IllegalArgumentException if a modifier is not part of the legend
+     */
+    public int modifierMask(String... modifiers) {
+        int mask = 0;
+        for (String modifier : modifiers) {
+            int index = tokenModifiers.indexOf(modifier);
+            if (index < 0) {
+                throw new IllegalArgumentException("unknown token modifier: " + modifier);
+            }
+            mask |= 1 << index;
+        }
+        return mask;
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("tokenTypes", tokenTypes);
+        map.put("tokenModifiers", tokenModifiers);
+        return map;
+    }
+}
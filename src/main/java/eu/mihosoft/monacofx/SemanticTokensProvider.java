@@ -0,0 +1,40 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+/**
+ * Computes semantic tokens for a whole document, e.g. from a Java parser that knows which
+ * identifiers are types, fields or parameters. Monaco draws them on top of the Monarch
+ * highlighting.
+ * <p>
+ * Registered via {@link Editor#registerSemanticTokensProvider(String, SemanticTokensLegend, SemanticTokensProvider)},
+ * it runs on the {@link Editor#getProviderExecutor() provider executor}. Only the difference
+ * to the previous result is sent to Monaco, so after an edit typically a few ints cross the
+ * bridge instead of the tokens of the whole file.
+ *
+ * <pre>{@code
+ * editor.registerSemanticTokensProvider("java", legend, request -> {
+ *     SemanticTokensBuilder builder = new SemanticTokensBuilder();
+ *     for (Symbol s : parser.parse(request.getText()).symbols()) {
+ *         if (request.getCancellationToken().isCancellationRequested()) {
+ *             return null;
+ *         }
+ *         builder.push(s.line(), s.column(), s.length(), legend.typeIndex(s.kind()), 0);
+ *     }
+ *     return builder.build();
+ * });
+ * }</pre>
+ */
+@FunctionalInterface
+public interface SemanticTokensProvider {
+
+    /**
+     * Compute the tokens of the document.
+     *
+     * @param request document wide request, the text is available via {@link ProviderRequest#getText()}
+     * @return tokens in Monaco's relative encoding, see {@link SemanticTokensBuilder}, or null
+     */
+    int[] provideSemanticTokens(ProviderRequest request);
+}
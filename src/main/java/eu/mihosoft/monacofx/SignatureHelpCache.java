@@ -0,0 +1,119 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The overloads resolved per call site, keyed by document version and open parenthesis position.
+ * <p>
+ * Edits after a parenthesis neither move it nor change the call, so its entry moves on to
+ * the new version; edits starting at or before it drop the entry. Typing arguments therefore
+ * keeps hitting the same entry.
+ */
+final class SignatureHelpCache implements DocumentChangeListener {
+
+    static final int MAX_CALL_SITES = 16;
+
+    /**
+     * Resolved overloads of one call site and their JSON.
+     */
+    static final class Entry {
+        final List<SignatureInformation> signatures;
+        final String json;
+
+        Entry(List<SignatureInformation> signatures, String json) {
+            this.signatures = signatures;
+            this.json = json;
+        }
+    }
+
+    private Document document;
+    private int version = -1;
+    // key(open parenthesis) -> entry
+    private final Map<Long, Entry> callSites = new LinkedHashMap<>(32, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            return size() > MAX_CALL_SITES;
+        }
+    };
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * The cached overloads of a call site, called on the JavaFX application thread.
+     *
+     * @return the entry or null if the call has to be resolved
+     */
+    synchronized Entry get(Document document, int version, Position openParen) {
+        if (document != this.document || version != this.version) {
+            // edits this cache has not seen, e.g. the document was replaced
+            this.document = document;
+            this.version = version;
+            callSites.clear();
+        }
+        Entry e = callSites.get(key(openParen.lineNumber, openParen.column));
+        if (e == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return e;
+    }
+
+    /**
+     * Stores the overloads resolved for a request, unless the document changed meanwhile.
+     */
+    synchronized void put(int version, Position openParen, Entry entry) {
+        if (version == this.version) {
+            callSites.put(key(openParen.lineNumber, openParen.column), entry);
+        }
+    }
+
+    private static long key(int lineNumber, int column) {
+        return ((long) lineNumber << 32) | column;
+    }
+
+    @Override
+    public synchronized void documentChanged(Document document, int version, List<ContentChange> changes) {
+        if (document != this.document) {
+            return;
+        }
+        for (Iterator<Long> it = callSites.keySet().iterator(); it.hasNext(); ) {
+            long paren = it.next();
+            for (ContentChange c : changes) {
+                if (key(c.getRange().getStartLineNumber(), c.getRange().getStartColumn()) <= paren) {
+                    it.remove();
+                    break;
+                }
+            }
+        }
+        this.version = version;
+    }
+
+    synchronized void clear() {
+        callSites.clear();
+        document = null;
+        version = -1;
+    }
+
+    synchronized List<Long> getCallSites() {
+        return new ArrayList<>(callSites.keySet());
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    long getMisses() {
+        return misses.get();
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.List;
+
+/**
+ * Provides the parameter hints shown while typing the arguments of a call.
+ * Registered via {@link Editor#registerSignatureHelpProvider(String, SignatureHelpProvider, String...)},
+ * it runs on the {@link Editor#getProviderExecutor() provider executor}.
+ * <p>
+ * The overloads are resolved once per call site: while the user types the arguments of the
+ * same call they are taken from a cache keyed by document version and open parenthesis
+ * offset, and only the active parameter is computed again. Edits before the parenthesis
+ * resolve the call again.
+ *
+ * <pre>{@code
+ * editor.registerSignatureHelpProvider("java", (request, call) -> symbols.overloads(call.getCallee()).stream()
+ *         .map(m -> SignatureInformation.builder().label(m.toString()).parameter(...).build())
+ *         .collect(Collectors.toList()));
+ * }</pre>
+ */
+@FunctionalInterface
+public interface SignatureHelpProvider {
+
+    /**
+     * Resolve the overloads of a call.
+     *
+     * @param request cursor position and the lines around it
+     * @param callSite the call the cursor is in
+     * @return the overloads, empty if the callee is unknown
+     */
+    List<SignatureInformation> provideSignatures(ProviderRequest request, CallSite callSite);
+
+    /**
+     * Choose the overload to show first. Also called for cached overloads, so it must be cheap.
+     *
+     * @return index into the signatures, by default the first with more parameters than the active one
+     */
+    default int selectSignature(List<SignatureInformation> signatures, int activeParameter) {
+        for (int i = 0; i < signatures.size(); i++) {
+            if (signatures.get(i).getParameters().size() > activeParameter) {
+                return i;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One overload shown in the parameter hints, e.g. {@code substring(int beginIndex, int endIndex)}.
+ *
+ * <pre>{@code
+ * SignatureInformation s = SignatureInformation.builder()
+ *     .label("substring(int beginIndex, int endIndex)")
+ *     .documentation("Returns a string that is a substring of this string.")
+ *     .parameter("int beginIndex")
+ *     .parameter("int endIndex", "the ending index, exclusive")
+ *     .build();
+ * }</pre>
+ */
+public final class SignatureInformation {
+
+    private final String label;
+    private final String documentation;
+    private final List<Parameter> parameters;
+
+    private SignatureInformation(Builder builder) {
+        this.label = builder.label;
+        this.documentation = builder.documentation;
+        this.parameters = List.copyOf(builder.parameters);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public String getLabel() { return label; }
+    public String getDocumentation() { return documentation; }
+    public List<Parameter> getParameters() { return parameters; }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("label", label);
+        if (documentation != null) {
+            map.put("documentation", documentation);
+        }
+        List<Map<String, Object>> list = new ArrayList<>(parameters.size());
+        for (Parameter p : parameters) {
+            list.add(p.toMap());
+        }
+        map.put("parameters", list);
+        return map;
+    }
+
+    /**
+     * A parameter of a signature. Monaco highlights its label within the signature label.
+     */
+    public static final class Parameter {
+        private final String label;
+        private final String documentation;
+
+        public Parameter(String label, String documentation) {
+            this.label = label;
+            this.documentation = documentation;
+        }
+
+        public String getLabel() { return label; }
+        public String getDocumentation() { return documentation; }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("label", label);
+            if (documentation != null) {
+                map.put("documentation", documentation);
+            }
+            return map;
+        }
+    }
+
+    public static class Builder {
+        private String label = "";
+        private String documentation;
+        private final List<Parameter> parameters = new ArrayList<>();
+
+        public Builder label(String label) {
+            this.label = label;
+            return this;
+        }
+
+        public Builder documentation(String documentation) {
+            this.documentation = documentation;
+            return this;
+        }
+
+        public Builder parameter(String label) {
+            return parameter(label, null);
+        }
+
+        public Builder parameter(String label, String documentation) {
+            this.parameters.add(new Parameter(label, documentation));
+            return this;
+        }
+
+        public SignatureInformation build() {
+            return new SignatureInformation(this);
+        }
+    }
+}
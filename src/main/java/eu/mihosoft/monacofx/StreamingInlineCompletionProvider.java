@@ -0,0 +1,38 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.concurrent.Flow;
+
+/**
+ * Inline completion provider that streams its suggestion, e.g. token by token from a
+ * language model. Each published string is appended to the ghost text shown so far.
+ * <p>
+ * Registered via {@link Editor#registerStreamingInlineCompletionProvider(String, StreamingInlineCompletionProvider)},
+ * requests are debounced while the user types and a stream is cancelled (its subscription
+ * is cancelled) as soon as the user types something the suggestion does not continue with.
+ * Finished suggestions are cached, so rejecting a suggestion and typing the same text again
+ * does not ask the provider again.
+ * The provider is invoked on the JavaFX application thread and must return quickly.
+ *
+ * <pre>{@code
+ * editor.registerStreamingInlineCompletionProvider("java", request -> {
+ *     SubmissionPublisher<String> publisher = new SubmissionPublisher<>();
+ *     model.generate(request.getWindowText(), publisher::submit, publisher::close);
+ *     return publisher;
+ * });
+ * }</pre>
+ */
+@FunctionalInterface
+public interface StreamingInlineCompletionProvider {
+
+    /**
+     * Provide the suggestion for the cursor position.
+     *
+     * @param request cursor position and the lines around it
+     * @return publisher of the suggestion text, chunk by chunk
+     */
+    Flow.Publisher<String> provideInlineCompletion(ProviderRequest request);
+}
@@ -0,0 +1,37 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Replaces a range of a document with new text.
+ */
+public final class TextEdit {
+
+    private final Range range;
+    private final String text;
+
+    public TextEdit(Range range, String text) {
+        this.range = range;
+        this.text = text;
+    }
+
+    public Range getRange() {
+        return range;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("range", range.toMap());
+        map.put("text", text);
+        return map;
+    }
+}
@@ -0,0 +1,683 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A TextMate grammar ({@code .tmLanguage.json}) with a Java tokenizer. Oniguruma patterns are
+ * translated to {@code java.util.regex}; the common differences ({@code \h}, POSIX brackets,
+ * back references from {@code end} and {@code while} to {@code begin}) are handled, patterns
+ * that cannot be translated are ignored and listed by {@link #getUnsupportedPatterns()}.
+ * <p>
+ * Supported are {@code match}, {@code begin}/{@code end}, {@code begin}/{@code while},
+ * {@code captures}, {@code beginCaptures}, {@code endCaptures}, {@code whileCaptures},
+ * {@code name}, {@code contentName}, {@code applyEndPatternLast}, nested {@code repository}s and
+ * includes of {@code #name}, {@code $self} and {@code $base}. Includes of other grammars,
+ * injections and patterns inside captures are not supported.
+ * <p>
+ * Tokens have the innermost scope as type, e.g. {@code keyword.control.java}, which Monaco
+ * themes match by prefix. Instances are immutable and can be used from any thread.
+ *
+ * <pre>{@code
+ * TextMateGrammar grammar = TextMateGrammar.load(Path.of("grammars/toml.tmLanguage.json"));
+ * }</pre>
+ *
+ * @see LanguageSupport#getTextMateGrammar()
+ */
+public final class TextMateGrammar implements LineTokenizer {
+
+    private static final int MAX_STACK_DEPTH = 100;
+    static final int MAX_DYNAMIC_PATTERNS = 1_000;
+
+    private final String scopeName;
+    private final Rule root;
+    private final List<String> unsupported = new ArrayList<>();
+    private final Map<JsonObject, Rule> compiled = new IdentityHashMap<>();
+    // end and while patterns with back references, compiled per begin match; least recently used dropped
+    private final Map<String, Pattern> dynamicPatterns = Collections.synchronizedMap(
+            new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Pattern> eldest) {
+                    return size() > MAX_DYNAMIC_PATTERNS;
+                }
+            });
+    private final Frame initialFrame;
+    private int ruleCount;
+
+    private TextMateGrammar(JsonObject grammar) {
+        this.scopeName = grammar.has("scopeName") ? grammar.get("scopeName").getAsString() : "";
+        this.root = new Rule(ruleCount++);
+        compiled.put(grammar, root);
+        Repository repository = new Repository(
+                grammar.has("repository") ? grammar.getAsJsonObject("repository") : new JsonObject(), null);
+        root.patterns = resolve(grammar.getAsJsonArray("patterns"), repository, new HashSet<>());
+        // $self includes seen while the top level was compiled
+        for (Rule rule : compiled.values()) {
+            if (rule.patterns.contains(root)) {
+                List<Rule> patterns = new ArrayList<>();
+                for (Rule r : rule.patterns) {
+                    if (r != root) {
+                        patterns.add(r);
+                    } else if (rule != root) {
+                        patterns.addAll(root.patterns);
+                    }
+                }
+                rule.patterns = patterns;
+            }
+        }
+        this.initialFrame = new Frame(root, null, null, "", "");
+    }
+
+    /**
+     * Parses a grammar in the JSON format of {@code .tmLanguage.json} files.
+     *
+     * @throws IllegalArgumentException if the text is not a grammar
+     */
+    public static TextMateGrammar fromJson(String json) {
+        JsonElement e;
+        try {
+            e = JsonParser.parseString(json);
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid TextMate grammar: " + ex.getMessage(), ex);
+        }
+        if (!e.isJsonObject() || !e.getAsJsonObject().has("patterns")) {
+            throw new IllegalArgumentException("Invalid TextMate grammar: no patterns");
+        }
+        return new TextMateGrammar(e.getAsJsonObject());
+    }
+
+    /**
+     * Reads a {@code .tmLanguage.json} file.
+     */
+    public static TextMateGrammar load(Path file) throws IOException {
+        return fromJson(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The scope name of the grammar, e.g. {@code source.toml}.
+     */
+    public String getScopeName() {
+        return scopeName;
+    }
+
+    /**
+     * Patterns and includes that could not be translated and are ignored.
+     */
+    public List<String> getUnsupportedPatterns() {
+        return Collections.unmodifiableList(unsupported);
+    }
+
+    @Override
+    public Object getInitialState() {
+        return new State(new Frame[]{initialFrame});
+    }
+
+    @Override
+    public LineTokens tokenizeLine(String line, Object state) {
+        Tokenizer t = new Tokenizer(line, new ArrayList<>(Arrays.asList(((State) state).frames)));
+        t.run();
+        return new LineTokens(t.tokens, new State(t.stack.toArray(new Frame[0])));
+    }
+
+    // ========== tokenizing ==========
+
+    private final class Tokenizer {
+        final String line;
+        // like vscode-textmate, patterns see the line break, so that $ and \n match
+        final String text;
+        final List<Frame> stack;
+        final List<Token> tokens = new ArrayList<>();
+        final Matcher[] matchers = new Matcher[ruleCount];
+
+        Tokenizer(String line, List<Frame> stack) {
+            this.line = line;
+            this.text = line + "\n";
+            this.stack = stack;
+        }
+
+        void run() {
+            int pos = checkWhileConditions();
+            int stuck = 0;
+            while (pos < text.length()) {
+                Frame top = stack.get(stack.size() - 1);
+                Matcher end = top.end == null ? null : find(dynamicPattern(top.end), pos);
+                Matcher best = null;
+                Rule bestRule = null;
+                if (end != null && !top.rule.applyEndPatternLast) {
+                    best = end;
+                }
+                for (Rule r : top.rule.patterns) {
+                    if (best != null && best.start() == pos) {
+                        break;
+                    }
+                    Pattern p = r.match != null ? r.match : r.begin;
+                    if (p == null) {
+                        continue;
+                    }
+                    Matcher m = matchers[r.id];
+                    if (m == null) {
+                        m = matchers[r.id] = p.matcher(text);
+                        m.useTransparentBounds(true).useAnchoringBounds(false);
+                    }
+                    m.region(pos, text.length());
+                    if (m.find() && (best == null || m.start() < best.start())) {
+                        best = m;
+                        bestRule = r;
+                    }
+                }
+                if (end != null && top.rule.applyEndPatternLast && (best == null || end.start() < best.start())) {
+                    best = end;
+                    bestRule = null;
+                }
+                if (best == null) {
+                    emit(pos, text.length(), scope());
+                    break;
+                }
+
+                int start = best.start();
+                int stop = best.end();
+                emit(pos, start, scope());
+                if (bestRule == null) {
+                    emitCaptures(best, top.rule.endCaptures, top.nameScope);
+                    if (stack.size() > 1) {
+                        stack.remove(stack.size() - 1);
+                    }
+                } else if (bestRule.match != null) {
+                    emitCaptures(best, bestRule.captures, name(bestRule.name, best, scope()));
+                } else {
+                    String nameScope = name(bestRule.name, best, scope());
+                    emitCaptures(best, bestRule.beginCaptures, nameScope);
+                    String contentScope = name(bestRule.contentName, best, nameScope);
+                    if (stack.size() < MAX_STACK_DEPTH) {
+                        stack.add(new Frame(bestRule,
+                                bestRule.end == null ? null : withBackReferences(bestRule.end, best),
+                                bestRule.whileSource == null ? null : withBackReferences(bestRule.whileSource, best),
+                                nameScope, contentScope));
+                    }
+                }
+
+                // empty matches that do not change the state would loop forever
+                if (stop == pos) {
+                    if (++stuck > MAX_STACK_DEPTH || (bestRule != null && bestRule.match != null)) {
+                        emit(pos, pos + 1, scope());
+                        stop = pos + 1;
+                        stuck = 0;
+                    }
+                } else {
+                    stuck = 0;
+                }
+                pos = stop;
+            }
+        }
+
+        /**
+         * Pops {@code begin}/{@code while} rules whose condition does not hold for this line.
+         */
+        int checkWhileConditions() {
+            int pos = 0;
+            for (int i = 1; i < stack.size(); i++) {
+                Frame f = stack.get(i);
+                if (f.whileCondition == null) {
+                    continue;
+                }
+                Matcher m = dynamicPattern(f.whileCondition).matcher(text);
+                m.useTransparentBounds(true).useAnchoringBounds(false).region(pos, text.length());
+                if (!m.lookingAt()) {
+                    stack.subList(i, stack.size()).clear();
+                    break;
+                }
+                emitCaptures(m, f.rule.whileCaptures, f.nameScope);
+                pos = m.end();
+            }
+            return pos;
+        }
+
+        Matcher find(Pattern p, int pos) {
+            Matcher m = p.matcher(text);
+            m.useTransparentBounds(true).useAnchoringBounds(false).region(pos, text.length());
+            return m.find() ? m : null;
+        }
+
+        String scope() {
+            return stack.get(stack.size() - 1).contentScope;
+        }
+
+        void emitCaptures(Matcher m, Map<Integer, String> captures, String scope) {
+            int start = m.start();
+            int end = m.end();
+            if (captures.isEmpty() || start == end) {
+                emit(start, end, scope);
+                return;
+            }
+            String[] types = new String[end - start];
+            Arrays.fill(types, name(captures.get(0), m, scope));
+            for (int g = 1; g <= m.groupCount(); g++) {
+                String name = captures.get(g);
+                if (name != null && m.start(g) >= 0) {
+                    Arrays.fill(types, m.start(g) - start, m.end(g) - start, name(name, m, scope));
+                }
+            }
+            int runStart = 0;
+            for (int i = 1; i <= types.length; i++) {
+                if (i == types.length || !types[i].equals(types[runStart])) {
+                    emit(start + runStart, start + i, types[runStart]);
+                    runStart = i;
+                }
+            }
+        }
+
+        void emit(int start, int end, String type) {
+            end = Math.min(end, line.length());
+            if (end <= start) {
+                return;
+            }
+            if (!tokens.isEmpty()) {
+                Token last = tokens.get(tokens.size() - 1);
+                if (last.getType().equals(type) && last.getEndColumn() == start + 1) {
+                    tokens.set(tokens.size() - 1, new Token(last.getStartColumn(), end + 1, type));
+                    return;
+                }
+            }
+            tokens.add(new Token(start + 1, end + 1, type));
+        }
+    }
+
+    /**
+     * The innermost scope of a {@code name}, with {@code $n} replaced by the captured text.
+     */
+    private static String name(String name, Matcher m, String fallback) {
+        if (name == null || name.isEmpty()) {
+            return fallback;
+        }
+        int space = name.lastIndexOf(' ');
+        String scope = space < 0 ? name : name.substring(space + 1);
+        if (scope.indexOf('$') < 0) {
+            return scope;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < scope.length(); i++) {
+            char c = scope.charAt(i);
+            if (c == '$' && i + 1 < scope.length() && Character.isDigit(scope.charAt(i + 1))) {
+                int g = scope.charAt(++i) - '0';
+                if (g <= m.groupCount() && m.group(g) != null) {
+                    sb.append(m.group(g));
+                }
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Replaces back references like {@code \1} in an end pattern by the text the begin pattern captured.
+     */
+    private static String withBackReferences(String source, Matcher begin) {
+        if (source.indexOf('\\') < 0) {
+            return source;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < source.length(); i++) {
+            char c = source.charAt(i);
+            if (c == '\\' && i + 1 < source.length()) {
+                char n = source.charAt(i + 1);
+                if (Character.isDigit(n) && n != '0') {
+                    int g = n - '0';
+                    String captured = g <= begin.groupCount() && begin.group(g) != null ? begin.group(g) : "";
+                    for (int k = 0; k < captured.length(); k++) {
+                        char x = captured.charAt(k);
+                        if (!Character.isLetterOrDigit(x)) {
+                            sb.append('\\');
+                        }
+                        sb.append(x);
+                    }
+                } else {
+                    sb.append(c).append(n);
+                }
+                i++;
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    int getDynamicPatternCount() {
+        return dynamicPatterns.size();
+    }
+
+    private Pattern dynamicPattern(String source) {
+        return dynamicPatterns.computeIfAbsent(source, s -> {
+            try {
+                return Pattern.compile(toJavaRegex(s));
+            } catch (PatternSyntaxException ex) {
+                // never matches
+                return Pattern.compile("(?!)");
+            }
+        });
+    }
+
+    // ========== state ==========
+
+    private static final class Frame {
+        final Rule rule;
+        final String end;
+        final String whileCondition;
+        final String nameScope;
+        final String contentScope;
+
+        Frame(Rule rule, String end, String whileCondition, String nameScope, String contentScope) {
+            this.rule = rule;
+            this.end = end;
+            this.whileCondition = whileCondition;
+            this.nameScope = nameScope;
+            this.contentScope = contentScope;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Frame)) {
+                return false;
+            }
+            Frame f = (Frame) o;
+            return rule == f.rule && Objects.equals(end, f.end) && Objects.equals(whileCondition, f.whileCondition)
+                    && nameScope.equals(f.nameScope) && contentScope.equals(f.contentScope);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(rule.id, end, whileCondition, contentScope);
+        }
+    }
+
+    private static final class State {
+        final Frame[] frames;
+
+        State(Frame[] frames) {
+            this.frames = frames;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof State && Arrays.equals(frames, ((State) o).frames);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(frames);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            for (Frame f : frames) {
+                sb.append(sb.length() == 0 ? "" : "/").append(f.contentScope);
+            }
+            return sb.toString();
+        }
+    }
+
+    // ========== compiling ==========
+
+    private static final class Rule {
+        final int id;
+        String name;
+        String contentName;
+        Pattern match;
+        Pattern begin;
+        String end;
+        String whileSource;
+        boolean applyEndPatternLast;
+        Map<Integer, String> captures = Map.of();
+        Map<Integer, String> beginCaptures = Map.of();
+        Map<Integer, String> endCaptures = Map.of();
+        Map<Integer, String> whileCaptures = Map.of();
+        List<Rule> patterns = List.of();
+
+        Rule(int id) {
+            this.id = id;
+        }
+    }
+
+    private static final class Repository {
+        final JsonObject entries;
+        final Repository parent;
+
+        Repository(JsonObject entries, Repository parent) {
+            this.entries = entries;
+            this.parent = parent;
+        }
+
+        JsonObject lookup(String name) {
+            for (Repository r = this; r != null; r = r.parent) {
+                if (r.entries.has(name) && r.entries.get(name).isJsonObject()) {
+                    return r.entries.getAsJsonObject(name);
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Resolves a pattern list to the match and begin rules it contains, expanding includes
+     * and rules that only group other patterns.
+     */
+    private List<Rule> resolve(JsonArray patterns, Repository repository, Set<JsonObject> expanding) {
+        List<Rule> rules = new ArrayList<>();
+        if (patterns == null) {
+            return rules;
+        }
+        for (JsonElement e : patterns) {
+            if (e.isJsonObject()) {
+                resolve(e.getAsJsonObject(), repository, expanding, rules);
+            }
+        }
+        return rules;
+    }
+
+    private void resolve(JsonObject p, Repository repository, Set<JsonObject> expanding, List<Rule> into) {
+        if (p.has("include")) {
+            String include = p.get("include").getAsString();
+            if (include.equals("$self") || include.equals("$base")) {
+                // replaced by the top level patterns once they are compiled
+                into.add(root);
+                return;
+            }
+            JsonObject target = include.startsWith("#") ? repository.lookup(include.substring(1)) : null;
+            if (target == null) {
+                unsupported.add("include " + include);
+                return;
+            }
+            p = target;
+        }
+        if (p.has("repository") && p.get("repository").isJsonObject()) {
+            repository = new Repository(p.getAsJsonObject("repository"), repository);
+        }
+        if (p.has("match") || p.has("begin")) {
+            into.add(compile(p, repository));
+        } else if (p.has("patterns") && expanding.add(p)) {
+            into.addAll(resolve(p.getAsJsonArray("patterns"), repository, expanding));
+            expanding.remove(p);
+        }
+    }
+
+    private Rule compile(JsonObject p, Repository repository) {
+        Rule rule = compiled.get(p);
+        if (rule != null) {
+            return rule;
+        }
+        rule = new Rule(ruleCount++);
+        compiled.put(p, rule);
+        rule.name = string(p, "name");
+        rule.contentName = string(p, "contentName");
+        rule.captures = captures(p.get("captures"));
+        if (p.has("match")) {
+            rule.match = pattern(p.get("match").getAsString());
+            return rule;
+        }
+        rule.begin = pattern(p.get("begin").getAsString());
+        rule.end = string(p, "end");
+        rule.whileSource = string(p, "while");
+        if (p.has("applyEndPatternLast") && p.get("applyEndPatternLast").isJsonPrimitive()) {
+            JsonElement last = p.get("applyEndPatternLast");
+            rule.applyEndPatternLast = last.getAsJsonPrimitive().isBoolean() ? last.getAsBoolean() : last.getAsInt() != 0;
+        }
+        rule.beginCaptures = p.has("beginCaptures") ? captures(p.get("beginCaptures")) : rule.captures;
+        rule.endCaptures = p.has("endCaptures") ? captures(p.get("endCaptures")) : rule.captures;
+        rule.whileCaptures = p.has("whileCaptures") ? captures(p.get("whileCaptures")) : rule.captures;
+        if (rule.end != null) {
+            checkPattern(rule.end);
+        }
+        if (rule.whileSource != null) {
+            checkPattern(rule.whileSource);
+        }
+        rule.patterns = resolve(p.getAsJsonArray("patterns"), repository, new HashSet<>());
+        return rule;
+    }
+
+    private Pattern pattern(String source) {
+        try {
+            return Pattern.compile(toJavaRegex(source));
+        } catch (PatternSyntaxException ex) {
+            unsupported.add(source);
+            return null;
+        }
+    }
+
+    private void checkPattern(String source) {
+        // back references are replaced before compiling, a placeholder is enough to check the syntax
+        try {
+            Pattern.compile(toJavaRegex(source.replaceAll("\\\\[1-9]", "x")));
+        } catch (PatternSyntaxException ex) {
+            unsupported.add(source);
+        }
+    }
+
+    private static Map<Integer, String> captures(JsonElement e) {
+        if (e == null || !e.isJsonObject()) {
+            return Map.of();
+        }
+        Map<Integer, String> captures = new HashMap<>();
+        for (Map.Entry<String, JsonElement> c : e.getAsJsonObject().entrySet()) {
+            try {
+                String name = c.getValue().isJsonObject() ? string(c.getValue().getAsJsonObject(), "name") : null;
+                if (name != null) {
+                    captures.put(Integer.parseInt(c.getKey()), name);
+                }
+            } catch (NumberFormatException ex) {
+                // named captures are not supported
+            }
+        }
+        return captures;
+    }
+
+    private static String string(JsonObject o, String name) {
+        JsonElement e = o.get(name);
+        return e == null || e.isJsonNull() ? null : e.getAsString();
+    }
+
+    private static final Map<String, String> POSIX_CLASSES = Map.ofEntries(
+            Map.entry("alnum", "\\p{Alnum}"), Map.entry("alpha", "\\p{Alpha}"),
+            Map.entry("blank", "\\p{Blank}"), Map.entry("cntrl", "\\p{Cntrl}"),
+            Map.entry("digit", "\\p{Digit}"), Map.entry("graph", "\\p{Graph}"),
+            Map.entry("lower", "\\p{Lower}"), Map.entry("print", "\\p{Print}"),
+            Map.entry("punct", "\\p{Punct}"), Map.entry("space", "\\s"),
+            Map.entry("upper", "\\p{Upper}"), Map.entry("xdigit", "\\p{XDigit}"),
+            Map.entry("word", "\\w"));
+
+    /**
+     * Translates the Oniguruma constructs used by TextMate grammars that {@code java.util.regex}
+     * does not understand or understands differently: {@code \h} (hex digit, horizontal white
+     * space in Java), POSIX brackets like {@code [:alpha:]}, and white space and {@code #} in
+     * character classes, which Java ignores in {@code (?x)} mode.
+     */
+    static String toJavaRegex(String onig) {
+        StringBuilder sb = new StringBuilder();
+        int classDepth = 0;
+        int i = 0;
+        while (i < onig.length()) {
+            char c = onig.charAt(i);
+            if (c == '\\' && i + 1 < onig.length()) {
+                char n = onig.charAt(i + 1);
+                if (n == 'h') {
+                    sb.append(classDepth > 0 ? "0-9a-fA-F" : "[0-9a-fA-F]");
+                } else if (n == 'H' && classDepth == 0) {
+                    sb.append("[^0-9a-fA-F]");
+                } else {
+                    sb.append(c).append(n);
+                }
+                i += 2;
+                continue;
+            }
+            if (classDepth > 0 && c == '[' && onig.startsWith("[:", i)) {
+                int close = onig.indexOf(":]", i + 2);
+                if (close > 0) {
+                    String name = onig.substring(i + 2, close);
+                    boolean negated = name.startsWith("^");
+                    String cls = POSIX_CLASSES.get(negated ? name.substring(1) : name);
+                    if (cls != null) {
+                        sb.append(negated ? negate(cls) : cls);
+                        i = close + 2;
+                        continue;
+                    }
+                }
+            }
+            if (c == '[') {
+                classDepth++;
+                sb.append(c);
+                if (onig.startsWith("^", i + 1)) {
+                    sb.append('^');
+                    i++;
+                }
+                // a leading ] is a literal in Oniguruma
+                if (i + 1 < onig.length() && onig.charAt(i + 1) == ']') {
+                    sb.append("\\]");
+                    i++;
+                }
+            } else if (c == ']' && classDepth > 0) {
+                classDepth--;
+                sb.append(c);
+            } else if (classDepth > 0 && (c == ' ' || c == '#')) {
+                sb.append('\\').append(c);
+            } else if (classDepth > 0 && c == '\t') {
+                sb.append("\\t");
+            } else {
+                sb.append(c);
+            }
+            i++;
+        }
+        return sb.toString();
+    }
+
+    private static String negate(String cls) {
+        if (cls.startsWith("\\p")) {
+            return "\\P" + cls.substring(2);
+        }
+        return cls.equals("\\s") ? "\\S" : "\\W";
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Feeds the tokens of a {@link TextMateGrammar} to Monaco's tokens provider
+ * ({@code registerTextMateTokensProvider} in index.html).
+ * <p>
+ * Monaco tokenizes synchronously and asks for one line at a time, passing the state the
+ * line starts in; states are sent to JavaScript as ids. Most lines are answered from a cache
+ * keyed by start state and text. The cache is filled on the executor: after every edit the
+ * document mirror ({@link TokenizedDocument}) is tokenized from the first changed line, and
+ * only lines whose text or start state changed are tokenized again. Lines Monaco asks for
+ * before that are tokenized synchronously on the calling thread, the JavaFX application thread,
+ * since Monaco's tokens provider cannot wait for a result.
+ * <p>
+ * The line cache holds at most {@link #MAX_CACHED_LINES} lines, the least recently used are
+ * dropped. States are numbered up to {@link #MAX_STATES}; beyond that, e.g. for many
+ * heredocs with distinct markers, the numbering starts over together with the line cache and
+ * ids Monaco still holds are read as the initial state.
+ * <p>
+ * Only the public methods are meant to be called from JavaScript.
+ */
+public final class TextMateTokenization {
+
+    private static final Gson GSON = new GsonBuilder().create();
+
+    static final int MAX_CACHED_LINES = 20_000;
+    static final int MAX_STATES = 10_000;
+
+    private final String language;
+    private final TextMateGrammar grammar;
+    private final Executor executor;
+
+    // state ids as seen by Monaco, 0 is the initial state; ids are not reused after a reset
+    private final Map<Object, Integer> stateIds = new HashMap<>();
+    private final Map<Integer, Object> states = new HashMap<>();
+    private int nextStateId;
+    private final Map<String, String> lines = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_CACHED_LINES;
+        }
+    };
+
+    // edits not yet applied on the executor: either the full text or a list of changes
+    private final ConcurrentLinkedQueue<Object> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger generation = new AtomicInteger();
+    private volatile boolean stale = true;
+    private volatile boolean disposed;
+    private TokenizedDocument document;
+    private int resumeLine = Integer.MAX_VALUE;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong precomputed = new AtomicLong();
+
+    TextMateTokenization(String language, TextMateGrammar grammar, Executor executor) {
+        this.language = language;
+        this.grammar = grammar;
+        this.executor = executor;
+        stateId(grammar.getInitialState());
+    }
+
+    String getLanguage() {
+        return language;
+    }
+
+    /**
+     * Id of the state at the start of the document.
+     */
+    public int getInitialStateId() {
+        return 0;
+    }
+
+    /**
+     * Tokenizes one line for Monaco. Lines not in the cache are tokenized on the calling thread.
+     *
+     * @return {@code {"endState":id,"tokens":[[startIndex,scope],...]}}
+     */
+    public String tokenize(String line, int stateId) {
+        String key = stateId + "\0" + line;
+        String json;
+        synchronized (lines) {
+            json = lines.get(key);
+        }
+        if (json != null) {
+            hits.incrementAndGet();
+            return json;
+        }
+        misses.incrementAndGet();
+        Object state;
+        synchronized (stateIds) {
+            // ids from before a reset of the numbering read as the initial state
+            state = states.getOrDefault(stateId, grammar.getInitialState());
+        }
+        json = toJson(grammar.tokenizeLine(line, state));
+        synchronized (lines) {
+            lines.put(key, json);
+        }
+        return json;
+    }
+
+    /**
+     * Tokenizes the full text in the background, e.g. when the document was replaced.
+     */
+    void reset(String text) {
+        stale = false;
+        pending.add(text);
+        schedule();
+    }
+
+    /**
+     * Applies the edits of the editor's document in the background. Starts over with the full
+     * text if edits were missed since {@link #invalidate()}.
+     */
+    void update(Document document, List<ContentChange> changes) {
+        if (stale) {
+            reset(document.getText());
+            return;
+        }
+        pending.add(changes);
+        schedule();
+    }
+
+    /**
+     * Marks the mirror as outdated, e.g. while the editor shows another language.
+     */
+    void invalidate() {
+        stale = true;
+    }
+
+    boolean isStale() {
+        return stale;
+    }
+
+    void dispose() {
+        disposed = true;
+        pending.clear();
+        synchronized (lines) {
+            lines.clear();
+        }
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Number of lines tokenized in the background.
+     */
+    long getPrecomputedLineCount() {
+        return precomputed.get();
+    }
+
+    private void schedule() {
+        int g = generation.incrementAndGet();
+        executor.execute(() -> precompute(g));
+    }
+
+    private synchronized void precompute(int g) {
+        Object edit;
+        while ((edit = pending.poll()) != null) {
+            if (edit instanceof String) {
+                document = new TokenizedDocument(grammar, (String) edit);
+                resumeLine = 1;
+            } else if (document != null) {
+                @SuppressWarnings("unchecked")
+                List<ContentChange> changes = (List<ContentChange>) edit;
+                for (ContentChange change : changes) {
+                    document.applyChange(change);
+                    resumeLine = Math.min(resumeLine, change.getRange().getStartLineNumber());
+                }
+            }
+        }
+        if (document == null || disposed) {
+            return;
+        }
+        int lineCount = document.getLineCount();
+        for (int line = Math.max(1, resumeLine); line <= lineCount; line++) {
+            // newer edits arrived, the task scheduled for them continues from here
+            if (generation.get() != g || disposed) {
+                resumeLine = line;
+                return;
+            }
+            long before = document.getTokenizedLineCount();
+            List<Token> tokens = document.getTokens(line);
+            if (document.getTokenizedLineCount() == before) {
+                continue;
+            }
+            precomputed.incrementAndGet();
+            String key = stateId(document.getStartState(line)) + "\0" + document.getLine(line);
+            String json = toJson(new LineTokens(tokens, document.getEndState(line)));
+            synchronized (lines) {
+                lines.put(key, json);
+            }
+        }
+        resumeLine = Integer.MAX_VALUE;
+    }
+
+    private int stateId(Object state) {
+        synchronized (stateIds) {
+            Integer id = stateIds.get(state);
+            if (id == null) {
+                if (states.size() >= MAX_STATES) {
+                    resetStates();
+                }
+                id = nextStateId++;
+                stateIds.put(state, id);
+                states.put(id, state);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * Starts the numbering of states over, keeping the initial state as 0. The cached lines
+     * refer to the old ids and are dropped as well.
+     */
+    private void resetStates() {
+        Object initial = grammar.getInitialState();
+        stateIds.clear();
+        states.clear();
+        stateIds.put(initial, 0);
+        states.put(0, initial);
+        synchronized (lines) {
+            lines.clear();
+        }
+    }
+
+    int getStateCount() {
+        synchronized (stateIds) {
+            return states.size();
+        }
+    }
+
+    private String toJson(LineTokens lineTokens) {
+        StringBuilder sb = new StringBuilder("{\"endState\":").append(stateId(lineTokens.getEndState()))
+                .append(",\"tokens\":[");
+        boolean first = true;
+        for (Token t : lineTokens.getTokens()) {
+            if (!first) {
+                sb.append(',');
+            }
+            sb.append('[').append(t.getStartColumn() - 1).append(',').append(GSON.toJson(t.getType())).append(']');
+            first = false;
+        }
+        return sb.append("]}").toString();
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+/**
+ * A token of one line as produced by a {@link LineTokenizer}.
+ */
+public final class Token {
+
+    private final int startColumn;
+    private final int endColumn;
+    private final String type;
+
+    public Token(int startColumn, int endColumn, String type) {
+        this.startColumn = startColumn;
+        this.endColumn = endColumn;
+        this.type = type;
+    }
+
+    /**
+     * First column of the token, 1-based.
+     */
+    public int getStartColumn() { return startColumn; }
+
+    /**
+     * Column after the last character of the token, 1-based.
+     */
+    public int getEndColumn() { return endColumn; }
+
+    /**
+     * Token type as used by themes, e.g. {@code keyword.java}. Empty for unstyled text.
+     */
+    public String getType() { return type; }
+
+    /**
+     * Whether the type is {@code type} or one of its sub types, the way theme rules match:
+     * {@code keyword} matches {@code keyword} and {@code keyword.java}.
+     */
+    public boolean isOfType(String type) {
+        return this.type.equals(type)
+                || (this.type.startsWith(type) && this.type.length() > type.length()
+                && this.type.charAt(type.length()) == '.');
+    }
+
+    @Override
+    public String toString() {
+        return startColumn + "-" + endColumn + ":" + type;
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The lines of a text together with their tokens, kept up to date incrementally. For every
+ * line the state it starts in is cached. After an edit only the edited lines are tokenized
+ * again, and the lines after them only as long as their start state changed; once a line
+ * starts in the same state as before, it and all lines after it keep their tokens.
+ * Lines are tokenized lazily, when tokens up to them are asked for.
+ * <p>
+ * Does not depend on JavaFX. To follow an editor, register it as a change listener of the
+ * editor's {@link Document}; the listener is called on the JavaFX application thread, all
+ * other use must be confined to one thread as well.
+ *
+ * <pre>{@code
+ * TokenizedDocument tokens = new TokenizedDocument(MonarchLanguage.of(language), document.getText());
+ * document.addChangeListener(tokens);
+ * List<Range> comments = tokens.findTokens("comment");
+ * }</pre>
+ */
+public final class TokenizedDocument implements DocumentChangeListener {
+
+    private final LineTokenizer tokenizer;
+    private List<String> lines = new ArrayList<>();
+    // per line: state at its start and tokens, both possibly stale after validUpTo
+    private List<Object> startStates = new ArrayList<>();
+    private List<LineTokens> tokens = new ArrayList<>();
+    private int validUpTo;
+    private long tokenizedLineCount;
+
+    public TokenizedDocument(LineTokenizer tokenizer, String text) {
+        this.tokenizer = tokenizer;
+        setText(text);
+    }
+
+    public LineTokenizer getTokenizer() {
+        return tokenizer;
+    }
+
+    /**
+     * Replaces the whole text. Nothing of the previous tokens is kept.
+     */
+    public void setText(String text) {
+        lines = new ArrayList<>(Arrays.asList(text.split("\\r\\n|\\r|\\n", -1)));
+        startStates = new ArrayList<>(lines.size());
+        tokens = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            startStates.add(null);
+            tokens.add(null);
+        }
+        validUpTo = 0;
+    }
+
+    /**
+     * Applies an edit. Tokens are updated when they are asked for next.
+     */
+    public void applyChange(ContentChange change) {
+        Range r = change.getRange();
+        int startLine = Math.min(r.getStartLineNumber(), lines.size()) - 1;
+        int endLine = Math.min(r.getEndLineNumber(), lines.size()) - 1;
+        String first = lines.get(startLine);
+        String last = lines.get(endLine);
+        String prefix = first.substring(0, Math.min(first.length(), r.getStartColumn() - 1));
+        String suffix = last.substring(Math.min(last.length(), r.getEndColumn() - 1));
+        String[] inserted = (prefix + change.getText() + suffix).split("\\r\\n|\\r|\\n", -1);
+
+        replace(lines, startLine, endLine, Arrays.asList(inserted));
+        replace(startStates, startLine, endLine, nulls(inserted.length));
+        replace(tokens, startLine, endLine, nulls(inserted.length));
+        validUpTo = Math.min(validUpTo, startLine);
+    }
+
+    /**
+     * Applies the edits of one Monaco content change event, in order.
+     */
+    public void applyChanges(List<ContentChange> changes) {
+        for (ContentChange change : changes) {
+            applyChange(change);
+        }
+    }
+
+    @Override
+    public void documentChanged(Document document, int version, List<ContentChange> changes) {
+        applyChanges(changes);
+    }
+
+    public int getLineCount() {
+        return lines.size();
+    }
+
+    /**
+     * @param lineNumber 1-based line number
+     */
+    public String getLine(int lineNumber) {
+        return lines.get(lineNumber - 1);
+    }
+
+    /**
+     * The tokens of a line, tokenizing all lines before it that are not up to date.
+     *
+     * @param lineNumber 1-based line number
+     */
+    public List<Token> getTokens(int lineNumber) {
+        ensureTokenized(lineNumber - 1);
+        return tokens.get(lineNumber - 1).getTokens();
+    }
+
+    /**
+     * Tokenizer state at the end of a line.
+     *
+     * @param lineNumber 1-based line number
+     */
+    public Object getEndState(int lineNumber) {
+        ensureTokenized(lineNumber - 1);
+        return tokens.get(lineNumber - 1).getEndState();
+    }
+
+    /**
+     * Tokenizer state at the start of a line.
+     *
+     * @param lineNumber 1-based line number
+     */
+    Object getStartState(int lineNumber) {
+        ensureTokenized(lineNumber - 1);
+        return startStates.get(lineNumber - 1);
+    }
+
+    /**
+     * Ranges of all tokens of the given type or one of its sub types, see {@link Token#isOfType(String)}.
+     */
+    public List<Range> findTokens(String type) {
+        ensureTokenized(lines.size() - 1);
+        List<Range> result = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            for (Token t : tokens.get(i).getTokens()) {
+                if (t.isOfType(type)) {
+                    result.add(new Range(i + 1, t.getStartColumn(), i + 1, t.getEndColumn()));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The text as HTML, one {@code span} per token. The classes are the parts of the token
+     * type, e.g. {@code class="keyword java"} for {@code keyword.java}, so a style sheet can
+     * use the same scopes as the editor theme.
+     */
+    public String toHtml() {
+        ensureTokenized(lines.size() - 1);
+        StringBuilder sb = new StringBuilder("<pre class=\"monaco-tokens\">");
+        for (int i = 0; i < lines.size(); i++) {
+            if (i > 0) {
+                sb.append('\n');
+            }
+            String line = lines.get(i);
+            for (Token t : tokens.get(i).getTokens()) {
+                String text = line.substring(t.getStartColumn() - 1, t.getEndColumn() - 1);
+                if (t.getType().isEmpty()) {
+                    escape(sb, text);
+                } else {
+                    sb.append("<span class=\"");
+                    escape(sb, t.getType().replace('.', ' '));
+                    sb.append("\">");
+                    escape(sb, text);
+                    sb.append("</span>");
+                }
+            }
+        }
+        return sb.append("</pre>").toString();
+    }
+
+    /**
+     * Number of lines tokenized so far, including lines tokenized again after edits.
+     */
+    public long getTokenizedLineCount() {
+        return tokenizedLineCount;
+    }
+
+    private void ensureTokenized(int lineIndex) {
+        while (validUpTo <= lineIndex) {
+            int i = validUpTo;
+            Object state = i == 0 ? tokenizer.getInitialState() : tokens.get(i - 1).getEndState();
+            // a line that starts in the same state as before still has the same tokens
+            if (tokens.get(i) == null || !state.equals(startStates.get(i))) {
+                startStates.set(i, state);
+                tokens.set(i, tokenizer.tokenizeLine(lines.get(i), state));
+                tokenizedLineCount++;
+            }
+            validUpTo++;
+        }
+    }
+
+    private static <T> void replace(List<T> list, int from, int to, List<T> replacement) {
+        list.subList(from, to + 1).clear();
+        list.addAll(from, replacement);
+    }
+
+    private static <T> List<T> nulls(int n) {
+        List<T> list = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            list.add(null);
+        }
+        return list;
+    }
+
+    private static void escape(StringBuilder sb, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '<': sb.append("&lt;"); break;
+                case '>': sb.append("&gt;"); break;
+                case '&': sb.append("&amp;"); break;
+                case '"': sb.append("&quot;"); break;
+                default: sb.append(c);
+            }
+        }
+    }
+}
@@ -23,7 +23,10 @@
  */
 package eu.mihosoft.monacofx;
 
+import javafx.beans.InvalidationListener;
 import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
 import javafx.beans.property.SimpleIntegerProperty;
 import netscape.javascript.JSObject;
 
@@ -34,8 +37,11 @@ public final class ViewController {
 
     //private final ObjectProperty<Position> cursorPositionProperty = new SimpleObjectProperty<>();
     private final IntegerProperty scrollPositionProperty = new SimpleIntegerProperty();
+    private final ReadOnlyIntegerWrapper firstVisibleLineProperty = new ReadOnlyIntegerWrapper(1);
+    private final ReadOnlyIntegerWrapper lastVisibleLineProperty = new ReadOnlyIntegerWrapper(1);
 
     private JFunction scrollChangeListener;
+    private InvalidationListener scrollToJSListener;
 
     public ViewController(Editor editor) {
         this.editor = editor;
@@ -46,16 +52,40 @@ public final class ViewController {
          // initial scroll
         editor.call("setScrollPosition", getScrollPosition());
         // scroll changes -> js
-        scrollPositionProperty().addListener((ov) -> {
+        scrollToJSListener = (ov) -> {
             editor.call("setScrollPosition", getScrollPosition());
-        });
+        };
+        scrollPositionProperty().addListener(scrollToJSListener);
          // scroll changes <- js
         scrollChangeListener = new JFunction( args -> {
             int pos = (int) editor.call("getScrollTop");
             setScrollPosition(pos);
+            updateVisibleLines();
             return null;
         });
         window.setMember("scrollChangeListener", scrollChangeListener);
+        updateVisibleLines();
+    }
+
+    void dispose() {
+        if(scrollToJSListener!=null) {
+            scrollPositionProperty().removeListener(scrollToJSListener);
+            scrollToJSListener = null;
+        }
+        if(window!=null) {
+            window.removeMember("scrollChangeListener");
+        }
+        scrollChangeListener = null;
+        window = null;
+    }
+
+    private void updateVisibleLines() {
+        Object lines = window.call("getVisibleLines");
+        if (lines instanceof String) {
+            String[] parts = ((String) lines).split(",");
+            firstVisibleLineProperty.set(Integer.parseInt(parts[0]));
+            lastVisibleLineProperty.set(Integer.parseInt(parts[1]));
+        }
     }
 
     public void undo() {
@@ -94,4 +124,26 @@ public final class ViewController {
     public IntegerProperty scrollPositionProperty() {
         return scrollPositionProperty;
     }
+
+    /**
+     * First line (1-based) visible in the editor, updated on scroll.
+     */
+    public ReadOnlyIntegerProperty firstVisibleLineProperty() {
+        return firstVisibleLineProperty.getReadOnlyProperty();
+    }
+
+    public int getFirstVisibleLine() {
+        return firstVisibleLineProperty.get();
+    }
+
+    /**
+     * Last line (1-based) visible in the editor, updated on scroll.
+     */
+    public ReadOnlyIntegerProperty lastVisibleLineProperty() {
+        return lastVisibleLineProperty.getReadOnlyProperty();
+    }
+
+    public int getLastVisibleLine() {
+        return lastVisibleLineProperty.get();
+    }
 }
@@ -0,0 +1,126 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Text edits for one or more documents, e.g. the result of a code action or a rename.
+ * Edits without a URI apply to the editor's current document.
+ *
+ * <pre>{@code
+ * WorkspaceEdit edit = WorkspaceEdit.builder()
+ *     .edit(new Range(3, 5, 3, 8), "count")
+ *     .edit("file:///src/Util.java", new Range(10, 1, 10, 4), "count")
+ *     .build();
+ * }</pre>
+ */
+public final class WorkspaceEdit {
+
+    private final Map<String, List<TextEdit>> edits;
+
+    private WorkspaceEdit(Map<String, List<TextEdit>> edits) {
+        this.edits = edits;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * The edits per document URI, in the order they were added. The key is null for the
+     * current document.
+     */
+    public Map<String, List<TextEdit>> getEdits() {
+        return edits;
+    }
+
+    /**
+     * The edits of one document.
+     *
+     * @param uri the document URI, null for the current document
+     */
+    public List<TextEdit> getEdits(String uri) {
+        return edits.getOrDefault(uri, List.of());
+    }
+
+    public boolean isEmpty() {
+        return edits.isEmpty();
+    }
+
+    Map<String, Object> toMap() {
+        List<Map<String, Object>> list = new ArrayList<>();
+        for (Map.Entry<String, List<TextEdit>> e : edits.entrySet()) {
+            for (TextEdit edit : e.getValue()) {
+                Map<String, Object> map = edit.toMap();
+                if (e.getKey() != null) {
+                    map.put("resource", e.getKey());
+                }
+                list.add(map);
+            }
+        }
+        Map<String, Object> map = new HashMap<>();
+        map.put("edits", list);
+        return map;
+    }
+
+    /**
+     * The edits grouped by document, as applied by {@code applyWorkspaceEdit(...)} in index.html:
+     * {@code [{resource, edits: [[startLine, startColumn, endLine, endColumn, text], ...]}, ...]}.
+     * Ranges are sent as arrays since a rename may carry thousands of edits.
+     */
+    List<Map<String, Object>> toBatches() {
+        List<Map<String, Object>> batches = new ArrayList<>(edits.size());
+        for (Map.Entry<String, List<TextEdit>> e : edits.entrySet()) {
+            List<Object[]> list = new ArrayList<>(e.getValue().size());
+            for (TextEdit edit : e.getValue()) {
+                Range r = edit.getRange();
+                list.add(new Object[]{r.getStartLineNumber(), r.getStartColumn(), r.getEndLineNumber(),
+                        r.getEndColumn(), edit.getText()});
+            }
+            Map<String, Object> batch = new HashMap<>();
+            if (e.getKey() != null) {
+                batch.put("resource", e.getKey());
+            }
+            batch.put("edits", list);
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    public static class Builder {
+        private final Map<String, List<TextEdit>> edits = new LinkedHashMap<>();
+
+        /**
+         * Adds an edit of the current document.
+         */
+        public Builder edit(Range range, String text) {
+            return edit(null, new TextEdit(range, text));
+        }
+
+        /**
+         * Adds an edit of the document with the given URI.
+         */
+        public Builder edit(String uri, Range range, String text) {
+            return edit(uri, new TextEdit(range, text));
+        }
+
+        public Builder edit(String uri, TextEdit edit) {
+            edits.computeIfAbsent(uri, k -> new ArrayList<>()).add(edit);
+            return this;
+        }
+
+        public WorkspaceEdit build() {
+            Map<String, List<TextEdit>> copy = new LinkedHashMap<>();
+            edits.forEach((uri, list) -> copy.put(uri, Collections.unmodifiableList(new ArrayList<>(list))));
+            return new WorkspaceEdit(Collections.unmodifiableMap(copy));
+        }
+    }
+}
@@ -0,0 +1,471 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Inverted index from identifiers to their locations over many files, for go-to-definition
+ * and find-references across a workspace.
+ * <p>
+ * Every file is scanned for identifiers (letters, digits, {@code _} and {@code $}, not
+ * starting with a digit); occurrences a {@link DeclarationMatcher} accepts count as
+ * definitions. Identifiers map to the files containing them, and per file to their offsets,
+ * so a lookup only touches the files that contain the identifier. Directories and batches
+ * of texts are indexed in parallel on a {@link ForkJoinPool}; afterwards only changed files
+ * are indexed again: open {@link Document}s from their edits (see {@link OccurrenceIndex}),
+ * other files via {@link #update(String, String)}, {@link #refresh(Path)} or {@link #remove(String)}.
+ * <p>
+ * Files are identified by URI, e.g. {@code file:///path/to/File.java}, the same URIs the
+ * resulting {@link Location}s carry. Thread safe.
+ *
+ * <pre>{@code
+ * WorkspaceSymbolIndex index = new WorkspaceSymbolIndex();
+ * index.indexDirectory(projectDir, ".java");
+ * index.addDocument(currentUri, editor.getDocument());
+ * editor.registerDefinitionProvider("java", index.definitionProvider(currentUri));
+ * editor.registerReferenceProvider("java", index.referenceProvider(currentUri));
+ * editor.registerRenameProvider("java", index.renameProvider(currentUri));
+ * }</pre>
+ */
+public final class WorkspaceSymbolIndex {
+
+    /**
+     * Decides which occurrences of an identifier declare it.
+     */
+    @FunctionalInterface
+    public interface DeclarationMatcher {
+
+        /**
+         * @param text the text of the file
+         * @param offset offset of the identifier in the text
+         * @param identifier the identifier
+         */
+        boolean isDeclaration(String text, int offset, String identifier);
+
+        /**
+         * Identifiers directly preceded by one of the keywords, e.g. {@code class Foo}.
+         */
+        static DeclarationMatcher keywords(String... keywords) {
+            Set<String> set = Set.of(keywords);
+            return (text, offset, identifier) -> {
+                int end = offset;
+                while (end > 0 && (text.charAt(end - 1) == ' ' || text.charAt(end - 1) == '\t')) {
+                    end--;
+                }
+                int start = end;
+                while (start > 0 && isWordChar(text.charAt(start - 1))) {
+                    start--;
+                }
+                return start < end && set.contains(text.substring(start, end));
+            };
+        }
+    }
+
+    /**
+     * Declaration keywords of common languages.
+     */
+    public static final DeclarationMatcher DEFAULT_DECLARATIONS = DeclarationMatcher.keywords(
+            "class", "interface", "enum", "record", "struct", "trait", "object", "type", "typedef",
+            "module", "namespace", "def", "function", "fn", "func", "fun", "sub", "proc",
+            "var", "let", "const", "val");
+
+    /**
+     * Files per fork/join task below which a batch is indexed sequentially.
+     */
+    static final int BATCH_SIZE = 8;
+
+    private final DeclarationMatcher declarations;
+    private final ForkJoinPool pool;
+    private final Map<String, OccurrenceIndex> files = new ConcurrentHashMap<>();
+    // identifier -> uris of the files that may contain it, edited documents are only checked on lookup
+    private final Map<String, Set<String>> postings = new ConcurrentHashMap<>();
+    // uri -> entry kept up to date by an added document
+    private final Map<String, OccurrenceIndex> documents = new ConcurrentHashMap<>();
+
+    public WorkspaceSymbolIndex() {
+        this(DEFAULT_DECLARATIONS, ForkJoinPool.commonPool());
+    }
+
+    public WorkspaceSymbolIndex(DeclarationMatcher declarations) {
+        this(declarations, ForkJoinPool.commonPool());
+    }
+
+    public WorkspaceSymbolIndex(DeclarationMatcher declarations, ForkJoinPool pool) {
+        this.declarations = declarations;
+        this.pool = pool;
+    }
+
+    // ========== Indexing ==========
+
+    /**
+     * Indexes all files below a directory whose names end with one of the extensions, in parallel.
+     * Files that cannot be read, e.g. because they are not UTF-8, are skipped.
+     *
+     * @param extensions e.g. {@code ".java"}, all regular files if none are given
+     * @return the skipped files, sorted
+     * @throws IOException if the directory cannot be walked
+     */
+    public List<Path> indexDirectory(Path root, String... extensions) throws IOException {
+        List<Path> paths;
+        try (Stream<Path> s = Files.walk(root)) {
+            paths = s.filter(Files::isRegularFile)
+                    .filter(p -> extensions.length == 0
+                            || Arrays.stream(extensions).anyMatch(e -> p.getFileName().toString().endsWith(e)))
+                    .collect(Collectors.toList());
+        }
+        Set<Path> unreadable = ConcurrentHashMap.newKeySet();
+        pool.invoke(new IndexTask<>(paths, 0, paths.size(), path -> {
+            try {
+                update(uri(path), Files.readString(path, StandardCharsets.UTF_8));
+            } catch (IOException ex) {
+                unreadable.add(path);
+            }
+        }));
+        return unreadable.stream().sorted().collect(Collectors.toList());
+    }
+
+    /**
+     * Indexes the texts, by URI, in parallel.
+     */
+    public void indexTexts(Map<String, String> texts) {
+        List<Map.Entry<String, String>> entries = new ArrayList<>(texts.entrySet());
+        pool.invoke(new IndexTask<>(entries, 0, entries.size(), e -> update(e.getKey(), e.getValue())));
+    }
+
+    /**
+     * Indexes a file again after its text changed, or adds it.
+     */
+    public void update(String uri, String text) {
+        put(uri, new OccurrenceIndex(text, declarations));
+    }
+
+    private void put(String uri, OccurrenceIndex entry) {
+        // an added document no longer keeps the entry
+        documents.remove(uri);
+        Set<String> identifiers = entry.getIdentifiers();
+        files.compute(uri, (k, old) -> {
+            if (old != null) {
+                for (String id : old.getIdentifiers()) {
+                    if (!identifiers.contains(id)) {
+                        removePosting(id, uri);
+                    }
+                }
+            }
+            addPostings(uri, identifiers);
+            return entry;
+        });
+    }
+
+    private void addPostings(String uri, Collection<String> identifiers) {
+        for (String id : identifiers) {
+            postings.compute(id, (i, set) -> {
+                Set<String> s = set != null ? set : ConcurrentHashMap.newKeySet();
+                s.add(uri);
+                return s;
+            });
+        }
+    }
+
+    /**
+     * Reads a file again after it changed on disk, removes it if it no longer exists.
+     */
+    public void refresh(Path file) throws IOException {
+        if (Files.isRegularFile(file)) {
+            update(uri(file), Files.readString(file, StandardCharsets.UTF_8));
+        } else {
+            remove(uri(file));
+        }
+    }
+
+    /**
+     * Removes a file from the index.
+     */
+    public void remove(String uri) {
+        documents.remove(uri);
+        files.computeIfPresent(uri, (k, old) -> {
+            for (String id : old.getIdentifiers()) {
+                removePosting(id, uri);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Keeps a document indexed while it is edited. Only the lines an edit touches are scanned again.
+     * The providers of this index do not index the editor's text under the document's URI again.
+     *
+     * @return removes the listener, the document stays in the index
+     */
+    public Registration addDocument(String uri, Document document) {
+        OccurrenceIndex entry = new OccurrenceIndex(document.getText() != null ? document.getText() : "",
+                declarations);
+        put(uri, entry);
+        documents.put(uri, entry);
+        DocumentChangeListener listener = (d, version, changes) -> {
+            List<String> added = new ArrayList<>();
+            entry.applyChanges(changes, added);
+            // identifiers that vanished stay listed until the next full update, lookups skip them
+            if (files.get(uri) == entry) {
+                addPostings(uri, new HashSet<>(added));
+            }
+        };
+        document.addChangeListener(listener);
+        return () -> {
+            document.removeChangeListener(listener);
+            documents.remove(uri, entry);
+        };
+    }
+
+    private void removePosting(String id, String uri) {
+        postings.computeIfPresent(id, (i, set) -> {
+            set.remove(uri);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    static String uri(Path path) {
+        return path.toAbsolutePath().normalize().toUri().toString();
+    }
+
+    // ========== Lookup ==========
+
+    /**
+     * Where the identifier is declared, sorted by URI and position.
+     */
+    public List<Location> findDefinitions(String identifier) {
+        return find(identifier, true, false);
+    }
+
+    /**
+     * All occurrences of the identifier, declarations included, sorted by URI and position.
+     */
+    public List<Location> findReferences(String identifier) {
+        return find(identifier, false, false);
+    }
+
+    /**
+     * Occurrences of the identifier that are no declarations, sorted by URI and position.
+     */
+    public List<Location> findUsages(String identifier) {
+        return find(identifier, false, true);
+    }
+
+    private List<Location> find(String identifier, boolean declarationsOnly, boolean usagesOnly) {
+        Set<String> uris = postings.get(identifier);
+        if (uris == null) {
+            return Collections.emptyList();
+        }
+        List<Location> result = new ArrayList<>();
+        for (String uri : new TreeSet<>(uris)) {
+            OccurrenceIndex entry = files.get(uri);
+            if (entry == null) {
+                continue;
+            }
+            List<Range> ranges = declarationsOnly ? entry.findDeclarations(identifier)
+                    : usagesOnly ? entry.findUsages(identifier) : entry.findOccurrences(identifier);
+            for (Range range : ranges) {
+                result.add(new Location(uri, range));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * URIs of the files containing the identifier.
+     */
+    public Set<String> getFiles(String identifier) {
+        Set<String> uris = postings.get(identifier);
+        if (uris == null) {
+            return Collections.emptySet();
+        }
+        Set<String> result = new TreeSet<>();
+        for (String uri : uris) {
+            OccurrenceIndex entry = files.get(uri);
+            if (entry != null && entry.count(identifier) > 0) {
+                result.add(uri);
+            }
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    /**
+     * Number of indexed files.
+     */
+    public int getFileCount() {
+        return files.size();
+    }
+
+    /**
+     * A definition provider answering from this index. The editor's document is indexed under
+     * {@code currentUri}; its locations are reported as locations in the current document.
+     */
+    public DefinitionProvider definitionProvider(String currentUri) {
+        return (documentText, position, word) -> {
+            if (word == null || word.isEmpty()) {
+                return List.of();
+            }
+            syncCurrent(currentUri, documentText);
+            return toCurrent(findDefinitions(word), currentUri);
+        };
+    }
+
+    /**
+     * A reference provider answering from this index. The editor's document is indexed under
+     * {@code currentUri}; its locations are reported as locations in the current document.
+     */
+    public ReferenceProvider referenceProvider(String currentUri) {
+        return (request, includeDeclaration) -> {
+            String word = request.getWord();
+            if (word == null || word.isEmpty()) {
+                return List.of();
+            }
+            syncCurrent(currentUri, request.getText());
+            return toCurrent(includeDeclaration ? findReferences(word) : findUsages(word), currentUri);
+        };
+    }
+
+    /**
+     * A rename provider for identifiers that only occur in the editor's document, indexed under
+     * {@code currentUri}. Identifiers the index does not know, or that occur in other files,
+     * are rejected.
+     */
+    public RenameProvider renameProvider(String currentUri) {
+        return renameProvider(currentUri, uri -> false);
+    }
+
+    /**
+     * A rename provider replacing all occurrences of the identifier in all indexed files.
+     * The editor's document is indexed under {@code currentUri}, its edits are edits of the
+     * current document. Other files must be editable in the page, i.e. have a Monaco model with
+     * their URI, see {@link Editor#applyWorkspaceEdit(WorkspaceEdit)}. Identifiers the index
+     * does not know, or that occur in files that are not editable, are rejected; nothing is
+     * renamed partially.
+     *
+     * @param editable whether a file other than the current document can be edited
+     */
+    public RenameProvider renameProvider(String currentUri, Predicate<String> editable) {
+        return new RenameProvider() {
+            @Override
+            public RenameLocation prepareRename(ProviderRequest request) {
+                String word = request.getWord();
+                syncCurrent(currentUri, request.getText());
+                if (word == null || word.isEmpty() || Character.isDigit(word.charAt(0)) || getFiles(word).isEmpty()) {
+                    return RenameLocation.rejected("You cannot rename this element.");
+                }
+                int readOnly = readOnlyFiles(word, currentUri, editable);
+                if (readOnly > 0) {
+                    return RenameLocation.rejected("'" + word + "' is also used in " + readOnly
+                            + (readOnly == 1 ? " file" : " files") + " that cannot be edited here.");
+                }
+                return null;
+            }
+
+            @Override
+            public WorkspaceEdit provideRenameEdits(ProviderRequest request, String newName) {
+                String word = request.getWord();
+                WorkspaceEdit.Builder edit = WorkspaceEdit.builder();
+                if (word == null || word.isEmpty()) {
+                    return edit.build();
+                }
+                syncCurrent(currentUri, request.getText());
+                if (readOnlyFiles(word, currentUri, editable) > 0) {
+                    return edit.build();
+                }
+                for (Location l : toCurrent(findReferences(word), currentUri)) {
+                    edit.edit(l.getUri(), new TextEdit(l.getRange(), newName));
+                }
+                return edit.build();
+            }
+        };
+    }
+
+    private int readOnlyFiles(String identifier, String currentUri, Predicate<String> editable) {
+        int count = 0;
+        for (String uri : getFiles(identifier)) {
+            if (!uri.equals(currentUri) && !editable.test(uri)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Indexes the editor's text if the index has not seen it yet, e.g. when no document was added.
+     * A document added under the URI is up to date already; the request's text may be older
+     * than its edits and must not replace it.
+     */
+    void syncCurrent(String currentUri, String documentText) {
+        if (currentUri == null || documentText == null || documents.containsKey(currentUri)) {
+            return;
+        }
+        OccurrenceIndex entry = files.get(currentUri);
+        if (entry == null || !entry.getText().equals(documentText)) {
+            update(currentUri, documentText);
+        }
+    }
+
+    static List<Location> toCurrent(List<Location> locations, String currentUri) {
+        List<Location> result = new ArrayList<>(locations.size());
+        for (Location l : locations) {
+            result.add(l.getUri().equals(currentUri) ? new Location(l.getRange()) : l);
+        }
+        return result;
+    }
+
+    static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+
+    /**
+     * Indexes a slice of a batch, splitting it while it is larger than {@link #BATCH_SIZE}.
+     */
+    private static final class IndexTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<T> items;
+        private final int from;
+        private final int to;
+        private final Consumer<T> action;
+
+        IndexTask(List<T> items, int from, int to, Consumer<T> action) {
+            this.items = items;
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_SIZE) {
+                for (int i = from; i < to; i++) {
+                    action.accept(items.get(i));
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new IndexTask<>(items, from, mid, action), new IndexTask<>(items, mid, to, action));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CodeActionCacheTest {
+
+	private final AtomicInteger provided = new AtomicInteger();
+	private final AtomicInteger resolved = new AtomicInteger();
+
+	private final CodeActionProvider provider = new CodeActionProvider() {
+		@Override
+		public List<CodeAction> provideCodeActions(ProviderRequest request, Range range, List<Marker> markers) {
+			provided.incrementAndGet();
+			return List.of(
+					CodeAction.builder().title("Fix " + markers.get(0).getCode()).kind(CodeAction.QUICK_FIX)
+							.diagnostics(markers).preferred(true).data(markers.get(0).getRange()).build(),
+					CodeAction.builder().title("Extract").kind("refactor.extract")
+							.edit(WorkspaceEdit.builder().edit(range, "x").build()).build());
+		}
+
+		@Override
+		public CodeAction resolveCodeAction(CodeAction action, CancellationToken token) {
+			resolved.incrementAndGet();
+			Range r = (Range) action.getData();
+			return action.toBuilder().edit(WorkspaceEdit.builder()
+					.edit(r, "")
+					.edit("file:///other.txt", new Range(1, 1, 1, 1), "y")
+					.build()).build();
+		}
+	};
+
+	@Test
+	public void listsStubsAndResolvesOnlyThePickedAction() throws Exception {
+		// given
+		CodeActionCache cache = new CodeActionCache(provider, Runnable::run);
+		JsonObject args = args();
+
+		// when
+		JsonArray actions = JsonParser.parseString(ProviderBridge.codeActionsHandler(cache)
+				.handle(request(1), args).get()).getAsJsonArray();
+
+		// then the quick fix is a stub, the other action carries its edit
+		assertEquals(2, actions.size());
+		JsonObject fix = actions.get(0).getAsJsonObject();
+		assertEquals("Fix unused", fix.get("title").getAsString());
+		assertTrue(fix.get("isPreferred").getAsBoolean());
+		assertEquals("unused", fix.getAsJsonArray("diagnostics").get(0).getAsJsonObject().get("code").getAsString());
+		assertFalse(fix.has("edit"));
+		assertFalse(actions.get(1).getAsJsonObject().has("resolveId"));
+		assertEquals(0, resolved.get());
+
+		// when the fix is picked
+		JsonObject resolveArgs = new JsonObject();
+		resolveArgs.addProperty("resolveId", fix.get("resolveId").getAsString());
+		JsonObject edit = JsonParser.parseString(ProviderBridge.resolveCodeActionHandler(cache)
+				.handle(request(1), resolveArgs).get()).getAsJsonObject().getAsJsonObject("edit");
+
+		// then
+		assertEquals(1, resolved.get());
+		JsonArray edits = edit.getAsJsonArray("edits");
+		assertEquals(2, edits.size());
+		assertEquals(3, edits.get(0).getAsJsonObject().getAsJsonObject("range").get("startLineNumber").getAsInt());
+		assertFalse(edits.get(0).getAsJsonObject().has("resource"));
+		assertEquals("file:///other.txt", edits.get(1).getAsJsonObject().get("resource").getAsString());
+	}
+
+	@Test
+	public void repeatedRequestsForTheSameRangeAreAnsweredFromTheCache() throws Exception {
+		// given
+		CodeActionCache cache = new CodeActionCache(provider, Runnable::run);
+		ProviderBridge.Handler handler = ProviderBridge.codeActionsHandler(cache);
+		String first = handler.handle(request(1), args()).get();
+
+		// when
+		String again = handler.handle(request(1), args()).get();
+		handler.handle(request(2), args()).get();
+
+		// then
+		assertEquals(first, again);
+		assertEquals(2, provided.get());
+		assertEquals(1, cache.getHits());
+	}
+
+	@Test
+	public void onlyRequestedKindsAreReturned() throws Exception {
+		// given
+		CodeActionCache cache = new CodeActionCache(provider, Runnable::run);
+		JsonObject args = args();
+		args.addProperty("only", "refactor");
+
+		// when
+		JsonArray actions = JsonParser.parseString(ProviderBridge.codeActionsHandler(cache)
+				.handle(request(1), args).get()).getAsJsonArray();
+
+		// then
+		assertEquals(1, actions.size());
+		assertEquals("Extract", actions.get(0).getAsJsonObject().get("title").getAsString());
+		assertEquals(0, cache.getActionCount());
+	}
+
+	private static JsonObject args() {
+		JsonObject args = new JsonObject();
+		args.addProperty("startLineNumber", 3);
+		args.addProperty("startColumn", 2);
+		args.addProperty("endLineNumber", 3);
+		args.addProperty("endColumn", 2);
+		JsonObject marker = new JsonObject();
+		marker.addProperty("message", "unused import");
+		marker.addProperty("severity", 4);
+		marker.addProperty("code", "unused");
+		marker.addProperty("startLineNumber", 3);
+		marker.addProperty("startColumn", 1);
+		marker.addProperty("endLineNumber", 3);
+		marker.addProperty("endColumn", 20);
+		JsonArray markers = new JsonArray();
+		markers.add(marker);
+		args.add("markers", markers);
+		return args;
+	}
+
+	private static ProviderRequest request(int version) {
+		return new ProviderRequest("java", version, new Position(3, 2), "", null, "", 1,
+				"a\nb\nimport x.Unused;", "a\nb\nimport x.Unused;", CancellationToken.NONE);
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColorCacheTest {
+
+	private static final Pattern HEX = Pattern.compile("#([0-9a-f]{6})");
+
+	private static final LineColorProvider PROVIDER = new LineColorProvider() {
+		@Override
+		public List<ColorInformation> provideLineColors(int lineNumber, String line) {
+			List<ColorInformation> colors = new ArrayList<>();
+			Matcher m = HEX.matcher(line);
+			while (m.find()) {
+				colors.add(new ColorInformation(EditorColor.fromHex(m.group(1)),
+						lineNumber, m.start() + 1, lineNumber, m.end() + 1));
+			}
+			return colors;
+		}
+
+		@Override
+		public List<ColorPresentation> provideColorPresentations(EditorColor color, Range range) {
+			return List.of(new ColorPresentation(color.toHexString()));
+		}
+	};
+
+	private final Document document = new Document();
+	private final ColorCache cache = new ColorCache(PROVIDER);
+
+	@Test
+	public void onlyChangedLinesAreScannedAndSent() {
+		// given
+		cache.begin(document);
+		String full = cache.update("a { color: #ff0000; }\nb { }\nc { color: #0000ff; }", 1, -1, CancellationToken.NONE);
+		assertEquals("{\"resultId\":2,\"lines\":[[[1.0,0.0,0.0,1.0,12,19]],[],[[0.0,0.0,1.0,1.0,12,19]]]}", full);
+		assertEquals(3, cache.getScannedLineCount());
+
+		// when a space typed in line 1 moves its color and a color is added in line 2
+		cache.documentChanged(document, 2, List.of(change(1, 2, 1, 2, " ")));
+		cache.documentChanged(document, 3, List.of(change(2, 4, 2, 4, "color: #00ff00; ")));
+		String delta = cache.update("a  { color: #ff0000; }\nb { color: #00ff00; }\nc { color: #0000ff; }",
+				3, 2, CancellationToken.NONE);
+
+		// then the colors of line 1 moved and are sent, line 3 was neither scanned nor sent
+		assertEquals("{\"resultId\":3,\"splices\":[],\"updates\":["
+				+ "[0,[[1.0,0.0,0.0,1.0,13,20]]],[1,[[0.0,1.0,0.0,1.0,12,19]]]]}", delta);
+		assertEquals(5, cache.getScannedLineCount());
+	}
+
+	@Test
+	public void insertedLinesAreSplicedIn() {
+		// given
+		cache.begin(document);
+		cache.update("#ff0000\nx\n#0000ff", 1, -1, CancellationToken.NONE);
+
+		// when two lines are inserted after line 1
+		cache.documentChanged(document, 2, List.of(change(1, 8, 1, 8, "\n#00ff00\ny")));
+		String delta = cache.update("#ff0000\n#00ff00\ny\nx\n#0000ff", 2, 2, CancellationToken.NONE);
+
+		// then
+		assertEquals("{\"resultId\":3,\"splices\":[[0,1,3]],\"updates\":["
+				+ "[0,[[1.0,0.0,0.0,1.0,1,8]]],[1,[[0.0,1.0,0.0,1.0,1,8]]]]}", delta);
+		assertEquals(List.of("[[1.0,0.0,0.0,1.0,1,8]]", "[[0.0,1.0,0.0,1.0,1,8]]", "[]", "[]",
+				"[[0.0,0.0,1.0,1.0,1,8]]"), cache.getLines());
+		assertEquals(6, cache.getScannedLineCount());
+	}
+
+	@Test
+	public void unknownPreviousResultGetsAllLines() {
+		// given
+		cache.begin(document);
+		cache.update("#ff0000", 1, -1, CancellationToken.NONE);
+
+		// when the page lost the previous result, e.g. because the request was cancelled
+		String response = cache.update("#ff0000", 1, 7, CancellationToken.NONE);
+
+		// then
+		assertEquals("{\"resultId\":3,\"lines\":[[[1.0,0.0,0.0,1.0,1,8]]]}", response);
+		assertEquals(1, cache.getScannedLineCount());
+		// and requests older than the cache are ignored
+		assertNull(cache.update("", 0, 3, CancellationToken.NONE));
+	}
+
+	@Test
+	public void colorStringsDoNotDependOnTheLocale() {
+		EditorColor color = EditorColor.fromRGBA(255, 8, 171, 128);
+		assertEquals("#ff08ab", color.toHexString());
+		assertEquals("rgb(255, 8, 171)", color.toRgbString());
+		assertEquals("rgba(255, 8, 171, 0.50)", color.toRgbaString());
+		assertEquals("rgba(0, 0, 0, 1.00)", new EditorColor(0, 0, 0).toRgbaString());
+	}
+
+	private static ContentChange change(int startLine, int startColumn, int endLine, int endColumn, String text) {
+		return new ContentChange(new Range(startLine, startColumn, endLine, endColumn), 0, 0, text);
+	}
+}
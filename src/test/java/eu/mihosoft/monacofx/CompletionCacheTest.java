@@ -0,0 +1,70 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompletionCacheTest {
+
+	private static final List<CompletionItem> ITEMS = List.of(
+			CompletionItem.builder().label("println").build(),
+			CompletionItem.builder().label("print").build(),
+			CompletionItem.builder().label("format").build());
+
+	@Test
+	public void sameRequestIsServedFromCache() {
+		// given
+		CompletionCache cache = new CompletionCache();
+		String json = cache.store(request(5, "int a;\nSystem.out.\n}", 2, 12, "."), ITEMS);
+
+		// when
+		String cached = cache.lookup(request(5, "int a;\nSystem.out.\n}", 2, 12, "."));
+
+		// then
+		assertSame(json, cached);
+		assertTrue(json.contains("\"incomplete\":false"));
+		assertEquals(1, cache.getHits());
+	}
+
+	@Test
+	public void typingFurtherFiltersCachedItems() {
+		// given
+		CompletionCache cache = new CompletionCache();
+		cache.store(request(5, "int a;\nSystem.out.\n}", 2, 12, "."), ITEMS);
+
+		// when: two more characters, two more versions
+		String cached = cache.lookup(request(7, "int a;\nSystem.out.pr\n}", 2, 14, ""));
+
+		// then
+		assertNotNull(cached);
+		assertTrue(cached.contains("\"println\""));
+		assertTrue(cached.contains("\"print\""));
+		assertFalse(cached.contains("\"format\""));
+	}
+
+	@Test
+	public void otherEditsInvalidate() {
+		// given
+		CompletionCache cache = new CompletionCache();
+		cache.store(request(5, "int a;\nSystem.out.\n}", 2, 12, "."), ITEMS);
+
+		// then: edit in another line
+		assertNull(cache.lookup(request(6, "int ab;\nSystem.out.\n}", 2, 12, ".")));
+		// one typed character but an additional edit elsewhere
+		assertNull(cache.lookup(request(7, "int a;\nSystem.out.p\n}", 2, 13, "")));
+		// deleting the trigger character
+		assertNull(cache.lookup(request(6, "int a;\nSystem.out\n}", 2, 11, "")));
+		assertEquals(3, cache.getMisses());
+	}
+
+	private static ProviderRequest request(int version, String text, int line, int column, String trigger) {
+		return new ProviderRequest("java", version, new Position(line, column), "", null, trigger,
+				1, text, text, CancellationToken.NONE);
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import eu.mihosoft.monacofx.CompletionItem.CompletionItemKind;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompletionIndexTest {
+
+	private static final String[] SYMBOLS = {
+			"println", "print", "printf", "Printer", "NullPointerException", "NumberFormatException",
+			"notify", "getFooBar", "getFoo", "HTMLParser", "hashCode", "newPrintStream"
+	};
+
+	@Test
+	public void prefixMatchesComeFirstShortestFirst() {
+		CompletionIndex index = index();
+
+		// exact case prefix before case-insensitive prefix
+		assertEquals(List.of("print", "printf", "println", "Printer"), labels(index, "print", 10).subList(0, 4));
+		// fuzzy matches follow prefix matches
+		assertEquals("newPrintStream", labels(index, "nps", 10).get(0));
+	}
+
+	@Test
+	public void camelHumpsMatchInitials() {
+		CompletionIndex index = index();
+
+		assertEquals(List.of("NullPointerException"), labels(index, "npe", 1));
+		assertEquals(List.of("NumberFormatException"), labels(index, "NFE", 1));
+		assertEquals(List.of("HTMLParser"), labels(index, "hp", 1));
+		assertEquals("getFooBar", labels(index, "gfb", 5).get(0));
+	}
+
+	@Test
+	public void onlyTopResultsAreMaterialized() {
+		AtomicInteger created = new AtomicInteger();
+		CompletionIndex.Builder builder = CompletionIndex.builder()
+				.itemFactory((id, item) -> {
+					created.incrementAndGet();
+					return item.detail("#" + id).build();
+				});
+		for (int i = 0; i < 10_000; i++) {
+			builder.add("symbol" + i, CompletionItemKind.FIELD);
+		}
+		CompletionIndex index = builder.build();
+
+		List<CompletionItem> items = index.search("symbol12", 5);
+
+		assertEquals(5, items.size());
+		assertEquals(5, created.get());
+		assertEquals("symbol12", items.get(0).toMap().get("label"));
+		assertEquals("000000", items.get(0).toMap().get("sortText"));
+		assertEquals(CompletionItemKind.FIELD.getValue(), items.get(0).toMap().get("kind"));
+	}
+
+	@Test
+	public void sortIsStable() {
+		int[] a = {5, 3, 5, 1, 3, 0, 2};
+		int[] expected = {0, 1, 2, 3, 3, 5, 5};
+		CompletionIndex.sort(a, Integer::compare);
+		assertArrayEquals(expected, a);
+	}
+
+	private static CompletionIndex index() {
+		CompletionIndex.Builder builder = CompletionIndex.builder();
+		for (String s : SYMBOLS) {
+			builder.add(s);
+		}
+		return builder.build();
+	}
+
+	private static List<String> labels(CompletionIndex index, String query, int k) {
+		return index.search(query, k).stream().map(i -> (String) i.toMap().get("label")).toList();
+	}
+}
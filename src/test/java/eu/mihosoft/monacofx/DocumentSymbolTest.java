@@ -0,0 +1,117 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DocumentSymbolTest {
+
+	private static final String TEXT = "a\n".repeat(29) + "a";
+
+	// class A (1-10) with methods m1 (2-4) and m2 (6-9), class B (12-20) with method m3 (13-15)
+	private static final DocumentSymbol M1 = symbol("m1", DocumentSymbol.SymbolKind.METHOD, 2, 4);
+	private static final DocumentSymbol M2 = symbol("m2", DocumentSymbol.SymbolKind.METHOD, 6, 9);
+	private static final DocumentSymbol A = symbol("A", DocumentSymbol.SymbolKind.CLASS, 1, 10).toBuilder()
+			.child(M1).child(M2).build();
+	private static final DocumentSymbol M3 = symbol("m3", DocumentSymbol.SymbolKind.METHOD, 13, 15);
+	private static final DocumentSymbol B = symbol("B", DocumentSymbol.SymbolKind.CLASS, 12, 20).toBuilder()
+			.child(M3).build();
+
+	@Test
+	public void symbolsAtAPositionAreFoundFromOutermostToInnermost() {
+		// given
+		DocumentSymbolTree tree = new DocumentSymbolTree(List.of(A, B));
+
+		// when
+		List<DocumentSymbol> path = tree.symbolsAt(new Position(7, 3));
+
+		// then
+		assertEquals(5, tree.size());
+		assertEquals(List.of(A, M2), path);
+		assertSame(M3, tree.symbolAt(new Position(14, 1)));
+		assertSame(B, tree.symbolAt(new Position(17, 1)));
+		assertSame(A, tree.symbolAt(new Position(5, 1)));
+		assertNull(tree.symbolAt(new Position(11, 1)));
+		assertNull(tree.symbolAt(new Position(25, 1)));
+		assertNull(DocumentSymbolTree.EMPTY.symbolAt(new Position(1, 1)));
+	}
+
+	@Test
+	public void untouchedSymbolsAreMovedAndTouchedOnesReparsed() {
+		// given
+		List<DocumentSymbol> previous = List.of(A, B);
+
+		// when two lines are inserted in line 7, inside m2
+		DocumentSymbolUpdate update = new DocumentSymbolUpdate(TEXT, List.of(change(7, 1, 7, 1, "x\ny\n")),
+				previous, CancellationToken.NONE, 0);
+
+		// then A is reparsed, B moved by two lines
+		assertFalse(update.isFullRecompute());
+		assertEquals(List.of(A), update.getAffected());
+		assertEquals(1, update.getRecomputeStartLine());
+		assertEquals(12, update.getRecomputeEndLine());
+		DocumentSymbol movedB = update.getUnaffected().get(0);
+		assertEquals(14, movedB.getRange().getStartLineNumber());
+		assertEquals(22, movedB.getRange().getEndLineNumber());
+		assertEquals(15, movedB.getChildren().get(0).getRange().getStartLineNumber());
+
+		// and within A only m2 has to be reparsed
+		assertTrue(update.isAffected(M2));
+		assertNull(update.moved(M2));
+		assertSame(M1, update.moved(M1));
+	}
+
+	@Test
+	public void resultsBecomeTheBaselineAndTheTree() {
+		// given
+		Document document = new Document();
+		DocumentSymbolCache cache = new DocumentSymbolCache("mylang");
+		DocumentSymbolUpdate first = cache.begin(document, TEXT, CancellationToken.NONE);
+		assertTrue(first.isFullRecompute());
+
+		// when
+		cache.complete(first, List.of(A, B));
+		cache.documentChanged(document, 2, List.of(change(25, 1, 25, 1, "x\n")));
+		DocumentSymbolUpdate second = cache.begin(document, TEXT + "\na", CancellationToken.NONE);
+
+		// then
+		assertEquals(5, cache.getTree().size());
+		assertSame(M1, cache.getTree().symbolAt(new Position(3, 1)));
+		assertEquals(1, second.getChanges().size());
+		assertEquals(2, second.getUnaffected().size());
+		assertTrue(second.getAffected().isEmpty());
+		assertEquals(25, second.getRecomputeStartLine());
+		assertEquals(26, second.getRecomputeEndLine());
+	}
+
+	@Test
+	public void symbolsAreSerializedForMonaco() {
+		// when
+		var map = A.toMap();
+
+		// then
+		assertEquals("A", map.get("name"));
+		assertEquals(4, map.get("kind"));
+		assertEquals(List.of(), map.get("tags"));
+		assertEquals(2, ((List<?>) map.get("children")).size());
+		assertEquals(A.getRange().toMap(), map.get("selectionRange"));
+	}
+
+	private static DocumentSymbol symbol(String name, DocumentSymbol.SymbolKind kind, int start, int end) {
+		return DocumentSymbol.builder()
+				.name(name)
+				.kind(kind)
+				.range(new Range(start, 1, end, 2))
+				.build();
+	}
+
+	private static ContentChange change(int startLine, int startColumn, int endLine, int endColumn, String text) {
+		return new ContentChange(new Range(startLine, startColumn, endLine, endColumn), 0, 0, text);
+	}
+}
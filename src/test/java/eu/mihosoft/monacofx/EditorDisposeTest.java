@@ -0,0 +1,127 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import netscape.javascript.JSObject;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EditorDisposeTest {
+
+	@Test
+	public void disposedEditorIsCollectable() throws InterruptedException {
+		// given: the page outlives the editor (as it does until about:blank is loaded)
+		FakeWindow window = new FakeWindow();
+		WeakReference<Editor> editorRef = createEditor(window, true);
+
+		// then
+		assertTrue(window.members.isEmpty(), "window members left behind: " + window.members.keySet());
+		assertTrue(window.calls.contains("disposeEditor"));
+		assertTrue(isCollected(editorRef), "disposed editor is still reachable");
+	}
+
+	@Test
+	public void editorWithoutDisposeIsRetainedByWindow() throws InterruptedException {
+		// given
+		FakeWindow window = new FakeWindow();
+		WeakReference<Editor> editorRef = createEditor(window, false);
+
+		// then: proves that the test above would detect the leak
+		assertFalse(isCollected(editorRef));
+		assertTrue(window.members.containsKey("contentChangeListener"));
+		assertTrue(window.members.containsKey("scrollChangeListener"));
+	}
+
+	@Test
+	public void documentKeepsTextAfterDispose() {
+		// given
+		FakeWindow window = new FakeWindow();
+		Editor editor = new Editor(null);
+		editor.getDocument().setText("some text");
+		editor.setEditor(window, new FakeWindow());
+
+		// when
+		editor.dispose();
+		editor.getDocument().setText("changed");
+
+		// then
+		assertEquals("changed", editor.getDocument().getText());
+	}
+
+	private static WeakReference<Editor> createEditor(FakeWindow window, boolean dispose) {
+		// no WebEngine: it cannot be initialized without a display
+		Editor editor = new Editor(null);
+		editor.getDocument().setText("line 1\nline 2");
+		editor.setEditor(window, new FakeWindow());
+		// exercise the listeners once
+		editor.getDocument().setText("line 1\nline 2\nline 3");
+		editor.getViewController().setScrollPosition(10);
+
+		if (dispose) {
+			editor.dispose();
+		}
+		return new WeakReference<>(editor);
+	}
+
+	private static boolean isCollected(WeakReference<?> ref) throws InterruptedException {
+		for (int i = 0; i < 20 && ref.get() != null; i++) {
+			System.gc();
+			Thread.sleep(50);
+		}
+		return ref.get() == null;
+	}
+
+	/**
+	 * Minimal stand-in for the JavaScript window/editor objects that keeps members like the real page does.
+	 */
+	static class FakeWindow extends JSObject {
+		final Map<String, Object> members = new HashMap<>();
+		final List<String> calls = new ArrayList<>();
+		final List<Object[]> callArgs = new ArrayList<>();
+
+		@Override
+		public Object call(String methodName, Object... args) {
+			calls.add(methodName);
+			callArgs.add(args);
+			return null;
+		}
+
+		@Override
+		public Object eval(String s) {
+			return null;
+		}
+
+		@Override
+		public Object getMember(String name) {
+			return members.get(name);
+		}
+
+		@Override
+		public void setMember(String name, Object value) {
+			members.put(name, value);
+		}
+
+		@Override
+		public void removeMember(String name) {
+			members.remove(name);
+		}
+
+		@Override
+		public Object getSlot(int index) {
+			return null;
+		}
+
+		@Override
+		public void setSlot(int index, Object value) {
+		}
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FoldingUpdateTest {
+
+	private static final String TEXT = "a\n".repeat(19) + "a";
+
+	@Test
+	public void onlyRegionsTouchedByEditsAreRecomputed() {
+		// given
+		Folding[] previous = {new Folding(2, 4), new Folding(6, 10, "comment"), new Folding(12, 14)};
+
+		// when a line is inserted in line 7
+		FoldingUpdate update = new FoldingUpdate(TEXT, List.of(change(7, 1, 7, 1, "x\n")), previous,
+				CancellationToken.NONE, 0);
+
+		// then
+		assertFalse(update.isFullRecompute());
+		assertEquals(6, update.getRecomputeStartLine());
+		assertEquals(11, update.getRecomputeEndLine());
+		assertEquals(2, update.getUnaffected().size());
+		assertEquals(2, update.getUnaffected().get(0).start);
+		assertEquals(13, update.getUnaffected().get(1).start);
+		assertEquals(15, update.getUnaffected().get(1).end);
+	}
+
+	@Test
+	public void nestedRegionsInsideTheRecomputeRangeAreScannedAgain() {
+		// given an outer region containing the edit and an inner one that does not
+		Folding[] previous = {new Folding(1, 20), new Folding(3, 5)};
+
+		// when
+		FoldingUpdate update = new FoldingUpdate(TEXT, List.of(change(10, 1, 10, 2, "b")), previous,
+				CancellationToken.NONE, 0);
+
+		// then
+		assertEquals(1, update.getRecomputeStartLine());
+		assertEquals(20, update.getRecomputeEndLine());
+		assertTrue(update.getUnaffected().isEmpty());
+	}
+
+	@Test
+	public void resultsBecomeTheBaselineOfTheNextUpdate() {
+		// given
+		Document document = new Document();
+		FoldingCache cache = new FoldingCache();
+		FoldingUpdate first = cache.begin(document, TEXT, CancellationToken.NONE);
+		assertTrue(first.isFullRecompute());
+		assertEquals(20, first.getRecomputeEndLine());
+
+		// when an edit arrives while the first update is computed
+		cache.documentChanged(document, 2, List.of(change(1, 1, 1, 1, "x\n")));
+		Folding[] result = {new Folding(2, 4)};
+		cache.complete(first, result);
+		FoldingUpdate second = cache.begin(document, "x\n" + TEXT, CancellationToken.NONE);
+
+		// then
+		assertSame(result, second.getPrevious());
+		assertEquals(1, second.getChanges().size());
+		assertEquals(3, second.getUnaffected().get(0).start);
+
+		// and an outdated update does not replace the baseline
+		cache.complete(first, new Folding[0]);
+		assertSame(result, cache.getPrevious());
+	}
+
+	private static ContentChange change(int startLine, int startColumn, int endLine, int endColumn, String text) {
+		return new ContentChange(new Range(startLine, startColumn, endLine, endColumn), 0, 0, text);
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HoverCacheTest {
+
+	@Test
+	public void editsElsewhereMoveEntriesAlong() {
+		// given "foo" at 3:5-3:8, cached for version 2
+		HoverCache cache = new HoverCache(10);
+		cache.documentChanged(null, 2, List.of());
+		cache.store(request(2, "foo", 3, 5, 8), "{\"value\":\"foo\"}");
+
+		// when a line is inserted above and "x" typed before the word in the same line
+		cache.documentChanged(null, 3, List.of(change(3, 2, 3, 2, "x")));
+		cache.documentChanged(null, 4, List.of(change(1, 1, 1, 1, "a\n")));
+		// and text after the word is replaced
+		cache.documentChanged(null, 5, List.of(change(4, 10, 4, 12, "")));
+
+		// then
+		assertEquals("{\"value\":\"foo\"}", cache.lookup(request(5, "foo", 4, 6, 9)));
+		assertNull(cache.lookup(request(5, "foo", 3, 5, 8)));
+		assertEquals(1, cache.getHits());
+	}
+
+	@Test
+	public void editsTouchingTheWordInvalidate() {
+		// given
+		HoverCache cache = new HoverCache(10);
+		cache.documentChanged(null, 1, List.of());
+		cache.store(request(1, "foo", 1, 1, 4), "{\"value\":\"foo\"}");
+		cache.store(request(1, "bar", 2, 1, 4), null);
+
+		// when "foo" is extended to "food"
+		cache.documentChanged(null, 2, List.of(change(1, 4, 1, 4, "d")));
+
+		// then
+		assertNull(cache.lookup(request(2, "food", 1, 1, 5)));
+		assertEquals("null", cache.lookup(request(2, "bar", 2, 1, 4)));
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void staleResultsAreNotStoredAndOldestEntriesAreEvicted() {
+		// given
+		HoverCache cache = new HoverCache(2);
+		cache.documentChanged(null, 1, List.of());
+
+		// when
+		cache.store(request(0, "old", 1, 1, 4), "{}");
+		cache.store(request(1, "a", 1, 1, 2), "{}");
+		cache.store(request(1, "b", 2, 1, 2), "{}");
+		cache.lookup(request(1, "a", 1, 1, 2));
+		cache.store(request(1, "c", 3, 1, 2), "{}");
+
+		// then "b" was least recently used
+		assertEquals(2, cache.size());
+		assertNotNull(cache.lookup(request(1, "a", 1, 1, 2)));
+		assertNull(cache.lookup(request(1, "b", 2, 1, 2)));
+		assertNotNull(cache.lookup(request(1, "c", 3, 1, 2)));
+	}
+
+	private static ContentChange change(int startLine, int startColumn, int endLine, int endColumn, String text) {
+		return new ContentChange(new Range(startLine, startColumn, endLine, endColumn), 0, 0, text);
+	}
+
+	private static ProviderRequest request(int version, String word, int line, int startColumn, int endColumn) {
+		return new ProviderRequest("java", version, new Position(line, startColumn), word,
+				new Range(line, startColumn, line, endColumn), "", 1, "", "", CancellationToken.NONE);
+	}
+}
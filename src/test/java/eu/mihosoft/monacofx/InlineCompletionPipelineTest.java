@@ -0,0 +1,109 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InlineCompletionPipelineTest {
+
+	/**
+	 * Publisher driven by the test, the subscriber is called synchronously.
+	 */
+	private static final class TestPublisher implements Flow.Publisher<String> {
+		Flow.Subscriber<? super String> subscriber;
+		boolean cancelled;
+
+		@Override
+		public void subscribe(Flow.Subscriber<? super String> subscriber) {
+			this.subscriber = subscriber;
+			subscriber.onSubscribe(new Flow.Subscription() {
+				@Override
+				public void request(long n) {
+				}
+
+				@Override
+				public void cancel() {
+					cancelled = true;
+				}
+			});
+		}
+	}
+
+	private final List<TestPublisher> publishers = new ArrayList<>();
+	private final AtomicInteger refreshes = new AtomicInteger();
+	private final InlineCompletionPipeline pipeline = new InlineCompletionPipeline(request -> {
+		TestPublisher p = new TestPublisher();
+		publishers.add(p);
+		return p;
+	}, Duration.ZERO, Runnable::run, refreshes::incrementAndGet);
+
+	@Test
+	public void chunksAreStreamedThroughRefreshes() {
+		// given
+		CompletableFuture<String> first = pipeline.request(request("int a = "));
+		assertFalse(first.isDone());
+
+		// when
+		publishers.get(0).subscriber.onNext("fo");
+		publishers.get(0).subscriber.onNext("o();");
+
+		// then the first request gets the first chunk, the refresh the rest
+		assertEquals("{\"items\":[{\"insertText\":\"fo\"}]}", first.join());
+		assertEquals(1, refreshes.get());
+		assertEquals("{\"items\":[{\"insertText\":\"foo();\"}]}", pipeline.request(request("int a = ")).join());
+		assertEquals(1, pipeline.getStartedCount());
+	}
+
+	@Test
+	public void typingAlongOrRetypingReusesTheSuggestion() {
+		// given
+		pipeline.request(request("int a = "));
+		publishers.get(0).subscriber.onNext("foo();");
+		publishers.get(0).subscriber.onComplete();
+
+		// when
+		String typedAlong = pipeline.request(request("int a = fo")).join();
+		String retyped = pipeline.request(request("int a = ")).join();
+
+		// then
+		assertEquals("{\"items\":[{\"insertText\":\"o();\"}]}", typedAlong);
+		assertEquals("{\"items\":[{\"insertText\":\"foo();\"}]}", retyped);
+		assertEquals(1, pipeline.getStartedCount());
+	}
+
+	@Test
+	public void supersededStreamsAreCancelled() {
+		// given
+		CompletableFuture<String> first = pipeline.request(request("int a = "));
+		publishers.get(0).subscriber.onNext("foo");
+
+		// when the user types something the suggestion does not continue with
+		pipeline.request(request("int a = b"));
+
+		// then
+		assertTrue(first.isDone());
+		assertTrue(publishers.get(0).cancelled);
+		assertEquals(2, pipeline.getStartedCount());
+		assertEquals(List.of(""), pipeline.getCachedSuggestions());
+
+		// and disposing cancels the running stream
+		pipeline.dispose();
+		assertTrue(publishers.get(1).cancelled);
+	}
+
+	private static ProviderRequest request(String line) {
+		return new ProviderRequest("java", 1, new Position(1, line.length() + 1), "", null, "",
+				1, line, line, CancellationToken.NONE);
+	}
+}
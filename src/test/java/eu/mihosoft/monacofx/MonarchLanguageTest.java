@@ -0,0 +1,130 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MonarchLanguageTest {
+
+	private static final String RULES = String.join("\n",
+			"keywords: ['class', 'if', 'return'],",
+			"symbols: /[=><!+\\-*\\/]+/,",
+			"tokenizer: {",
+			"  root: [",
+			"    [/[a-z_$][\\w$]*/, { cases: { '@keywords': 'keyword', '@default': 'identifier' } }],",
+			"    [/\\d+/, 'number'],",
+			"    { include: '@whitespace' },",
+			"    [/@symbols/, 'operator'],",
+			"    [/(\")([^\"]*)(\")/, ['string.quote', 'string', 'string.quote']],",
+			"    [/[{}]/, 'delimiter.bracket'],",
+			"  ],",
+			"  whitespace: [",
+			"    [/[ \\t]+/, ''],",
+			"    [/\\/\\*/, 'comment', '@comment'],",
+			"    [/\\/\\/.*$/, 'comment'],",
+			"  ],",
+			"  comment: [",
+			"    [/[^\\/*]+/, 'comment'],",
+			"    [/\\*\\//, 'comment', '@pop'],",
+			"    [/[\\/*]/, 'comment'],",
+			"  ],",
+			"},");
+
+	@Test
+	public void tokenizesLikeMonarch() {
+		// given
+		MonarchLanguage lang = MonarchLanguage.compile("demo", RULES);
+
+		// when
+		LineTokens line = lang.tokenizeLine("if x1 >= 42 return \"hi\" // done", lang.getInitialState());
+
+		// then
+		assertEquals("[1-3:keyword.demo, 3-4:, 4-6:identifier.demo, 6-7:, 7-9:operator.demo, 9-10:, "
+				+ "10-12:number.demo, 12-13:, 13-19:keyword.demo, 19-20:, 20-21:string.quote.demo, "
+				+ "21-23:string.demo, 23-24:string.quote.demo, 24-25:, 25-32:comment.demo]",
+				line.getTokens().toString());
+		assertEquals(lang.getInitialState(), line.getEndState());
+	}
+
+	@Test
+	public void statesCarryOverToTheNextLine() {
+		// given
+		MonarchLanguage lang = MonarchLanguage.compile("demo", RULES);
+
+		// when
+		LineTokens first = lang.tokenizeLine("x /* open", lang.getInitialState());
+		LineTokens second = lang.tokenizeLine("still */ y", first.getEndState());
+
+		// then
+		assertNotEquals(lang.getInitialState(), first.getEndState());
+		assertEquals("[1-9:comment.demo, 9-10:, 10-11:identifier.demo]", second.getTokens().toString());
+		assertEquals(lang.getInitialState(), second.getEndState());
+	}
+
+	@Test
+	public void onlyLinesWhoseStartStateChangedAreTokenizedAgain() {
+		// given
+		TokenizedDocument doc = new TokenizedDocument(MonarchLanguage.compile("demo", RULES),
+				"a\nb\nc\nd\ne");
+		assertEquals(5, doc.findTokens("identifier").size());
+		assertEquals(5, doc.getTokenizedLineCount());
+
+		// when line 2 is edited without changing its end state
+		doc.applyChange(new ContentChange(new Range(2, 1, 2, 2), 2, 1, "if"));
+
+		// then only line 2 is tokenized again
+		assertEquals("[1-3:keyword.demo]", doc.getTokens(2).toString());
+		assertEquals(1, doc.findTokens("keyword").size());
+		assertEquals(6, doc.getTokenizedLineCount());
+
+		// when a comment is opened in line 2, the lines after it change state
+		doc.applyChange(new ContentChange(new Range(2, 3, 2, 3), 4, 0, " /*"));
+
+		// then all following lines are tokenized again
+		assertEquals(1, doc.findTokens("identifier").size());
+		assertEquals(4, doc.findTokens("comment").size());
+		assertEquals(10, doc.getTokenizedLineCount());
+
+		// when it is closed again in line 3
+		doc.applyChange(new ContentChange(new Range(3, 2, 3, 2), 9, 0, "*/"));
+
+		// then lines 4 and 5 start in a different state than in the last pass and are tokenized too
+		assertEquals(3, doc.findTokens("identifier").size());
+		assertEquals(13, doc.getTokenizedLineCount());
+
+		// when line 4 is edited
+		doc.applyChange(new ContentChange(new Range(4, 1, 4, 2), 12, 1, "x"));
+
+		// then line 5 keeps its tokens
+		assertEquals("[1-2:identifier.demo]", doc.getTokens(5).toString());
+		assertEquals(14, doc.getTokenizedLineCount());
+	}
+
+	@Test
+	public void exportsHtml() {
+		// given
+		TokenizedDocument doc = new TokenizedDocument(MonarchLanguage.compile("demo", RULES), "if a<b\nreturn");
+
+		// when
+		String html = doc.toHtml();
+
+		// then
+		assertEquals("<pre class=\"monaco-tokens\"><span class=\"keyword demo\">if</span> "
+				+ "<span class=\"identifier demo\">a</span><span class=\"operator demo\">&lt;</span>"
+				+ "<span class=\"identifier demo\">b</span>\n<span class=\"keyword demo\">return</span></pre>", html);
+	}
+
+	@Test
+	public void translatesJavaScriptRegularExpressions() {
+		assertEquals("[\\[\\]]", MonarchLanguage.toJavaRegex("[[\\]]"));
+		assertEquals("\\{\\}a{2,3}", MonarchLanguage.toJavaRegex("{}a{2,3}"));
+		assertEquals("[\\s\\S]", MonarchLanguage.toJavaRegex("[^]"));
+		assertEquals("[a\\&\\&b]", MonarchLanguage.toJavaRegex("[a&&b]"));
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OccurrenceIndexTest {
+
+	@Test
+	public void occurrencesFollowEdits() {
+		// given
+		OccurrenceIndex index = new OccurrenceIndex("int count = 0;\ncount++;\nprint(count);",
+				WorkspaceSymbolIndex.DEFAULT_DECLARATIONS);
+		assertEquals(3, index.count("count"));
+
+		// when "count" in line 2 is renamed and a line is inserted before it
+		index.applyChange(change(2, 1, 2, 6, 15, 5, "total"));
+		index.applyChange(change(2, 1, 2, 1, 15, 0, "let x = 1;\n"));
+
+		// then
+		assertEquals(2, index.count("count"));
+		assertEquals(1, index.count("total"));
+		assertEquals("int count = 0;\nlet x = 1;\ntotal++;\nprint(count);", index.getText());
+		assertEquals(List.of(new Range(1, 5, 1, 10).toMap(), new Range(4, 7, 4, 12).toMap()),
+				index.findOccurrences("count").stream().map(Range::toMap).toList());
+		assertEquals(1, index.findDeclarations("x").size());
+		assertTrue(index.findUsages("x").isEmpty());
+	}
+
+	@Test
+	public void randomEditsMatchAFreshScan() {
+		// given
+		Random random = new Random(42);
+		String[] words = {"foo", "bar", " ", "\n", "(", "baz1", "let ", "_q", "9"};
+		StringBuilder initial = new StringBuilder();
+		for (int i = 0; i < 200; i++) {
+			initial.append(words[random.nextInt(words.length)]);
+		}
+		OccurrenceIndex index = new OccurrenceIndex(initial.toString(), WorkspaceSymbolIndex.DEFAULT_DECLARATIONS);
+
+		for (int step = 0; step < 300; step++) {
+			// when
+			String text = index.getText();
+			int offset = random.nextInt(text.length() + 1);
+			int length = random.nextInt(Math.min(10, text.length() - offset) + 1);
+			String inserted = words[random.nextInt(words.length)] + words[random.nextInt(words.length)];
+			index.applyChange(change(0, 0, 0, 0, offset, length, inserted));
+
+			// then
+			OccurrenceIndex fresh = new OccurrenceIndex(index.getText(), WorkspaceSymbolIndex.DEFAULT_DECLARATIONS);
+			assertEquals(fresh.getIdentifiers(), index.getIdentifiers());
+			for (String id : fresh.getIdentifiers()) {
+				assertArrayEquals(fresh.getOffsets(id), index.getOffsets(id), id);
+				assertEquals(fresh.findDeclarations(id).size(), index.findDeclarations(id).size(), id);
+			}
+		}
+	}
+
+	@Test
+	public void referencesAreProvidedAcrossTheWorkspace() {
+		// given
+		WorkspaceSymbolIndex workspace = new WorkspaceSymbolIndex();
+		workspace.indexTexts(Map.of("file:///lib.js", "function helper() {}\nhelper();"));
+		ReferenceProvider provider = workspace.referenceProvider("file:///main.js");
+		String text = "helper();";
+		ProviderRequest request = new ProviderRequest("javascript", 1, new Position(1, 2), "helper", null, "",
+				1, text, text, CancellationToken.NONE);
+
+		// when
+		List<Location> all = provider.provideReferences(request, true);
+		List<Location> usages = provider.provideReferences(request, false);
+
+		// then
+		assertEquals(3, all.size());
+		assertEquals(2, usages.size());
+		assertTrue(usages.stream().anyMatch(Location::isCurrentDocument));
+	}
+
+	private static ContentChange change(int startLine, int startColumn, int endLine, int endColumn,
+										int offset, int length, String text) {
+		return new ContentChange(new Range(startLine, startColumn, endLine, endColumn), offset, length, text);
+	}
+}
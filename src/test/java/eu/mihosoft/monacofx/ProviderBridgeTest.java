@@ -0,0 +1,195 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import eu.mihosoft.monacofx.EditorDisposeTest.FakeWindow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProviderBridgeTest {
+
+	private static final String ARGS = "{\"version\":2,\"lineNumber\":1,\"column\":4,"
+			+ "\"windowStartLine\":1,\"windowText\":\"Sys\",\"triggerCharacter\":\"\"}";
+
+	private final Queue<Runnable> fxQueue = new ArrayDeque<>();
+	private FakeWindow window;
+	private ProviderBridge bridge;
+	private String documentText = "Sys";
+
+	@BeforeEach
+	public void setUp() {
+		window = new FakeWindow();
+		bridge = new ProviderBridge(fxQueue::add, () -> documentText);
+		bridge.setWindow(window);
+	}
+
+	@Test
+	public void resultIsDeliveredOnFxExecutor() {
+		// given
+		bridge.setHandler(ProviderBridge.COMPLETION, "java", ProviderBridge.completionHandler(
+				request -> CompletableFuture.completedFuture(
+						List.of(CompletionItem.builder().label(request.getLinePrefix() + "tem").build()))));
+
+		// when
+		bridge.request(7, ProviderBridge.COMPLETION, "java", ARGS);
+
+		// then: nothing touches the page until the fx executor runs
+		assertTrue(window.calls.isEmpty());
+		runFxQueue();
+		assertEquals(List.of("resolveProviderRequest"), window.calls);
+		assertEquals(7, window.callArgs.get(0)[0]);
+		assertTrue(((String) window.callArgs.get(0)[1]).contains("\"label\":\"System\""));
+		assertEquals(0, bridge.getPendingRequestCount());
+	}
+
+	@Test
+	public void cancelReachesProviderAndDropsResult() {
+		// given
+		AtomicReference<CancellationToken> tokenRef = new AtomicReference<>();
+		CompletableFuture<List<CompletionItem>> slow = new CompletableFuture<>();
+		bridge.setHandler(ProviderBridge.COMPLETION, "java", ProviderBridge.completionHandler(
+				request -> {
+					tokenRef.set(request.getCancellationToken());
+					return slow;
+				}));
+		bridge.request(1, ProviderBridge.COMPLETION, "java", ARGS);
+
+		// when
+		bridge.cancel(1);
+		slow.complete(List.of(CompletionItem.builder().label("late").build()));
+		runFxQueue();
+
+		// then: the JS promise was settled by the cancellation, no late result is sent
+		assertTrue(tokenRef.get().isCancellationRequested());
+		assertTrue(window.calls.isEmpty());
+		assertEquals(0, bridge.getPendingRequestCount());
+	}
+
+	@Test
+	public void missingHandlerResolvesWithNull() {
+		// when
+		bridge.request(3, ProviderBridge.HOVER, "java", "{}");
+		runFxQueue();
+
+		// then
+		assertEquals(List.of("resolveProviderRequest"), window.calls);
+		assertNull(window.callArgs.get(0)[1]);
+	}
+
+	@Test
+	public void requestCarriesWindowAndReadsFullTextFromMirror() {
+		// given: line 3 of 5, one line of context
+		documentText = "a\r\nbb\nccc ddd\neee\nf";
+		String args = "{\"version\":9,\"lineNumber\":3,\"column\":5,\"windowStartLine\":2,"
+				+ "\"windowText\":\"bb\\nccc ddd\\neee\",\"word\":\"ddd\"}";
+		AtomicReference<ProviderRequest> requestRef = new AtomicReference<>();
+		bridge.setHandler(ProviderBridge.DEFINITION, "java", ProviderBridge.definitionHandler(request -> {
+			requestRef.set(request);
+			return CompletableFuture.completedFuture(List.of());
+		}));
+
+		// when
+		bridge.request(1, ProviderBridge.DEFINITION, "java", args);
+		ProviderRequest request = requestRef.get();
+
+		// then
+		assertEquals(9, request.getVersion());
+		assertEquals("ddd", request.getWord());
+		assertEquals(2, request.getWindowStartLine());
+		assertEquals(4, request.getWindowEndLine());
+		assertEquals("ccc ", request.getLinePrefix());
+		assertEquals("f", request.getLine(5));
+		assertEquals("a", request.getLine(1));
+		assertEquals("a\r\nbb\nccc ", request.getTextUntilPosition());
+		assertSame(documentText, request.getText());
+	}
+
+	@Test
+	public void completionItemsAreResolvedLazilyAndOnce() {
+		// given
+		AtomicInteger resolved = new AtomicInteger();
+		CompletionResolveCache resolveCache = new CompletionResolveCache(item -> {
+			resolved.incrementAndGet();
+			return item.toBuilder().documentation("docs of " + item.getLabel()).build();
+		}, Runnable::run);
+		bridge.setHandler(ProviderBridge.COMPLETION, "java", ProviderBridge.completionHandler(
+				request -> CompletableFuture.completedFuture(List.of(CompletionItem.builder()
+						.label("println").detail("void println(String)").documentation("Prints a line").id("println")
+						.build())),
+				new CompletionCache(resolveCache::toMap)));
+		bridge.setHandler(ProviderBridge.RESOLVE_COMPLETION, "java", ProviderBridge.resolveCompletionHandler(resolveCache));
+
+		// when
+		bridge.request(1, ProviderBridge.COMPLETION, "java", ARGS);
+		bridge.request(2, ProviderBridge.RESOLVE_COMPLETION, "java", "{\"resolveId\":\"id:println\"}");
+		bridge.request(3, ProviderBridge.RESOLVE_COMPLETION, "java", "{\"resolveId\":\"id:println\"}");
+		runFxQueue();
+
+		// then: the list ships no documentation, resolving does, and only once
+		String list = (String) window.callArgs.get(0)[1];
+		assertTrue(list.contains("\"resolveId\":\"id:println\""));
+		assertFalse(list.contains("Prints a line"));
+		assertFalse(list.contains("void println"));
+		assertTrue(((String) window.callArgs.get(1)[1]).contains("docs of println"));
+		assertEquals(window.callArgs.get(1)[1], window.callArgs.get(2)[1]);
+		assertEquals(1, resolved.get());
+	}
+
+	@Test
+	public void registrationIsReplayedWhenPageIsReady() {
+		// given
+		Editor editor = new Editor(null);
+		editor.registerCompletionProvider("java", (text, position, trigger) -> List.of(), ".", ":");
+		assertTrue(editor.getProviderBridge().hasHandler(ProviderBridge.COMPLETION, "java"));
+
+		// when
+		editor.setEditor(window, new FakeWindow());
+
+		// then
+		int i = window.calls.indexOf("registerCompletionProvider");
+		assertTrue(i >= 0);
+		assertArrayEquals(new Object[]{"java", "[\".\",\":\"]", false}, window.callArgs.get(i));
+		assertSame(editor.getProviderBridge(), window.members.get("javaProviderBridge"));
+	}
+
+	@Test
+	public void disposingReplacedRegistrationKeepsNewerOne() {
+		// given
+		Editor editor = new Editor(null);
+		editor.setEditor(window, new FakeWindow());
+		Registration first = editor.registerHoverProvider("java", (text, position, word) -> null);
+		Registration second = editor.registerHoverProvider("java", (text, position, word) -> null);
+
+		// when
+		first.dispose();
+
+		// then
+		assertTrue(editor.getProviderBridge().hasHandler(ProviderBridge.HOVER, "java"));
+		assertFalse(window.calls.contains("unregisterProvider"));
+
+		// when
+		second.close();
+
+		// then
+		assertFalse(editor.getProviderBridge().hasHandler(ProviderBridge.HOVER, "java"));
+		assertTrue(window.calls.contains("unregisterProvider"));
+	}
+
+	private void runFxQueue() {
+		Runnable r;
+		while ((r = fxQueue.poll()) != null) {
+			r.run();
+		}
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RangeSemanticTokensCacheTest {
+
+	/**
+	 * One token per non-empty line, its type is the line's length.
+	 */
+	private static final RangeSemanticTokensProvider PROVIDER = (request, startLine, endLine) -> {
+		SemanticTokensBuilder builder = new SemanticTokensBuilder();
+		for (int line = startLine; line <= endLine; line++) {
+			String text = request.getLine(line);
+			if (!text.isEmpty()) {
+				builder.push(line, 1, text.length(), text.length(), 0);
+			}
+		}
+		return builder.build();
+	};
+
+	private final Document document = new Document();
+	private final RangeSemanticTokensCache cache = new RangeSemanticTokensCache(PROVIDER, "java", Runnable::run);
+
+	@Test
+	public void onlyBlocksAroundTheRangeAreComputed() {
+		// given
+		String text = "a\n".repeat(999) + "a";
+		cache.begin(document);
+
+		// when
+		String json = cache.provide(request(1, text), 2, 3);
+
+		// then the requested lines and a margin of 200 lines, in blocks of 100
+		assertEquals("{\"data\":[1,0,1,1,0,1,0,1,1,0]}", json);
+		assertEquals(300, cache.getComputedLineCount());
+		cache.dispose();
+	}
+
+	@Test
+	public void editsOnlyInvalidateTheirBlock() {
+		// given
+		String text = "a\n".repeat(999) + "a";
+		cache.begin(document);
+		cache.provide(request(1, text), 1, 10);
+
+		// when a line "bbb" is inserted before line 2
+		cache.documentChanged(document, 2, List.of(new ContentChange(new Range(2, 1, 2, 1), 2, 0, "bbb\n")));
+		String edited = "a\nbbb\n" + "a\n".repeat(998) + "a";
+		String json = cache.provide(request(2, edited), 1, 3);
+
+		// then
+		assertEquals("{\"data\":[0,0,1,1,0,1,0,3,3,0,1,0,1,1,0]}", json);
+		assertEquals(400, cache.getComputedLineCount());
+		// an outdated request is ignored
+		assertNull(cache.provide(request(1, text), 1, 3));
+		cache.dispose();
+	}
+
+	@Test
+	public void onlyTheLatestQueuedPrefetchIsComputed() {
+		// given
+		String text = "a\n".repeat(1999) + "a";
+		Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+		RangeSemanticTokensCache queued = new RangeSemanticTokensCache(PROVIDER, "java", tasks::add);
+		queued.begin(document);
+
+		// when the viewport moves twice before the executor runs
+		queued.schedulePrefetch(request(1, text), 1, 40);
+		queued.schedulePrefetch(request(1, text), 1001, 1040);
+
+		// then one task computes the blocks around the latest viewport
+		assertEquals(1, tasks.size());
+		tasks.poll().run();
+		assertEquals(500, queued.getComputedLineCount());
+		queued.dispose();
+	}
+
+	@Test
+	public void refinementCallsTheProviderWithoutTheLock() throws InterruptedException {
+		// given
+		String text = "a\n".repeat(999) + "a";
+		Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+		List<Boolean> locked = new CopyOnWriteArrayList<>();
+		RangeSemanticTokensCache[] refined = new RangeSemanticTokensCache[1];
+		refined[0] = new RangeSemanticTokensCache((request, startLine, endLine) -> {
+			locked.add(Thread.holdsLock(refined[0]));
+			return PROVIDER.provideSemanticTokens(request, startLine, endLine);
+		}, "java", tasks::add);
+		refined[0].begin(document);
+		refined[0].provide(request(1, text), 1, 10);
+		locked.clear();
+
+		// when the editor is idle
+		long deadline = System.currentTimeMillis() + 5000;
+		while (tasks.isEmpty() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+		tasks.poll().run();
+
+		// then the next block was computed outside the lock
+		assertEquals(List.of(false), locked);
+		assertEquals(400, refined[0].getComputedLineCount());
+		refined[0].dispose();
+	}
+
+	private static ProviderRequest request(int version, String text) {
+		return new ProviderRequest("java", version, null, "", null, "", 1, "", text, CancellationToken.NONE);
+	}
+}
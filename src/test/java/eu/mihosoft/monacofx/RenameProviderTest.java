@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RenameProviderTest {
+
+	private static final String CURRENT = "let total = count + count;";
+
+	@Test
+	public void renamesAllOccurrencesGroupedByDocument() {
+		// given
+		WorkspaceSymbolIndex index = new WorkspaceSymbolIndex();
+		index.indexTexts(Map.of("file:///a.js", "var count = 0;", "file:///b.js", "count++;\ncount--;"));
+		RenameProvider provider = index.renameProvider("file:///main.js", uri -> true);
+
+		// when
+		WorkspaceEdit edit = provider.provideRenameEdits(request("count"), "amount");
+
+		// then
+		assertEquals(3, edit.getEdits().size());
+		assertEquals(2, edit.getEdits(null).size());
+		assertEquals(1, edit.getEdits("file:///a.js").size());
+		assertEquals(2, edit.getEdits("file:///b.js").size());
+		assertEquals("amount", edit.getEdits(null).get(1).getText());
+		assertEquals(21, edit.getEdits(null).get(1).getRange().getStartColumn());
+	}
+
+	@Test
+	public void unknownIdentifiersAreRejected() {
+		// given
+		WorkspaceSymbolIndex index = new WorkspaceSymbolIndex();
+		RenameProvider provider = index.renameProvider("file:///main.js");
+
+		// when
+		RenameLocation known = provider.prepareRename(request("total"));
+		RenameLocation unknown = provider.prepareRename(request("missing"));
+
+		// then
+		assertNull(known);
+		assertTrue(unknown.isRejected());
+		assertNotNull(unknown.toMap().get("rejectReason"));
+	}
+
+	@Test
+	public void identifiersUsedInFilesThatCannotBeEditedAreRejected() {
+		// given
+		WorkspaceSymbolIndex index = new WorkspaceSymbolIndex();
+		index.indexTexts(Map.of("file:///a.js", "var count = 0;", "file:///b.js", "count++;"));
+		RenameProvider provider = index.renameProvider("file:///main.js", "file:///a.js"::equals);
+
+		// when
+		RenameLocation count = provider.prepareRename(request("count"));
+		WorkspaceEdit edit = provider.provideRenameEdits(request("count"), "amount");
+		RenameLocation total = provider.prepareRename(request("total"));
+
+		// then nothing is renamed partially
+		assertTrue(count.isRejected());
+		assertEquals("'count' is also used in 1 file that cannot be edited here.", count.toMap().get("rejectReason"));
+		assertTrue(edit.isEmpty());
+		assertNull(total);
+	}
+
+	@Test
+	public void editsAreSentAsOneBatchPerDocument() {
+		// given
+		WorkspaceEdit edit = WorkspaceEdit.builder()
+				.edit(new Range(1, 5, 1, 10), "x")
+				.edit(new Range(2, 1, 2, 6), "x")
+				.edit("file:///a.js", new Range(3, 2, 3, 4), "y")
+				.build();
+
+		// when
+		List<Map<String, Object>> batches = edit.toBatches();
+
+		// then
+		assertEquals(2, batches.size());
+		assertFalse(batches.get(0).containsKey("resource"));
+		assertEquals(2, ((List<?>) batches.get(0).get("edits")).size());
+		assertEquals("file:///a.js", batches.get(1).get("resource"));
+		assertArrayEquals(new Object[]{3, 2, 3, 4, "y"}, (Object[]) ((List<?>) batches.get(1).get("edits")).get(0));
+	}
+
+	private static ProviderRequest request(String word) {
+		return new ProviderRequest("javascript", 1, new Position(1, 14), word, null, "", 1, CURRENT, CURRENT,
+				CancellationToken.NONE);
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SemanticTokensTest {
+
+	@Test
+	public void builderEncodesRelativePositions() {
+		// given tokens pushed out of order
+		SemanticTokensBuilder builder = new SemanticTokensBuilder(1)
+				.push(3, 5, 4, 2, 1)
+				.push(1, 1, 5, 0, 0)
+				.push(1, 8, 3, 1, 0);
+
+		// when
+		int[] data = builder.build();
+
+		// then
+		assertArrayEquals(new int[]{
+				0, 0, 5, 0, 0,
+				0, 7, 3, 1, 0,
+				2, 4, 4, 2, 1}, data);
+	}
+
+	@Test
+	public void unchangedPrefixAndSuffixAreNotSent() {
+		// given
+		SemanticTokensCache cache = new SemanticTokensCache();
+		int[] before = new SemanticTokensBuilder().push(1, 1, 5, 0, 0).push(2, 1, 3, 1, 0).push(5, 3, 4, 2, 0).build();
+		String full = cache.toJson(before, null);
+		assertEquals("{\"resultId\":\"1\",\"data\":[0,0,5,0,0,1,0,3,1,0,3,2,4,2,0]}", full);
+
+		// when a line is inserted after line 2, only the deltaLine of the last token changes
+		int[] after = new SemanticTokensBuilder().push(1, 1, 5, 0, 0).push(2, 1, 3, 1, 0).push(6, 3, 4, 2, 0).build();
+		String edit = cache.toJson(after, "1");
+
+		// then
+		assertEquals("{\"resultId\":\"2\",\"edits\":[{\"start\":10,\"deleteCount\":1,\"data\":[4]}]}", edit);
+		assertEquals(16, cache.getSentIntCount());
+
+		// and an unchanged result is an empty edit, an unknown result id gets all tokens
+		assertEquals("{\"resultId\":\"3\",\"edits\":[]}", cache.toJson(after, "2"));
+		assertTrue(cache.toJson(after, "1").contains("\"data\":[0,0,5"));
+	}
+
+	@Test
+	public void legendResolvesTypesAndModifiers() {
+		SemanticTokensLegend legend = new SemanticTokensLegend(List.of("class", "function"),
+				List.of("declaration", "static"));
+		assertEquals(1, legend.typeIndex("function"));
+		assertEquals(3, legend.modifierMask("declaration", "static"));
+		assertThrows(IllegalArgumentException.class, () -> legend.typeIndex("macro"));
+	}
+}
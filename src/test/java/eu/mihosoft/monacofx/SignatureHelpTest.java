@@ -0,0 +1,112 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SignatureHelpTest {
+
+	private static final List<SignatureInformation> OVERLOADS = List.of(
+			SignatureInformation.builder().label("max(int a)").parameter("int a").build(),
+			SignatureInformation.builder().label("max(int a, int b)").parameter("int a").parameter("int b").build());
+
+	@Test
+	public void callSitesAreFoundAcrossNestedArguments() {
+		// when
+		CallSite nested = CallSite.find("x = max(f(1, 2), [3, 4], ", 25, new Position(1, 26));
+		CallSite multiline = CallSite.find("a;\n  max(1,\n  ", 14, new Position(3, 3));
+
+		// then
+		assertEquals("max", nested.getCallee());
+		assertEquals(2, nested.getActiveParameter());
+		assertEquals(1, nested.getOpenParen().lineNumber);
+		assertEquals(8, nested.getOpenParen().column);
+		assertEquals(2, multiline.getOpenParen().lineNumber);
+		assertEquals(6, multiline.getOpenParen().column);
+		assertEquals(1, multiline.getActiveParameter());
+		assertNull(CallSite.find("(1, ", 4, new Position(1, 5)));
+		assertNull(CallSite.find("f(x); y", 7, new Position(1, 8)));
+		assertNull(CallSite.find("f(() -> { g", 11, new Position(1, 12)));
+	}
+
+	@Test
+	public void overloadsAreResolvedOncePerCallSite() {
+		// given
+		AtomicInteger resolved = new AtomicInteger();
+		SignatureHelpProvider provider = (request, call) -> {
+			resolved.incrementAndGet();
+			return OVERLOADS;
+		};
+		SignatureHelpCache cache = new SignatureHelpCache();
+		Document document = new Document();
+		ProviderBridge.Handler handler = ProviderBridge.signatureHelpHandler(provider, cache, () -> document,
+				Runnable::run);
+
+		// when the first argument and a comma are typed
+		JsonObject first = help(handler, 1, "max(");
+		cache.documentChanged(document, 2, List.of(change(4, 0, "1")));
+		cache.documentChanged(document, 3, List.of(change(5, 0, ",")));
+		JsonObject second = help(handler, 3, "max(1,");
+
+		// then
+		assertEquals(1, resolved.get());
+		assertEquals(1, cache.getHits());
+		assertEquals(0, first.get("activeParameter").getAsInt());
+		assertEquals(0, first.get("activeSignature").getAsInt());
+		assertEquals(1, second.get("activeParameter").getAsInt());
+		assertEquals(1, second.get("activeSignature").getAsInt());
+		assertEquals(2, second.getAsJsonArray("signatures").size());
+
+		// and an edit before the parenthesis resolves the call again
+		cache.documentChanged(document, 4, List.of(change(0, 3, "min")));
+		help(handler, 4, "min(1,");
+		assertEquals(2, resolved.get());
+	}
+
+	@Test
+	public void onlyTheWindowAroundTheCursorIsScanned() {
+		// given a large document with the cursor in a call near its end
+		StringBuilder sb = new StringBuilder();
+		for (int i = 1; i < 200_000; i++) {
+			sb.append("int v").append(i).append(" = ").append(i).append(";\n");
+		}
+		String document = sb.append("x = max(v1,\n  v2, ").toString();
+		int lastLine = 200_001;
+		String[] lines = document.split("\n", -1);
+		int windowStartLine = lastLine - 50;
+		String window = String.join("\n", List.of(lines).subList(windowStartLine - 1, lastLine));
+
+		// when
+		CallSite call = CallSite.find(new ProviderRequest("java", 1, new Position(lastLine, 7), "", null, "",
+				windowStartLine, window, document, CancellationToken.NONE));
+		CallSite outside = CallSite.find(new ProviderRequest("java", 1, new Position(lastLine, 7), "", null, "",
+				lastLine, lines[lastLine - 1], document, CancellationToken.NONE));
+
+		// then
+		assertEquals("max", call.getCallee());
+		assertEquals(lastLine - 1, call.getOpenParen().lineNumber);
+		assertEquals(8, call.getOpenParen().column);
+		assertEquals(2, call.getActiveParameter());
+		// the parenthesis is above the window
+		assertNull(outside);
+	}
+
+	private static JsonObject help(ProviderBridge.Handler handler, int version, String text) {
+		ProviderRequest request = new ProviderRequest("java", version, new Position(1, text.length() + 1), "", null,
+				"", 1, text, text, CancellationToken.NONE);
+		return JsonParser.parseString(handler.handle(request, new JsonObject()).join()).getAsJsonObject();
+	}
+
+	private static ContentChange change(int offset, int length, String text) {
+		return new ContentChange(new Range(1, offset + 1, 1, offset + length + 1), offset, length, text);
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TextMateGrammarTest {
+
+	private static final String GRAMMAR = "{"
+			+ "\"scopeName\": \"source.demo\","
+			+ "\"patterns\": [{\"include\": \"#comments\"}, {\"include\": \"#keywords\"}, {\"include\": \"#strings\"},"
+			+ "  {\"include\": \"#heredoc\"}, {\"include\": \"#block\"}],"
+			+ "\"repository\": {"
+			+ "  \"keywords\": {\"match\": \"\\\\b(let|fn)\\\\s+([[:alpha:]_]\\\\w*)\","
+			+ "    \"captures\": {\"1\": {\"name\": \"keyword.other.demo\"}, \"2\": {\"name\": \"entity.name.demo\"}}},"
+			+ "  \"comments\": {\"patterns\": ["
+			+ "    {\"name\": \"comment.block.demo\", \"begin\": \"/\\\\*\", \"end\": \"\\\\*/\"},"
+			+ "    {\"name\": \"comment.line.demo\", \"match\": \"#.*$\"}]},"
+			+ "  \"strings\": {\"name\": \"string.quoted.demo\", \"begin\": \"\\\"\", \"end\": \"\\\"\","
+			+ "    \"patterns\": [{\"name\": \"constant.character.escape.demo\", \"match\": \"\\\\\\\\.\"}]},"
+			+ "  \"heredoc\": {\"begin\": \"<<(\\\\w+)\", \"end\": \"^\\\\1$\", \"name\": \"string.unquoted.demo\"},"
+			+ "  \"block\": {\"begin\": \"\\\\{\", \"end\": \"\\\\}\", \"patterns\": [{\"include\": \"$self\"}]}"
+			+ "}}";
+
+	@Test
+	public void tokenizesMatchesCapturesAndNestedRules() {
+		// given
+		TextMateGrammar grammar = TextMateGrammar.fromJson(GRAMMAR);
+
+		// when
+		LineTokens line = grammar.tokenizeLine("let x = \"a\\\"b\" # c", grammar.getInitialState());
+
+		// then
+		assertTrue(grammar.getUnsupportedPatterns().isEmpty(), grammar.getUnsupportedPatterns().toString());
+		assertEquals("[1-4:keyword.other.demo, 4-5:, 5-6:entity.name.demo, 6-9:, 9-11:string.quoted.demo, "
+				+ "11-13:constant.character.escape.demo, 13-15:string.quoted.demo, 15-16:, 16-19:comment.line.demo]",
+				line.getTokens().toString());
+		assertEquals(grammar.getInitialState(), line.getEndState());
+	}
+
+	@Test
+	public void ruleStacksCarryOverLinesAndBackReferences() {
+		// given
+		TokenizedDocument doc = new TokenizedDocument(TextMateGrammar.fromJson(GRAMMAR),
+				"{ /* a\nb */ fn f }\nx <<EOF\nlet y\nEOF\nlet z");
+
+		// then
+		assertEquals("[1-3:, 3-7:comment.block.demo]", doc.getTokens(1).toString());
+		assertEquals("[1-5:comment.block.demo, 5-6:, 6-8:keyword.other.demo, 8-9:, 9-10:entity.name.demo, 10-12:]",
+				doc.getTokens(2).toString());
+		assertEquals("[1-6:string.unquoted.demo]", doc.getTokens(4).toString());
+		assertEquals("[1-4:string.unquoted.demo]", doc.getTokens(5).toString());
+		assertEquals("[1-4:keyword.other.demo, 4-5:, 5-6:entity.name.demo]", doc.getTokens(6).toString());
+	}
+
+	@Test
+	public void translatesOnigurumaPatterns() {
+		assertEquals("[0-9a-fA-F]+[\\p{Alpha}_]", TextMateGrammar.toJavaRegex("\\h+[[:alpha:]_]"));
+		assertEquals("(?x) [\\ \\#]", TextMateGrammar.toJavaRegex("(?x) [ #]"));
+	}
+
+	@Test
+	public void monacoIsServedFromLinesTokenizedInTheBackground() {
+		// given a document tokenized on the executor
+		TextMateTokenization tokenization = new TextMateTokenization("demo", TextMateGrammar.fromJson(GRAMMAR),
+				Runnable::run);
+		Document document = new Document();
+		tokenization.reset("let a\n/* x\ny */\nlet b");
+		assertEquals(4, tokenization.getPrecomputedLineCount());
+
+		// when Monaco asks for the lines
+		String first = tokenization.tokenize("let a", tokenization.getInitialStateId());
+		String second = tokenization.tokenize("/* x", 0);
+
+		// then they come from the cache
+		assertEquals("{\"endState\":0,\"tokens\":[[0,\"keyword.other.demo\"],[3,\"\"],[4,\"entity.name.demo\"]]}", first);
+		assertTrue(second.startsWith("{\"endState\":1,"));
+		assertEquals(2, tokenization.getHits());
+		assertEquals(0, tokenization.getMisses());
+
+		// when the last line is edited, only that line is tokenized again
+		tokenization.update(document, List.of(new ContentChange(new Range(4, 5, 4, 6), 20, 1, "c")));
+		assertEquals(5, tokenization.getPrecomputedLineCount());
+		tokenization.tokenize("let c", 0);
+		assertEquals(0, tokenization.getMisses());
+	}
+
+	@Test
+	public void statesAndDynamicPatternsAreBounded() {
+		// given
+		TextMateGrammar grammar = TextMateGrammar.fromJson(GRAMMAR);
+		TextMateTokenization tokenization = new TextMateTokenization("demo", grammar, Runnable::run);
+		String first = tokenization.tokenize("x <<M0", 0);
+		int firstState = Integer.parseInt(first.substring(first.indexOf(':') + 1, first.indexOf(',')));
+
+		// when every heredoc has its own marker, and so its own state
+		for (int i = 1; i <= TextMateTokenization.MAX_STATES; i++) {
+			tokenization.tokenize("x <<M" + i, 0);
+			grammar.tokenizeLine("M" + i, grammar.tokenizeLine("x <<M" + i, grammar.getInitialState()).getEndState());
+		}
+
+		// then
+		assertTrue(tokenization.getStateCount() <= TextMateTokenization.MAX_STATES);
+		assertTrue(grammar.getDynamicPatternCount() <= TextMateGrammar.MAX_DYNAMIC_PATTERNS);
+		// an id from before the numbering started over reads as the initial state
+		assertEquals("{\"endState\":0,\"tokens\":[[0,\"keyword.other.demo\"],[3,\"\"],[4,\"entity.name.demo\"]]}",
+				tokenization.tokenize("let a", firstState));
+	}
+}
@@ -0,0 +1,135 @@
+/*
+ * MIT License
+ * Copyright (c) 2020-2025 Michael Hoffer <info@michaelhoffer.de>. All rights reserved.
+ */
+package eu.mihosoft.monacofx;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WorkspaceSymbolIndexTest {
+
+	@Test
+	public void definitionsAndReferencesAreFoundAcrossFiles() {
+		// given
+		WorkspaceSymbolIndex index = new WorkspaceSymbolIndex();
+		index.indexTexts(Map.of(
+				"file:///a.js", "function render(x) {\n  return x;\n}",
+				"file:///b.js", "let y = render(1);\nrender(y);"));
+
+		// when
+		List<Location> definitions = index.findDefinitions("render");
+		List<Location> references = index.findReferences("render");
+
+		// then
+		assertEquals(1, definitions.size());
+		assertEquals("file:///a.js", definitions.get(0).getUri());
+		assertRange(1, 10, 1, 16, definitions.get(0).getRange());
+		assertEquals(3, references.size());
+		assertRange(1, 9, 1, 15, references.get(1).getRange());
+		assertRange(2, 1, 2, 7, references.get(2).getRange());
+		assertEquals(1, index.findDefinitions("y").size());
+		assertTrue(index.findReferences("1").isEmpty());
+	}
+
+	@Test
+	public void changedAndRemovedFilesAreIndexedAgain() {
+		// given
+		WorkspaceSymbolIndex index = new WorkspaceSymbolIndex();
+		index.indexTexts(Map.of("file:///a.js", "const answer = 42;", "file:///b.js", "answer;"));
+
+		// when
+		index.update("file:///a.js", "const question = 42;");
+		index.remove("file:///b.js");
+
+		// then
+		assertTrue(index.findReferences("answer").isEmpty());
+		assertEquals(1, index.findDefinitions("question").size());
+		assertEquals(1, index.getFileCount());
+		assertFalse(index.getFiles("question").isEmpty());
+	}
+
+	@Test
+	public void directoriesAreIndexedInParallel(@TempDir Path dir) throws Exception {
+		// given
+		for (int i = 0; i < 50; i++) {
+			Files.writeString(dir.resolve("F" + i + ".kt"), "class C" + i + "\nval shared" + " = C" + i + "()\n");
+		}
+		Files.writeString(dir.resolve("notes.txt"), "class C0");
+		Files.write(dir.resolve("Binary.kt"), new byte[]{(byte) 0xC3, (byte) 0x28});
+		WorkspaceSymbolIndex index = new WorkspaceSymbolIndex();
+
+		// when
+		List<Path> unreadable = index.indexDirectory(dir, ".kt");
+
+		// then
+		assertEquals(List.of(dir.resolve("Binary.kt")), unreadable);
+		assertEquals(50, index.getFileCount());
+		assertEquals(50, index.findDefinitions("shared").size());
+		assertEquals(2, index.findReferences("C7").size());
+
+		// and a file deleted on disk is dropped on refresh
+		Files.delete(dir.resolve("F7.kt"));
+		index.refresh(dir.resolve("F7.kt"));
+		assertTrue(index.findReferences("C7").isEmpty());
+	}
+
+	@Test
+	public void theDefinitionProviderReportsTheCurrentDocumentWithoutUri() {
+		// given
+		WorkspaceSymbolIndex index = new WorkspaceSymbolIndex();
+		Map<String, String> texts = new HashMap<>();
+		texts.put("file:///lib.js", "function helper() {}");
+		index.indexTexts(texts);
+		DefinitionProvider provider = index.definitionProvider("file:///main.js");
+
+		// when the editor text was never added to the index
+		List<Location> local = provider.provideDefinition("let local = helper();\nlocal;", new Position(2, 2), "local");
+		List<Location> remote = provider.provideDefinition("let local = helper();\nlocal;", new Position(1, 14), "helper");
+
+		// then
+		assertEquals(1, local.size());
+		assertTrue(local.get(0).isCurrentDocument());
+		assertRange(1, 5, 1, 10, local.get(0).getRange());
+		assertEquals("file:///lib.js", remote.get(0).getUri());
+	}
+
+	@Test
+	public void editsOfAnAddedDocumentAreNotReplacedByOlderRequestText() {
+		// given
+		WorkspaceSymbolIndex index = new WorkspaceSymbolIndex();
+		Document document = new Document();
+		document.setText("let count = 1;");
+		index.addDocument("file:///main.js", document);
+		ReferenceProvider provider = index.referenceProvider("file:///main.js");
+		String snapshot = document.getText();
+
+		// when the user types before the request runs
+		document.setText("let count = 1;\ncount;");
+		document.fireChanged(List.of(new ContentChange(new Range(1, 15, 1, 15), 14, 0, "\ncount;")));
+		List<Location> references = provider.provideReferences(new ProviderRequest("javascript", 1,
+				new Position(1, 6), "count", null, "", 1, snapshot, snapshot, CancellationToken.NONE), true);
+
+		// then the live entry answers and keeps following the edits
+		assertEquals(2, references.size());
+		assertRange(2, 1, 2, 6, references.get(1).getRange());
+		document.setText("let count = 1;\ncount;\ntotal;");
+		document.fireChanged(List.of(new ContentChange(new Range(2, 7, 2, 7), 21, 0, "\ntotal;")));
+		assertEquals(1, index.findReferences("total").size());
+	}
+
+	private static void assertRange(int startLine, int startColumn, int endLine, int endColumn, Range range) {
+		assertEquals(startLine, range.getStartLineNumber());
+		assertEquals(startColumn, range.getStartColumn());
+		assertEquals(endLine, range.getEndLineNumber());
+		assertEquals(endColumn, range.getEndColumn());
+	}
+}